@@ -72,7 +72,7 @@ public class AsyncComputeClient {
                 
                 // Polling options
                 System.out.println("\nWhat would you like to do?");
-                System.out.println("1. Poll for status");
+                System.out.println("1. Watch status until the job finishes");
                 System.out.println("2. List all jobs");
                 System.out.println("3. Cancel this job");
                 System.out.println("4. Exit");
@@ -84,11 +84,11 @@ public class AsyncComputeClient {
                     
                     switch (pollChoice) {
                         case 1:
-                            // Poll for status
-                            var status = api.checkJobCompletion(new BasicJobStatusRequest(jobId));
-                            System.out.println("Job Status: " + status.getStatus());
-                            System.out.println("Progress: " + status.getProgress() + "%");
-                            System.out.println("Message: " + status.getMessage());
+                            // Updates are pushed by the server as the job changes state
+                            var status = api.watchJob(new BasicJobStatusRequest(jobId), update -> {
+                                System.out.println("Job Status: " + update.getStatus()
+                                        + " (" + update.getProgress() + "%) " + update.getMessage());
+                            });
                             
                             // Get result if completed
                             if (status.getStatus() == CompletionStatus.JOB_COMPLETED) {
@@ -6,6 +6,7 @@ import project.networkapi.BasicInputRequest;
 import project.networkapi.BasicOutputRequest;
 import project.networkapi.BasicDelimiterRequest;
 import project.networkapi.DelimiterMode;
+import project.networkapi.JobResultResponse;
 
 import java.util.Scanner;
 
@@ -28,19 +29,25 @@ public class ComputeClient {
         int choice = scanner.nextInt();
         scanner.nextLine(); // consume newline
         
-        String inputSource;
-        if (choice == 1) {
-            // File upload
-            System.out.print("Enter input file path: ");
-            inputSource = scanner.nextLine();
-        } else {
-            // Manual number input
-            System.out.print("Enter numbers separated by spaces: ");
-            String numbers = scanner.nextLine();
-            // Create a temporary file with the numbers
-            inputSource = createTempFileWithNumbers(numbers);
+        if (choice != 1) {
+            // Manual number input: one round trip, results come straight back
+            int[] values = null;
+            while (values == null) {
+                System.out.print("Enter numbers separated by spaces: ");
+                values = parseNumbers(scanner.nextLine());
+            }
+            System.out.print("Enter delimiter (press Enter for default ','): ");
+            String delimiter = scanner.nextLine();
+            JobResultResponse result = api.submitComputation(values, delimiter.isEmpty() ? "," : delimiter);
+            System.out.println("Result: " + (result.getResultData() != null
+                    ? result.getResultData() : result.getMessage()));
+            return;
         }
         
+        // File upload
+        System.out.print("Enter input file path: ");
+        String inputSource = scanner.nextLine();
+        
         // Set input source
         api.setInputSource(new BasicInputRequest(inputSource));
         
@@ -72,26 +79,18 @@ public class ComputeClient {
         }
     }
     
-    private static String createTempFileWithNumbers(String numbers) {
-        try {
-            // Create a temporary file
-            java.nio.file.Path tempFile = java.nio.file.Files.createTempFile("compute_input", ".txt");
-            
-            // Split numbers by spaces and write one per line
-            String[] numberArray = numbers.split("\\s+");
-            java.util.List<String> lines = new java.util.ArrayList<>();
-            for (String number : numberArray) {
-                lines.add(number.trim());
+    // Returns null (after telling the user) if any entry is not a whole number
+    private static int[] parseNumbers(String numbers) {
+        String[] numberArray = numbers.trim().split("\\s+");
+        int[] values = new int[numberArray.length];
+        for (int i = 0; i < numberArray.length; i++) {
+            try {
+                values[i] = Integer.parseInt(numberArray[i]);
+            } catch (NumberFormatException e) {
+                System.out.println("Not a whole number: '" + numberArray[i] + "'. Please try again.");
+                return null;
             }
-            
-            // Write to temporary file
-            java.nio.file.Files.write(tempFile, lines);
-            return tempFile.toString();
-            
-        } catch (Exception e) {
-            System.err.println("Error creating temporary file: " + e.getMessage());
-            // Fallback - use a default file name
-            return "manual_input.txt";
         }
+        return values;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,12 @@
+package grpc;
+
+/**
+ * How a GrpcUserComputeAPI with several compute servers chooses the server
+ * for new work
+ */
+public enum BalancingPolicy {
+	/** Each server in turn */
+	ROUND_ROBIN,
+	/** The server with the fewest calls outstanding from this client */
+	LEAST_OUTSTANDING
+}
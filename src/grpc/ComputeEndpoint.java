@@ -0,0 +1,55 @@
+package grpc;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import proto.ComputeServiceGrpc;
+
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+
+/**
+ * One compute server a GrpcUserComputeAPI can send calls to, with a count
+ * of the calls currently outstanding on it
+ */
+final class ComputeEndpoint {
+	final String address;
+	final ManagedChannel channel;
+	final ComputeServiceGrpc.ComputeServiceBlockingStub blockingStub;
+	final ComputeServiceGrpc.ComputeServiceStub asyncStub;
+	final AtomicInteger outstanding = new AtomicInteger();
+
+	/** @param address "host:port" */
+	ComputeEndpoint(String address) {
+		int colon = address.lastIndexOf(':');
+		if (colon <= 0 || colon == address.length() - 1) {
+			throw new IllegalArgumentException("Compute endpoint must be host:port, got: " + address);
+		}
+		int port;
+		try {
+			port = Integer.parseInt(address.substring(colon + 1));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid port in compute endpoint: " + address);
+		}
+		this.address = address;
+		this.channel = ManagedChannelBuilder.forAddress(address.substring(0, colon), port)
+				.usePlaintext()
+				.build();
+		this.blockingStub = ComputeServiceGrpc.newBlockingStub(channel);
+		this.asyncStub = ComputeServiceGrpc.newStub(channel);
+	}
+
+	void shutdown() throws InterruptedException {
+		channel.shutdown().awaitTermination(5, TimeUnit.SECONDS);
+	}
+
+	/** Close the channel without waiting, e.g. for one that was never used */
+	void shutdownNow() {
+		channel.shutdownNow();
+	}
+
+	@Override
+	public String toString() {
+		return address + " (" + outstanding.get() + " outstanding)";
+	}
+}
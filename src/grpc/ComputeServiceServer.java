@@ -13,19 +13,43 @@ import project.networkapi.BasicJobStatusRequest;
 import project.networkapi.BasicOutputRequest;
 import project.networkapi.DelimiterMode;
 import project.conceptualapi.EmptyComputeEngineAPI;
+import project.datastoreapi.DataFormat;
 import project.networkapi.AsyncUserComputeAPI;
+import project.networkapi.BasicJobResultResponse;
+import project.networkapi.CompletionStatus;
+import project.networkapi.ComputeStreamSession;
+import project.networkapi.JobListener;
+import project.networkapi.JobResultPage;
+import project.networkapi.PackedResultCodec;
 import proto.AsyncStartRequest;
 import proto.AsyncJobResponse;
+import proto.ComputeStreamRequest;
+import proto.ComputeStreamResult;
+import proto.InlineComputeRequest;
+import proto.SubmitJobsRequest;
+import proto.SubmitJobsResponse;
+import proto.JobResultChunk;
 import proto.JobResultResponse;
+import proto.JobResultStreamRequest;
 import proto.JobListResponse;
 import proto.ListJobsRequest;
 import proto.JobSummary;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.protobuf.ByteString;
+
 import io.grpc.Server;
-import io.grpc.ServerBuilder;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 
 public class ComputeServiceServer extends ComputeServiceGrpc.ComputeServiceImplBase {
+	// Values a ComputeStream client may send ahead of their results
+	private static final int DEFAULT_STREAM_IN_FLIGHT = 64;
+	private static final int MAX_STREAM_IN_FLIGHT = 1024;
+
 	private final AsyncUserComputeAPI userComputeAPI;
 
 	public ComputeServiceServer(AsyncUserComputeAPI userComputeAPI) {
@@ -152,6 +176,37 @@ public class ComputeServiceServer extends ComputeServiceGrpc.ComputeServiceImplB
         }
     }
 
+    /** Admit a whole batch of jobs with one call into the compute API */
+    @Override
+    public void submitJobs(SubmitJobsRequest request, StreamObserver<SubmitJobsResponse> responseObserver) {
+        try {
+            List<project.networkapi.JobSpec> specs = new ArrayList<>(request.getJobsCount());
+            for (proto.JobSpec job : request.getJobsList()) {
+                specs.add(new project.networkapi.JobSpec(
+                        job.getInputSource(),
+                        job.getOutputDestination(),
+                        job.getDelimiters().isEmpty() ? null : job.getDelimiters(),
+                        job.getInputFormat().isEmpty() ? null : DataFormat.valueOf(job.getInputFormat()),
+                        job.getOutputFormat().isEmpty() ? null : DataFormat.valueOf(job.getOutputFormat())));
+            }
+
+            SubmitJobsResponse.Builder grpcResponse = SubmitJobsResponse.newBuilder();
+            for (project.networkapi.AsyncJobResponse javaResponse : userComputeAPI.submitJobs(specs)) {
+                grpcResponse.addJobs(AsyncJobResponse.newBuilder()
+                        .setJobId(javaResponse.getJobId())
+                        .setMessage(javaResponse.getMessage())
+                        .setStatus(javaResponse.getStatus().toString()));
+            }
+
+            responseObserver.onNext(grpcResponse.build());
+            responseObserver.onCompleted();
+        } catch (IllegalArgumentException e) {
+            responseObserver.onError(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+        } catch (Exception e) {
+            responseObserver.onError(e);
+        }
+    }
+
     // NEW: Get job result
     @Override
     public void getJobResult(proto.JobStatusRequest request,
@@ -160,19 +215,55 @@ public class ComputeServiceServer extends ComputeServiceGrpc.ComputeServiceImplB
             project.networkapi.JobStatusRequest javaRequest = new BasicJobStatusRequest(request.getJobIdentifier());
             project.networkapi.JobResultResponse javaResponse = userComputeAPI.getJobResult(javaRequest);
             
-            JobResultResponse grpcResponse = JobResultResponse.newBuilder()
-                    .setResultData(javaResponse.getResultData() != null ? javaResponse.getResultData() : "")
-                    .setMessage(javaResponse.getMessage())
-                    .setStatus(javaResponse.getStatus().toString())
-                    .build();
-            
-            responseObserver.onNext(grpcResponse);
+            responseObserver.onNext(toProto(javaResponse));
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            responseObserver.onError(e);
+        }
+    }
+
+    /** Compute inline values in one call; the input never touches the data store */
+    @Override
+    public void submitComputation(InlineComputeRequest request,
+            StreamObserver<JobResultResponse> responseObserver) {
+        try {
+            int[] inputs = PackedResultCodec.unpackInputs(request.getPackedInputs().asReadOnlyByteBuffer());
+            String delimiter = request.getDelimiter().isEmpty() ? null : request.getDelimiter();
+            responseObserver.onNext(toProto(userComputeAPI.computeInline(inputs, delimiter)));
             responseObserver.onCompleted();
         } catch (Exception e) {
             responseObserver.onError(e);
         }
     }
 
+    private static JobResultResponse toProto(project.networkapi.JobResultResponse javaResponse) {
+        JobResultResponse.Builder grpcResponse = JobResultResponse.newBuilder()
+                .setMessage(javaResponse.getMessage())
+                .setStatus(javaResponse.getStatus().toString());
+        if (javaResponse instanceof BasicJobResultResponse
+                && ((BasicJobResultResponse) javaResponse).hasEntries()) {
+            // Send the entries packed; the delimited text is never built on the server
+            BasicJobResultResponse entries = (BasicJobResultResponse) javaResponse;
+            grpcResponse.setPackedInputs(ByteString.copyFrom(PackedResultCodec.packInputs(entries.getInputs())))
+                    .setPackedResults(ByteString.copyFrom(PackedResultCodec.packResults(entries.getResults())))
+                    .setDelimiter(entries.getDelimiter() != null ? entries.getDelimiter() : "")
+                    .setEntryCount(entries.getResults().length);
+        } else {
+            grpcResponse.setResultData(javaResponse.getResultData() != null ? javaResponse.getResultData() : "");
+        }
+        return grpcResponse.build();
+    }
+
+    /**
+     * Stream a job result one page per chunk, fetching the next page only
+     * when the transport is ready for it
+     */
+    @Override
+    public void getJobResultStream(JobResultStreamRequest request,
+            StreamObserver<JobResultChunk> responseObserver) {
+        new ResultPageSender((ServerCallStreamObserver<JobResultChunk>) responseObserver, request).start();
+    }
+
     // NEW: Cancel job
     @Override
     public void cancelJob(proto.JobStatusRequest request,
@@ -227,34 +318,262 @@ public class ComputeServiceServer extends ComputeServiceGrpc.ComputeServiceImplB
         }
     }
 
+    /**
+     * Compute a continuous flow of values. Inbound flow control is manual:
+     * the server asks for one more value each time a result has been sent
+     * and the client is reading, so a slow consumer slows the producer
+     * instead of filling the worker queue.
+     */
+    @Override
+    public StreamObserver<ComputeStreamRequest> computeStream(StreamObserver<ComputeStreamResult> responseObserver) {
+        return new ComputeStreamHandler((ServerCallStreamObserver<ComputeStreamResult>) responseObserver);
+    }
+
+    /** Receives the values of one ComputeStream call and sends back their results */
+    private final class ComputeStreamHandler implements StreamObserver<ComputeStreamRequest>,
+            ComputeStreamSession.ResultListener {
+        private final ServerCallStreamObserver<ComputeStreamResult> observer;
+        private volatile ComputeStreamSession session;
+        // Values we may ask for once the client is ready to receive again
+        private int owedRequests;
+        private boolean done;
+
+        ComputeStreamHandler(ServerCallStreamObserver<ComputeStreamResult> observer) {
+            this.observer = observer;
+            observer.disableAutoRequest();
+            observer.setOnReadyHandler(this::grantRequests);
+            observer.setOnCancelHandler(this::cancel);
+            observer.request(1); // The open message
+        }
+
+        @Override
+        public void onNext(ComputeStreamRequest request) {
+            if (request.hasOpen()) {
+                if (session != null) {
+                    fail(Status.INVALID_ARGUMENT.withDescription("Compute stream is already open"));
+                    return;
+                }
+                int window = request.getOpen().getMaxInFlight() > 0
+                        ? Math.min(request.getOpen().getMaxInFlight(), MAX_STREAM_IN_FLIGHT)
+                        : DEFAULT_STREAM_IN_FLIGHT;
+                session = userComputeAPI.openComputeStream(request.getOpen().getOrdered(), this);
+                observer.request(window);
+            } else if (request.hasValue()) {
+                if (session == null) {
+                    fail(Status.INVALID_ARGUMENT.withDescription("Compute stream must be opened first"));
+                    return;
+                }
+                if (!isDone()) {
+                    session.submit(request.getValue().getSequence(), request.getValue().getValue());
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            cancel();
+        }
+
+        @Override
+        public void onCompleted() {
+            if (session == null) {
+                onComplete();
+            } else {
+                session.finish();
+            }
+        }
+
+        @Override
+        public synchronized void onResult(long sequence, int value, String result) {
+            if (done) {
+                return;
+            }
+            observer.onNext(ComputeStreamResult.newBuilder()
+                    .setSequence(sequence)
+                    .setValue(value)
+                    .setResult(result)
+                    .build());
+            owedRequests++;
+            grantRequests();
+        }
+
+        @Override
+        public synchronized void onComplete() {
+            if (!done) {
+                done = true;
+                observer.onCompleted();
+            }
+        }
+
+        private synchronized void grantRequests() {
+            while (!done && owedRequests > 0 && observer.isReady()) {
+                owedRequests--;
+                observer.request(1);
+            }
+        }
+
+        private synchronized boolean isDone() {
+            return done;
+        }
+
+        // The session is cancelled outside this lock: it calls onResult while holding its own
+        private void fail(Status status) {
+            synchronized (this) {
+                if (!done) {
+                    done = true;
+                    observer.onError(status.asRuntimeException());
+                }
+            }
+            cancelSession();
+        }
+
+        private void cancel() {
+            synchronized (this) {
+                done = true;
+            }
+            cancelSession();
+        }
+
+        private void cancelSession() {
+            ComputeStreamSession current = session;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+    }
+
+    /** Sends the pages of one GetJobResultStream call as flow control allows */
+    private final class ResultPageSender implements Runnable {
+        private final ServerCallStreamObserver<JobResultChunk> observer;
+        private final project.networkapi.JobStatusRequest jobRequest;
+        private final int maxEntries;
+        private String token;
+        private boolean done;
+
+        ResultPageSender(ServerCallStreamObserver<JobResultChunk> observer, JobResultStreamRequest request) {
+            this.observer = observer;
+            this.jobRequest = new BasicJobStatusRequest(request.getJobIdentifier());
+            this.maxEntries = request.getMaxEntriesPerChunk();
+            this.token = request.getResumeToken();
+        }
+
+        void start() {
+            observer.setOnCancelHandler(this::cancel);
+            observer.setOnReadyHandler(this);
+            run();
+        }
+
+        private synchronized void cancel() {
+            done = true;
+        }
+
+        @Override
+        public synchronized void run() {
+            try {
+                while (!done && observer.isReady()) {
+                    JobResultPage page = userComputeAPI.getJobResultPage(jobRequest, token, maxEntries);
+                    observer.onNext(toChunk(page));
+                    token = page.getNextToken();
+                    if (page.getStatus() != project.networkapi.RequestStatus.ACCEPTED || page.isLast()) {
+                        done = true;
+                        observer.onCompleted();
+                    }
+                }
+            } catch (Exception e) {
+                done = true;
+                observer.onError(e);
+            }
+        }
+
+        private JobResultChunk toChunk(JobResultPage page) {
+            JobResultChunk.Builder chunk = JobResultChunk.newBuilder()
+                    .setStatus(page.getStatus().toString())
+                    .setMessage(page.getMessage())
+                    .setTotal(page.getTotal())
+                    .setResumeToken(page.getNextToken() != null ? page.getNextToken() : "");
+            if (page.hasEntries()) {
+                chunk.setPackedInputs(ByteString.copyFrom(PackedResultCodec.packInputs(page.getInputs())))
+                        .setPackedResults(ByteString.copyFrom(PackedResultCodec.packResults(page.getResults())))
+                        .setEntryCount(page.getResults().length)
+                        .setDelimiter(page.getDelimiter() != null ? page.getDelimiter() : "");
+            } else if (page.getText() != null) {
+                chunk.setText(ByteString.copyFrom(page.getText()));
+            }
+            return chunk.build();
+        }
+    }
+
+    /**
+     * Push a job's state changes as they happen. The stream ends when the
+     * job reaches a final state, or straight away with JOB_NOT_FOUND.
+     */
+    @Override
+    public void watchJob(proto.JobStatusRequest request, StreamObserver<JobSummary> responseObserver) {
+        ServerCallStreamObserver<JobSummary> observer = (ServerCallStreamObserver<JobSummary>) responseObserver;
+        String jobId = request.getJobIdentifier().trim();
+        JobListener listener = new JobListener() {
+            @Override
+            public void onJobUpdate(project.networkapi.JobSummary update) {
+                if (observer.isCancelled()) {
+                    return;
+                }
+                observer.onNext(toProto(update));
+                if (update.getStatus() == CompletionStatus.JOB_COMPLETED
+                        || update.getStatus() == CompletionStatus.JOB_FAILED
+                        || update.getStatus() == CompletionStatus.JOB_CANCELLED) {
+                    observer.onCompleted();
+                }
+            }
+        };
+        observer.setOnCancelHandler(() -> userComputeAPI.unwatchJob(jobId, listener));
+
+        if (!userComputeAPI.watchJob(new BasicJobStatusRequest(jobId), listener)) {
+            observer.onNext(JobSummary.newBuilder()
+                    .setJobId(jobId)
+                    .setStatus(CompletionStatus.JOB_NOT_FOUND.toString())
+                    .setMessage("Job not found: " + jobId)
+                    .build());
+            observer.onCompleted();
+        }
+    }
+
+    private static JobSummary toProto(project.networkapi.JobSummary summary) {
+        return JobSummary.newBuilder()
+                .setJobId(summary.getJobId())
+                .setStatus(summary.getStatus().toString())
+                .setProgress(summary.getProgress())
+                .setOutputDestination(summary.getOutputDestination() != null ? summary.getOutputDestination() : "")
+                .setMessage(summary.getMessage() != null ? summary.getMessage() : "")
+                .build();
+    }
+
     public static void main(String[] args) throws Exception {
+        // e.g. -Dcompute.server.config=compute.properties or -Dcompute.server.executor=virtual
+        ServerConfig config = ServerConfig.load("compute.server.", 50051);
+
         // Create existing components
         EmptyComputeEngineAPI computeEngine = new EmptyComputeEngineAPI();
-        GrpcDataStoreAPI dataStore = new GrpcDataStoreAPI("localhost", 50052);
-        
-        try {
+
+        // Closing the connection shuts down the data store channel and any in-process service
+        try (DataStoreConnection dataStore = DataStoreConnection.open(config)) {
             // Use AsyncUserComputeAPI instead of EmptyUserComputeAPI
-            AsyncUserComputeAPI userComputeAPI = new AsyncUserComputeAPI(computeEngine, dataStore);
+            AsyncUserComputeAPI userComputeAPI = new AsyncUserComputeAPI(computeEngine, dataStore.getDataStore());
             
-            int port = 50051;
-            Server server = ServerBuilder.forPort(port)
-                    .addService(new ComputeServiceServer(userComputeAPI))
-                    .build()
-                    .start();
+            Server server = config.build(new ComputeServiceServer(userComputeAPI)).start();
             
-            System.out.println("Compute Service Server started on port " + port);
+            System.out.println("Compute Service Server started (" + config + ", data store "
+                    + config.getDataStoreMode().name().toLowerCase() + ")");
             
             // Add shutdown hook
             Runtime.getRuntime().addShutdownHook(new Thread(() -> {
                 System.out.println("Shutting down async user compute API...");
+                server.shutdown();
                 userComputeAPI.shutdown();
+                config.shutdown();
             }));
             
             server.awaitTermination();
-        } finally {
-            // Always shut down the dataStore connection
-            dataStore.shutdown();
         }
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,102 @@
+package grpc;
+
+import java.util.concurrent.CompletableFuture;
+
+import project.networkapi.ComputeStreamSession;
+import proto.ComputeStreamOpen;
+import proto.ComputeStreamRequest;
+import proto.ComputeStreamResult;
+import proto.ComputeStreamValue;
+
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+
+/**
+ * Client end of a ComputeStream call. send() blocks while the transport is
+ * not ready, so a producer is held back when the server stops asking for
+ * values (it asks for more only as results are delivered).
+ */
+public class ComputeStreamCall implements ClientResponseObserver<ComputeStreamRequest, ComputeStreamResult> {
+	private final ComputeStreamOpen open;
+	private final ComputeStreamSession.ResultListener listener;
+	private final CompletableFuture<Void> done = new CompletableFuture<>();
+	private ClientCallStreamObserver<ComputeStreamRequest> requestStream;
+	private volatile Throwable failure;
+	private boolean finished;
+
+	ComputeStreamCall(boolean ordered, int maxInFlight, ComputeStreamSession.ResultListener listener) {
+		this.open = ComputeStreamOpen.newBuilder()
+				.setOrdered(ordered)
+				.setMaxInFlight(maxInFlight)
+				.build();
+		this.listener = listener;
+	}
+
+	@Override
+	public void beforeStart(ClientCallStreamObserver<ComputeStreamRequest> requestStream) {
+		this.requestStream = requestStream;
+		requestStream.setOnReadyHandler(this::signalReady);
+	}
+
+	void start() {
+		synchronized (this) {
+			requestStream.onNext(ComputeStreamRequest.newBuilder().setOpen(open).build());
+		}
+	}
+
+	/** Send one value, waiting until the stream can take it */
+	public synchronized void send(long sequence, int value) throws InterruptedException {
+		if (finished) {
+			throw new IllegalStateException("Compute stream is already finished");
+		}
+		while (!requestStream.isReady() && !done.isDone()) {
+			wait();
+		}
+		if (done.isDone()) {
+			throw new IllegalStateException("Compute stream has ended", failure);
+		}
+		requestStream.onNext(ComputeStreamRequest.newBuilder()
+				.setValue(ComputeStreamValue.newBuilder().setSequence(sequence).setValue(value))
+				.build());
+	}
+
+	/** No more values; the listener's onComplete follows the last result */
+	public synchronized void finish() {
+		if (!finished) {
+			finished = true;
+			requestStream.onCompleted();
+		}
+	}
+
+	public void cancel() {
+		requestStream.cancel("Compute stream cancelled by client", null);
+	}
+
+	/** Completes after the last result, or exceptionally if the call fails */
+	public CompletableFuture<Void> getCompletion() {
+		return done;
+	}
+
+	private synchronized void signalReady() {
+		notifyAll();
+	}
+
+	@Override
+	public void onNext(ComputeStreamResult result) {
+		listener.onResult(result.getSequence(), result.getValue(), result.getResult());
+	}
+
+	@Override
+	public void onError(Throwable t) {
+		failure = t;
+		done.completeExceptionally(t);
+		signalReady();
+	}
+
+	@Override
+	public void onCompleted() {
+		listener.onComplete();
+		done.complete(null);
+		signalReady();
+	}
+}
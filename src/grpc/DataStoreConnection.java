@@ -0,0 +1,94 @@
+package grpc;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import project.datastoreapi.DataStoreAPI;
+import project.datastoreapi.EmptyDataStoreAPI;
+
+/**
+ * The data store a compute server uses, reached as its ServerConfig says:
+ * a separate DataStoreServer over the network ("remote"), the same service
+ * run in this JVM behind an in-process channel ("inprocess"), or an
+ * EmptyDataStoreAPI called directly ("direct"). close() releases whatever
+ * open() created.
+ */
+public final class DataStoreConnection implements AutoCloseable {
+
+    private final DataStoreAPI dataStore;
+    // Set for "inprocess" and "direct"
+    private final EmptyDataStoreAPI localStore;
+    // Set for "inprocess"
+    private final Server inProcessServer;
+    private final ExecutorService executor;
+
+    private DataStoreConnection(DataStoreAPI dataStore, EmptyDataStoreAPI localStore, Server inProcessServer,
+            ExecutorService executor) {
+        this.dataStore = dataStore;
+        this.localStore = localStore;
+        this.inProcessServer = inProcessServer;
+        this.executor = executor;
+    }
+
+    public static DataStoreConnection open(ServerConfig config) throws IOException {
+        switch (config.getDataStoreMode()) {
+            case INPROCESS: {
+                // Same service as DataStoreServer, reached without sockets or HTTP/2 framing
+                EmptyDataStoreAPI localStore = new EmptyDataStoreAPI();
+                String name = InProcessServerBuilder.generateName();
+                ExecutorService executor = config.newDataStoreExecutor();
+                Server server;
+                try {
+                    server = InProcessServerBuilder.forName(name)
+                        .executor(executor)
+                        .addService(new DataStoreServer(localStore))
+                        .build()
+                        .start();
+                } catch (IOException | RuntimeException e) {
+                    executor.shutdown();
+                    throw e;
+                }
+                DataStoreAPI dataStore = new GrpcDataStoreAPI(
+                    InProcessChannelBuilder.forName(name).directExecutor().build(), config.getDataStoreMaxInFlight());
+                return new DataStoreConnection(dataStore, localStore, server, executor);
+            }
+            case DIRECT: {
+                EmptyDataStoreAPI localStore = new EmptyDataStoreAPI();
+                return new DataStoreConnection(localStore, localStore, null, null);
+            }
+            default:
+                return new DataStoreConnection(new GrpcDataStoreAPI(config.getDataStoreHost(),
+                    config.getDataStorePort(), config.getDataStoreMaxInFlight()), null, null, null);
+        }
+    }
+
+    public DataStoreAPI getDataStore() {
+        return dataStore;
+    }
+
+    /** The EmptyDataStoreAPI held in this JVM, or null for a remote data store */
+    public EmptyDataStoreAPI getLocalStore() {
+        return localStore;
+    }
+
+    /** Close the channel, stop an in-process service and drain its write-behind writes */
+    @Override
+    public void close() throws InterruptedException {
+        if (dataStore instanceof GrpcDataStoreAPI) {
+            ((GrpcDataStoreAPI) dataStore).shutdown();
+        }
+        if (inProcessServer != null) {
+            inProcessServer.shutdown().awaitTermination(5, TimeUnit.SECONDS);
+        }
+        if (executor != null) {
+            executor.shutdown();
+        }
+        if (localStore != null) {
+            localStore.shutdown();
+        }
+    }
+}
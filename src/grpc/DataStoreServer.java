@@ -1,12 +1,15 @@
 package grpc;
 
+import proto.DataReadChunk;
 import proto.DataReadRequest;
 import proto.DataReadResponse;
+import proto.DataWriteChunk;
 import proto.DataWriteRequest;
 import proto.DataWriteResponse;
 import proto.DataStreamRequest;
 import proto.DataStreamResponse;
 import proto.DataStoreServiceGrpc;
+import project.datastoreapi.AsyncDataStoreAPI;
 import project.datastoreapi.EmptyDataStoreAPI;
 import project.datastoreapi.DataStoreAPI;
 import project.datastoreapi.BasicDataReadRequest;
@@ -17,15 +20,34 @@ import project.datastoreapi.RequestStatus;
 import project.datastoreapi.BasicDataReadResponse;
 import project.datastoreapi.BasicDataWriteResponse;
 import project.datastoreapi.BasicDataStreamResponse;
+import project.datastoreapi.StreamingRead;
+import project.datastoreapi.StreamingWrite;
+import project.datastoreapi.VarintDeltaCodec;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 
 import io.grpc.Server;
-import io.grpc.ServerBuilder;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
 
 public class DataStoreServer extends DataStoreServiceGrpc.DataStoreServiceImplBase {
+    // Integers per ReadDataStream chunk: 256 KB of packed ints, far below gRPC's 4 MB message limit
+    static final int READ_CHUNK_VALUES = 64 * 1024;
+    static final int READ_CHUNK_BYTES = READ_CHUNK_VALUES * Integer.BYTES;
+
+    // Largest write stream gathered in memory for a store that cannot stream to disk
+    static final int MAX_BUFFERED_WRITE_BYTES = 64 * 1024 * 1024;
+
     private final DataStoreAPI dataStore;
 
     public DataStoreServer(DataStoreAPI dataStore) {
@@ -36,41 +58,91 @@ public class DataStoreServer extends DataStoreServiceGrpc.DataStoreServiceImplBa
     public void readData(DataReadRequest request, StreamObserver<DataReadResponse> responseObserver) {
         try {
             project.datastoreapi.DataReadRequest javaRequest = 
-                new BasicDataReadRequest(request.getSource(), DataFormat.valueOf(request.getFormat()));
+                new BasicDataReadRequest(request.getSource(), DataFormat.valueOf(request.getFormat()),
+                    request.getDelimiters());
             project.datastoreapi.DataReadResponse javaResponse = dataStore.readData(javaRequest);
             
-            DataReadResponse grpcResponse = DataReadResponse.newBuilder()
+            DataReadResponse.Builder grpcResponse = DataReadResponse.newBuilder()
                 .setStatus(javaResponse.getStatus().toString())
                 .setMessage(javaResponse.getMessage())
-                .addAllData(javaArraysToList(javaResponse.getData()))
-                .build();
+                .setSorted(javaResponse.isSorted());
+            if (javaRequest.getFormat() == DataFormat.VARINT_DELTA) {
+                // Send the compact encoding instead of four-plus bytes per repeated int
+                grpcResponse.setPackedData(ByteString.copyFrom(VarintDeltaCodec.encode(javaResponse.getData())));
+            } else {
+                for (int value : javaResponse.getData()) {
+                    grpcResponse.addData(value);
+                }
+            }
             
-            responseObserver.onNext(grpcResponse);
+            responseObserver.onNext(grpcResponse.build());
             responseObserver.onCompleted();
         } catch (Exception e) {
             responseObserver.onError(e);
         }
     }
 
+    /**
+     * Stream a read back in fixed-size chunks. Chunks are sent only while the
+     * transport is ready, so a slow client holds the server back instead of
+     * the whole input being queued in memory. With an EmptyDataStoreAPI each
+     * chunk is read from the input file as it is sent; other data stores
+     * read the whole input through readData first.
+     */
+    @Override
+    public void readDataStream(DataReadRequest request, StreamObserver<DataReadChunk> responseObserver) {
+        StreamingRead read;
+        try {
+            DataFormat format = DataFormat.valueOf(request.getFormat());
+            project.datastoreapi.DataReadRequest javaRequest =
+                new BasicDataReadRequest(request.getSource(), format, request.getDelimiters());
+            read = dataStore instanceof EmptyDataStoreAPI
+                ? ((EmptyDataStoreAPI) dataStore).openStreamingRead(javaRequest)
+                : StreamingRead.of(dataStore.readData(javaRequest), format == DataFormat.VARINT_DELTA);
+        } catch (Exception e) {
+            responseObserver.onError(e);
+            return;
+        }
+        new ReadChunkSender((ServerCallStreamObserver<DataReadChunk>) responseObserver, read).start();
+    }
+
     @Override
     public void writeData(DataWriteRequest request, StreamObserver<DataWriteResponse> responseObserver) {
         try {
             project.datastoreapi.DataWriteRequest javaRequest = 
-                new BasicDataWriteRequest(request.getDestination(), DataFormat.TEXT, request.getData());
-            project.datastoreapi.DataWriteResponse javaResponse = dataStore.writeData(javaRequest);
-            
-            DataWriteResponse grpcResponse = DataWriteResponse.newBuilder()
-                .setStatus(javaResponse.getStatus().toString())
-                .setMessage(javaResponse.getMessage())
-                .build();
-            
-            responseObserver.onNext(grpcResponse);
-            responseObserver.onCompleted();
+                new BasicDataWriteRequest(request.getDestination(), 
+                    request.getFormat().isEmpty() ? DataFormat.TEXT : DataFormat.valueOf(request.getFormat()), 
+                    request.getData());
+            // A write-behind store answers once the data is on disk, without holding this thread
+            CompletableFuture<project.datastoreapi.DataWriteResponse> written = dataStore instanceof AsyncDataStoreAPI
+                ? ((AsyncDataStoreAPI) dataStore).writeDataAsync(javaRequest)
+                : CompletableFuture.completedFuture(dataStore.writeData(javaRequest));
+            written.whenComplete((javaResponse, error) -> {
+                if (error != null) {
+                    responseObserver.onError(error);
+                    return;
+                }
+                responseObserver.onNext(DataWriteResponse.newBuilder()
+                    .setStatus(javaResponse.getStatus().toString())
+                    .setMessage(javaResponse.getMessage())
+                    .build());
+                responseObserver.onCompleted();
+            });
         } catch (Exception e) {
             responseObserver.onError(e);
         }
     }
 
+    /**
+     * Receive a streamed write. With an EmptyDataStoreAPI each chunk is
+     * written to disk as it arrives; other data stores get one writeData call
+     * once the commit checks out.
+     */
+    @Override
+    public StreamObserver<DataWriteChunk> writeDataStream(StreamObserver<DataWriteResponse> responseObserver) {
+        return new WriteChunkReceiver(responseObserver);
+    }
+
     @Override
     public void configureStream(DataStreamRequest request, StreamObserver<DataStreamResponse> responseObserver) {
         try {
@@ -89,7 +161,9 @@ public class DataStoreServer extends DataStoreServiceGrpc.DataStoreServiceImplBa
                     
                     @Override
                     public DataFormat getDataFormat() {
-                        return DataFormat.valueOf(request.getDataFormat());
+                        return request.getDataFormat().isEmpty()
+                                ? DataFormat.TEXT
+                                : DataFormat.valueOf(request.getDataFormat());
                     }
                 };
             
@@ -108,28 +182,210 @@ public class DataStoreServer extends DataStoreServiceGrpc.DataStoreServiceImplBa
             responseObserver.onError(e);
         }
     }
-    private List<Integer> javaArraysToList(int[] data) {
-        List<Integer> list = new ArrayList<>();
-        for (int value : data) {
-            list.add(value);
+    /** Applies the open, data and commit messages of one WriteDataStream call */
+    private final class WriteChunkReceiver implements StreamObserver<DataWriteChunk> {
+        private final StreamObserver<DataWriteResponse> responseObserver;
+        private String destination;
+        private DataFormat format;
+        // Exactly one of these is set once the stream is open. EmptyDataStoreAPI
+        // streams to disk in constant memory; other stores only take whole
+        // payloads through writeData, so theirs is gathered up to a limit.
+        private StreamingWrite write;
+        private ByteArrayOutputStream buffered;
+        private boolean done;
+
+        WriteChunkReceiver(StreamObserver<DataWriteResponse> responseObserver) {
+            this.responseObserver = responseObserver;
+        }
+
+        @Override
+        public void onNext(DataWriteChunk chunk) {
+            if (done) {
+                return;
+            }
+            try {
+                switch (chunk.getKindCase()) {
+                    case OPEN:
+                        if (destination != null) {
+                            reject("Write stream was opened twice");
+                            return;
+                        }
+                        destination = chunk.getOpen().getDestination();
+                        format = chunk.getOpen().getFormat().isEmpty()
+                            ? DataFormat.TEXT
+                            : DataFormat.valueOf(chunk.getOpen().getFormat());
+                        if (dataStore instanceof EmptyDataStoreAPI) {
+                            write = ((EmptyDataStoreAPI) dataStore).openStreamingWrite(destination, format);
+                        } else {
+                            buffered = new ByteArrayOutputStream();
+                        }
+                        break;
+                    case DATA:
+                        if (destination == null) {
+                            reject("Write stream must be opened before data is sent");
+                        } else if (write != null) {
+                            write.write(chunk.getData().toByteArray());
+                        } else if (buffered.size() + (long) chunk.getData().size() > MAX_BUFFERED_WRITE_BYTES) {
+                            reject("Write stream exceeds " + MAX_BUFFERED_WRITE_BYTES
+                                + " bytes, the most this data store accepts in one write");
+                        } else {
+                            chunk.getData().writeTo(buffered);
+                        }
+                        break;
+                    case COMMIT:
+                        if (destination == null) {
+                            reject("Write stream must be opened before it is committed");
+                        } else {
+                            finish(commit(chunk.getCommit().getTotalBytes(), chunk.getCommit().getCrc32()));
+                        }
+                        break;
+                    default:
+                        reject("Empty write stream message");
+                        break;
+                }
+            } catch (IOException e) {
+                reject("Error writing file: " + e.getMessage());
+            } catch (IllegalArgumentException e) {
+                reject(e.getMessage());
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            // Client went away: discard the partial output
+            done = true;
+            if (write != null) {
+                write.close();
+            }
+        }
+
+        @Override
+        public void onCompleted() {
+            if (!done) {
+                reject("Write stream ended without a commit");
+            }
+        }
+
+        private project.datastoreapi.DataWriteResponse commit(long totalBytes, int crc32) {
+            if (write != null) {
+                return write.commit(totalBytes, crc32);
+            }
+            byte[] data = buffered.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(data);
+            if (data.length != totalBytes || (int) crc.getValue() != crc32) {
+                return new BasicDataWriteResponse(RequestStatus.REJECTED,
+                    "Checksum mismatch for " + destination + ": received " + data.length + " bytes");
+            }
+            return dataStore.writeData(
+                new BasicDataWriteRequest(destination, format, new String(data, StandardCharsets.UTF_8)));
+        }
+
+        private void reject(String message) {
+            if (write != null) {
+                write.close();
+            }
+            finish(new BasicDataWriteResponse(RequestStatus.REJECTED, message));
+        }
+
+        private void finish(project.datastoreapi.DataWriteResponse javaResponse) {
+            done = true;
+            responseObserver.onNext(DataWriteResponse.newBuilder()
+                .setStatus(javaResponse.getStatus().toString())
+                .setMessage(javaResponse.getMessage())
+                .build());
+            responseObserver.onCompleted();
+        }
+    }
+
+    /** Sends one streaming read as DataReadChunks, driven by the call's readiness */
+    private static final class ReadChunkSender implements Runnable {
+        private final ServerCallStreamObserver<DataReadChunk> observer;
+        private final StreamingRead read;
+        private boolean headerSent;
+        private boolean done;
+
+        ReadChunkSender(ServerCallStreamObserver<DataReadChunk> observer, StreamingRead read) {
+            this.observer = observer;
+            this.read = read;
+        }
+
+        void start() {
+            observer.setOnCancelHandler(this::cancel);
+            observer.setOnReadyHandler(this);
+            run();
+        }
+
+        private synchronized void cancel() {
+            done = true;
+            read.close();
+        }
+
+        @Override
+        public synchronized void run() {
+            try {
+                while (!done && observer.isReady()) {
+                    ByteBuffer payload = ByteBuffer.allocate(READ_CHUNK_BYTES);
+                    int length = read.read(payload);
+                    if (length < 0 && headerSent) {
+                        done = true;
+                        read.close();
+                        observer.onCompleted();
+                        return;
+                    }
+                    DataReadChunk.Builder chunk = DataReadChunk.newBuilder();
+                    if (!headerSent) {
+                        chunk.setStatus(read.getStatus().toString())
+                            .setMessage(read.getMessage())
+                            .setSorted(read.isSorted())
+                            .setTotalCount(read.getTotalCount());
+                        headerSent = true;
+                    }
+                    if (length > 0) {
+                        // A fresh buffer per chunk, so it can be handed over without a copy
+                        ByteString bytes = UnsafeByteOperations.unsafeWrap(payload.array(), 0, length);
+                        if (read.isEncoded()) {
+                            chunk.setRaw(bytes);
+                        } else {
+                            chunk.setPackedInts(bytes);
+                        }
+                    }
+                    observer.onNext(chunk.build());
+                }
+            } catch (IOException e) {
+                done = true;
+                read.close();
+                observer.onError(Status.DATA_LOSS.withDescription(e.getMessage()).asRuntimeException());
+            }
         }
-        return list;
     }
 
     public static void main(String[] args) throws Exception {
         DataStoreAPI dataStore = new EmptyDataStoreAPI();
         
-        int port = 50052;
-        Server server = ServerBuilder.forPort(port)
-            .addService(new DataStoreServer(dataStore))
-            .build()
-            .start();
+        // e.g. -Ddatastore.server.config=datastore.properties or -Ddatastore.server.executor=bounded
+        ServerConfig config = ServerConfig.load("datastore.server.", 50052);
+        Server server = config.build(new DataStoreServer(dataStore)).start();
 
-        System.out.println("Data Store Server started on port " + port);
+        System.out.println("Data Store Server started (" + config + ")");
      // Add shutdown hook
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             System.out.println("Shutting down gRPC server...");
             server.shutdown();
+            try {
+                server.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            config.shutdown();
+            if (dataStore instanceof EmptyDataStoreAPI) {
+                try {
+                    // Drain any write-behind writes before exiting
+                    ((EmptyDataStoreAPI) dataStore).shutdown();
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+            }
             if (dataStore instanceof GrpcDataStoreAPI) {
                 try {
                     ((GrpcDataStoreAPI) dataStore).shutdown();
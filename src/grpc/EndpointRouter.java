@@ -0,0 +1,267 @@
+package grpc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Routing state for a client of several compute servers, kept apart from
+ * the transport so it can be used with any endpoint type:
+ * <ul>
+ * <li>which server takes new work, by the balancing policy</li>
+ * <li>which server owns each job, for the most recently used jobs</li>
+ * <li>the configuration every server should have, replayed to servers
+ * that missed it (unreachable at the time, or added by a reload) before
+ * they are given work</li>
+ * </ul>
+ *
+ * @param <E> endpoint type
+ */
+public final class EndpointRouter<E> {
+
+	/** Job owners remembered by default; older jobs are found again by asking each server */
+	public static final int DEFAULT_MAX_TRACKED_JOBS = 10_000;
+
+	private final BalancingPolicy policy;
+	private final ToIntFunction<E> outstanding;
+	private final AtomicInteger nextEndpoint = new AtomicInteger();
+	private volatile List<E> endpoints = Collections.emptyList();
+
+	// Server that owns each job, least recently used first; guarded by itself
+	private final Map<String, E> jobOwners;
+
+	// Latest call for each configuration setting, in the order first set; guarded by itself
+	private final Map<String, Function<E, ?>> configuration = new LinkedHashMap<>();
+	// Servers that may be missing some of the configuration
+	private final Set<E> unconfigured = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * @param outstanding calls currently outstanding on an endpoint, for LEAST_OUTSTANDING
+	 * @param maxTrackedJobs job owners to remember
+	 */
+	public EndpointRouter(BalancingPolicy policy, ToIntFunction<E> outstanding, int maxTrackedJobs) {
+		if (maxTrackedJobs <= 0) {
+			throw new IllegalArgumentException("maxTrackedJobs must be positive");
+		}
+		this.policy = policy;
+		this.outstanding = outstanding;
+		this.jobOwners = new LinkedHashMap<String, E>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, E> eldest) {
+				return size() > maxTrackedJobs;
+			}
+		};
+	}
+
+	/** Servers in use */
+	public List<E> getEndpoints() {
+		return endpoints;
+	}
+
+	/**
+	 * Use the servers at addresses, keeping the endpoints already open for
+	 * addresses still listed. If connecting to an address fails, the
+	 * endpoints opened by this call are passed to discard and the servers in
+	 * use are left unchanged.
+	 *
+	 * @return servers no longer in use, for the caller to shut down
+	 */
+	public synchronized List<E> setEndpoints(List<String> addresses, Function<E, String> addressOf,
+			Function<String, E> connect, Consumer<E> discard) {
+		if (addresses.isEmpty()) {
+			throw new IllegalArgumentException("At least one compute endpoint is required");
+		}
+		List<E> previous = endpoints;
+		List<E> current = new ArrayList<>(addresses.size());
+		List<E> opened = new ArrayList<>();
+		try {
+			for (String address : addresses) {
+				E endpoint = find(previous, address, addressOf);
+				if (endpoint == null) {
+					endpoint = find(current, address, addressOf);
+				}
+				if (endpoint == null) {
+					endpoint = connect.apply(address);
+					opened.add(endpoint);
+				}
+				if (!current.contains(endpoint)) {
+					current.add(endpoint);
+				}
+			}
+		} catch (RuntimeException e) {
+			for (E endpoint : opened) {
+				discard.accept(endpoint);
+			}
+			throw e;
+		}
+
+		// New servers get the configuration before their first work
+		unconfigured.addAll(opened);
+		endpoints = Collections.unmodifiableList(current);
+
+		List<E> removed = new ArrayList<>();
+		for (E endpoint : previous) {
+			if (!current.contains(endpoint)) {
+				removed.add(endpoint);
+				unconfigured.remove(endpoint);
+			}
+		}
+		if (!removed.isEmpty()) {
+			synchronized (jobOwners) {
+				jobOwners.values().removeIf(removed::contains);
+			}
+		}
+		return removed;
+	}
+
+	private static <E> E find(List<E> endpoints, String address, Function<E, String> addressOf) {
+		for (E endpoint : endpoints) {
+			if (addressOf.apply(endpoint).equals(address)) {
+				return endpoint;
+			}
+		}
+		return null;
+	}
+
+	/** Choose a server for new work according to the policy */
+	public E pick(List<E> candidates) {
+		if (policy == BalancingPolicy.LEAST_OUTSTANDING) {
+			// Start from a rotating position so ties are spread out
+			int start = Math.floorMod(nextEndpoint.getAndIncrement(), candidates.size());
+			E best = null;
+			int bestLoad = 0;
+			for (int i = 0; i < candidates.size(); i++) {
+				E candidate = candidates.get((start + i) % candidates.size());
+				int load = outstanding.applyAsInt(candidate);
+				if (best == null || load < bestLoad) {
+					best = candidate;
+					bestLoad = load;
+				}
+			}
+			return best;
+		}
+		return candidates.get(Math.floorMod(nextEndpoint.getAndIncrement(), candidates.size()));
+	}
+
+	/** Remember the server a job was submitted to */
+	public void recordOwner(String jobId, E owner) {
+		synchronized (jobOwners) {
+			jobOwners.put(jobId, owner);
+		}
+	}
+
+	/**
+	 * Remember a server found to have a job, e.g. in its job list, unless
+	 * the job is already known to be on another server in use
+	 */
+	public void learnOwner(String jobId, E owner) {
+		List<E> current = endpoints;
+		synchronized (jobOwners) {
+			E known = jobOwners.get(jobId);
+			if (known == null || !current.contains(known)) {
+				jobOwners.put(jobId, owner);
+			}
+		}
+	}
+
+	/**
+	 * The server that owns a job. A job not remembered (submitted through
+	 * another client, or no longer among the most recent) is looked for on
+	 * each server with hasJob, and remembered if found; otherwise the first
+	 * server is returned so the caller gets its not-found response.
+	 */
+	public E ownerOf(String jobId, Predicate<E> hasJob) {
+		List<E> current = endpoints;
+		E owner;
+		synchronized (jobOwners) {
+			owner = jobOwners.get(jobId);
+		}
+		if (owner != null && current.contains(owner)) {
+			return owner;
+		}
+		if (current.size() > 1) {
+			for (E endpoint : current) {
+				if (hasJob.test(endpoint)) {
+					recordOwner(jobId, endpoint);
+					return endpoint;
+				}
+			}
+		}
+		return current.get(0);
+	}
+
+	/** Number of job owners remembered */
+	public int trackedJobs() {
+		synchronized (jobOwners) {
+			return jobOwners.size();
+		}
+	}
+
+	/**
+	 * Apply a configuration setting on every server. A server the call fails
+	 * on does not stop the others: it is marked as missing configuration and
+	 * gets the setting replayed by ensureConfigured before its next work.
+	 *
+	 * @param setting name of the setting; a later call for it replaces this one
+	 * @return responses of the servers the call succeeded on
+	 * @throws RuntimeException the first failure, if the call failed on every server
+	 */
+	public <T> List<T> broadcast(String setting, Function<E, T> call) {
+		synchronized (configuration) {
+			configuration.put(setting, call);
+			List<T> responses = new ArrayList<>();
+			RuntimeException failure = null;
+			for (E endpoint : endpoints) {
+				try {
+					responses.add(call.apply(endpoint));
+				} catch (RuntimeException e) {
+					unconfigured.add(endpoint);
+					if (failure == null) {
+						failure = e;
+					}
+				}
+			}
+			if (responses.isEmpty() && failure != null) {
+				throw failure;
+			}
+			return responses;
+		}
+	}
+
+	/**
+	 * Replay the configuration to a server that missed some of it. Does
+	 * nothing for a server that is up to date.
+	 *
+	 * @throws RuntimeException if a replayed call fails; the server stays marked
+	 */
+	public void ensureConfigured(E endpoint) {
+		if (!unconfigured.contains(endpoint)) {
+			return;
+		}
+		synchronized (configuration) {
+			if (!unconfigured.contains(endpoint)) {
+				return;
+			}
+			for (Function<E, ?> call : configuration.values()) {
+				call.apply(endpoint);
+			}
+			unconfigured.remove(endpoint);
+		}
+	}
+
+	/** Whether a server may be missing some of the configuration */
+	public boolean isUnconfigured(E endpoint) {
+		return unconfigured.contains(endpoint);
+	}
+}
@@ -1,6 +1,6 @@
 package grpc;
 
-import project.datastoreapi.DataStoreAPI;
+import project.datastoreapi.AsyncDataStoreAPI;
 import project.datastoreapi.DataReadRequest;
 import project.datastoreapi.DataWriteRequest;
 import project.datastoreapi.DataStreamRequest;
@@ -14,20 +14,92 @@ import project.datastoreapi.BasicDataReadResponse;
 import project.datastoreapi.BasicDataWriteResponse;
 import project.datastoreapi.BasicDataStreamResponse;
 import project.datastoreapi.BasicDataWriteRequest;
+import project.datastoreapi.VarintDeltaCodec;
+import proto.DataReadChunk;
 import proto.DataStoreServiceGrpc;
+import proto.DataWriteChunk;
+import proto.DataWriteCommit;
+import proto.DataWriteOpen;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.protobuf.UnsafeByteOperations;
 
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import io.grpc.Status;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * DataStoreAPI client for a remote DataStoreServer.
+ *
+ * Every call runs on the async stub and is also available as a
+ * CompletableFuture, so a compute server can keep several reads and writes in
+ * flight on one channel while it computes. A window bounds how many calls
+ * may be outstanding at once; when it is full, another call is queued and
+ * started as soon as an earlier one finishes, so the *Async methods return
+ * without waiting. The blocking DataStoreAPI methods wait on the same futures.
+ */
+public class GrpcDataStoreAPI implements AsyncDataStoreAPI {
+    // Characters of output per WriteDataStream chunk (at most 192 KB once UTF-8 encoded)
+    private static final int WRITE_CHUNK_CHARS = 64 * 1024;
+
+    /** Calls allowed in flight at once unless configured otherwise */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 16;
 
-public class GrpcDataStoreAPI implements DataStoreAPI {
     private final ManagedChannel channel;  // Store the channel
-    private final DataStoreServiceGrpc.DataStoreServiceBlockingStub blockingStub;
+    private final DataStoreServiceGrpc.DataStoreServiceStub asyncStub;
+    private final DataStoreServiceGrpc.DataStoreServiceFutureStub futureStub;
+    private final int maxInFlight;
+
+    // Calls started and not yet finished, and calls waiting for room; guarded by windowLock
+    private final Object windowLock = new Object();
+    private int inFlight;
+    private final Deque<Runnable> queued = new ArrayDeque<>();
 
     public GrpcDataStoreAPI(String host, int port) {
-        this.channel = ManagedChannelBuilder.forAddress(host, port)
+        this(host, port, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    public GrpcDataStoreAPI(String host, int port, int maxInFlight) {
+        this(ManagedChannelBuilder.forAddress(host, port)
                 .usePlaintext()
-                .build();
-        this.blockingStub = DataStoreServiceGrpc.newBlockingStub(channel);
+                .build(), maxInFlight);
+    }
+
+    /**
+     * Use an existing channel, e.g. an in-process channel to a data store
+     * service in the same JVM. shutdown() closes the channel.
+     */
+    public GrpcDataStoreAPI(ManagedChannel channel) {
+        this(channel, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    public GrpcDataStoreAPI(ManagedChannel channel, int maxInFlight) {
+        if (maxInFlight <= 0) {
+            channel.shutdownNow();
+            throw new IllegalArgumentException("Concurrency window must be positive");
+        }
+        this.channel = channel;
+        this.asyncStub = DataStoreServiceGrpc.newStub(channel);
+        this.futureStub = DataStoreServiceGrpc.newFutureStub(channel);
+        this.maxInFlight = maxInFlight;
     }
     
     // Add shutdown method matching GrpcUserComputeAPI pattern
@@ -35,52 +107,397 @@ public class GrpcDataStoreAPI implements DataStoreAPI {
         channel.shutdown().awaitTermination(5, java.util.concurrent.TimeUnit.SECONDS);
     }
 
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /** Calls currently outstanding on the channel */
+    public int getInFlight() {
+        synchronized (windowLock) {
+            return inFlight;
+        }
+    }
+
+    /** Calls waiting for room in the window */
+    public int getQueued() {
+        synchronized (windowLock) {
+            return queued.size();
+        }
+    }
+
     @Override
     public DataReadResponse readData(DataReadRequest request) {
+        return await(readDataAsync(request));
+    }
+
+    /**
+     * Start a streamed read. Packed ints are copied into the result array as
+     * each chunk arrives, so only one chunk is buffered at a time.
+     */
+    @Override
+    public CompletableFuture<DataReadResponse> readDataAsync(DataReadRequest request) {
         proto.DataReadRequest grpcRequest = proto.DataReadRequest.newBuilder()
                 .setSource(request.getSource())
                 .setFormat(request.getFormat().name())  // Use .name() instead of .toString()
+                .setDelimiters(request.getDelimiters() != null ? request.getDelimiters() : "")
                 .build();
-        
-        proto.DataReadResponse grpcResponse = blockingStub.readData(grpcRequest);
-        
-        RequestStatus status = RequestStatus.valueOf(grpcResponse.getStatus());
-        int[] data = grpcResponse.getDataList().stream().mapToInt(i -> i).toArray();
-        return new BasicDataReadResponse(status, grpcResponse.getMessage(), data);
+
+        return inWindow(() -> {
+            ReadStreamObserver observer = new ReadStreamObserver();
+            // Streamed in chunks so inputs of any size stay under the message limit
+            asyncStub.readDataStream(grpcRequest, observer);
+            return observer.result;
+        });
     }
 
     @Override
     public DataWriteResponse writeData(DataWriteRequest request) {
+        return await(writeDataAsync(request));
+    }
+
+    /**
+     * Start a streamed write. Chunks are encoded and sent only while the call
+     * is ready, so a large output is pushed at the rate the server writes it.
+     */
+    @Override
+    public CompletableFuture<DataWriteResponse> writeDataAsync(DataWriteRequest request) {
         // Handle BasicDataWriteRequest specifically for the data field
         String dataToWrite = "";
         if (request instanceof BasicDataWriteRequest) {
             BasicDataWriteRequest basicRequest = (BasicDataWriteRequest) request;
             dataToWrite = basicRequest.getData();
         }
-        
-        proto.DataWriteRequest grpcRequest = proto.DataWriteRequest.newBuilder()
-                .setDestination(request.getDestination())
-                .setFormat(request.getFormat().name())  // Use .name() instead of .toString()
-                .setData(dataToWrite)
-                .build();
-        
-        proto.DataWriteResponse grpcResponse = blockingStub.writeData(grpcRequest);
-        
-        RequestStatus status = RequestStatus.valueOf(grpcResponse.getStatus());
-        return new BasicDataWriteResponse(status, grpcResponse.getMessage());
+
+        String data = dataToWrite;
+        return inWindow(() -> {
+            WriteStreamSender sender = new WriteStreamSender(request.getDestination(), request.getFormat(), data);
+            asyncStub.writeDataStream(sender);
+            sender.run();
+            return sender.result;
+        });
     }
 
     @Override
     public DataStreamResponse configureStream(DataStreamRequest request) {
+        return await(configureStreamAsync(request));
+    }
+
+    public CompletableFuture<DataStreamResponse> configureStreamAsync(DataStreamRequest request) {
         proto.DataStreamRequest grpcRequest = proto.DataStreamRequest.newBuilder()
                 .setMode(request.getMode().toString())
                 .setBufferSize(request.getBufferSize())
+                .setDataFormat(request.getDataFormat() != null ? request.getDataFormat().name() : DataFormat.TEXT.name())
                 .build();
-        
-        proto.DataStreamResponse grpcResponse = blockingStub.configureStream(grpcRequest);
-        
-        RequestStatus status = RequestStatus.valueOf(grpcResponse.getStatus());
-        DataStreamMode mode = DataStreamMode.valueOf(grpcResponse.getMode());
-        return new BasicDataStreamResponse(status, grpcResponse.getMessage(), mode, grpcResponse.getBufferSize());
-    }
-}
\ No newline at end of file
+
+        return inWindow(() -> {
+            ListenableFuture<proto.DataStreamResponse> call = futureStub.configureStream(grpcRequest);
+            CompletableFuture<DataStreamResponse> result = new CompletableFuture<>();
+            call.addListener(() -> {
+                try {
+                    proto.DataStreamResponse grpcResponse = Futures.getDone(call);
+                    RequestStatus status = RequestStatus.valueOf(grpcResponse.getStatus());
+                    DataStreamMode mode = DataStreamMode.valueOf(grpcResponse.getMode());
+                    result.complete(new BasicDataStreamResponse(status, grpcResponse.getMessage(), mode,
+                            grpcResponse.getBufferSize()));
+                } catch (ExecutionException e) {
+                    result.completeExceptionally(e.getCause());
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            }, MoreExecutors.directExecutor());
+            result.whenComplete((response, error) -> {
+                if (result.isCancelled()) {
+                    call.cancel(true);
+                }
+            });
+            return result;
+        });
+    }
+
+    /**
+     * Run a call within the concurrency window: start it now if there is
+     * room, otherwise queue it to start when an earlier call finishes. The
+     * returned future completes with the call's outcome. Cancelling it
+     * cancels a started call, or drops a queued one without starting it.
+     */
+    private <T> CompletableFuture<T> inWindow(Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable start = new Runnable() {
+            @Override
+            public void run() {
+                if (result.isDone()) {
+                    // Cancelled after it was taken from the queue
+                    leaveWindow();
+                    return;
+                }
+                CompletableFuture<T> started;
+                try {
+                    started = call.get();
+                } catch (RuntimeException e) {
+                    leaveWindow();
+                    result.completeExceptionally(e);
+                    return;
+                }
+                started.whenComplete((value, error) -> {
+                    leaveWindow();
+                    if (error != null) {
+                        result.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error);
+                    } else {
+                        result.complete(value);
+                    }
+                });
+                result.whenComplete((value, error) -> {
+                    if (result.isCancelled()) {
+                        started.cancel(false);
+                    }
+                });
+            }
+        };
+
+        boolean startNow;
+        synchronized (windowLock) {
+            startNow = inFlight < maxInFlight;
+            if (startNow) {
+                inFlight++;
+            } else {
+                queued.add(start);
+            }
+        }
+        if (startNow) {
+            start.run();
+        } else {
+            result.whenComplete((value, error) -> {
+                if (result.isCancelled()) {
+                    synchronized (windowLock) {
+                        queued.remove(start);
+                    }
+                }
+            });
+        }
+        return result;
+    }
+
+    /** A call finished: hand its slot to the oldest queued call, or free it */
+    private void leaveWindow() {
+        Runnable next;
+        synchronized (windowLock) {
+            next = queued.poll();
+            if (next == null) {
+                inFlight--;
+            }
+        }
+        if (next != null) {
+            next.run();
+        }
+    }
+
+    /** Wait for a call, rethrowing its StatusRuntimeException as the blocking stub would */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Assembles a ReadDataStream response as its chunks arrive. VARINT_DELTA
+     * slices are gathered and decoded once the stream ends.
+     */
+    private static final class ReadStreamObserver
+            implements ClientResponseObserver<proto.DataReadRequest, DataReadChunk> {
+        final CompletableFuture<DataReadResponse> result = new CompletableFuture<>();
+        private RequestStatus status;
+        private String message;
+        private boolean sorted;
+        private boolean started;
+        private int totalCount;
+        // Only allocated for PACKED_INTS streams; VARINT_DELTA decodes into its own array
+        private int[] data;
+        private int filled;
+        private boolean overflow;
+        private ByteArrayOutputStream encoded;
+
+        @Override
+        public void beforeStart(ClientCallStreamObserver<proto.DataReadRequest> call) {
+            result.whenComplete((response, error) -> {
+                if (result.isCancelled()) {
+                    call.cancel("Read cancelled by caller", null);
+                }
+            });
+        }
+
+        @Override
+        public void onNext(DataReadChunk chunk) {
+            if (!started) {
+                started = true;
+                status = RequestStatus.valueOf(chunk.getStatus());
+                message = chunk.getMessage();
+                sorted = chunk.getSorted();
+                totalCount = chunk.getTotalCount();
+            }
+            try {
+                switch (chunk.getPayloadCase()) {
+                    case PACKED_INTS:
+                        IntBuffer values = chunk.getPackedInts().asReadOnlyByteBuffer()
+                                .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+                        int count = values.remaining();
+                        if (data == null) {
+                            data = new int[totalCount];
+                        }
+                        if (count > data.length - filled) {
+                            overflow = true;
+                        } else {
+                            values.get(data, filled, count);
+                            filled += count;
+                        }
+                        break;
+                    case RAW:
+                        if (encoded == null) {
+                            encoded = new ByteArrayOutputStream();
+                        }
+                        chunk.getRaw().writeTo(encoded);
+                        break;
+                    default:
+                        break;
+                }
+            } catch (IOException e) {
+                // Writing to a ByteArrayOutputStream does not fail
+                result.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            result.completeExceptionally(t);
+        }
+
+        @Override
+        public void onCompleted() {
+            if (!started) {
+                result.completeExceptionally(
+                        Status.INTERNAL.withDescription("Read stream ended without a response").asRuntimeException());
+                return;
+            }
+            try {
+                int[] values;
+                int received;
+                if (encoded != null) {
+                    values = VarintDeltaCodec.decode(ByteBuffer.wrap(encoded.toByteArray()));
+                    received = values.length;
+                } else {
+                    values = data != null ? data : new int[0];
+                    received = filled;
+                }
+                if (overflow || received != totalCount) {
+                    result.complete(new BasicDataReadResponse(RequestStatus.REJECTED,
+                            "Server sent a different number of integers than announced (" + totalCount + ")",
+                            new int[0]));
+                    return;
+                }
+                result.complete(new BasicDataReadResponse(status, message, values, sorted));
+            } catch (IOException e) {
+                result.complete(new BasicDataReadResponse(RequestStatus.REJECTED,
+                        "Corrupt packed data from server: " + e.getMessage(), new int[0]));
+            }
+        }
+    }
+
+    /**
+     * Drives one WriteDataStream call: the open message, the output a slice at
+     * a time, then the commit with the byte count and CRC-32. Sending resumes
+     * from the call's ready handler whenever the transport drains.
+     */
+    private static final class WriteStreamSender
+            implements ClientResponseObserver<DataWriteChunk, proto.DataWriteResponse>, Runnable {
+        final CompletableFuture<DataWriteResponse> result = new CompletableFuture<>();
+        private final String destination;
+        private final DataFormat format;
+        private final String data;
+        private final CRC32 crc = new CRC32();
+        private ClientCallStreamObserver<DataWriteChunk> requestStream;
+        private volatile proto.DataWriteResponse response;
+        private boolean opened;
+        private boolean committed;
+        private int position;
+        private long totalBytes;
+
+        WriteStreamSender(String destination, DataFormat format, String data) {
+            this.destination = destination;
+            this.format = format;
+            this.data = data;
+        }
+
+        @Override
+        public void beforeStart(ClientCallStreamObserver<DataWriteChunk> requestStream) {
+            this.requestStream = requestStream;
+            requestStream.setOnReadyHandler(this);
+            result.whenComplete((value, error) -> {
+                if (result.isCancelled()) {
+                    requestStream.cancel("Write cancelled by caller", null);
+                }
+            });
+        }
+
+        @Override
+        public synchronized void run() {
+            // Stops early if the server has already answered, e.g. rejected the destination
+            while (!committed && !result.isDone() && requestStream.isReady()) {
+                if (!opened) {
+                    requestStream.onNext(DataWriteChunk.newBuilder()
+                            .setOpen(DataWriteOpen.newBuilder()
+                                    .setDestination(destination)
+                                    .setFormat(format.name()))
+                            .build());
+                    opened = true;
+                } else if (position < data.length()) {
+                    int end = Math.min(data.length(), position + WRITE_CHUNK_CHARS);
+                    if (end < data.length() && Character.isHighSurrogate(data.charAt(end - 1))) {
+                        end--;  // keep surrogate pairs in one chunk
+                    }
+                    byte[] bytes = data.substring(position, end).getBytes(StandardCharsets.UTF_8);
+                    crc.update(bytes);
+                    totalBytes += bytes.length;
+                    requestStream.onNext(DataWriteChunk.newBuilder()
+                            .setData(UnsafeByteOperations.unsafeWrap(bytes))
+                            .build());
+                    position = end;
+                } else {
+                    requestStream.onNext(DataWriteChunk.newBuilder()
+                            .setCommit(DataWriteCommit.newBuilder()
+                                    .setTotalBytes(totalBytes)
+                                    .setCrc32((int) crc.getValue()))
+                            .build());
+                    requestStream.onCompleted();
+                    committed = true;
+                }
+            }
+        }
+
+        @Override
+        public void onNext(proto.DataWriteResponse value) {
+            response = value;
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            result.completeExceptionally(t);
+        }
+
+        @Override
+        public void onCompleted() {
+            proto.DataWriteResponse grpcResponse = response;
+            if (grpcResponse == null) {
+                result.completeExceptionally(
+                        Status.INTERNAL.withDescription("Write stream closed without a response").asRuntimeException());
+                return;
+            }
+            RequestStatus status = RequestStatus.valueOf(grpcResponse.getStatus());
+            result.complete(new BasicDataWriteResponse(status, grpcResponse.getMessage()));
+        }
+    }
+}
@@ -8,6 +8,7 @@ import project.networkapi.BasicJobResultResponse;
 import project.networkapi.BasicJobStatusResponse;
 import project.networkapi.BasicOutputResponse;
 import project.networkapi.CompletionStatus;
+import project.networkapi.ComputeStreamSession;
 import project.networkapi.DelimiterRequest;
 import project.networkapi.DelimiterResponse;
 import project.networkapi.InputRequest;
@@ -16,11 +17,18 @@ import project.networkapi.JobStatusRequest;
 import project.networkapi.JobStatusResponse;
 import project.networkapi.OutputRequest;
 import project.networkapi.OutputResponse;
+import project.networkapi.JobResultPage;
+import project.networkapi.PackedResultCodec;
 import project.networkapi.UserComputeAPI;
 
 import proto.AsyncStartRequest;
 import proto.AsyncJobResponse;
+import proto.InlineComputeRequest;
+import proto.SubmitJobsRequest;
+import proto.SubmitJobsResponse;
+import proto.JobResultChunk;
 import proto.JobResultResponse;
+import proto.JobResultStreamRequest;
 import proto.JobListResponse;
 import proto.ListJobsRequest;
 
@@ -31,26 +39,193 @@ import proto.InputSourceRequest;
 import proto.OutputDestinationRequest;
 import proto.StartRequest;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.google.protobuf.ByteString;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+
+/**
+ * Client for one or more compute servers.
+ *
+ * With several endpoints, calls that start work (job submission, inline
+ * and streamed computations) are spread across servers by round-robin or
+ * by fewest outstanding calls, moving on to the next server if one is
+ * unavailable. Configuration calls go to every server, since any of them
+ * may take the next job; a server that misses a setting gets it before its
+ * next work. Calls about a job (status, result, cancel, watch) go to the
+ * server that owns it: the owner is remembered on submission, or found by
+ * asking each server for jobs submitted elsewhere. The routing itself is
+ * in EndpointRouter.
+ */
+public class GrpcUserComputeAPI implements UserComputeAPI {
 
-import io.grpc.ManagedChannel;
-import io.grpc.ManagedChannelBuilder;
+	private final Path endpointFile;
+	private final EndpointRouter<ComputeEndpoint> router;
 
-public class GrpcUserComputeAPI implements UserComputeAPI {
-	private final ManagedChannel channel;
-	private final ComputeServiceGrpc.ComputeServiceBlockingStub blockingStub;
+	// Times a result stream is reopened from its resume token after the connection drops
+	private static final int RESULT_STREAM_RETRIES = 3;
 
 	public GrpcUserComputeAPI(String host, int port) {
-		this.channel = ManagedChannelBuilder.forAddress(host, port)
-				.usePlaintext()
-				.build();
-		this.blockingStub = ComputeServiceGrpc.newBlockingStub(channel);
+		this(Collections.singletonList(host + ":" + port), BalancingPolicy.ROUND_ROBIN);
+	}
+
+	/** @param addresses compute servers as "host:port" */
+	public GrpcUserComputeAPI(List<String> addresses, BalancingPolicy policy) {
+		this.endpointFile = null;
+		this.router = newRouter(policy);
+		connect(addresses);
+	}
+
+	/**
+	 * Read the compute servers from a file with one "host:port" per line
+	 * (blank lines and lines starting with # are ignored). Call
+	 * reloadEndpoints() after editing it.
+	 */
+	public GrpcUserComputeAPI(Path endpointFile, BalancingPolicy policy) throws IOException {
+		this.endpointFile = endpointFile;
+		this.router = newRouter(policy);
+		connect(readEndpointFile(endpointFile));
+	}
+
+	private static EndpointRouter<ComputeEndpoint> newRouter(BalancingPolicy policy) {
+		return new EndpointRouter<>(policy, endpoint -> endpoint.outstanding.get(),
+				EndpointRouter.DEFAULT_MAX_TRACKED_JOBS);
+	}
+
+	/**
+	 * Re-read the endpoint file. Servers still listed keep their connections
+	 * (and their jobs); servers no longer listed are disconnected. If an
+	 * address is invalid the servers in use are left unchanged.
+	 */
+	public synchronized void reloadEndpoints() throws IOException, InterruptedException {
+		if (endpointFile == null) {
+			throw new IllegalStateException("Endpoints were not loaded from a file");
+		}
+		for (ComputeEndpoint removed : connect(readEndpointFile(endpointFile))) {
+			removed.shutdown();
+		}
+	}
+
+	/** Addresses of the servers in use */
+	public List<String> getEndpoints() {
+		List<String> addresses = new ArrayList<>();
+		for (ComputeEndpoint endpoint : router.getEndpoints()) {
+			addresses.add(endpoint.address);
+		}
+		return addresses;
 	}
 
 	// Add a shutdown method
 	public void shutdown() throws InterruptedException {
-		channel.shutdown().awaitTermination(5, java.util.concurrent.TimeUnit.SECONDS);
+		for (ComputeEndpoint endpoint : router.getEndpoints()) {
+			endpoint.shutdown();
+		}
+	}
+
+	private static List<String> readEndpointFile(Path file) throws IOException {
+		List<String> addresses = new ArrayList<>();
+		for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+			String address = line.trim();
+			if (!address.isEmpty() && !address.startsWith("#")) {
+				addresses.add(address);
+			}
+		}
+		return addresses;
+	}
+
+	/**
+	 * Connect to each address, reusing existing connections where possible.
+	 * Connections opened here are closed again if a later address is invalid.
+	 *
+	 * @return servers no longer in use
+	 */
+	private List<ComputeEndpoint> connect(List<String> addresses) {
+		return router.setEndpoints(addresses, endpoint -> endpoint.address, ComputeEndpoint::new,
+				ComputeEndpoint::shutdownNow);
+	}
+
+	/** Make a call on one server, counting it as outstanding while it runs */
+	private static <T> T call(ComputeEndpoint endpoint, Function<ComputeServiceGrpc.ComputeServiceBlockingStub, T> rpc) {
+		endpoint.outstanding.incrementAndGet();
+		try {
+			return rpc.apply(endpoint.blockingStub);
+		} finally {
+			endpoint.outstanding.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Make a call that starts new work on a balanced choice of server,
+	 * trying the others in turn if it is unavailable. serverUsed receives
+	 * the server that answered.
+	 */
+	private <T> T callBalanced(Function<ComputeServiceGrpc.ComputeServiceBlockingStub, T> rpc,
+			Consumer<ComputeEndpoint> serverUsed) {
+		List<ComputeEndpoint> remaining = new ArrayList<>(router.getEndpoints());
+		while (true) {
+			ComputeEndpoint endpoint = router.pick(remaining);
+			try {
+				router.ensureConfigured(endpoint);
+				T response = call(endpoint, rpc);
+				serverUsed.accept(endpoint);
+				return response;
+			} catch (StatusRuntimeException e) {
+				remaining.remove(endpoint);
+				if (e.getStatus().getCode() != Status.Code.UNAVAILABLE || remaining.isEmpty()) {
+					throw e;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Apply a configuration setting on every server. Servers the call fails
+	 * on, e.g. because they are unavailable, are given it before their next
+	 * work; the call fails only if it failed on every server.
+	 */
+	private <T> List<T> callAll(String setting, Function<ComputeServiceGrpc.ComputeServiceBlockingStub, T> rpc) {
+		return router.broadcast(setting, endpoint -> call(endpoint, rpc));
+	}
+
+	/**
+	 * The server that owns a job. Jobs submitted through another client are
+	 * looked up on each server in turn and remembered.
+	 */
+	private ComputeEndpoint ownerOf(String jobId) {
+		proto.JobStatusRequest grpcRequest = proto.JobStatusRequest.newBuilder()
+				.setJobIdentifier(jobId)
+				.build();
+		return router.ownerOf(jobId, endpoint -> {
+			try {
+				proto.JobStatusResponse status = call(endpoint, stub -> stub.checkJobCompletion(grpcRequest));
+				return !CompletionStatus.JOB_NOT_FOUND.name().equals(status.getCompletionStatus());
+			} catch (StatusRuntimeException e) {
+				// Try the next server
+				return false;
+			}
+		});
+	}
+
+	/** Pick the response to report for a call made on every server: the first rejection, else the last */
+	private static <T> T combined(List<T> responses, Function<T, String> status) {
+		for (T response : responses) {
+			if (!project.networkapi.RequestStatus.ACCEPTED.name().equals(status.apply(response))) {
+				return response;
+			}
+		}
+		return responses.get(responses.size() - 1);
 	}
 
 	@Override
@@ -59,7 +234,8 @@ public class GrpcUserComputeAPI implements UserComputeAPI {
 				.setSource(request.getSource())
 				.build();
 
-		BasicResponse grpcResponse = blockingStub.setInputSource(grpcRequest);
+		BasicResponse grpcResponse = combined(callAll("input", stub -> stub.setInputSource(grpcRequest)),
+				BasicResponse::getStatus);
 
 		project.networkapi.RequestStatus status = project.networkapi.RequestStatus.valueOf(grpcResponse.getStatus());
 		return new BasicInputResponse(status, grpcResponse.getMessage());
@@ -71,7 +247,8 @@ public class GrpcUserComputeAPI implements UserComputeAPI {
 				.setDestination(request.getDestination())
 				.build();
 
-		BasicResponse grpcResponse = blockingStub.setOutputDestination(grpcRequest);
+		BasicResponse grpcResponse = combined(callAll("output", stub -> stub.setOutputDestination(grpcRequest)),
+				BasicResponse::getStatus);
 
 		project.networkapi.RequestStatus status = project.networkapi.RequestStatus.valueOf(grpcResponse.getStatus());
 		return new BasicOutputResponse(status, grpcResponse.getMessage());
@@ -84,7 +261,8 @@ public class GrpcUserComputeAPI implements UserComputeAPI {
 				.setMode(request.getMode().toString())
 				.build();
 
-		proto.DelimiterResponse grpcResponse = blockingStub.configureDelimiters(grpcRequest);
+		proto.DelimiterResponse grpcResponse = combined(callAll("delimiters", stub -> stub.configureDelimiters(grpcRequest)),
+				proto.DelimiterResponse::getStatus);
 
 		project.networkapi.RequestStatus status = project.networkapi.RequestStatus.valueOf(grpcResponse.getStatus());
 		return new BasicDelimiterResponse(grpcResponse.getAppliedDelimiters(), status, grpcResponse.getMessage());
@@ -96,7 +274,8 @@ public class GrpcUserComputeAPI implements UserComputeAPI {
 				.setJobIdentifier(request.getJobIdentifier())
 				.build();
 
-		proto.JobStatusResponse grpcResponse = blockingStub.checkJobCompletion(grpcRequest);
+		proto.JobStatusResponse grpcResponse = call(ownerOf(request.getJobIdentifier()),
+				stub -> stub.checkJobCompletion(grpcRequest));
 
 		CompletionStatus completionStatus = CompletionStatus.valueOf(grpcResponse.getCompletionStatus());
 		project.networkapi.RequestStatus requestStatus = project.networkapi.RequestStatus.valueOf(grpcResponse.getRequestStatus());
@@ -108,7 +287,7 @@ public class GrpcUserComputeAPI implements UserComputeAPI {
 	public JobStatusResponse startComputation() {
 		StartRequest grpcRequest = StartRequest.newBuilder().build();
 
-		proto.JobStatusResponse grpcResponse = blockingStub.startComputation(grpcRequest);
+		proto.JobStatusResponse grpcResponse = callBalanced(stub -> stub.startComputation(grpcRequest), used -> { });
 
 		CompletionStatus completionStatus = CompletionStatus.valueOf(grpcResponse.getCompletionStatus());
 		project.networkapi.RequestStatus requestStatus = project.networkapi.RequestStatus.valueOf(grpcResponse.getRequestStatus());
@@ -120,29 +299,195 @@ public class GrpcUserComputeAPI implements UserComputeAPI {
 	public project.networkapi.AsyncJobResponse submitComputationAsync() {
 		AsyncStartRequest grpcRequest = AsyncStartRequest.newBuilder().build();
 
-		AsyncJobResponse grpcResponse = blockingStub.submitComputationAsync(grpcRequest);
+		ComputeEndpoint[] server = new ComputeEndpoint[1];
+		AsyncJobResponse grpcResponse = callBalanced(stub -> stub.submitComputationAsync(grpcRequest),
+				used -> server[0] = used);
+		if (!grpcResponse.getJobId().isEmpty()) {
+			router.recordOwner(grpcResponse.getJobId(), server[0]);
+		}
 
 		project.networkapi.RequestStatus status = project.networkapi.RequestStatus.valueOf(grpcResponse.getStatus());
 		return new BasicAsyncJobResponse(status, grpcResponse.getJobId(), grpcResponse.getMessage());
 	}
 
-	public project.networkapi.JobResultResponse getJobResult(project.networkapi.JobStatusRequest request) {
-		proto.JobStatusRequest grpcRequest = proto.JobStatusRequest.newBuilder()
-				.setJobIdentifier(request.getJobIdentifier())
+	/**
+	 * Submit many jobs in one call, each with its own input, output and
+	 * delimiters. Returns one response per spec, in order.
+	 */
+	public List<project.networkapi.AsyncJobResponse> submitJobs(List<project.networkapi.JobSpec> specs) {
+		SubmitJobsRequest.Builder grpcRequest = SubmitJobsRequest.newBuilder();
+		for (project.networkapi.JobSpec spec : specs) {
+			grpcRequest.addJobs(proto.JobSpec.newBuilder()
+					.setInputSource(spec.getInputSource())
+					.setOutputDestination(spec.getOutputDestination())
+					.setDelimiters(spec.getDelimiters() != null ? spec.getDelimiters() : "")
+					.setInputFormat(spec.getInputFormat() != null ? spec.getInputFormat().name() : "")
+					.setOutputFormat(spec.getOutputFormat() != null ? spec.getOutputFormat().name() : ""));
+		}
+
+		// The batch is admitted on one server, keeping its admission in a single call
+		ComputeEndpoint[] server = new ComputeEndpoint[1];
+		SubmitJobsRequest batch = grpcRequest.build();
+		SubmitJobsResponse grpcResponse = callBalanced(stub -> stub.submitJobs(batch), used -> server[0] = used);
+
+		List<project.networkapi.AsyncJobResponse> responses = new ArrayList<>(grpcResponse.getJobsCount());
+		for (AsyncJobResponse job : grpcResponse.getJobsList()) {
+			project.networkapi.RequestStatus status = project.networkapi.RequestStatus.valueOf(job.getStatus());
+			responses.add(new BasicAsyncJobResponse(status, job.getJobId(), job.getMessage()));
+			if (status == project.networkapi.RequestStatus.ACCEPTED) {
+				router.recordOwner(job.getJobId(), server[0]);
+			}
+		}
+		return responses;
+	}
+
+	/**
+	 * Compute a few values in one round trip: the numbers travel inline and
+	 * the results come back in the response, with no input or output files.
+	 * A null delimiter uses the one configured on the server.
+	 */
+	public project.networkapi.JobResultResponse submitComputation(int[] inputs, String delimiter) {
+		InlineComputeRequest grpcRequest = InlineComputeRequest.newBuilder()
+				.setPackedInputs(ByteString.copyFrom(PackedResultCodec.packInputs(inputs)))
+				.setDelimiter(delimiter != null ? delimiter : "")
 				.build();
 
-		JobResultResponse grpcResponse = blockingStub.getJobResult(grpcRequest);
+		JobResultResponse grpcResponse = callBalanced(stub -> stub.submitComputation(grpcRequest), used -> { });
 
 		project.networkapi.RequestStatus status = project.networkapi.RequestStatus.valueOf(grpcResponse.getStatus());
+		if (grpcResponse.getEntryCount() > 0) {
+			int[] decodedInputs = PackedResultCodec.unpackInputs(grpcResponse.getPackedInputs().asReadOnlyByteBuffer());
+			String[] results = PackedResultCodec.unpackResults(
+					grpcResponse.getPackedResults().asReadOnlyByteBuffer(), grpcResponse.getEntryCount());
+			return new BasicJobResultResponse(status, decodedInputs, results, grpcResponse.getDelimiter(),
+					grpcResponse.getMessage());
+		}
 		return new BasicJobResultResponse(status, grpcResponse.getResultData(), grpcResponse.getMessage());
 	}
 
+	/**
+	 * Open a bidirectional compute stream: values sent on the returned call
+	 * are computed as they arrive and their results passed to listener,
+	 * in input order if ordered is set, otherwise as each completes.
+	 *
+	 * @param maxInFlight values the server accepts ahead of their results, or 0 for its default
+	 */
+	public ComputeStreamCall openComputeStream(boolean ordered, int maxInFlight,
+			ComputeStreamSession.ResultListener listener) {
+		ComputeEndpoint endpoint = router.pick(router.getEndpoints());
+		router.ensureConfigured(endpoint);
+		ComputeStreamCall call = new ComputeStreamCall(ordered, maxInFlight, listener);
+		// The stream counts as one outstanding call for as long as it is open
+		endpoint.outstanding.incrementAndGet();
+		call.getCompletion().whenComplete((done, failure) -> endpoint.outstanding.decrementAndGet());
+		endpoint.asyncStub.computeStream(call);
+		call.start();
+		return call;
+	}
+
+	/**
+	 * Fetch a job result through the paged stream, so results larger than a
+	 * single gRPC message still arrive. Use streamJobResult to process the
+	 * pages without holding the whole result.
+	 */
+	public project.networkapi.JobResultResponse getJobResult(project.networkapi.JobStatusRequest request) {
+		List<int[]> inputPages = new ArrayList<>();
+		List<String[]> resultPages = new ArrayList<>();
+		ByteArrayOutputStream text = new ByteArrayOutputStream();
+		JobResultPage last = streamJobResult(request, 0, page -> {
+			if (page.hasEntries()) {
+				inputPages.add(page.getInputs());
+				resultPages.add(page.getResults());
+			} else if (page.getText() != null) {
+				text.write(page.getText(), 0, page.getText().length);
+			}
+		});
+
+		if (last.getStatus() != project.networkapi.RequestStatus.ACCEPTED) {
+			return new BasicJobResultResponse(last.getStatus(), null, last.getMessage());
+		}
+		if (resultPages.isEmpty()) {
+			return new BasicJobResultResponse(last.getStatus(), text.toString(StandardCharsets.UTF_8),
+					"Job completed successfully");
+		}
+		int count = (int) last.getTotal();
+		int[] inputs = new int[count];
+		String[] results = new String[count];
+		int position = 0;
+		for (int i = 0; i < resultPages.size(); i++) {
+			System.arraycopy(inputPages.get(i), 0, inputs, position, inputPages.get(i).length);
+			System.arraycopy(resultPages.get(i), 0, results, position, resultPages.get(i).length);
+			position += resultPages.get(i).length;
+		}
+		return new BasicJobResultResponse(last.getStatus(), inputs, results, last.getDelimiter(),
+				"Job completed successfully");
+	}
+
+	/**
+	 * Pass each page of a job result to pageConsumer as it arrives. If the
+	 * connection drops mid-stream the call is reopened from the last page's
+	 * resume token, up to RESULT_STREAM_RETRIES times. Returns the final page,
+	 * whose status says whether the whole result was delivered.
+	 *
+	 * @param maxEntriesPerChunk entries per page, or 0 for the server default
+	 */
+	public JobResultPage streamJobResult(project.networkapi.JobStatusRequest request, int maxEntriesPerChunk,
+			Consumer<JobResultPage> pageConsumer) {
+		ComputeEndpoint owner = ownerOf(request.getJobIdentifier());
+		String token = "";
+		int retries = 0;
+		while (true) {
+			JobResultStreamRequest grpcRequest = JobResultStreamRequest.newBuilder()
+					.setJobIdentifier(request.getJobIdentifier())
+					.setResumeToken(token)
+					.setMaxEntriesPerChunk(maxEntriesPerChunk)
+					.build();
+			owner.outstanding.incrementAndGet();
+			try {
+				Iterator<JobResultChunk> chunks = owner.blockingStub.getJobResultStream(grpcRequest);
+				while (chunks.hasNext()) {
+					JobResultPage page = toPage(chunks.next());
+					pageConsumer.accept(page);
+					if (page.getStatus() != project.networkapi.RequestStatus.ACCEPTED || page.isLast()) {
+						return page;
+					}
+					token = page.getNextToken();
+				}
+				return JobResultPage.rejected("Result stream ended before the last page");
+			} catch (StatusRuntimeException e) {
+				if (e.getStatus().getCode() != Status.Code.UNAVAILABLE || retries++ >= RESULT_STREAM_RETRIES) {
+					throw e;
+				}
+			} finally {
+				owner.outstanding.decrementAndGet();
+			}
+		}
+	}
+
+	private static JobResultPage toPage(JobResultChunk chunk) {
+		project.networkapi.RequestStatus status = project.networkapi.RequestStatus.valueOf(chunk.getStatus());
+		if (status != project.networkapi.RequestStatus.ACCEPTED) {
+			return JobResultPage.rejected(chunk.getMessage());
+		}
+		String nextToken = chunk.getResumeToken().isEmpty() ? null : chunk.getResumeToken();
+		if (chunk.getEntryCount() > 0) {
+			int[] inputs = PackedResultCodec.unpackInputs(chunk.getPackedInputs().asReadOnlyByteBuffer());
+			String[] results = PackedResultCodec.unpackResults(
+					chunk.getPackedResults().asReadOnlyByteBuffer(), chunk.getEntryCount());
+			return JobResultPage.ofEntries(inputs, results, chunk.getDelimiter(), chunk.getTotal(), nextToken,
+					chunk.getMessage());
+		}
+		return JobResultPage.ofText(chunk.getText().toByteArray(), chunk.getTotal(), nextToken,
+				chunk.getMessage());
+	}
+
 	public project.networkapi.JobStatusResponse cancelJob(project.networkapi.JobStatusRequest request) {
 		proto.JobStatusRequest grpcRequest = proto.JobStatusRequest.newBuilder()
 				.setJobIdentifier(request.getJobIdentifier())
 				.build();
 
-		proto.JobStatusResponse grpcResponse = blockingStub.cancelJob(grpcRequest);
+		proto.JobStatusResponse grpcResponse = call(ownerOf(request.getJobIdentifier()),
+				stub -> stub.cancelJob(grpcRequest));
 
 		CompletionStatus completionStatus = CompletionStatus.valueOf(grpcResponse.getCompletionStatus());
 		project.networkapi.RequestStatus requestStatus = project.networkapi.RequestStatus.valueOf(grpcResponse.getRequestStatus());
@@ -157,23 +502,60 @@ public class GrpcUserComputeAPI implements UserComputeAPI {
 				.setIncludeRunning(true)
 				.build();
 
-		JobListResponse grpcResponse = blockingStub.listJobs(grpcRequest);
+		// Jobs from every server; each one listed is remembered with its owner
+		List<project.networkapi.JobSummary> summaries = new ArrayList<>();
+		project.networkapi.RequestStatus status = project.networkapi.RequestStatus.ACCEPTED;
+		String message = null;
+		for (ComputeEndpoint endpoint : router.getEndpoints()) {
+			JobListResponse grpcResponse = call(endpoint, stub -> stub.listJobs(grpcRequest));
+			if (!project.networkapi.RequestStatus.ACCEPTED.name().equals(grpcResponse.getStatus())) {
+				status = project.networkapi.RequestStatus.valueOf(grpcResponse.getStatus());
+				message = grpcResponse.getMessage();
+			}
+
+			// Convert proto JobSummary to Java JobSummary
+			for (proto.JobSummary protoSummary : grpcResponse.getJobsList()) {
+				project.networkapi.JobSummary javaSummary = new project.networkapi.JobSummary(
+						protoSummary.getJobId(),
+						CompletionStatus.valueOf(protoSummary.getStatus()),
+						protoSummary.getProgress(),
+						protoSummary.getOutputDestination(),
+						protoSummary.getMessage()
+						);
+				summaries.add(javaSummary);
+				router.learnOwner(protoSummary.getJobId(), endpoint);
+			}
+		}
+
+		return new BasicJobListResponse(status, summaries,
+				message != null ? message : "Found " + summaries.size() + " job(s)");
+	}
 
-		project.networkapi.RequestStatus status = project.networkapi.RequestStatus.valueOf(grpcResponse.getStatus());
+	/**
+	 * Follow a job's state changes as the server pushes them, instead of
+	 * polling checkJobCompletion. Each update is passed to updateConsumer;
+	 * returns the last one, which is the job's final state (or JOB_NOT_FOUND).
+	 */
+	public project.networkapi.JobSummary watchJob(JobStatusRequest request,
+			Consumer<project.networkapi.JobSummary> updateConsumer) {
+		proto.JobStatusRequest grpcRequest = proto.JobStatusRequest.newBuilder()
+				.setJobIdentifier(request.getJobIdentifier())
+				.build();
 
-		// Convert proto JobSummary to Java JobSummary
-		List<project.networkapi.JobSummary> summaries = new ArrayList<>();
-		for (proto.JobSummary protoSummary : grpcResponse.getJobsList()) {
-			project.networkapi.JobSummary javaSummary = new project.networkapi.JobSummary(
+		ComputeEndpoint owner = ownerOf(request.getJobIdentifier());
+		project.networkapi.JobSummary last = null;
+		Iterator<proto.JobSummary> updates = owner.blockingStub.watchJob(grpcRequest);
+		while (updates.hasNext()) {
+			proto.JobSummary protoSummary = updates.next();
+			last = new project.networkapi.JobSummary(
 					protoSummary.getJobId(),
 					CompletionStatus.valueOf(protoSummary.getStatus()),
 					protoSummary.getProgress(),
 					protoSummary.getOutputDestination(),
 					protoSummary.getMessage()
 					);
-			summaries.add(javaSummary);
+			updateConsumer.accept(last);
 		}
-
-		return new BasicJobListResponse(status, summaries, grpcResponse.getMessage());
+		return last;
 	}
 }
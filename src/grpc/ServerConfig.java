@@ -0,0 +1,289 @@
+package grpc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.netty.shaded.io.netty.channel.EventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.nio.NioEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.socket.nio.NioServerSocketChannel;
+
+/**
+ * Transport and threading settings for a gRPC server.
+ *
+ * Settings are read from a properties file named by the system property
+ * "<prefix>config", then overridden by system properties of the form
+ * "<prefix><key>", e.g. -Dcompute.server.executor=virtual. Unset keys keep
+ * the grpc-java defaults. Keys:
+ *
+ *   port                         listening port
+ *   executor                     default | bounded | virtual | direct
+ *   executor.threads             pool size for "bounded" (default: processors)
+ *   boss.threads, worker.threads Netty event loop sizes (0 = Netty default)
+ *   max.inbound.message.bytes    largest request accepted
+ *   flow.control.window.bytes    initial HTTP/2 flow-control window
+ *   keepalive.seconds            ping idle connections this often
+ *   keepalive.timeout.seconds    close if a ping is not answered in time
+ *   permit.keepalive.seconds     most frequent client pings allowed
+ *   max.concurrent.calls         calls per connection
+ *
+ * The compute server also reads how it reaches its data store:
+ *
+ *   datastore                    remote | inprocess | direct
+ *   datastore.host, datastore.port  address for "remote"
+ *   datastore.max.in.flight      data store calls in flight at once ("remote", "inprocess")
+ *   datastore.threads            handler threads for "inprocess" (default: processors)
+ *
+ * "inprocess" runs the data store service in the same JVM and talks to it
+ * over grpc-inprocess (no sockets or HTTP/2 framing); its handlers block on
+ * file I/O, so they run on their own bounded pool. "direct" skips gRPC and
+ * calls the DataStoreAPI in-process.
+ *
+ * "direct" runs handlers on the Netty event loop. Only use it when every
+ * handler is non-blocking; the unary compute and result calls are not.
+ * "virtual" uses a thread per call on Java 21+ and falls back to "bounded"
+ * on older runtimes.
+ */
+public class ServerConfig {
+
+    public enum ExecutorMode { DEFAULT, BOUNDED, VIRTUAL, DIRECT }
+
+    public enum DataStoreMode { REMOTE, INPROCESS, DIRECT }
+
+    private final String prefix;
+    private final int port;
+    private final ExecutorMode executorMode;
+    private final int executorThreads;
+    private final int bossThreads;
+    private final int workerThreads;
+    private final int maxInboundMessageBytes;
+    private final int flowControlWindowBytes;
+    private final long keepAliveSeconds;
+    private final long keepAliveTimeoutSeconds;
+    private final long permitKeepAliveSeconds;
+    private final int maxConcurrentCalls;
+    private final DataStoreMode dataStoreMode;
+    private final String dataStoreHost;
+    private final int dataStorePort;
+    private final int dataStoreMaxInFlight;
+    private final int dataStoreThreads;
+
+    // Created by build() and released by shutdown()
+    private ExecutorService executor;
+    private EventLoopGroup bossGroup;
+    private EventLoopGroup workerGroup;
+
+    ServerConfig(String prefix, Properties properties, int defaultPort) {
+        this.prefix = prefix;
+        this.port = intSetting(properties, "port", defaultPort);
+        this.executorMode = enumSetting(properties, "executor", ExecutorMode.class, ExecutorMode.DEFAULT);
+        this.executorThreads = positiveIntSetting(properties, "executor.threads", Runtime.getRuntime().availableProcessors());
+        this.bossThreads = intSetting(properties, "boss.threads", 0);
+        this.workerThreads = intSetting(properties, "worker.threads", 0);
+        this.maxInboundMessageBytes = intSetting(properties, "max.inbound.message.bytes", 0);
+        this.flowControlWindowBytes = intSetting(properties, "flow.control.window.bytes", 0);
+        this.keepAliveSeconds = intSetting(properties, "keepalive.seconds", 0);
+        this.keepAliveTimeoutSeconds = intSetting(properties, "keepalive.timeout.seconds", 0);
+        this.permitKeepAliveSeconds = intSetting(properties, "permit.keepalive.seconds", 0);
+        this.maxConcurrentCalls = intSetting(properties, "max.concurrent.calls", 0);
+        this.dataStoreMode = enumSetting(properties, "datastore", DataStoreMode.class, DataStoreMode.REMOTE);
+        this.dataStoreHost = properties.getProperty("datastore.host", "localhost").trim();
+        this.dataStorePort = intSetting(properties, "datastore.port", 50052);
+        this.dataStoreMaxInFlight = positiveIntSetting(properties, "datastore.max.in.flight", GrpcDataStoreAPI.DEFAULT_MAX_IN_FLIGHT);
+        this.dataStoreThreads = positiveIntSetting(properties, "datastore.threads", Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Load the settings for keys starting with prefix (e.g. "compute.server.")
+     * from the configured file and system properties.
+     */
+    public static ServerConfig load(String prefix, int defaultPort) throws IOException {
+        Properties properties = new Properties();
+        String file = System.getProperty(prefix + "config");
+        if (file != null) {
+            try (InputStream in = Files.newInputStream(Paths.get(file))) {
+                properties.load(in);
+            }
+        }
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith(prefix) && !name.equals(prefix + "config")) {
+                properties.setProperty(name.substring(prefix.length()), System.getProperty(name));
+            }
+        }
+        return new ServerConfig(prefix, properties, defaultPort);
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public ExecutorMode getExecutorMode() {
+        return executorMode;
+    }
+
+    public DataStoreMode getDataStoreMode() {
+        return dataStoreMode;
+    }
+
+    public String getDataStoreHost() {
+        return dataStoreHost;
+    }
+
+    public int getDataStorePort() {
+        return dataStorePort;
+    }
+
+    public int getDataStoreMaxInFlight() {
+        return dataStoreMaxInFlight;
+    }
+
+    /** Bounded pool for an in-process data store service, whose handlers block on file I/O */
+    public ExecutorService newDataStoreExecutor() {
+        return Executors.newFixedThreadPool(dataStoreThreads, namedDaemonThreads("datastore-handler"));
+    }
+
+    /** Build (but do not start) a server for the given services with these settings */
+    public Server build(BindableService... services) {
+        NettyServerBuilder builder = NettyServerBuilder.forPort(port);
+        for (BindableService service : services) {
+            builder.addService(service);
+        }
+
+        switch (executorMode) {
+            case BOUNDED:
+                executor = Executors.newFixedThreadPool(executorThreads, namedDaemonThreads("grpc-handler"));
+                builder.executor(executor);
+                break;
+            case VIRTUAL:
+                executor = newVirtualThreadExecutor();
+                if (executor == null) {
+                    System.err.println("Virtual threads are not available; using a bounded executor");
+                    executor = Executors.newFixedThreadPool(executorThreads, namedDaemonThreads("grpc-handler"));
+                }
+                builder.executor(executor);
+                break;
+            case DIRECT:
+                builder.directExecutor();
+                break;
+            default:
+                break;
+        }
+
+        if (bossThreads > 0 || workerThreads > 0) {
+            // Netty needs all three set together
+            bossGroup = new NioEventLoopGroup(bossThreads);
+            workerGroup = new NioEventLoopGroup(workerThreads);
+            builder.bossEventLoopGroup(bossGroup)
+                .workerEventLoopGroup(workerGroup)
+                .channelType(NioServerSocketChannel.class);
+        }
+        if (maxInboundMessageBytes > 0) {
+            builder.maxInboundMessageSize(maxInboundMessageBytes);
+        }
+        if (flowControlWindowBytes > 0) {
+            builder.flowControlWindow(flowControlWindowBytes);
+        }
+        if (keepAliveSeconds > 0) {
+            builder.keepAliveTime(keepAliveSeconds, TimeUnit.SECONDS);
+        }
+        if (keepAliveTimeoutSeconds > 0) {
+            builder.keepAliveTimeout(keepAliveTimeoutSeconds, TimeUnit.SECONDS);
+        }
+        if (permitKeepAliveSeconds > 0) {
+            builder.permitKeepAliveTime(permitKeepAliveSeconds, TimeUnit.SECONDS);
+        }
+        if (maxConcurrentCalls > 0) {
+            builder.maxConcurrentCallsPerConnection(maxConcurrentCalls);
+        }
+        return builder.build();
+    }
+
+    /** Release the executor and event loops created by build(), after the server has stopped */
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+        if (bossGroup != null) {
+            bossGroup.shutdownGracefully();
+        }
+        if (workerGroup != null) {
+            workerGroup.shutdownGracefully();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "port=" + port + ", executor=" + executorMode.name().toLowerCase()
+            + (executorMode == ExecutorMode.BOUNDED ? "(" + executorThreads + ")" : "")
+            + (bossThreads > 0 || workerThreads > 0 ? ", event loops=" + bossThreads + "/" + workerThreads : "")
+            + (maxInboundMessageBytes > 0 ? ", max inbound=" + maxInboundMessageBytes : "")
+            + (flowControlWindowBytes > 0 ? ", window=" + flowControlWindowBytes : "");
+    }
+
+    /** Executors.newVirtualThreadPerTaskExecutor() where the runtime has it, else null */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory namedDaemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private <E extends Enum<E>> E enumSetting(Properties properties, String key, Class<E> type, E defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + prefix + key + ": " + value);
+        }
+    }
+
+    private int intSetting(Properties properties, String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed < 0) {
+                throw new NumberFormatException();
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + prefix + key + ": " + value);
+        }
+    }
+
+    /** A thread count or limit, where 0 would leave nothing to run the work */
+    private int positiveIntSetting(Properties properties, String key, int defaultValue) {
+        int parsed = intSetting(properties, key, defaultValue);
+        if (parsed == 0) {
+            throw new IllegalArgumentException("Invalid " + prefix + key + ": must be positive");
+        }
+        return parsed;
+    }
+}
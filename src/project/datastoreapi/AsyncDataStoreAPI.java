@@ -0,0 +1,16 @@
+package project.datastoreapi;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * DataStoreAPI whose reads and writes can also be started without blocking
+ * the caller, e.g. a remote data store with several calls in flight at once.
+ * The futures complete with the same responses the blocking methods return.
+ */
+public interface AsyncDataStoreAPI extends DataStoreAPI {
+    /** Start reading integer data from the specified source */
+    CompletableFuture<DataReadResponse> readDataAsync(DataReadRequest request);
+
+    /** Start writing data to the specified destination */
+    CompletableFuture<DataWriteResponse> writeDataAsync(DataWriteRequest request);
+}
@@ -0,0 +1,90 @@
+package project.datastoreapi;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Crash-safe file replacement: write to a temporary file in the destination's
+ * directory, optionally fsync it, then publish it with an atomic rename.
+ *
+ * Readers see either the previous complete file or the new complete file,
+ * never a truncated or half-written one, and concurrent writers to the same
+ * destination each commit a whole file (the last rename wins). The temporary
+ * file lives in the same directory so the rename never crosses file systems.
+ */
+public final class AtomicFileCommit {
+
+    /** Writes the complete new content into the given temporary file */
+    public interface ContentWriter {
+        void write(Path temp) throws IOException;
+    }
+
+    private AtomicFileCommit() {
+    }
+
+    /** Write and atomically publish a file, fsyncing the data and directory if requested */
+    public static void write(Path destination, boolean fsync, ContentWriter writer) throws IOException {
+        Path temp = createTempFor(destination);
+        try {
+            writer.write(temp);
+            commit(temp, destination, fsync);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Create an empty temporary file next to the destination. It is created
+     * with the process umask (unlike Files.createTempFile, which uses 0600),
+     * so the committed file gets the same permissions a direct write would.
+     */
+    public static Path createTempFor(Path destination) throws IOException {
+        Path absolute = destination.toAbsolutePath();
+        Path directory = absolute.getParent();
+        String name = absolute.getFileName().toString();
+        while (true) {
+            long suffix = ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE;
+            Path temp = directory.resolve("." + name + "." + Long.toHexString(suffix) + ".tmp");
+            try {
+                return Files.createFile(temp);
+            } catch (FileAlreadyExistsException e) {
+                // Extremely unlikely collision; pick another name
+                continue;
+            }
+        }
+    }
+
+    /** Publish a fully written temporary file under the destination name */
+    public static void commit(Path temp, Path destination, boolean fsync) throws IOException {
+        if (fsync) {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+        }
+        try {
+            Files.move(temp, destination, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // Best effort on file systems without atomic rename
+            Files.move(temp, destination, StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (fsync) {
+            forceDirectory(destination.toAbsolutePath().getParent());
+        }
+    }
+
+    /** Persist the directory entry created by the rename (no-op where directories cannot be opened) */
+    private static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported on every platform (e.g. Windows); the rename itself is still atomic
+        }
+    }
+}
@@ -4,11 +4,18 @@ package project.datastoreapi;
 public class BasicDataReadRequest implements DataReadRequest {
     private final String source;
     private final DataFormat format;
+    private final String delimiters;
 
     /** Create read request for specific source and format */
     public BasicDataReadRequest(String source, DataFormat format) {
+        this(source, format, "");
+    }
+
+    /** Create read request whose values may also be separated by any of the delimiter characters */
+    public BasicDataReadRequest(String source, DataFormat format, String delimiters) {
         this.source = source;
         this.format = format;
+        this.delimiters = delimiters == null ? "" : delimiters;
     }
 
     @Override
@@ -20,4 +27,9 @@ public class BasicDataReadRequest implements DataReadRequest {
     public DataFormat getFormat() {
         return format;
     }
+
+    @Override
+    public String getDelimiters() {
+        return delimiters;
+    }
 }
\ No newline at end of file
@@ -5,11 +5,18 @@ public class BasicDataReadResponse implements DataReadResponse {
     private final RequestStatus status;
     private final String message;
     private final int[] data;
+    private final boolean sorted;
 
     public BasicDataReadResponse(RequestStatus status, String message, int[] data) {
+        this(status, message, data, false);
+    }
+
+    /** Create a response for data the source declares as non-decreasing */
+    public BasicDataReadResponse(RequestStatus status, String message, int[] data, boolean sorted) {
         this.status = status;
         this.message = message;
         this.data = data;
+        this.sorted = sorted;
     }
 
     @Override
@@ -26,4 +33,9 @@ public class BasicDataReadResponse implements DataReadResponse {
     public int[] getData() {
         return data;
     }
+
+    @Override
+    public boolean isSorted() {
+        return sorted;
+    }
 }
\ No newline at end of file
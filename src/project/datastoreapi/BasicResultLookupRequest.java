@@ -0,0 +1,30 @@
+package project.datastoreapi;
+
+/** Basic implementation of result lookup request */
+public class BasicResultLookupRequest implements ResultLookupRequest {
+    private final String source;
+    private final ResultLookupMode mode;
+    private final int key;
+
+    /** Create lookup request for a result file, lookup mode, and key */
+    public BasicResultLookupRequest(String source, ResultLookupMode mode, int key) {
+        this.source = source;
+        this.mode = mode;
+        this.key = key;
+    }
+
+    @Override
+    public String getSource() {
+        return source;
+    }
+
+    @Override
+    public ResultLookupMode getMode() {
+        return mode;
+    }
+
+    @Override
+    public int getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,44 @@
+package project.datastoreapi;
+
+// Basic implementation of ResultLookupResponse
+public class BasicResultLookupResponse implements ResultLookupResponse {
+    private final RequestStatus status;
+    private final String message;
+    private final int position;
+    private final int input;
+    private final String result;
+
+    public BasicResultLookupResponse(RequestStatus status, String message, 
+                                     int position, int input, String result) {
+        this.status = status;
+        this.message = message;
+        this.position = position;
+        this.input = input;
+        this.result = result;
+    }
+
+    @Override
+    public RequestStatus getStatus() {
+        return status;
+    }
+
+    @Override
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public int getPosition() {
+        return position;
+    }
+
+    @Override
+    public int getInput() {
+        return input;
+    }
+
+    @Override
+    public String getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,73 @@
+package project.datastoreapi;
+
+/**
+ * Write request that keeps the individual computation results alongside the
+ * delimiter-joined text, so the data store can lay results out per entry
+ * (indexes, shards, columns) instead of only seeing one opaque string.
+ */
+public class BasicResultWriteRequest extends BasicDataWriteRequest {
+	private static final String DEFAULT_COMPUTATION_MODE = "FACTORIAL";
+
+	private final int[] inputs;
+	private final String[] results;
+	private final String delimiter;
+	private final String computationMode;
+
+	/** Create a request for factorial results[i] computed from inputs[i], joined as "n=result" entries */
+	public BasicResultWriteRequest(String destination, DataFormat format, int[] inputs, String[] results,
+			String delimiter) {
+		this(destination, format, inputs, results, delimiter, DEFAULT_COMPUTATION_MODE);
+	}
+
+	/** Create a request whose results were produced by the named computation mode */
+	public BasicResultWriteRequest(String destination, DataFormat format, int[] inputs, String[] results,
+			String delimiter, String computationMode) {
+		super(destination, format, join(inputs, results, delimiter));
+		this.inputs = inputs;
+		this.results = results;
+		this.delimiter = delimiter;
+		this.computationMode = computationMode;
+	}
+
+	public int[] getInputs() {
+		return inputs;
+	}
+
+	public String[] getResults() {
+		return results;
+	}
+
+	public String getDelimiter() {
+		return delimiter;
+	}
+
+	/** Name of the computation mode, used to key shared results */
+	public String getComputationMode() {
+		return computationMode;
+	}
+
+	/** Number of result entries carried by this request */
+	public int getEntryCount() {
+		return inputs.length;
+	}
+
+	/** Render one entry exactly as it appears in the joined text */
+	public String formatEntry(int index) {
+		return inputs[index] + "=" + results[index];
+	}
+
+	/** Join results[i] computed from inputs[i] as delimited "n=result" entries */
+	public static String join(int[] inputs, String[] results, String delimiter) {
+		if (inputs == null || results == null || inputs.length != results.length) {
+			throw new IllegalArgumentException("Inputs and results must be non-null and the same length");
+		}
+		StringBuilder output = new StringBuilder();
+		for (int i = 0; i < inputs.length; i++) {
+			if (i > 0) {
+				output.append(delimiter);
+			}
+			output.append(inputs[i]).append('=').append(results[i]);
+		}
+		return output.toString();
+	}
+}
@@ -0,0 +1,197 @@
+package project.datastoreapi;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads a columnar result container written by ColumnarResultWriter. Each
+ * column is read on demand with positional reads, so scanning inputs or
+ * lengths reads only those columns, and fetching one result inflates only the
+ * payload block that holds it.
+ */
+public class ColumnarResultReader implements Closeable {
+
+    private final FileChannel channel;
+    private final int entryCount;
+    private final int blockEntries;
+    private final Column inputs;
+    private final Column lengths;
+    private final int blockCount;
+    private final long blockIndexOffset;
+    private long bytesRead;
+
+    private int[] lengthCache;
+
+    public ColumnarResultReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = read(0, ColumnarResultWriter.HEADER_BYTES);
+            if (header.getInt() != ColumnarResultWriter.MAGIC) {
+                throw new IOException("Not a columnar result file: " + file);
+            }
+            int version = header.getInt();
+            if (version != ColumnarResultWriter.VERSION) {
+                throw new IOException("Unsupported columnar version " + version);
+            }
+            this.entryCount = header.getInt();
+            this.blockEntries = header.getInt();
+            this.inputs = new Column(header.getInt(), header.getInt(), header.getLong(), header.getLong());
+            this.lengths = new Column(header.getInt(), header.getInt(), header.getLong(), header.getLong());
+            this.blockCount = header.getInt();
+            this.blockIndexOffset = header.getLong();
+            if (entryCount < 0 || blockEntries <= 0 || inputs.bitWidth > 32 || lengths.bitWidth > 32) {
+                throw new IOException("Corrupt columnar header in " + file);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    /** Bytes read from the file so far; lets callers confirm which columns a scan touched */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /** Decode the whole input column */
+    public int[] readInputs() throws IOException {
+        return inputs.decode();
+    }
+
+    /** Decode the whole result-length column (UTF-8 bytes, i.e. digits for numeric results) */
+    public int[] readLengths() throws IOException {
+        if (lengthCache == null) {
+            lengthCache = lengths.decode();
+        }
+        return lengthCache.clone();
+    }
+
+    /** Fetch one result, inflating only the payload block that contains it */
+    public String readResult(int position) throws IOException {
+        if (position < 0 || position >= entryCount) {
+            throw new IndexOutOfBoundsException("No entry at position " + position);
+        }
+        int block = position / blockEntries;
+        byte[] raw = inflateBlock(block);
+        int[] allLengths = lengthCache != null ? lengthCache : (lengthCache = lengths.decode());
+        int offset = 0;
+        for (int i = block * blockEntries; i < position; i++) {
+            offset += allLengths[i];
+        }
+        return new String(raw, offset, allLengths[position], StandardCharsets.UTF_8);
+    }
+
+    /** Fetch every result in input order */
+    public String[] readResults() throws IOException {
+        String[] results = new String[entryCount];
+        int[] allLengths = lengthCache != null ? lengthCache : (lengthCache = lengths.decode());
+        for (int block = 0; block < blockCount; block++) {
+            byte[] raw = inflateBlock(block);
+            int offset = 0;
+            int end = Math.min(entryCount, (block + 1) * blockEntries);
+            for (int i = block * blockEntries; i < end; i++) {
+                results[i] = new String(raw, offset, allLengths[i], StandardCharsets.UTF_8);
+                offset += allLengths[i];
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private byte[] inflateBlock(int block) throws IOException {
+        ByteBuffer entry = read(blockIndexOffset + (long) block * ColumnarResultWriter.BLOCK_INDEX_ENTRY_BYTES,
+            ColumnarResultWriter.BLOCK_INDEX_ENTRY_BYTES);
+        long offset = entry.getLong();
+        int compressedLength = entry.getInt();
+        int rawLength = entry.getInt();
+
+        ByteBuffer compressed = read(offset, compressedLength);
+        byte[] raw = new byte[rawLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed.array(), 0, compressedLength);
+            int filled = 0;
+            while (filled < rawLength) {
+                int n = inflater.inflate(raw, filled, rawLength - filled);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new IOException("Truncated payload block " + block);
+                }
+                filled += n;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt payload block " + block, e);
+        } finally {
+            inflater.end();
+        }
+        return raw;
+    }
+
+    private ByteBuffer read(long position, long length) throws IOException {
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new IOException("Invalid column length " + length);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Columnar file is truncated");
+            }
+        }
+        bytesRead += length;
+        buffer.flip();
+        return buffer;
+    }
+
+    /** Location and packing of one bit-packed integer column */
+    private final class Column {
+        final int reference;
+        final int bitWidth;
+        final long offset;
+        final long byteLength;
+
+        Column(int reference, int bitWidth, long offset, long byteLength) {
+            this.reference = reference;
+            this.bitWidth = bitWidth;
+            this.offset = offset;
+            this.byteLength = byteLength;
+        }
+
+        int[] decode() throws IOException {
+            int[] values = new int[entryCount];
+            if (bitWidth == 0) {
+                Arrays.fill(values, reference);
+                return values;
+            }
+            ByteBuffer packed = read(offset, byteLength);
+            long[] words = new long[(int) (byteLength / Long.BYTES)];
+            packed.asLongBuffer().get(words);
+            long mask = (1L << bitWidth) - 1;
+            for (int i = 0; i < entryCount; i++) {
+                long bit = (long) i * bitWidth;
+                int word = (int) (bit >>> 6);
+                int shift = (int) (bit & 63);
+                long delta = words[word] >>> shift;
+                if (shift + bitWidth > 64) {
+                    delta |= words[word + 1] << (64 - shift);
+                }
+                values[i] = (int) (reference + (delta & mask));
+            }
+            return values;
+        }
+    }
+}
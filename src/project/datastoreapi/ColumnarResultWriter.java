@@ -0,0 +1,202 @@
+package project.datastoreapi;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Writes results as a columnar container: inputs, result lengths and result
+ * payloads are stored as separate columns so scans that only need inputs or
+ * digit counts never touch the payload bytes.
+ *
+ * Layout (big-endian):
+ *
+ *   header    magic "RCOL", version, entry count, entries per payload block  (4 ints)
+ *   inputs    reference, bit width, offset, byte length                      (int, int, long, long)
+ *   lengths   reference, bit width, offset, byte length                      (int, int, long, long)
+ *   payload   block count, block index offset, byte length                   (int, long, long)
+ *   columns   bit-packed inputs, bit-packed lengths, payload block index, deflated blocks
+ *
+ * The two integer columns are frame-of-reference bit-packed: each value is
+ * stored as (value - reference) in the fewest bits that fit the column's range,
+ * packed little-endian into 64-bit words. The payload column concatenates the
+ * UTF-8 results without separators and deflates them in blocks of a fixed
+ * number of entries; each block index entry holds the block's offset,
+ * compressed length and raw length, so one result decompresses only its block.
+ */
+public final class ColumnarResultWriter {
+
+    static final int MAGIC = 0x52434f4c; // "RCOL"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 4 * Integer.BYTES + 2 * (2 * Integer.BYTES + 2 * Long.BYTES)
+        + Integer.BYTES + 2 * Long.BYTES;
+    static final int BLOCK_INDEX_ENTRY_BYTES = Long.BYTES + 2 * Integer.BYTES;
+
+    public static final int DEFAULT_BLOCK_ENTRIES = 1024;
+
+    private ColumnarResultWriter() {
+    }
+
+    /** Encode a result request as a columnar container */
+    public static byte[] encode(BasicResultWriteRequest request) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        write(out, request, DEFAULT_BLOCK_ENTRIES);
+        return out.toByteArray();
+    }
+
+    public static void write(OutputStream stream, BasicResultWriteRequest request) throws IOException {
+        write(stream, request, DEFAULT_BLOCK_ENTRIES);
+    }
+
+    public static void write(OutputStream stream, BasicResultWriteRequest request, int blockEntries)
+            throws IOException {
+        if (blockEntries <= 0) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        int[] inputs = request.getInputs();
+        String[] results = request.getResults();
+        int count = inputs.length;
+
+        byte[][] payloads = new byte[count][];
+        int[] lengths = new int[count];
+        for (int i = 0; i < count; i++) {
+            payloads[i] = results[i].getBytes(StandardCharsets.UTF_8);
+            lengths[i] = payloads[i].length;
+        }
+
+        PackedColumn inputColumn = PackedColumn.pack(inputs);
+        PackedColumn lengthColumn = PackedColumn.pack(lengths);
+        List<byte[]> blocks = new ArrayList<>();
+        List<Integer> rawLengths = new ArrayList<>();
+        compressBlocks(payloads, blockEntries, blocks, rawLengths);
+
+        long inputOffset = HEADER_BYTES;
+        long lengthOffset = inputOffset + inputColumn.byteLength();
+        long blockIndexOffset = lengthOffset + lengthColumn.byteLength();
+        long blockDataOffset = blockIndexOffset + (long) blocks.size() * BLOCK_INDEX_ENTRY_BYTES;
+        long payloadBytes = 0;
+        for (byte[] block : blocks) {
+            payloadBytes += block.length;
+        }
+
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(count);
+        out.writeInt(blockEntries);
+        writeColumnHeader(out, inputColumn, inputOffset);
+        writeColumnHeader(out, lengthColumn, lengthOffset);
+        out.writeInt(blocks.size());
+        out.writeLong(blockIndexOffset);
+        out.writeLong(payloadBytes);
+
+        inputColumn.writeWords(out);
+        lengthColumn.writeWords(out);
+
+        long blockOffset = blockDataOffset;
+        for (int i = 0; i < blocks.size(); i++) {
+            out.writeLong(blockOffset);
+            out.writeInt(blocks.get(i).length);
+            out.writeInt(rawLengths.get(i));
+            blockOffset += blocks.get(i).length;
+        }
+        for (byte[] block : blocks) {
+            out.write(block);
+        }
+        out.flush();
+    }
+
+    private static void writeColumnHeader(DataOutputStream out, PackedColumn column, long offset)
+            throws IOException {
+        out.writeInt(column.reference);
+        out.writeInt(column.bitWidth);
+        out.writeLong(offset);
+        out.writeLong(column.byteLength());
+    }
+
+    private static void compressBlocks(byte[][] payloads, int blockEntries, List<byte[]> blocks,
+            List<Integer> rawLengths) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        byte[] chunk = new byte[64 * 1024];
+        try {
+            for (int start = 0; start < payloads.length; start += blockEntries) {
+                int end = Math.min(payloads.length, start + blockEntries);
+                ByteArrayOutputStream raw = new ByteArrayOutputStream();
+                for (int i = start; i < end; i++) {
+                    raw.write(payloads[i], 0, payloads[i].length);
+                }
+
+                deflater.reset();
+                deflater.setInput(raw.toByteArray());
+                deflater.finish();
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+                while (!deflater.finished()) {
+                    int n = deflater.deflate(chunk);
+                    compressed.write(chunk, 0, n);
+                }
+                blocks.add(compressed.toByteArray());
+                rawLengths.add(raw.size());
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /** Frame-of-reference bit-packed integer column */
+    static final class PackedColumn {
+        final int reference;
+        final int bitWidth;
+        final long[] words;
+
+        private PackedColumn(int reference, int bitWidth, long[] words) {
+            this.reference = reference;
+            this.bitWidth = bitWidth;
+            this.words = words;
+        }
+
+        static PackedColumn pack(int[] values) {
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            for (int value : values) {
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            if (values.length == 0) {
+                return new PackedColumn(0, 0, new long[0]);
+            }
+            long range = (long) max - min;
+            int bitWidth = 64 - Long.numberOfLeadingZeros(range);
+            long[] words = new long[wordCount(values.length, bitWidth)];
+            for (int i = 0; i < values.length; i++) {
+                long delta = (long) values[i] - min;
+                long bit = (long) i * bitWidth;
+                int word = (int) (bit >>> 6);
+                int shift = (int) (bit & 63);
+                words[word] |= delta << shift;
+                if (shift + bitWidth > 64) {
+                    words[word + 1] |= delta >>> (64 - shift);
+                }
+            }
+            return new PackedColumn(min, bitWidth, words);
+        }
+
+        static int wordCount(int count, int bitWidth) {
+            return (int) (((long) count * bitWidth + 63) >>> 6);
+        }
+
+        long byteLength() {
+            return (long) words.length * Long.BYTES;
+        }
+
+        void writeWords(DataOutputStream out) throws IOException {
+            for (long word : words) {
+                out.writeLong(word);
+            }
+        }
+    }
+}
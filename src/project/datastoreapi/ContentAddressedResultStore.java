@@ -0,0 +1,274 @@
+package project.datastoreapi;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Result store shared across jobs and restarts.
+ *
+ * Each distinct encoded result is kept once on disk, addressed by its key
+ * (computation mode, input), under root/MODE/bucket/n.res. Blobs are published
+ * with an atomic rename, so concurrent jobs storing the same key never expose
+ * a partial blob. The in-memory index is an LRU map of key to blob size with a
+ * fixed entry limit; a miss falls back to the file system, so evicting an entry
+ * costs one stat call, not a recomputation.
+ *
+ * Job outputs are assembled by copying blobs into the output file with
+ * FileChannel.transferTo, which lets the kernel copy file to file without
+ * pulling the digits through the Java heap.
+ *
+ * Computation modes name a directory under the root, so only simple names
+ * (letters, digits and underscores, like the ComputationMode constants)
+ * are accepted.
+ */
+public class ContentAddressedResultStore {
+
+    private static final int DEFAULT_MAX_INDEX_ENTRIES = 100_000;
+    private static final int BUCKETS = 256;
+    private static final String BLOB_SUFFIX = ".res";
+    private static final Pattern MODE_NAME = Pattern.compile("[A-Za-z0-9_]+");
+
+    private final Path root;
+    private final Map<String, Long> index;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong stored = new AtomicLong();
+
+    public ContentAddressedResultStore(Path root) throws IOException {
+        this(root, DEFAULT_MAX_INDEX_ENTRIES);
+    }
+
+    public ContentAddressedResultStore(Path root, int maxIndexEntries) throws IOException {
+        if (maxIndexEntries <= 0) {
+            throw new IllegalArgumentException("Index size must be positive");
+        }
+        this.root = Files.createDirectories(root);
+        // Access-ordered map that drops the least recently used key past the limit
+        this.index = new LinkedHashMap<String, Long>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > maxIndexEntries;
+            }
+        };
+    }
+
+    /** Return the stored result for (mode, n), or null if it has never been stored */
+    public String lookup(String mode, int n) {
+        Path blob = blobPath(mode, n);
+        try {
+            String result = new String(Files.readAllBytes(blob), StandardCharsets.US_ASCII);
+            remember(mode, n, result.length());
+            hits.incrementAndGet();
+            return result;
+        } catch (NoSuchFileException e) {
+            misses.incrementAndGet();
+            return null;
+        } catch (IOException e) {
+            System.err.println("Error reading stored result " + blob + ": " + e.getMessage());
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    /** Check whether (mode, n) has a stored result, consulting the index first */
+    public boolean contains(String mode, int n) {
+        return blobSize(mode, n) >= 0;
+    }
+
+    /**
+     * Store a result once. Results that are not plain digit strings (for
+     * example error messages) are not cached. Returns true if a new blob was
+     * written.
+     */
+    public boolean store(String mode, int n, String result) throws IOException {
+        if (!isStorable(result) || contains(mode, n)) {
+            return false;
+        }
+        Path blob = blobPath(mode, n);
+        Files.createDirectories(blob.getParent());
+        AtomicFileCommit.write(blob, false, temp -> Files.write(temp, result.getBytes(StandardCharsets.US_ASCII)));
+        remember(mode, n, result.length());
+        stored.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Write a job output of "n=result" entries joined by the delimiter. Stored
+     * results are copied from their blobs with transferTo; anything not in the
+     * store (such as error messages), or whose blob does not match the given
+     * result, is written from the given results.
+     */
+    public void assemble(Path output, String mode, int[] inputs, String[] results, String delimiter)
+            throws IOException {
+        assemble(output, mode, inputs, results, delimiter, ByteBuffer.allocate(8 * 1024));
+    }
+
+    /** Assemble an output file, staging the small non-blob pieces in the caller's buffer */
+    public void assemble(Path output, String mode, int[] inputs, String[] results, String delimiter,
+            ByteBuffer pending) throws IOException {
+        byte[] delimiterBytes = delimiter.getBytes(StandardCharsets.UTF_8);
+        pending.clear();
+
+        try (FileChannel out = FileChannel.open(output, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (int i = 0; i < inputs.length; i++) {
+                if (i > 0) {
+                    append(out, pending, delimiterBytes);
+                }
+                append(out, pending, (inputs[i] + "=").getBytes(StandardCharsets.US_ASCII));
+
+                long size = blobSize(mode, inputs[i]);
+                if (size < 0) {
+                    append(out, pending, results[i].getBytes(StandardCharsets.UTF_8));
+                    continue;
+                }
+                drain(out, pending);
+                if (!copyBlob(out, mode, inputs[i], results[i])) {
+                    append(out, pending, results[i].getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            drain(out, pending);
+        }
+    }
+
+    /**
+     * Copy the blob for (mode, n) to out if it holds exactly the expected
+     * result. A blob of another length (truncated, replaced, or sized
+     * differently than the index recorded) is not copied, and its index
+     * entry is dropped. Returns false if nothing was copied.
+     */
+    private boolean copyBlob(FileChannel out, String mode, int n, String expected) throws IOException {
+        try (FileChannel blob = FileChannel.open(blobPath(mode, n), StandardOpenOption.READ)) {
+            long size = blob.size();
+            // Only digit strings are stored, so their length is their size in bytes
+            if (!isStorable(expected) || size != expected.length()) {
+                forget(mode, n);
+                return false;
+            }
+            long position = 0;
+            while (position < size) {
+                long copied = blob.transferTo(position, size - position, out);
+                if (copied <= 0) {
+                    throw new IOException("Stored result " + blobPath(mode, n) + " ended after " + position
+                        + " of " + size + " bytes");
+                }
+                position += copied;
+            }
+            return true;
+        } catch (NoSuchFileException e) {
+            forget(mode, n);
+            return false;
+        }
+    }
+
+    /** Whether mode can name results in the store */
+    public static boolean isValidMode(String mode) {
+        return mode != null && MODE_NAME.matcher(mode).matches();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getStoredCount() {
+        return stored.get();
+    }
+
+    /** Number of keys currently held in the in-memory index */
+    public int getIndexSize() {
+        synchronized (index) {
+            return index.size();
+        }
+    }
+
+    private long blobSize(String mode, int n) {
+        String key = key(mode, n);
+        synchronized (index) {
+            Long size = index.get(key);
+            if (size != null) {
+                return size;
+            }
+        }
+        try {
+            long size = Files.size(blobPath(mode, n));
+            remember(mode, n, size);
+            return size;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private void remember(String mode, int n, long size) {
+        synchronized (index) {
+            index.put(key(mode, n), size);
+        }
+    }
+
+    private void forget(String mode, int n) {
+        synchronized (index) {
+            index.remove(key(mode, n));
+        }
+    }
+
+    private Path blobPath(String mode, int n) {
+        if (!isValidMode(mode)) {
+            throw new IllegalArgumentException("Invalid computation mode for result store: " + mode);
+        }
+        String bucket = String.format("%02x", Math.floorMod(n, BUCKETS));
+        return root.resolve(mode).resolve(bucket).resolve(n + BLOB_SUFFIX);
+    }
+
+    private static String key(String mode, int n) {
+        return mode + ":" + n;
+    }
+
+    private static boolean isStorable(String result) {
+        if (result == null || result.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < result.length(); i++) {
+            char c = result.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void append(FileChannel out, ByteBuffer pending, byte[] bytes) throws IOException {
+        if (bytes.length > pending.remaining()) {
+            drain(out, pending);
+            if (bytes.length > pending.capacity()) {
+                ByteBuffer large = ByteBuffer.wrap(bytes);
+                while (large.hasRemaining()) {
+                    out.write(large);
+                }
+                return;
+            }
+        }
+        pending.put(bytes);
+    }
+
+    private static void drain(FileChannel out, ByteBuffer pending) throws IOException {
+        pending.flip();
+        while (pending.hasRemaining()) {
+            out.write(pending);
+        }
+        pending.clear();
+    }
+}
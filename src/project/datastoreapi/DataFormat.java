@@ -5,5 +5,10 @@ public enum DataFormat {
     INTEGER_ARRAY,  // Array of integers
     INTEGER_LIST,   // List of integers
     BINARY,         // Binary format
-    TEXT            // Text format
+    TEXT,           // Text format
+    GZIP,           // Gzip-compressed text
+    INDEXED_TEXT,   // Text with a sidecar offset index per result
+    SHARDED,        // Results split by position across shard files plus a manifest
+    VARINT_DELTA,   // Block-indexed zigzag varint deltas (input only)
+    COLUMNAR        // Bit-packed input and length columns plus block-compressed payloads (output only)
 }
\ No newline at end of file
@@ -7,4 +7,9 @@ public interface DataReadRequest {
     
     /** Get data format for reading */
     DataFormat getFormat();
+
+    /** Get extra characters that separate input values besides whitespace and line breaks */
+    default String getDelimiters() {
+        return "";
+    }
 }
\ No newline at end of file
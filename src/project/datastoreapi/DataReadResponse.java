@@ -10,4 +10,9 @@ public interface DataReadResponse {
     
     /** Get read integer data (array wrapper) */
     int[] getData();
+
+    /** Whether the data is known to be in non-decreasing order */
+    default boolean isSorted() {
+        return false;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+package project.datastoreapi;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool of equally sized direct ByteBuffers for data-store I/O.
+ *
+ * Buffers are allocated lazily up to a fixed count and recycled through a
+ * lock-free queue, so steady-state reads and writes do not allocate. When every
+ * pooled buffer is in use, acquire() hands out a temporary heap buffer rather
+ * than blocking I/O; these overflows are counted so the pool can be sized from
+ * the reported utilization.
+ */
+public class DirectBufferPool {
+
+    private final int bufferSize;
+    private final int maxBuffers;
+    private final ConcurrentLinkedQueue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger allocated = new AtomicInteger();
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicInteger peakInUse = new AtomicInteger();
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong overflows = new AtomicLong();
+
+    public DirectBufferPool(int bufferSize, int maxBuffers) {
+        if (bufferSize <= 0 || maxBuffers <= 0) {
+            throw new IllegalArgumentException("Buffer size and count must be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.maxBuffers = maxBuffers;
+    }
+
+    /** Take a cleared buffer; release it when the I/O is done */
+    public ByteBuffer acquire() {
+        acquisitions.incrementAndGet();
+        ByteBuffer buffer = free.poll();
+        if (buffer == null) {
+            if (allocated.incrementAndGet() <= maxBuffers) {
+                buffer = ByteBuffer.allocateDirect(bufferSize);
+            } else {
+                allocated.decrementAndGet();
+                overflows.incrementAndGet();
+                return ByteBuffer.allocate(bufferSize);
+            }
+        }
+        peakInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+        buffer.clear();
+        return buffer;
+    }
+
+    /** Return a buffer obtained from acquire(); overflow heap buffers are simply dropped */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect() || buffer.capacity() != bufferSize) {
+            return;
+        }
+        inUse.decrementAndGet();
+        buffer.clear();
+        free.offer(buffer);
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public int getMaxBuffers() {
+        return maxBuffers;
+    }
+
+    /** Direct buffers allocated so far (never more than the maximum) */
+    public int getAllocatedBuffers() {
+        return allocated.get();
+    }
+
+    public int getBuffersInUse() {
+        return inUse.get();
+    }
+
+    public int getPeakBuffersInUse() {
+        return peakInUse.get();
+    }
+
+    public long getAcquisitions() {
+        return acquisitions.get();
+    }
+
+    /** Acquisitions served by a temporary heap buffer because the pool was exhausted */
+    public long getOverflows() {
+        return overflows.get();
+    }
+
+    /** Fraction of the pool currently checked out */
+    public double getUtilization() {
+        return (double) inUse.get() / maxBuffers;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DirectBufferPool[size=%d, inUse=%d/%d, peak=%d, acquisitions=%d, overflows=%d]",
+            bufferSize, inUse.get(), maxBuffers, peakInUse.get(), acquisitions.get(), overflows.get());
+    }
+}
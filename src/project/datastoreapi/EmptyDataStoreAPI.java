@@ -1,28 +1,74 @@
 package project.datastoreapi;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * File-based implementation of DataStoreAPI that can read and write to user-specified files.
- * Matches the functionality of DataStorageAPIIm - reads one integer per line and writes formatted results.
+ * Matches the functionality of DataStorageAPIIm - reads integers (one per line, or separated by the
+ * request's delimiters) and writes formatted results.
+ *
+ * Storage goes through a StorageBackend. The default FileStorageBackend treats sources and
+ * destinations as file paths; other backends (e.g. LogStructuredStorageBackend) treat them as keys.
  */
-public class EmptyDataStoreAPI implements DataStoreAPI {
+public class EmptyDataStoreAPI implements AsyncDataStoreAPI {
+
+    // Maximum number of writes waiting for the write-behind thread before producers block
+    private static final int WRITE_BEHIND_QUEUE_CAPACITY = 64;
+
+    // I/O buffer size until configureStream sets one, and the floor applied to configured sizes
+    private static final int DEFAULT_IO_BUFFER_SIZE = 64 * 1024;
+    private static final int MIN_IO_BUFFER_SIZE = 4 * 1024;
+
+    // Ceiling on a configured buffer size; every pooled buffer and the write-behind buffer are this big
+    public static final int MAX_STREAM_BUFFER_SIZE = 8 * 1024 * 1024;
+
+    // Enough pooled buffers for every core to have a read and a write in flight
+    private static final int MAX_POOLED_BUFFERS = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+
+    // STREAM mode hands writes to a write-behind writer instead of writing inline
+    private DataStreamMode streamMode = DataStreamMode.BATCH;
+    private FsyncPolicy fsyncPolicy = FsyncPolicy.NONE;
+    private volatile WriteBehindWriter writeBehindWriter;
+
+    // Optional cross-job store that keeps each distinct result once
+    private volatile ContentAddressedResultStore resultStore;
+
+    // Parsed inputs shared by jobs that resubmit the same file; null disables caching
+    private volatile InputFileCache inputCache = new InputFileCache();
+
+    // Direct buffers shared by every read and write path, resized by configureStream
+    private volatile DirectBufferPool bufferPool = new DirectBufferPool(DEFAULT_IO_BUFFER_SIZE, MAX_POOLED_BUFFERS);
+
+    // Upper bound on shard files per SHARDED write
+    private volatile int shardCount = ShardedResultWriter.defaultShardCount();
+
+    // Where sources and destinations are stored; file paths unless another backend is given
+    private final StorageBackend storage;
 
     public EmptyDataStoreAPI() {
-        // No parameters needed for basic file operations
+        this(new FileStorageBackend());
+    }
+
+    public EmptyDataStoreAPI(StorageBackend storage) {
+        if (storage == null) {
+            throw new IllegalArgumentException("Storage backend cannot be null");
+        }
+        this.storage = storage;
     }
 
     @Override
     public DataReadResponse readData(DataReadRequest request) {
         try {
-            List<Integer> data = new ArrayList<>();
-            
             if (request == null) {
                 return new BasicDataReadResponse(
                     RequestStatus.REJECTED, 
@@ -39,9 +85,22 @@ public class EmptyDataStoreAPI implements DataStoreAPI {
                 );
             }
             
-            // Add file extension validation
             String source = request.getSource();
-            if (!source.toLowerCase().endsWith(".txt")) {
+            Path sourcePath = storage.localPath(source);
+            if (sourcePath == null) {
+                return readFromBackend(request);
+            }
+
+            // Add file extension validation
+            boolean varintDelta = request.getFormat() == DataFormat.VARINT_DELTA;
+            if (varintDelta && !source.toLowerCase().endsWith(VarintDeltaCodec.FILE_EXTENSION)) {
+                return new BasicDataReadResponse(
+                    RequestStatus.REJECTED,
+                    "VARINT_DELTA input must be a " + VarintDeltaCodec.FILE_EXTENSION + " file",
+                    new int[0]
+                );
+            }
+            if (!varintDelta && !source.toLowerCase().endsWith(".txt")) {
                 return new BasicDataReadResponse(
                     RequestStatus.REJECTED,
                     "Only .txt files are supported", 
@@ -58,17 +117,38 @@ public class EmptyDataStoreAPI implements DataStoreAPI {
                 );
             }
             
-            try (BufferedReader reader = new BufferedReader(new FileReader(request.getSource()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    line = line.trim();
-                    if (!line.isEmpty()) {
-                        data.add(Integer.parseInt(line));
+            if (varintDelta) {
+                return readVarintDelta(sourcePath);
+            }
+
+            // Values may be separated by whitespace, line breaks or the request's delimiters
+            String delimiters = request.getDelimiters() == null ? "" : request.getDelimiters();
+
+            // Repeat jobs against an unchanged file skip reading and parsing entirely
+            InputFileCache cache = inputCache;
+            InputFileCache.Signature signature = null;
+            if (cache != null) {
+                try {
+                    signature = InputFileCache.signatureOf(sourcePath);
+                    int[] cached = cache.get(sourcePath, signature, delimiters);
+                    if (cached != null) {
+                        return new BasicDataReadResponse(
+                            RequestStatus.ACCEPTED,
+                            "Successfully read " + cached.length + " integers from cache",
+                            cached
+                        );
                     }
+                } catch (IOException e) {
+                    // Missing file - fall through so the read below reports the error
+                    signature = null;
+                }
+            }
+
+            try {
+                int[] dataArray = parseIntegers(sourcePath, delimiters);
+                if (cache != null && signature != null) {
+                    cache.putIfUnchanged(sourcePath, signature, delimiters, dataArray);
                 }
-                
-                // Convert List<Integer> to int[]
-                int[] dataArray = data.stream().mapToInt(i -> i).toArray();
                 return new BasicDataReadResponse(
                     RequestStatus.ACCEPTED,
                     "Successfully read " + dataArray.length + " integers",
@@ -101,61 +181,217 @@ public class EmptyDataStoreAPI implements DataStoreAPI {
         }
     }
 
+    /** Reads are done before this returns; the future is already complete */
+    @Override
+    public CompletableFuture<DataReadResponse> readDataAsync(DataReadRequest request) {
+        return CompletableFuture.completedFuture(readData(request));
+    }
+
+    /**
+     * Write the request's data. In STREAM mode the payload goes through the
+     * write-behind writer and this blocks until it has reached the file; use
+     * writeDataAsync to carry on while it is written.
+     */
     @Override
     public DataWriteResponse writeData(DataWriteRequest request) {
+        return writeDataAsync(request).join();
+    }
+
+    /**
+     * Start writing the request's data. Outside STREAM mode the write is done
+     * before this returns. In STREAM mode the future completes once the
+     * write-behind writer has written the payload, with a rejection if that
+     * write failed.
+     */
+    @Override
+    public CompletableFuture<DataWriteResponse> writeDataAsync(DataWriteRequest request) {
         try {
             if (request == null) {
-                return new BasicDataWriteResponse(
+                return CompletableFuture.completedFuture(new BasicDataWriteResponse(
                     RequestStatus.REJECTED, 
                     "Request cannot be null"
-                );
+                ));
             }
             
             if (request.getDestination() == null || request.getDestination().isEmpty()) {
-                return new BasicDataWriteResponse(
+                return CompletableFuture.completedFuture(new BasicDataWriteResponse(
                     RequestStatus.REJECTED,
                     "Destination cannot be null or empty"
-                );
+                ));
             }
 
             // Check if this is a BasicDataWriteRequest with data
             if (!(request instanceof BasicDataWriteRequest)) {
-                return new BasicDataWriteResponse(
+                return CompletableFuture.completedFuture(new BasicDataWriteResponse(
                     RequestStatus.REJECTED,
                     "Only BasicDataWriteRequest with data is supported"
-                );
+                ));
             }
 
             BasicDataWriteRequest basicRequest = (BasicDataWriteRequest) request;
             String dataToWrite = basicRequest.getData();
             
             if (dataToWrite == null) {
-                return new BasicDataWriteResponse(
+                return CompletableFuture.completedFuture(new BasicDataWriteResponse(
                     RequestStatus.REJECTED,
                     "No data provided to write"
-                );
+                ));
             }
 
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(request.getDestination()))) {
-                writer.write(dataToWrite);
-                return new BasicDataWriteResponse(
+            boolean compressed = isCompressedOutput(request);
+            boolean indexed = request.getFormat() == DataFormat.INDEXED_TEXT;
+            boolean sharded = request.getFormat() == DataFormat.SHARDED;
+            boolean columnar = request.getFormat() == DataFormat.COLUMNAR;
+
+            if (indexed && (compressed || !(request instanceof BasicResultWriteRequest))) {
+                return CompletableFuture.completedFuture(new BasicDataWriteResponse(
+                    RequestStatus.REJECTED,
+                    "Indexed output requires an uncompressed BasicResultWriteRequest"
+                ));
+            }
+
+            if (sharded && (compressed || !(request instanceof BasicResultWriteRequest))) {
+                return CompletableFuture.completedFuture(new BasicDataWriteResponse(
+                    RequestStatus.REJECTED,
+                    "Sharded output requires an uncompressed BasicResultWriteRequest"
+                ));
+            }
+
+            if (columnar && !(request instanceof BasicResultWriteRequest)) {
+                return CompletableFuture.completedFuture(new BasicDataWriteResponse(
+                    RequestStatus.REJECTED,
+                    "Columnar output requires a BasicResultWriteRequest"
+                ));
+            }
+
+            Path destination = storage.localPath(request.getDestination());
+            if (destination == null && (indexed || sharded)) {
+                return CompletableFuture.completedFuture(new BasicDataWriteResponse(
+                    RequestStatus.REJECTED,
+                    request.getFormat() + " output requires a file storage backend"
+                ));
+            }
+
+            WriteBehindWriter behindWriter = writeBehindWriter;
+            ContentAddressedResultStore store = resultStore;
+            BasicResultWriteRequest resultRequest = request instanceof BasicResultWriteRequest
+                ? (BasicResultWriteRequest) request
+                : null;
+            if (store != null && resultRequest != null
+                    && !ContentAddressedResultStore.isValidMode(resultRequest.getComputationMode())) {
+                return CompletableFuture.completedFuture(new BasicDataWriteResponse(
+                    RequestStatus.REJECTED,
+                    "Invalid computation mode: " + resultRequest.getComputationMode()
+                ));
+            }
+
+            try {
+                if (store != null && resultRequest != null) {
+                    storeResults(store, resultRequest);
+                }
+
+                if (destination == null) {
+                    // Key-value backends take the whole encoded value; they already append sequentially
+                    byte[] value = columnar
+                        ? ColumnarResultWriter.encode(resultRequest)
+                        : encodePayload(dataToWrite, compressed);
+                    storage.write(request.getDestination(), value);
+                    return CompletableFuture.completedFuture(new BasicDataWriteResponse(
+                        RequestStatus.ACCEPTED,
+                        "Successfully wrote " + value.length + " bytes to key: " + request.getDestination()
+                    ));
+                }
+
+                if (sharded) {
+                    // Shards already have their own parallel writers, so they bypass write-behind
+                    ShardManifest manifest = ShardedResultWriter.write(destination,
+                        resultRequest, shardCount, bufferPool, fsyncPolicy == FsyncPolicy.ON_COMPLETION);
+                    return CompletableFuture.completedFuture(new BasicDataWriteResponse(
+                        RequestStatus.ACCEPTED,
+                        "Successfully wrote " + manifest.getShardCount() + " shards to file: " + request.getDestination()
+                    ));
+                }
+
+                if (columnar) {
+                    // The columns carry their own block compression, so the text form is never written
+                    if (behindWriter != null) {
+                        return queueWrite(behindWriter, request.getDestination(), ColumnarResultWriter.encode(resultRequest));
+                    }
+                    AtomicFileCommit.write(destination,
+                        fsyncPolicy == FsyncPolicy.ON_COMPLETION, temp -> {
+                            try (PooledChannelOutputStream out = openPooledOutput(temp)) {
+                                ColumnarResultWriter.write(out, resultRequest);
+                            }
+                        });
+                    return CompletableFuture.completedFuture(new BasicDataWriteResponse(
+                        RequestStatus.ACCEPTED,
+                        "Successfully wrote columnar data to file: " + request.getDestination()
+                    ));
+                }
+
+                if (behindWriter != null) {
+                    CompletableFuture<DataWriteResponse> queued = queueWrite(behindWriter, request.getDestination(),
+                        encodePayload(dataToWrite, compressed));
+                    if (!indexed) {
+                        return queued;
+                    }
+                    // Queued after the data, so the index never lands before the file it describes
+                    ByteArrayOutputStream index = new ByteArrayOutputStream();
+                    ResultIndex.write(index, (BasicResultWriteRequest) request);
+                    CompletableFuture<DataWriteResponse> indexQueued = queueWrite(behindWriter,
+                        ResultIndex.indexPathFor(request.getDestination()), index.toByteArray());
+                    return queued.thenCombine(indexQueued, (data, indexWrite) ->
+                        data.getStatus() == RequestStatus.ACCEPTED ? indexWrite : data);
+                }
+
+                // Write to a temp file beside the destination and publish it with an atomic rename
+                boolean fsync = fsyncPolicy == FsyncPolicy.ON_COMPLETION;
+                AtomicFileCommit.write(destination, fsync, temp -> {
+                    if (store != null && resultRequest != null && !compressed) {
+                        // Copy shared results into the output instead of re-encoding them
+                        DirectBufferPool pool = bufferPool;
+                        ByteBuffer staging = pool.acquire();
+                        try {
+                            store.assemble(temp, resultRequest.getComputationMode(), resultRequest.getInputs(),
+                                resultRequest.getResults(), resultRequest.getDelimiter(), staging);
+                        } finally {
+                            pool.release(staging);
+                        }
+                    } else if (compressed) {
+                        try (PooledChannelOutputStream out = openPooledOutput(temp)) {
+                            ParallelGzipEncoder.encode(dataToWrite.getBytes(StandardCharsets.UTF_8), out);
+                        }
+                    } else {
+                        try (PooledChannelOutputStream out = openPooledOutput(temp)) {
+                            out.writeString(dataToWrite);
+                        }
+                    }
+                });
+                if (indexed) {
+                    AtomicFileCommit.write(Paths.get(ResultIndex.indexPathFor(request.getDestination())), fsync, temp -> {
+                        try (PooledChannelOutputStream out = openPooledOutput(temp)) {
+                            ResultIndex.write(out, resultRequest);
+                        }
+                    });
+                }
+                return CompletableFuture.completedFuture(new BasicDataWriteResponse(
                     RequestStatus.ACCEPTED,
-                    "Successfully wrote data to file: " + request.getDestination()
-                );
+                    "Successfully wrote " + (compressed ? "compressed " : "") + "data to file: " + request.getDestination()
+                ));
             } catch (IOException e) {
                 // Expected exception - file I/O issues
-                return new BasicDataWriteResponse(
+                return CompletableFuture.completedFuture(new BasicDataWriteResponse(
                     RequestStatus.REJECTED,
                     "Error writing file: " + e.getMessage()
-                );
+                ));
             }
         } catch (Exception e) {
             // Unexpected exceptions
             System.err.println("Unexpected error in writeData: " + e.getMessage());
-            return new BasicDataWriteResponse(
+            return CompletableFuture.completedFuture(new BasicDataWriteResponse(
                 RequestStatus.REJECTED,
                 "Internal error writing data"
-            );
+            ));
         }
     }
 
@@ -193,11 +429,16 @@ public class EmptyDataStoreAPI implements DataStoreAPI {
                 );
             }
 
+            int appliedBufferSize = Math.min(bufferSize, MAX_STREAM_BUFFER_SIZE);
+            applyStreamConfiguration(mode, appliedBufferSize);
+
             return new BasicDataStreamResponse(
                 RequestStatus.ACCEPTED,
-                "Stream configuration applied successfully", 
+                appliedBufferSize < bufferSize
+                    ? "Stream configuration applied with buffer size capped at " + MAX_STREAM_BUFFER_SIZE
+                    : "Stream configuration applied successfully",
                 mode, 
-                bufferSize
+                appliedBufferSize
             );
 
         } catch (Exception e) {
@@ -211,4 +452,549 @@ public class EmptyDataStoreAPI implements DataStoreAPI {
             );
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Fetch one result from an indexed result file by seeking to the byte
+     * range recorded in its sidecar index, without scanning the file.
+     */
+    public ResultLookupResponse readResult(ResultLookupRequest request) {
+        try {
+            if (request == null || request.getSource() == null || request.getSource().isEmpty()
+                    || request.getMode() == null) {
+                return new BasicResultLookupResponse(
+                    RequestStatus.REJECTED,
+                    "Source and lookup mode are required",
+                    -1, 0, null
+                );
+            }
+
+            Path source = storage.localPath(request.getSource());
+            if (source == null) {
+                return new BasicResultLookupResponse(
+                    RequestStatus.REJECTED,
+                    "Indexed lookup requires a file storage backend",
+                    -1, 0, null
+                );
+            }
+            try (FileChannel index = FileChannel.open(Paths.get(ResultIndex.indexPathFor(request.getSource())),
+                    StandardOpenOption.READ);
+                 FileChannel data = FileChannel.open(source, StandardOpenOption.READ)) {
+
+                if (data.size() != ResultIndex.dataLength(index)) {
+                    return new BasicResultLookupResponse(
+                        RequestStatus.REJECTED,
+                        "Result file does not match its index (it may be mid-rewrite)",
+                        -1, 0, null
+                    );
+                }
+                ResultIndex.Entry entry = request.getMode() == ResultLookupMode.BY_POSITION
+                    ? ResultIndex.findByPosition(index, request.getKey())
+                    : ResultIndex.findByInput(index, request.getKey());
+
+                if (entry == null) {
+                    return new BasicResultLookupResponse(
+                        RequestStatus.REJECTED,
+                        "No result for " + request.getMode() + " key " + request.getKey(),
+                        -1, 0, null
+                    );
+                }
+
+                DirectBufferPool pool = bufferPool;
+                ByteBuffer buffer = entry.getLength() <= pool.getBufferSize()
+                    ? pool.acquire()
+                    : ByteBuffer.allocate(entry.getLength());
+                String text;
+                try {
+                    buffer.limit(entry.getLength());
+                    while (buffer.hasRemaining()) {
+                        if (data.read(buffer, entry.getOffset() + buffer.position()) < 0) {
+                            throw new IOException("Result file is shorter than its index");
+                        }
+                    }
+                    buffer.flip();
+                    if (!entry.matches(buffer)) {
+                        return new BasicResultLookupResponse(
+                            RequestStatus.REJECTED,
+                            "Result file does not match its index (it may be mid-rewrite)",
+                            -1, 0, null
+                        );
+                    }
+                    text = StandardCharsets.UTF_8.decode(buffer).toString();
+                } finally {
+                    pool.release(buffer);
+                }
+                // Entries are stored as "n=result"
+                String result = text.substring(text.indexOf('=') + 1);
+
+                return new BasicResultLookupResponse(
+                    RequestStatus.ACCEPTED,
+                    "Found result at position " + entry.getPosition(),
+                    entry.getPosition(),
+                    entry.getInput(),
+                    result
+                );
+            }
+        } catch (IOException e) {
+            // Expected exception - missing or unreadable result/index file
+            return new BasicResultLookupResponse(
+                RequestStatus.REJECTED,
+                "Error reading indexed result: " + e.getMessage(),
+                -1, 0, null
+            );
+        } catch (Exception e) {
+            System.err.println("Unexpected error in readResult: " + e.getMessage());
+            return new BasicResultLookupResponse(
+                RequestStatus.REJECTED,
+                "Internal error reading result",
+                -1, 0, null
+            );
+        }
+    }
+
+    /**
+     * Start a write whose data will arrive in pieces. Plain and GZIP text are
+     * supported; formats built from structured results (indexed, sharded,
+     * columnar) need a whole BasicResultWriteRequest and are refused.
+     */
+    public StreamingWrite openStreamingWrite(String destination, DataFormat format) throws IOException {
+        if (destination == null || destination.isEmpty()) {
+            throw new IllegalArgumentException("Destination cannot be null or empty");
+        }
+        if (format == DataFormat.INDEXED_TEXT || format == DataFormat.SHARDED || format == DataFormat.COLUMNAR) {
+            throw new IllegalArgumentException(format + " output cannot be streamed");
+        }
+        boolean compressed = format == DataFormat.GZIP || destination.toLowerCase().endsWith(".gz");
+
+        Path path = storage.localPath(destination);
+        if (path == null) {
+            // Key-value backends store whole values, so the pieces are gathered first
+            ByteArrayOutputStream value = new ByteArrayOutputStream();
+            return new StreamingWrite(destination, value, compressed, null,
+                () -> storage.write(destination, value.toByteArray()));
+        }
+        Path temp = AtomicFileCommit.createTempFor(path);
+        try {
+            return new StreamingWrite(destination, openPooledOutput(temp), compressed, temp, () -> {
+                WriteBehindWriter behindWriter = writeBehindWriter;
+                if (behindWriter == null) {
+                    AtomicFileCommit.commit(temp, path, fsyncPolicy == FsyncPolicy.ON_COMPLETION);
+                    return;
+                }
+                try {
+                    behindWriter.submitCommit(temp, path).whenComplete((ignored, error) -> {
+                        if (error != null) {
+                            System.err.println("Write-behind failed for " + destination + ": " + error.getMessage());
+                        }
+                    });
+                } catch (IllegalStateException e) {
+                    // The writer was replaced by a reconfiguration; publish inline instead
+                    AtomicFileCommit.commit(temp, path, fsyncPolicy == FsyncPolicy.ON_COMPLETION);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while queueing write for file: " + destination, e);
+                }
+            });
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * Start a read whose data will be taken in pieces. Local text and
+     * VARINT_DELTA files are streamed from disk instead of loaded whole. A
+     * text file is validated and counted first, so a bad input is rejected
+     * before any data is taken; a VARINT_DELTA file is passed on as encoded,
+     * for the receiver to decode and check. Requests readData would refuse,
+     * cache hits and key-value backends get readData's response.
+     */
+    public StreamingRead openStreamingRead(DataReadRequest request) {
+        boolean varintDelta = request != null && request.getFormat() == DataFormat.VARINT_DELTA;
+        Path sourcePath = streamableSource(request);
+        if (sourcePath == null) {
+            return StreamingRead.of(readData(request), varintDelta);
+        }
+        if (varintDelta) {
+            return openVarintDeltaRead(sourcePath);
+        }
+
+        String delimiters = request.getDelimiters() == null ? "" : request.getDelimiters();
+        InputFileCache cache = inputCache;
+        if (cache != null) {
+            try {
+                int[] cached = cache.get(sourcePath, InputFileCache.signatureOf(sourcePath), delimiters);
+                if (cached != null) {
+                    return StreamingRead.of(new BasicDataReadResponse(
+                        RequestStatus.ACCEPTED,
+                        "Successfully read " + cached.length + " integers from cache",
+                        cached
+                    ), false);
+                }
+            } catch (IOException e) {
+                // Missing file - fall through so the open below reports the error
+            }
+        }
+
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(sourcePath, StandardOpenOption.READ);
+            int count = countIntegers(channel, delimiters);
+            channel.position(0);
+            return new StreamingRead(RequestStatus.ACCEPTED, "Successfully read " + count + " integers", false,
+                count, false, StreamingRead.tokenized(channel, new InputTokenizer(delimiters), bufferPool, count));
+        } catch (IOException e) {
+            closeQuietly(channel);
+            return StreamingRead.of(new BasicDataReadResponse(
+                RequestStatus.REJECTED,
+                "Error reading file: " + e.getMessage(),
+                new int[0]
+            ), false);
+        } catch (NumberFormatException e) {
+            closeQuietly(channel);
+            return StreamingRead.of(new BasicDataReadResponse(
+                RequestStatus.REJECTED,
+                "Invalid integer format in file",
+                new int[0]
+            ), false);
+        }
+    }
+
+    /** The local file a well-formed read request names, or null if readData must handle the request */
+    private Path streamableSource(DataReadRequest request) {
+        if (request == null || request.getSource() == null || request.getSource().isEmpty()
+                || request.getSource().contains("..")) {
+            return null;
+        }
+        String extension = request.getFormat() == DataFormat.VARINT_DELTA ? VarintDeltaCodec.FILE_EXTENSION : ".txt";
+        if (!request.getSource().toLowerCase().endsWith(extension)) {
+            return null;
+        }
+        return storage.localPath(request.getSource());
+    }
+
+    /** Slice a varint-delta file from its mapping; only the header is read here */
+    private StreamingRead openVarintDeltaRead(Path source) {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int count = VarintDeltaCodec.count(mapped);
+            return new StreamingRead(RequestStatus.ACCEPTED, "Successfully read " + count + " integers",
+                VarintDeltaCodec.isSorted(mapped), count, true, StreamingRead.bytes(mapped));
+        } catch (IOException e) {
+            return StreamingRead.of(new BasicDataReadResponse(
+                RequestStatus.REJECTED,
+                "Error reading file: " + e.getMessage(),
+                new int[0]
+            ), true);
+        }
+    }
+
+    /** Tokenize an integer file only to count its values, a buffer at a time */
+    private int countIntegers(FileChannel channel, String delimiters) throws IOException {
+        DirectBufferPool pool = bufferPool;
+        ByteBuffer buffer = pool.acquire();
+        try {
+            InputTokenizer tokenizer = new InputTokenizer(delimiters);
+            long count = 0;
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                tokenizer.feed(buffer);
+                buffer.clear();
+                count += tokenizer.take().length;
+            }
+            count += tokenizer.finish().length;
+            if (count > Integer.MAX_VALUE) {
+                throw new IOException("Input has more than " + Integer.MAX_VALUE + " integers");
+            }
+            return (int) count;
+        } finally {
+            pool.release(buffer);
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Only read from
+            }
+        }
+    }
+
+    /**
+     * Start an output that is appended to in input order while a job runs
+     * (see IncrementalResultWriter). Only plain text on a file backend can be
+     * appended to. Any ON_COMPLETION or PERIODIC fsync policy fsyncs every
+     * flush, which the writer already rate-limits; NONE leaves it to the OS.
+     */
+    public IncrementalResultWriter openIncrementalWrite(String destination, DataFormat format, int[] inputs,
+            String delimiter) throws IOException, InterruptedException {
+        if (destination == null || destination.isEmpty()) {
+            throw new IllegalArgumentException("Destination cannot be null or empty");
+        }
+        if (format != null && format != DataFormat.TEXT) {
+            throw new IllegalArgumentException(format + " output cannot be written incrementally");
+        }
+        Path path = storage.localPath(destination);
+        if (path == null) {
+            throw new IllegalArgumentException("Incremental output requires a file storage backend");
+        }
+        // Let queued writes to the same file land first
+        flush();
+        return IncrementalResultWriter.open(path, inputs, delimiter, fsyncPolicy != FsyncPolicy.NONE);
+    }
+
+    public StorageBackend getStorageBackend() {
+        return storage;
+    }
+
+    /** Read and parse a source held by a backend that does not store it as a local file */
+    private DataReadResponse readFromBackend(DataReadRequest request) {
+        try {
+            ByteBuffer value = ByteBuffer.wrap(storage.read(request.getSource()));
+            if (request.getFormat() == DataFormat.VARINT_DELTA) {
+                int[] data = VarintDeltaCodec.decode(value);
+                return new BasicDataReadResponse(
+                    RequestStatus.ACCEPTED,
+                    "Successfully read " + data.length + " integers",
+                    data,
+                    VarintDeltaCodec.isSorted(value)
+                );
+            }
+            InputTokenizer tokenizer = new InputTokenizer(request.getDelimiters() == null ? "" : request.getDelimiters());
+            tokenizer.feed(value);
+            int[] data = tokenizer.finish();
+            return new BasicDataReadResponse(
+                RequestStatus.ACCEPTED,
+                "Successfully read " + data.length + " integers",
+                data
+            );
+        } catch (IOException e) {
+            // Expected exception - missing key or unreadable value
+            return new BasicDataReadResponse(
+                RequestStatus.REJECTED,
+                "Error reading key: " + e.getMessage(),
+                new int[0]
+            );
+        } catch (NumberFormatException e) {
+            return new BasicDataReadResponse(
+                RequestStatus.REJECTED,
+                "Invalid integer format in stored value",
+                new int[0]
+            );
+        }
+    }
+
+    /** Maximum number of shard files a SHARDED write is split into */
+    public void setShardCount(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        this.shardCount = shardCount;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /** Pool backing all data-store I/O; its counters report buffer utilization */
+    public DirectBufferPool getBufferPool() {
+        return bufferPool;
+    }
+
+    /**
+     * Decode a varint-delta file. It is memory-mapped rather than copied
+     * through the buffer pool, so the parallel block decoders read it in place.
+     * The input cache is skipped: decoding is close to the cost of the copy a
+     * cache hit makes.
+     */
+    private DataReadResponse readVarintDelta(Path source) {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int[] data = VarintDeltaCodec.decode(mapped);
+            return new BasicDataReadResponse(
+                RequestStatus.ACCEPTED,
+                "Successfully read " + data.length + " integers",
+                data,
+                VarintDeltaCodec.isSorted(mapped)
+            );
+        } catch (IOException e) {
+            // Expected exception - missing, unreadable or corrupt file
+            return new BasicDataReadResponse(
+                RequestStatus.REJECTED,
+                "Error reading file: " + e.getMessage(),
+                new int[0]
+            );
+        }
+    }
+
+    /** Tokenize an integer file through a pooled direct buffer */
+    private int[] parseIntegers(Path source, String delimiters) throws IOException {
+        DirectBufferPool pool = bufferPool;
+        ByteBuffer buffer = pool.acquire();
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            InputTokenizer tokenizer = new InputTokenizer(delimiters);
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                tokenizer.feed(buffer);
+                buffer.clear();
+            }
+            return tokenizer.finish();
+        } finally {
+            pool.release(buffer);
+        }
+    }
+
+    private PooledChannelOutputStream openPooledOutput(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE,
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        return new PooledChannelOutputStream(channel, bufferPool);
+    }
+
+    /** Replace the input cache, or pass null to always re-read input files */
+    public void setInputCache(InputFileCache cache) {
+        this.inputCache = cache;
+    }
+
+    public InputFileCache getInputCache() {
+        return inputCache;
+    }
+
+    /** Attach a shared result store; writes of result requests then populate and reuse it */
+    public void setResultStore(ContentAddressedResultStore store) {
+        this.resultStore = store;
+    }
+
+    public ContentAddressedResultStore getResultStore() {
+        return resultStore;
+    }
+
+    private void storeResults(ContentAddressedResultStore store, BasicResultWriteRequest request)
+            throws IOException {
+        int[] inputs = request.getInputs();
+        String[] results = request.getResults();
+        for (int i = 0; i < inputs.length; i++) {
+            store.store(request.getComputationMode(), inputs[i], results[i]);
+        }
+    }
+
+    /**
+     * Compressed output is requested with the GZIP format, or implied by a
+     * destination ending in .gz so clients can opt in by naming the file.
+     */
+    private boolean isCompressedOutput(DataWriteRequest request) {
+        return request.getFormat() == DataFormat.GZIP
+            || request.getDestination().toLowerCase().endsWith(".gz");
+    }
+
+    private byte[] encodePayload(String data, boolean compressed) throws IOException {
+        byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+        return compressed ? ParallelGzipEncoder.encode(bytes) : bytes;
+    }
+
+    /**
+     * Hand the payload to the write-behind writer. Blocks only while the
+     * writer's queue is full, which pushes back on fast producers. The future
+     * reports whether the write reached the file. If the writer was closed by
+     * a reconfiguration in the meantime, the payload is written inline.
+     */
+    private CompletableFuture<DataWriteResponse> queueWrite(WriteBehindWriter writer, String destination,
+            byte[] payload) throws IOException {
+        CompletableFuture<Void> written;
+        try {
+            written = writer.submit(Paths.get(destination), payload, false);
+        } catch (IllegalStateException e) {
+            AtomicFileCommit.write(Paths.get(destination), fsyncPolicy == FsyncPolicy.ON_COMPLETION,
+                temp -> Files.write(temp, payload));
+            return CompletableFuture.completedFuture(new BasicDataWriteResponse(
+                RequestStatus.ACCEPTED,
+                "Successfully wrote data to file: " + destination
+            ));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.completedFuture(new BasicDataWriteResponse(
+                RequestStatus.REJECTED,
+                "Interrupted while queueing write for file: " + destination
+            ));
+        }
+        return written.handle((ignored, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause()
+                    : error;
+                return new BasicDataWriteResponse(
+                    RequestStatus.REJECTED,
+                    "Error writing file: " + cause.getMessage()
+                );
+            }
+            return new BasicDataWriteResponse(
+                RequestStatus.ACCEPTED,
+                "Wrote data through write-behind to file: " + destination
+            );
+        });
+    }
+
+    /**
+     * STREAM mode starts a write-behind writer whose coalescing buffer is the
+     * configured buffer size; BATCH mode drains and stops it. Either way the
+     * shared I/O buffers take on the configured size.
+     */
+    private synchronized void applyStreamConfiguration(DataStreamMode mode, int bufferSize)
+            throws InterruptedException {
+        closeWriteBehindWriter();
+        streamMode = mode;
+        int ioBufferSize = Math.max(bufferSize, MIN_IO_BUFFER_SIZE);
+        if (ioBufferSize != bufferPool.getBufferSize()) {
+            // Buffers still checked out go back to the old pool and are dropped with it
+            bufferPool = new DirectBufferPool(ioBufferSize, MAX_POOLED_BUFFERS);
+        }
+        if (mode == DataStreamMode.STREAM) {
+            writeBehindWriter = new WriteBehindWriter(WRITE_BEHIND_QUEUE_CAPACITY, bufferSize, fsyncPolicy);
+        }
+    }
+
+    /**
+     * Set the fsync policy. ON_COMPLETION also fsyncs every batch-mode commit;
+     * PERIODIC applies to write-behind writes only.
+     */
+    public synchronized void setFsyncPolicy(FsyncPolicy policy) throws InterruptedException {
+        if (policy == null || policy == fsyncPolicy) {
+            return;
+        }
+        fsyncPolicy = policy;
+        WriteBehindWriter current = writeBehindWriter;
+        if (current != null) {
+            closeWriteBehindWriter();
+            writeBehindWriter = new WriteBehindWriter(WRITE_BEHIND_QUEUE_CAPACITY, current.getCoalesceBytes(), policy);
+        }
+    }
+
+    public FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+
+    public DataStreamMode getStreamMode() {
+        return streamMode;
+    }
+
+    /** Block until all queued write-behind writes have reached their files */
+    public void flush() throws InterruptedException {
+        WriteBehindWriter writer = writeBehindWriter;
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    /** Drain pending writes and release background resources */
+    public synchronized void shutdown() throws InterruptedException {
+        closeWriteBehindWriter();
+    }
+
+    private void closeWriteBehindWriter() throws InterruptedException {
+        WriteBehindWriter writer = writeBehindWriter;
+        writeBehindWriter = null;
+        if (writer != null) {
+            writer.close();
+        }
+    }
+}
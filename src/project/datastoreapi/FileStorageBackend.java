@@ -0,0 +1,49 @@
+package project.datastoreapi;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Stores each key as the local file it names. This is the data store's
+ * original behaviour and remains its default backend.
+ */
+public class FileStorageBackend implements StorageBackend {
+
+    private final boolean fsync;
+
+    public FileStorageBackend() {
+        this(false);
+    }
+
+    /** @param fsync whether write() fsyncs the file and directory before returning */
+    public FileStorageBackend(boolean fsync) {
+        this.fsync = fsync;
+    }
+
+    @Override
+    public byte[] read(String key) throws IOException {
+        return Files.readAllBytes(localPath(key));
+    }
+
+    @Override
+    public void write(String key, byte[] value) throws IOException {
+        AtomicFileCommit.write(localPath(key), fsync, temp -> Files.write(temp, value));
+    }
+
+    @Override
+    public boolean contains(String key) {
+        return Files.isRegularFile(localPath(key));
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        return Files.deleteIfExists(localPath(key));
+    }
+
+    @Override
+    public Path localPath(String key) {
+        return Paths.get(key);
+    }
+}
@@ -0,0 +1,8 @@
+package project.datastoreapi;
+
+/** Policies for forcing written data to the storage device */
+public enum FsyncPolicy {
+    NONE,           // Leave flushing to the operating system
+    ON_COMPLETION,  // Force each file once its queued writes are complete
+    PERIODIC        // Force recently written files on a fixed interval
+}
@@ -0,0 +1,328 @@
+package project.datastoreapi;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends a job's "n=result" entries to its output file in input order while
+ * the job is still running.
+ *
+ * Results may complete in any order; each is held until every earlier position
+ * is done, then the contiguous prefix is appended. After every flush the data
+ * is (optionally) fsynced and a watermark sidecar (<output>.watermark) is
+ * committed atomically, recording how many entries and bytes of the output are
+ * complete. Consumers can tail the output up to the watermark, and a restarted
+ * job over the same input resumes after the watermarked prefix, discarding any
+ * bytes appended after it. The input is identified by its SHA-256 digest.
+ *
+ * Pending entries are flushed once enough text builds up, and otherwise by a
+ * timer, so the watermark keeps up even while a slow result holds no new
+ * entries back.
+ */
+public class IncrementalResultWriter implements Closeable {
+
+    /** Suffix of the watermark file written beside the output */
+    public static final String WATERMARK_SUFFIX = ".watermark";
+
+    // Flush once this much text is pending or this long has passed since the last flush
+    private static final int FLUSH_CHARS = 64 * 1024;
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final ScheduledExecutorService FLUSH_TIMER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "incremental-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Path output;
+    private final Path watermarkPath;
+    private final int[] inputs;
+    private final String delimiter;
+    private final String inputDigest;
+    private final boolean fsync;
+    private final FileChannel channel;
+    private final int resumePosition;
+
+    private final Map<Integer, String> waiting = new HashMap<>();
+    private final StringBuilder pending = new StringBuilder();
+    private int nextPosition;
+    private long durableBytes;
+    private long lastFlushNanos = System.nanoTime();
+    private boolean closed;
+    private ScheduledFuture<?> flushTask;
+    // A timer flush that failed; reported by the next complete() or close()
+    private IOException flushFailure;
+
+    /** Durable progress of an incremental output */
+    public static final class Watermark {
+        private final int entries;
+        private final long bytes;
+        private final int totalEntries;
+        private final boolean complete;
+        private final String inputDigest;
+        private final String delimiter;
+
+        Watermark(int entries, long bytes, int totalEntries, boolean complete, String inputDigest, String delimiter) {
+            this.entries = entries;
+            this.bytes = bytes;
+            this.totalEntries = totalEntries;
+            this.complete = complete;
+            this.inputDigest = inputDigest;
+            this.delimiter = delimiter;
+        }
+
+        /** Entries at the start of the output that are complete and durable */
+        public int getEntries() {
+            return entries;
+        }
+
+        /** Bytes at the start of the output that are safe to read */
+        public long getBytes() {
+            return bytes;
+        }
+
+        public int getTotalEntries() {
+            return totalEntries;
+        }
+
+        /** True once every entry has been written */
+        public boolean isComplete() {
+            return complete;
+        }
+    }
+
+    private IncrementalResultWriter(Path output, int[] inputs, String delimiter, boolean fsync,
+            FileChannel channel, int resumePosition, long durableBytes) {
+        this.output = output;
+        this.watermarkPath = Path.of(watermarkPathFor(output.toString()));
+        this.inputs = inputs;
+        this.delimiter = delimiter;
+        this.inputDigest = digestOf(inputs);
+        this.fsync = fsync;
+        this.channel = channel;
+        this.resumePosition = resumePosition;
+        this.nextPosition = resumePosition;
+        this.durableBytes = durableBytes;
+    }
+
+    public static String watermarkPathFor(String output) {
+        return output + WATERMARK_SUFFIX;
+    }
+
+    /**
+     * Open an incremental output for the given inputs. If a watermark from an
+     * earlier run over the same inputs and delimiter exists, the output is cut
+     * back to the watermark and writing resumes after it; otherwise the output
+     * starts empty.
+     */
+    public static IncrementalResultWriter open(Path output, int[] inputs, String delimiter, boolean fsync)
+            throws IOException {
+        Watermark previous = readWatermark(output);
+        boolean resume = previous != null
+            && previous.totalEntries == inputs.length
+            && previous.inputDigest.equals(digestOf(inputs))
+            && previous.delimiter.equals(delimiter)
+            && Files.exists(output)
+            && Files.size(output) >= previous.bytes;
+
+        IncrementalResultWriter writer;
+        if (resume) {
+            FileChannel channel = FileChannel.open(output, StandardOpenOption.WRITE);
+            // Drop anything appended after the last durable watermark
+            channel.truncate(previous.bytes);
+            channel.position(previous.bytes);
+            writer = new IncrementalResultWriter(output, inputs, delimiter, fsync, channel,
+                previous.entries, previous.bytes);
+        } else {
+            FileChannel channel = FileChannel.open(output, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            writer = new IncrementalResultWriter(output, inputs, delimiter, fsync, channel, 0, 0);
+            try {
+                writer.writeWatermark();
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+        writer.flushTask = FLUSH_TIMER.scheduleWithFixedDelay(writer::flushIfDue,
+            FLUSH_INTERVAL_NANOS, FLUSH_INTERVAL_NANOS, TimeUnit.NANOSECONDS);
+        return writer;
+    }
+
+    /** Read the watermark for an output, or null if it has none */
+    public static Watermark readWatermark(Path output) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(Path.of(watermarkPathFor(output.toString())))) {
+            properties.load(in);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        try {
+            return new Watermark(
+                Integer.parseInt(properties.getProperty("entries")),
+                Long.parseLong(properties.getProperty("bytes")),
+                Integer.parseInt(properties.getProperty("totalEntries")),
+                Boolean.parseBoolean(properties.getProperty("complete")),
+                // Watermarks from before the digest have none and never resume
+                properties.getProperty("inputDigest", ""),
+                properties.getProperty("delimiter", "")
+            );
+        } catch (NumberFormatException e) {
+            // Unreadable watermark: treat the output as having no durable progress
+            return null;
+        }
+    }
+
+    public Path getOutput() {
+        return output;
+    }
+
+    /** Position the output resumed from; results before it are already written */
+    public int getResumePosition() {
+        return resumePosition;
+    }
+
+    /** Record the result for an input position; appends as soon as the prefix before it is done */
+    public synchronized void complete(int position, String result) throws IOException {
+        if (closed) {
+            throw new IOException("Incremental output is closed");
+        }
+        if (flushFailure != null) {
+            throw flushFailure;
+        }
+        if (position < nextPosition || position >= inputs.length) {
+            return;
+        }
+        waiting.put(position, result);
+        String next;
+        while ((next = waiting.remove(nextPosition)) != null) {
+            if (nextPosition > 0) {
+                pending.append(delimiter);
+            }
+            pending.append(inputs[nextPosition]).append('=').append(next);
+            nextPosition++;
+        }
+        if (pending.length() >= FLUSH_CHARS || System.nanoTime() - lastFlushNanos >= FLUSH_INTERVAL_NANOS) {
+            flush();
+        }
+    }
+
+    /** Append pending entries and advance the watermark */
+    public synchronized void flush() throws IOException {
+        lastFlushNanos = System.nanoTime();
+        if (pending.length() == 0) {
+            return;
+        }
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(pending.toString());
+        pending.setLength(0);
+        long length = bytes.remaining();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+        durableBytes += length;
+        writeWatermark();
+    }
+
+    /** Entries appended so far (including any not yet flushed) */
+    public synchronized int getCompletedEntries() {
+        return nextPosition;
+    }
+
+    public synchronized boolean isComplete() {
+        return nextPosition == inputs.length;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        flushTask.cancel(false);
+        try {
+            flush();
+        } finally {
+            closed = true;
+            channel.close();
+        }
+        if (flushFailure != null) {
+            throw flushFailure;
+        }
+    }
+
+    /** Timer tick: flush whatever is pending if no flush happened for an interval */
+    private synchronized void flushIfDue() {
+        if (closed || flushFailure != null || System.nanoTime() - lastFlushNanos < FLUSH_INTERVAL_NANOS) {
+            return;
+        }
+        try {
+            flush();
+        } catch (IOException e) {
+            flushFailure = e;
+        }
+    }
+
+    /** SHA-256 of the inputs as little-endian ints, in hex */
+    static String digestOf(int[] inputs) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        ByteBuffer packed = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+        for (int input : inputs) {
+            if (!packed.hasRemaining()) {
+                packed.flip();
+                digest.update(packed);
+                packed.clear();
+            }
+            packed.putInt(input);
+        }
+        packed.flip();
+        digest.update(packed);
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /** Called only when nothing is pending, so every appended entry is in the file */
+    private void writeWatermark() throws IOException {
+        int entries = nextPosition;
+        Properties properties = new Properties();
+        properties.setProperty("entries", Integer.toString(entries));
+        properties.setProperty("bytes", Long.toString(durableBytes));
+        properties.setProperty("totalEntries", Integer.toString(inputs.length));
+        properties.setProperty("complete", Boolean.toString(entries == inputs.length));
+        properties.setProperty("inputDigest", inputDigest);
+        properties.setProperty("delimiter", delimiter);
+        AtomicFileCommit.write(watermarkPath, fsync, temp -> {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, "Incremental output watermark for " + output.getFileName());
+            }
+        });
+    }
+}
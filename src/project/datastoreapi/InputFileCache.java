@@ -0,0 +1,206 @@
+package project.datastoreapi;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of parsed input files.
+ *
+ * Entries are keyed by absolute path and validated against the file's size,
+ * last-modified time and file key (inode where available) on every lookup, so
+ * an edited or replaced file is re-read. An entry also records the delimiters
+ * it was parsed with and only serves reads that use the same delimiters. The cache holds at most a fixed
+ * number of integers across all entries and evicts least recently used files
+ * past that limit. Arrays are held through soft references, so the collector
+ * can still reclaim them under memory pressure.
+ *
+ * Callers get a copy of the cached array; copying is far cheaper than parsing
+ * and keeps one job from mutating another job's input.
+ */
+public class InputFileCache {
+
+    /** Default limit of 4M cached integers (16 MB of array data) */
+    public static final long DEFAULT_MAX_CACHED_VALUES = 4L * 1024 * 1024;
+
+    private final long maxCachedValues;
+    private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedValues;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public InputFileCache() {
+        this(DEFAULT_MAX_CACHED_VALUES);
+    }
+
+    public InputFileCache(long maxCachedValues) {
+        if (maxCachedValues <= 0) {
+            throw new IllegalArgumentException("Cache limit must be positive");
+        }
+        this.maxCachedValues = maxCachedValues;
+    }
+
+    /** Snapshot of the attributes a cached entry is validated against */
+    public static final class Signature {
+        private final long size;
+        // Full precision: a same-size rewrite can land in the same millisecond
+        private final FileTime lastModified;
+        private final Object fileKey;
+
+        private Signature(long size, FileTime lastModified, Object fileKey) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.fileKey = fileKey;
+        }
+
+        boolean matches(Signature other) {
+            return other != null
+                && size == other.size
+                && lastModified.equals(other.lastModified)
+                && Objects.equals(fileKey, other.fileKey);
+        }
+    }
+
+    /** Read the current signature of a file */
+    public static Signature signatureOf(Path path) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        return new Signature(attributes.size(), attributes.lastModifiedTime(), attributes.fileKey());
+    }
+
+    /** Return a copy of the cached data if the file still matches the signature, otherwise null */
+    public int[] get(Path path, Signature current) {
+        return get(path, current, "");
+    }
+
+    /** As get(path, current), for data parsed with the given input delimiters */
+    public int[] get(Path path, Signature current, String delimiters) {
+        Path key = path.toAbsolutePath().normalize();
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            int[] data = entry == null ? null : entry.data.get();
+            if (data != null && entry.signature.matches(current) && entry.delimiters.equals(normalize(delimiters))) {
+                hits.incrementAndGet();
+                return data.clone();
+            }
+            if (entry != null) {
+                // Stale or reclaimed entry
+                removeEntry(key, entry);
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Cache freshly parsed data, but only if the file was not modified while it
+     * was being read (its signature before and after the read agree).
+     */
+    public void putIfUnchanged(Path path, Signature beforeRead, int[] data) {
+        putIfUnchanged(path, beforeRead, "", data);
+    }
+
+    /** As putIfUnchanged(path, beforeRead, data), for data parsed with the given input delimiters */
+    public void putIfUnchanged(Path path, Signature beforeRead, String delimiters, int[] data) {
+        if (data.length > maxCachedValues) {
+            return;
+        }
+        Signature afterRead;
+        try {
+            afterRead = signatureOf(path);
+        } catch (IOException e) {
+            return;
+        }
+        if (!beforeRead.matches(afterRead)) {
+            return;
+        }
+
+        Path key = path.toAbsolutePath().normalize();
+        synchronized (this) {
+            Entry previous = entries.remove(key);
+            if (previous != null) {
+                cachedValues -= previous.length;
+            }
+            entries.put(key, new Entry(beforeRead, normalize(delimiters), data.clone()));
+            cachedValues += data.length;
+            evictOverLimit();
+        }
+    }
+
+    /** Drop every cached entry */
+    public synchronized void clear() {
+        entries.clear();
+        cachedValues = 0;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /** Fraction of lookups served from the cache */
+    public double getHitRate() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public synchronized long getCachedValues() {
+        return cachedValues;
+    }
+
+    public long getMaxCachedValues() {
+        return maxCachedValues;
+    }
+
+    private void evictOverLimit() {
+        Iterator<Map.Entry<Path, Entry>> eldest = entries.entrySet().iterator();
+        while (cachedValues > maxCachedValues && eldest.hasNext()) {
+            cachedValues -= eldest.next().getValue().length;
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static String normalize(String delimiters) {
+        return delimiters == null ? "" : delimiters;
+    }
+
+    private void removeEntry(Path key, Entry entry) {
+        entries.remove(key);
+        cachedValues -= entry.length;
+    }
+
+    private static final class Entry {
+        final Signature signature;
+        final String delimiters;
+        final SoftReference<int[]> data;
+        final int length;
+
+        Entry(Signature signature, String delimiters, int[] data) {
+            this.signature = signature;
+            this.delimiters = delimiters;
+            this.data = new SoftReference<>(data);
+            this.length = data.length;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package project.datastoreapi;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Incremental SWAR tokenizer for ASCII integer input.
+ *
+ * Values are separated by any run of whitespace (including line breaks) or of
+ * the configured delimiter characters, so one-per-line, comma-, space- and
+ * tab-separated files all parse the same way. Bytes are fed buffer by buffer
+ * straight from a FileChannel; a value may be split across two reads.
+ *
+ * The input is examined eight bytes at a time: each 64-bit word is classified
+ * into digit, separator and sign lanes with a handful of adds and masks, and a
+ * word of eight digits is converted with three multiplies instead of eight
+ * multiply-adds. Words of pure separators are skipped whole. Only words that
+ * mix classes fall back to walking their lane masks byte by byte.
+ */
+public final class InputTokenizer {
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long LOW_SEVEN_BITS = 0x7f7f7f7f7f7f7f7fL;
+
+    private static final byte OTHER = 0;
+    private static final byte DIGIT = 1;
+    private static final byte SEPARATOR = 2;
+    private static final byte SIGN = 3;
+
+    private final long[] delimiterPatterns;
+    private final byte[] byteClass = new byte[256];
+
+    private int[] values = new int[1024];
+    private int count;
+
+    private boolean inToken;
+    private boolean signSeen;
+    private boolean negative;
+    private boolean hasDigits;
+    private long magnitude;
+
+    /** Tokenizer that splits on whitespace only */
+    public InputTokenizer() {
+        this("");
+    }
+
+    /**
+     * Tokenizer that also splits on each ASCII character of the delimiters.
+     * Digits, signs and non-ASCII characters cannot act as delimiters and are ignored.
+     */
+    public InputTokenizer(String delimiters) {
+        for (int b = 0; b <= ' '; b++) {
+            byteClass[b] = SEPARATOR;
+        }
+        for (int b = '0'; b <= '9'; b++) {
+            byteClass[b] = DIGIT;
+        }
+        byteClass['+'] = SIGN;
+        byteClass['-'] = SIGN;
+
+        long[] patterns = new long[delimiters == null ? 0 : delimiters.length()];
+        int distinct = 0;
+        for (int i = 0; i < patterns.length; i++) {
+            char c = delimiters.charAt(i);
+            if (c < 0x80 && byteClass[c] == OTHER) {
+                byteClass[c] = SEPARATOR;
+                patterns[distinct++] = ONES * c;
+            }
+        }
+        this.delimiterPatterns = Arrays.copyOf(patterns, distinct);
+    }
+
+    /** Consume every remaining byte of the buffer */
+    public void feed(ByteBuffer buffer) {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        int position = buffer.position();
+        int limit = buffer.limit();
+
+        while (limit - position >= Long.BYTES) {
+            long word = buffer.getLong(position);
+            long digits = digitLanes(word);
+
+            if (digits == HIGH_BITS) {
+                // Eight digits: extend the current value in one step
+                appendEightDigits(word);
+            } else {
+                long separators = separatorLanes(word);
+                if (separators == HIGH_BITS) {
+                    endToken();
+                } else {
+                    long signs = equalLanes(word, ONES * '+') | equalLanes(word, ONES * '-');
+                    if ((digits | separators | signs) != HIGH_BITS) {
+                        throw new NumberFormatException("Unexpected character in integer input");
+                    }
+                    walkLanes(word, digits, separators);
+                }
+            }
+            position += Long.BYTES;
+        }
+
+        while (position < limit) {
+            accept(buffer.get(position++));
+        }
+        buffer.position(limit);
+    }
+
+    /**
+     * Remove and return the values completed so far, so a large input can be
+     * consumed as it is fed. A value still in progress stays for the next feed.
+     */
+    public int[] take() {
+        int[] taken = Arrays.copyOf(values, count);
+        count = 0;
+        return taken;
+    }
+
+    /** Finish the last token and return the parsed values not yet taken */
+    public int[] finish() {
+        endToken();
+        return Arrays.copyOf(values, count);
+    }
+
+    /** High bit set in every lane holding an ASCII digit */
+    private static long digitLanes(long word) {
+        long low = word & LOW_SEVEN_BITS;
+        long atLeastZero = low + 0x5050505050505050L;   // lane >= '0' sets the high bit
+        long aboveNine = low + 0x4646464646464646L;     // lane >= ':' sets the high bit
+        return atLeastZero & ~aboveNine & ~word & HIGH_BITS;
+    }
+
+    /** High bit set in every lane holding whitespace or a configured delimiter */
+    private long separatorLanes(long word) {
+        long low = word & LOW_SEVEN_BITS;
+        long lanes = ~(low + 0x5f5f5f5f5f5f5f5fL) & ~word & HIGH_BITS;   // lane <= ' '
+        for (long pattern : delimiterPatterns) {
+            lanes |= equalLanes(word, pattern);
+        }
+        return lanes;
+    }
+
+    /** High bit set in every lane equal to the pattern's byte (exact, no false positives) */
+    private static long equalLanes(long word, long pattern) {
+        long diff = word ^ pattern;
+        return ~(((diff & LOW_SEVEN_BITS) + LOW_SEVEN_BITS) | diff) & HIGH_BITS;
+    }
+
+    private void walkLanes(long word, long digits, long separators) {
+        for (int lane = 0; lane < Long.BYTES; lane++) {
+            long bit = 0x80L << (lane * 8);
+            if ((digits & bit) != 0) {
+                digit((int) (word >>> (lane * 8)) & 0xff);
+            } else if ((separators & bit) != 0) {
+                endToken();
+            } else {
+                sign((byte) (word >>> (lane * 8)));
+            }
+        }
+    }
+
+    private void appendEightDigits(long word) {
+        long lanes = word - ONES * '0';
+        // Pairwise combine lanes: 8 x 1-digit -> 4 x 2-digit -> 2 x 4-digit -> 1 x 8-digit
+        lanes = (lanes * 10) + (lanes >>> 8);
+        lanes = (((lanes & 0x000000ff000000ffL) * (100 + (1000000L << 32)))
+            + (((lanes >>> 16) & 0x000000ff000000ffL) * (1 + (10000L << 32)))) >>> 32;
+        magnitude = magnitude * 100_000_000L + lanes;
+        checkRange();
+        inToken = true;
+        hasDigits = true;
+    }
+
+    private void accept(byte b) {
+        switch (byteClass[b & 0xff]) {
+            case DIGIT:
+                digit(b);
+                return;
+            case SEPARATOR:
+                endToken();
+                return;
+            case SIGN:
+                sign(b);
+                return;
+            default:
+                throw new NumberFormatException("Unexpected character in integer input");
+        }
+    }
+
+    private void digit(int b) {
+        magnitude = magnitude * 10 + (b - '0');
+        checkRange();
+        inToken = true;
+        hasDigits = true;
+    }
+
+    private void sign(byte b) {
+        if (inToken) {
+            throw new NumberFormatException("Sign inside integer");
+        }
+        inToken = true;
+        signSeen = true;
+        negative = b == '-';
+    }
+
+    private void checkRange() {
+        if (magnitude > 1L + Integer.MAX_VALUE) {
+            throw new NumberFormatException("Integer out of range");
+        }
+    }
+
+    private void endToken() {
+        if (!inToken) {
+            return;
+        }
+        if (signSeen && !hasDigits) {
+            throw new NumberFormatException("Sign without digits");
+        }
+        long value = negative ? -magnitude : magnitude;
+        if (value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Integer out of range");
+        }
+        if (count == values.length) {
+            values = Arrays.copyOf(values, count * 2);
+        }
+        values[count++] = (int) value;
+
+        inToken = false;
+        signSeen = false;
+        negative = false;
+        hasDigits = false;
+        magnitude = 0;
+    }
+}
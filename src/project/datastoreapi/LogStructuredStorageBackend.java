@@ -0,0 +1,499 @@
+package project.datastoreapi;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Embedded log-structured key-value backend: every write appends a record to
+ * the active segment file, and an in-memory hash index maps each key to the
+ * record holding its latest value. Jobs can store many results under their
+ * own keys without creating a file per job, and a write costs one sequential
+ * append.
+ *
+ * Record layout (big-endian):
+ *
+ *   crc32 of the rest of the record, key length, value length (-1 for a delete)  (3 ints)
+ *   key bytes (UTF-8), value bytes
+ *
+ * When the active segment reaches the segment size a new one is started.
+ * A background task rewrites sealed segments whose dead fraction (bytes of
+ * overwritten or deleted values) reaches the compaction threshold: live
+ * records are appended to the active segment and the old file is deleted.
+ * On open, segments are replayed in order to rebuild the index; a torn or
+ * corrupt record ends its segment, which is truncated there.
+ */
+public class LogStructuredStorageBackend implements StorageBackend {
+
+    public static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+    public static final double DEFAULT_COMPACTION_THRESHOLD = 0.5;
+
+    private static final long COMPACTION_INTERVAL_MILLIS = 1000;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int RECORD_HEADER_BYTES = 3 * Integer.BYTES;
+    private static final int TOMBSTONE = -1;
+
+    // One compaction thread is shared by every open store
+    private static final ScheduledExecutorService COMPACTOR = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "log-store-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final boolean fsync;
+    private volatile double compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+    // Serializes appends; held while a record is written and indexed
+    private final Object appendLock = new Object();
+    // Allows one compaction at a time
+    private final Object compactionLock = new Object();
+    // Reads hold the read lock so compaction cannot close a segment under them
+    private final ReentrantReadWriteLock segmentLock = new ReentrantReadWriteLock();
+
+    private final AtomicLong compactions = new AtomicLong();
+    private final ScheduledFuture<?> compactionTask;
+    private volatile Segment active;
+    private volatile boolean closed;
+
+    /** A segment file; liveBytes counts the records that are still current */
+    private static final class Segment {
+        final long id;
+        final Path path;
+        final FileChannel channel;
+        final AtomicLong liveBytes = new AtomicLong();
+        volatile long size;
+
+        Segment(long id, Path path, FileChannel channel) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+        }
+    }
+
+    /** Where a record lives */
+    private static final class Location {
+        final Segment segment;
+        final long offset;
+        final int recordLength;
+        final int keyLength;
+        final int valueLength;
+
+        Location(Segment segment, long offset, int recordLength, int keyLength, int valueLength) {
+            this.segment = segment;
+            this.offset = offset;
+            this.recordLength = recordLength;
+            this.keyLength = keyLength;
+            this.valueLength = valueLength;
+        }
+
+        boolean isTombstone() {
+            return valueLength == TOMBSTONE;
+        }
+
+        long valueOffset() {
+            return offset + RECORD_HEADER_BYTES + keyLength;
+        }
+    }
+
+    private interface RecordVisitor {
+        void visit(String key, Location location) throws IOException;
+    }
+
+    public LogStructuredStorageBackend(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_BYTES, false);
+    }
+
+    /**
+     * Open (or create) a store in a directory.
+     *
+     * @param segmentBytes size at which the active segment is sealed and a new one started
+     * @param fsync whether each write is forced to disk before it returns
+     */
+    public LogStructuredStorageBackend(Path directory, long segmentBytes, boolean fsync) throws IOException {
+        if (segmentBytes <= RECORD_HEADER_BYTES) {
+            throw new IllegalArgumentException("Segment size must be larger than a record header");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+        Files.createDirectories(directory);
+
+        try {
+            for (long id : existingSegmentIds()) {
+                Segment segment = openSegment(id);
+                segments.put(id, segment);
+                recover(segment);
+            }
+            if (segments.isEmpty()) {
+                Segment first = openSegment(1);
+                segments.put(first.id, first);
+            }
+            active = segments.lastEntry().getValue();
+        } catch (IOException e) {
+            closeSegments();
+            throw e;
+        }
+
+        compactionTask = COMPACTOR.scheduleWithFixedDelay(this::compactQuietly,
+            COMPACTION_INTERVAL_MILLIS, COMPACTION_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public byte[] read(String key) throws IOException {
+        segmentLock.readLock().lock();
+        try {
+            ensureOpen();
+            Location location = index.get(key);
+            if (location == null) {
+                throw new NoSuchFileException(key);
+            }
+            return readValue(location);
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void write(String key, byte[] value) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        synchronized (appendLock) {
+            ensureOpen();
+            Location location = append(keyBytes, value);
+            location.segment.liveBytes.addAndGet(location.recordLength);
+            retire(index.put(key, location));
+        }
+    }
+
+    @Override
+    public boolean contains(String key) {
+        return index.containsKey(key);
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        synchronized (appendLock) {
+            ensureOpen();
+            if (!index.containsKey(key)) {
+                return false;
+            }
+            // Tombstones stay live: they must outlast the older records they hide
+            Location tombstone = append(keyBytes, null);
+            tombstone.segment.liveBytes.addAndGet(tombstone.recordLength);
+            retire(index.remove(key));
+            return true;
+        }
+    }
+
+    /**
+     * Rewrite every sealed segment whose dead fraction is at least the
+     * compaction threshold. Runs in the background; callable directly to
+     * reclaim space immediately. Returns the number of segments removed.
+     */
+    public int compact() throws IOException {
+        synchronized (compactionLock) {
+            int reclaimed = 0;
+            for (Segment segment : segments.values()) {
+                if (closed || segment.id >= active.id) {
+                    break;
+                }
+                long size = segment.size;
+                long dead = size - segment.liveBytes.get();
+                if (size > 0 && (double) dead / size < compactionThreshold) {
+                    continue;
+                }
+                rewrite(segment);
+                reclaimed++;
+            }
+            compactions.addAndGet(reclaimed);
+            return reclaimed;
+        }
+    }
+
+    /** Dead fraction at which a sealed segment is compacted, between 0 and 1 */
+    public void setCompactionThreshold(double threshold) {
+        if (!(threshold >= 0 && threshold <= 1)) {
+            throw new IllegalArgumentException("Compaction threshold must be between 0 and 1");
+        }
+        this.compactionThreshold = threshold;
+    }
+
+    /** Number of keys with a current value */
+    public int size() {
+        return index.size();
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /** Segments removed by compaction since the store was opened */
+    public long getCompactions() {
+        return compactions.get();
+    }
+
+    /** Bytes across all segments, including records that compaction would drop */
+    public long getTotalBytes() {
+        long total = 0;
+        for (Segment segment : segments.values()) {
+            total += segment.size;
+        }
+        return total;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public void close() throws IOException {
+        compactionTask.cancel(false);
+        synchronized (compactionLock) {
+            synchronized (appendLock) {
+                segmentLock.writeLock().lock();
+                try {
+                    if (closed) {
+                        return;
+                    }
+                    closed = true;
+                    if (fsync) {
+                        active.channel.force(false);
+                    }
+                    closeSegments();
+                } finally {
+                    segmentLock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            if (!closed) {
+                compact();
+            }
+        } catch (IOException e) {
+            System.err.println("Log store compaction failed in " + directory + ": " + e.getMessage());
+        }
+    }
+
+    /** Move a sealed segment's current records to the active segment, then delete it */
+    private void rewrite(Segment segment) throws IOException {
+        scan(segment, (key, location) -> {
+            synchronized (appendLock) {
+                ensureOpen();
+                if (location.isTombstone()) {
+                    // Needed only while an older segment may still hold a value for the key
+                    if (segments.firstKey() == segment.id || index.containsKey(key)) {
+                        return;
+                    }
+                    Location copy = append(key.getBytes(StandardCharsets.UTF_8), null);
+                    copy.segment.liveBytes.addAndGet(copy.recordLength);
+                    return;
+                }
+                Location current = index.get(key);
+                if (current == null || current.segment != segment || current.offset != location.offset) {
+                    return;
+                }
+                Location copy = append(key.getBytes(StandardCharsets.UTF_8), readValue(location));
+                copy.segment.liveBytes.addAndGet(copy.recordLength);
+                retire(index.put(key, copy));
+            }
+        });
+
+        synchronized (appendLock) {
+            // The copies must be durable before their only other copy is deleted
+            if (fsync) {
+                active.channel.force(false);
+            }
+        }
+        segmentLock.writeLock().lock();
+        try {
+            segments.remove(segment.id);
+            segment.channel.close();
+            Files.deleteIfExists(segment.path);
+        } finally {
+            segmentLock.writeLock().unlock();
+        }
+    }
+
+    /** Caller holds appendLock */
+    private Location append(byte[] key, byte[] value) throws IOException {
+        ByteBuffer record = encodeRecord(key, value);
+        Segment segment = active;
+        if (segment.size > 0 && segment.size + record.remaining() > segmentBytes) {
+            segment = roll(segment);
+        }
+        long offset = segment.size;
+        while (record.hasRemaining()) {
+            segment.channel.write(record, offset + record.position());
+        }
+        if (fsync) {
+            segment.channel.force(false);
+        }
+        segment.size = offset + record.limit();
+        return new Location(segment, offset, record.limit(), key.length, value == null ? TOMBSTONE : value.length);
+    }
+
+    /** Caller holds appendLock */
+    private Segment roll(Segment sealed) throws IOException {
+        if (fsync) {
+            sealed.channel.force(false);
+        }
+        Segment next = openSegment(sealed.id + 1);
+        segments.put(next.id, next);
+        active = next;
+        return next;
+    }
+
+    private static ByteBuffer encodeRecord(byte[] key, byte[] value) {
+        int valueLength = value == null ? TOMBSTONE : value.length;
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + key.length + Math.max(0, valueLength));
+        record.putInt(0).putInt(key.length).putInt(valueLength).put(key);
+        if (value != null) {
+            record.put(value);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), Integer.BYTES, record.capacity() - Integer.BYTES);
+        record.putInt(0, (int) crc.getValue());
+        record.flip();
+        return record;
+    }
+
+    private byte[] readValue(Location location) throws IOException {
+        ByteBuffer value = ByteBuffer.allocate(location.valueLength);
+        long position = location.valueOffset();
+        while (value.hasRemaining()) {
+            if (location.segment.channel.read(value, position + value.position()) < 0) {
+                throw new IOException("Segment " + location.segment.path.getFileName() + " is truncated");
+            }
+        }
+        return value.array();
+    }
+
+    private void retire(Location previous) {
+        if (previous != null) {
+            previous.segment.liveBytes.addAndGet(-previous.recordLength);
+        }
+    }
+
+    /** Rebuild the index from a segment and cut off any torn tail */
+    private void recover(Segment segment) throws IOException {
+        long valid = scan(segment, (key, location) -> {
+            location.segment.liveBytes.addAndGet(location.recordLength);
+            if (location.isTombstone()) {
+                retire(index.remove(key));
+            } else {
+                retire(index.put(key, location));
+            }
+        });
+        if (valid < segment.channel.size()) {
+            segment.channel.truncate(valid);
+        }
+        segment.size = valid;
+    }
+
+    /** Visit each intact record in a segment; returns the offset after the last one */
+    private long scan(Segment segment, RecordVisitor visitor) throws IOException {
+        long size = segment.channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Segment " + segment.path.getFileName() + " is too large to scan");
+        }
+        MappedByteBuffer mapped = segment.channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        CRC32 crc = new CRC32();
+        int offset = 0;
+        while (size - offset >= RECORD_HEADER_BYTES) {
+            int storedCrc = mapped.getInt(offset);
+            int keyLength = mapped.getInt(offset + Integer.BYTES);
+            int valueLength = mapped.getInt(offset + 2 * Integer.BYTES);
+            if (keyLength < 0 || valueLength < TOMBSTONE) {
+                break;
+            }
+            long recordLength = (long) RECORD_HEADER_BYTES + keyLength + Math.max(0, valueLength);
+            if (offset + recordLength > size) {
+                break;
+            }
+            crc.reset();
+            crc.update(mapped.slice(offset + Integer.BYTES, (int) recordLength - Integer.BYTES));
+            if ((int) crc.getValue() != storedCrc) {
+                break;
+            }
+            byte[] key = new byte[keyLength];
+            mapped.get(offset + RECORD_HEADER_BYTES, key);
+            visitor.visit(new String(key, StandardCharsets.UTF_8),
+                new Location(segment, offset, (int) recordLength, keyLength, valueLength));
+            offset += (int) recordLength;
+        }
+        return offset;
+    }
+
+    private List<Long> existingSegmentIds() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    ids.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    // Not one of ours
+                }
+            }
+        }
+        ids.sort(null);
+        return ids;
+    }
+
+    private Segment openSegment(long id) throws IOException {
+        Path path = directory.resolve(String.format("%s%012d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        Segment segment = new Segment(id, path, channel);
+        segment.size = channel.size();
+        return segment;
+    }
+
+    private void closeSegments() throws IOException {
+        IOException failure = null;
+        for (Segment segment : segments.values()) {
+            try {
+                segment.channel.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Storage backend is closed");
+        }
+    }
+}
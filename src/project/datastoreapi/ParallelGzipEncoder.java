@@ -0,0 +1,256 @@
+package project.datastoreapi;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Parallel gzip encoder in the style of pigz.
+ *
+ * The input is split into fixed-size blocks that are deflated independently on
+ * a shared pool sized to the available cores. Every block except the last ends
+ * with a sync flush, so the compressed blocks concatenate into one raw deflate
+ * stream. Each block is primed with the last 32 KB of the previous block as a
+ * preset dictionary, which keeps the ratio close to single-threaded gzip. The
+ * CRC-32 for the trailer is computed on the calling thread while the blocks
+ * compress. The output is a single standard gzip member, readable by gzip,
+ * zcat and GZIPInputStream.
+ *
+ * newOutputStream() does the same for data that arrives in pieces, holding
+ * at most the blocks in flight in memory; its output is byte-for-byte what
+ * encode() produces for the same input.
+ */
+public final class ParallelGzipEncoder {
+
+    private static final int BLOCK_SIZE = 128 * 1024;
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+    private static final int THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+    // Blocks compressed ahead of the writer; bounds memory for large outputs
+    private static final int MAX_BLOCKS_IN_FLIGHT = THREADS * 2;
+
+    private static final byte[] GZIP_HEADER = {
+        0x1f, (byte) 0x8b,  // magic
+        Deflater.DEFLATED,  // compression method
+        0,                  // flags
+        0, 0, 0, 0,         // modification time (unset)
+        0,                  // extra flags
+        (byte) 0xff         // operating system (unknown)
+    };
+
+    private static final ExecutorService COMPRESSION_POOL = Executors.newFixedThreadPool(THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "gzip-block-compressor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // One deflater per pool thread, reset between blocks
+    private static final ThreadLocal<Deflater> DEFLATERS =
+        ThreadLocal.withInitial(() -> new Deflater(Deflater.DEFAULT_COMPRESSION, true));
+
+    private ParallelGzipEncoder() {
+    }
+
+    /** Compress the input and write a complete gzip stream to the output */
+    public static void encode(byte[] input, OutputStream out) throws IOException {
+        out.write(GZIP_HEADER);
+
+        int blockCount = Math.max(1, (input.length + BLOCK_SIZE - 1) / BLOCK_SIZE);
+        Deque<Future<byte[]>> pending = new ArrayDeque<>();
+        CRC32 crc = new CRC32();
+        int nextBlock = 0;
+
+        try {
+            for (int written = 0; written < blockCount; written++) {
+                while (nextBlock < blockCount && pending.size() < MAX_BLOCKS_IN_FLIGHT) {
+                    int start = nextBlock * BLOCK_SIZE;
+                    int length = Math.min(BLOCK_SIZE, input.length - start);
+                    boolean last = ++nextBlock == blockCount;
+                    pending.add(COMPRESSION_POOL.submit(() -> compressBlock(input, start, length, input, start, last)));
+                }
+                // Checksum the block while it (and the ones after it) compress
+                int start = written * BLOCK_SIZE;
+                crc.update(input, start, Math.min(BLOCK_SIZE, input.length - start));
+                out.write(pending.removeFirst().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelAll(pending);
+            throw new IOException("Interrupted while compressing output", e);
+        } catch (ExecutionException e) {
+            cancelAll(pending);
+            throw new IOException("Block compression failed: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        writeIntLittleEndian(out, (int) crc.getValue());
+        writeIntLittleEndian(out, input.length);
+    }
+
+    /** Compress the input into an in-memory gzip stream */
+    public static byte[] encode(byte[] input) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, input.length / 4));
+        encode(input, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * A stream that gzips everything written to it onto out, compressing
+     * full blocks in parallel as they fill. close() writes the last block and
+     * the trailer, then closes out.
+     */
+    public static OutputStream newOutputStream(OutputStream out) throws IOException {
+        return new BlockOutputStream(out);
+    }
+
+    public static int getThreadCount() {
+        return THREADS;
+    }
+
+    /**
+     * Deflate input[start, start + length), primed with the bytes of
+     * history that end at historyEnd (none when historyEnd is 0).
+     */
+    private static byte[] compressBlock(byte[] input, int start, int length, byte[] history, int historyEnd,
+            boolean last) {
+        Deflater deflater = DEFLATERS.get();
+        deflater.reset();
+        if (historyEnd > 0) {
+            int dictionaryLength = Math.min(DICTIONARY_SIZE, historyEnd);
+            deflater.setDictionary(history, historyEnd - dictionaryLength, dictionaryLength);
+        }
+        deflater.setInput(input, start, length);
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 4 + 64);
+        byte[] buffer = new byte[16 * 1024];
+        if (last) {
+            deflater.finish();
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                compressed.write(buffer, 0, count);
+            }
+        } else {
+            // A sync flush ends the block on a byte boundary without ending the stream
+            int count;
+            do {
+                count = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                compressed.write(buffer, 0, count);
+            } while (count == buffer.length);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Streaming form of encode(). A full block is only handed to the pool
+     * once more data arrives, so the final block, compressed with finish()
+     * rather than a sync flush, is always the one still buffered at close().
+     */
+    private static final class BlockOutputStream extends OutputStream {
+        private final OutputStream out;
+        private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+        private final CRC32 crc = new CRC32();
+        private byte[] block = new byte[BLOCK_SIZE];
+        private int filled;
+        // The previous block supplies the next one's dictionary
+        private byte[] previous;
+        private long total;
+        private boolean closed;
+
+        BlockOutputStream(OutputStream out) throws IOException {
+            this.out = out;
+            out.write(GZIP_HEADER);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] data, int offset, int length) throws IOException {
+            if (closed) {
+                throw new IOException("Stream is closed");
+            }
+            while (length > 0) {
+                if (filled == BLOCK_SIZE) {
+                    submit(false);
+                }
+                int count = Math.min(length, BLOCK_SIZE - filled);
+                System.arraycopy(data, offset, block, filled, count);
+                crc.update(data, offset, count);
+                filled += count;
+                total += count;
+                offset += count;
+                length -= count;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                submit(true);
+                while (!pending.isEmpty()) {
+                    writeNext();
+                }
+                writeIntLittleEndian(out, (int) crc.getValue());
+                writeIntLittleEndian(out, (int) total);
+            } finally {
+                cancelAll(pending);
+                out.close();
+            }
+        }
+
+        private void submit(boolean last) throws IOException {
+            if (pending.size() >= MAX_BLOCKS_IN_FLIGHT) {
+                writeNext();
+            }
+            byte[] input = block;
+            int length = filled;
+            byte[] history = previous;
+            int historyEnd = history == null ? 0 : history.length;
+            pending.add(COMPRESSION_POOL.submit(() -> compressBlock(input, 0, length, history, historyEnd, last)));
+            previous = input;
+            block = new byte[BLOCK_SIZE];
+            filled = 0;
+        }
+
+        private void writeNext() throws IOException {
+            try {
+                out.write(pending.removeFirst().get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelAll(pending);
+                throw new IOException("Interrupted while compressing output", e);
+            } catch (ExecutionException e) {
+                cancelAll(pending);
+                throw new IOException("Block compression failed: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+
+    private static void cancelAll(Deque<Future<byte[]>> pending) {
+        for (Future<byte[]> future : pending) {
+            future.cancel(true);
+        }
+    }
+
+    private static void writeIntLittleEndian(OutputStream out, int value) throws IOException {
+        byte[] bytes = new byte[4];
+        bytes[0] = (byte) value;
+        bytes[1] = (byte) (value >>> 8);
+        bytes[2] = (byte) (value >>> 16);
+        bytes[3] = (byte) (value >>> 24);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,222 @@
+package project.datastoreapi;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Sidecar offset index for text result files.
+ *
+ * Layout (big-endian):
+ *   header     magic, version, entry count, reserved, result file length  (4 ints, long)
+ *   positions  per input position: input, length, byte offset, CRC-32     (int, int, long, int)
+ *   values     per entry sorted by input: input, position                 (int, int)
+ *
+ * Both tables are fixed width, so a lookup by position is one positioned read
+ * and a lookup by input value is a binary search over the value table. Neither
+ * loads the index or the result file into memory.
+ *
+ * The result file and its index are renamed into place one after the other,
+ * so a reader can meet a new file beside an old index (or the reverse). The
+ * recorded file length and per-entry checksums let a lookup detect that and
+ * refuse, instead of returning whatever bytes sit at the old offsets.
+ */
+public final class ResultIndex {
+
+    /** Suffix appended to a result file name to locate its index */
+    public static final String INDEX_SUFFIX = ".idx";
+
+    private static final int MAGIC = 0x52494458; // "RIDX"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 24;
+    private static final int POSITION_ENTRY_BYTES = 20;
+    private static final int VALUE_ENTRY_BYTES = 8;
+
+    private ResultIndex() {
+    }
+
+    /** Location of one result inside the result file */
+    public static final class Entry {
+        private final int position;
+        private final int input;
+        private final long offset;
+        private final int length;
+        private final int checksum;
+
+        Entry(int position, int input, long offset, int length, int checksum) {
+            this.position = position;
+            this.input = input;
+            this.offset = offset;
+            this.length = length;
+            this.checksum = checksum;
+        }
+
+        public int getPosition() {
+            return position;
+        }
+
+        public int getInput() {
+            return input;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        /** CRC-32 of the entry's bytes in the result file */
+        public int getChecksum() {
+            return checksum;
+        }
+
+        /** Whether bytes read from the result file are the ones this entry was written with */
+        public boolean matches(ByteBuffer bytes) {
+            CRC32 crc = new CRC32();
+            crc.update(bytes.duplicate());
+            return bytes.remaining() == length && (int) crc.getValue() == checksum;
+        }
+    }
+
+    /** Path of the index that belongs to a result file */
+    public static String indexPathFor(String resultFile) {
+        return resultFile + INDEX_SUFFIX;
+    }
+
+    /**
+     * Write the index for the entries of a result request as laid out by its
+     * joined text. Callers write it to a temporary file published with
+     * AtomicFileCommit, so a partly written index is never visible.
+     */
+    public static void write(OutputStream stream, BasicResultWriteRequest request) throws IOException {
+        int[] inputs = request.getInputs();
+        String[] results = request.getResults();
+        int delimiterBytes = byteLength(request.getDelimiter());
+        int count = inputs.length;
+
+        byte[][] entries = new byte[count][];
+        long dataLength = count == 0 ? 0 : (long) delimiterBytes * (count - 1);
+        for (int i = 0; i < count; i++) {
+            entries[i] = (inputs[i] + "=" + results[i]).getBytes(StandardCharsets.UTF_8);
+            dataLength += entries[i].length;
+        }
+
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(count);
+        out.writeInt(0);
+        out.writeLong(dataLength);
+
+        long offset = 0;
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < count; i++) {
+            crc.reset();
+            crc.update(entries[i]);
+            out.writeInt(inputs[i]);
+            out.writeInt(entries[i].length);
+            out.writeLong(offset);
+            out.writeInt((int) crc.getValue());
+            offset += entries[i].length + delimiterBytes;
+        }
+
+        // Sort (input, position) pairs packed into longs; input in the high bits keeps signed order
+        long[] byValue = new long[count];
+        for (int i = 0; i < count; i++) {
+            byValue[i] = ((long) inputs[i] << 32) | (i & 0xffffffffL);
+        }
+        Arrays.sort(byValue);
+        for (long packed : byValue) {
+            out.writeInt((int) (packed >> 32));
+            out.writeInt((int) packed);
+        }
+        out.flush();
+    }
+
+    /** Number of entries recorded in an index */
+    public static int entryCount(FileChannel index) throws IOException {
+        return readHeader(index).getInt(8);
+    }
+
+    /** Length of the result file the index was written for */
+    public static long dataLength(FileChannel index) throws IOException {
+        return readHeader(index).getLong(16);
+    }
+
+    private static ByteBuffer readHeader(FileChannel index) throws IOException {
+        ByteBuffer header = readAt(index, 0, HEADER_BYTES);
+        if (header.getInt(0) != MAGIC) {
+            throw new IOException("Not a result index file");
+        }
+        if (header.getInt(4) != VERSION) {
+            throw new IOException("Unsupported result index version " + header.getInt(4));
+        }
+        return header;
+    }
+
+    /** Find the entry at an input position, or null if out of range */
+    public static Entry findByPosition(FileChannel index, int position) throws IOException {
+        int count = entryCount(index);
+        if (position < 0 || position >= count) {
+            return null;
+        }
+        ByteBuffer entry = readAt(index, HEADER_BYTES + (long) position * POSITION_ENTRY_BYTES,
+            POSITION_ENTRY_BYTES);
+        int input = entry.getInt();
+        int length = entry.getInt();
+        long offset = entry.getLong();
+        int checksum = entry.getInt();
+        return new Entry(position, input, offset, length, checksum);
+    }
+
+    /** Find the first entry computed for an input value, or null if the value is absent */
+    public static Entry findByInput(FileChannel index, int input) throws IOException {
+        int count = entryCount(index);
+        long valuesStart = HEADER_BYTES + (long) count * POSITION_ENTRY_BYTES;
+
+        int low = 0;
+        int high = count - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            ByteBuffer entry = readAt(index, valuesStart + (long) mid * VALUE_ENTRY_BYTES, VALUE_ENTRY_BYTES);
+            int value = entry.getInt();
+            if (value < input) {
+                low = mid + 1;
+            } else if (value > input) {
+                high = mid - 1;
+            } else {
+                found = entry.getInt();
+                high = mid - 1; // keep searching left for the earliest position
+            }
+        }
+        return found < 0 ? null : findByPosition(index, found);
+    }
+
+    private static ByteBuffer readAt(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of index file");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    static int byteLength(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return text.getBytes(StandardCharsets.UTF_8).length;
+            }
+        }
+        return text.length();
+    }
+}
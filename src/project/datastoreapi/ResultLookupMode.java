@@ -0,0 +1,7 @@
+package project.datastoreapi;
+
+/** Ways to address a single result in an indexed result file */
+public enum ResultLookupMode {
+    BY_POSITION,  // Key is the zero-based position of the input
+    BY_INPUT      // Key is the input value itself
+}
@@ -0,0 +1,13 @@
+package project.datastoreapi;
+
+/** Request to fetch one result from an indexed result file */
+public interface ResultLookupRequest {
+    /** Get result file location */
+    String getSource();
+    
+    /** Get how the key should be interpreted */
+    ResultLookupMode getMode();
+    
+    /** Get input position or input value, depending on the mode */
+    int getKey();
+}
@@ -0,0 +1,19 @@
+package project.datastoreapi;
+
+/** Response from a single-result lookup */
+public interface ResultLookupResponse {
+    /** Get operation status */
+    RequestStatus getStatus();
+    
+    /** Get status message */
+    String getMessage();
+    
+    /** Get zero-based position of the input */
+    int getPosition();
+    
+    /** Get input value the result was computed from */
+    int getInput();
+    
+    /** Get the result text, or null if the lookup failed */
+    String getResult();
+}
@@ -0,0 +1,154 @@
+package project.datastoreapi;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Layout of a sharded result output: which shard file holds which range of
+ * input positions. The manifest is written at the job's destination path as a
+ * properties file, after every shard it lists has been committed, so a reader
+ * that finds a manifest always finds complete shards.
+ *
+ * Concatenating the shards in order, separated by the delimiter, yields the
+ * same text a single-file TEXT write would have produced.
+ */
+public class ShardManifest {
+
+    public static final int VERSION = 1;
+
+    private final int entryCount;
+    private final String delimiter;
+    private final List<Shard> shards;
+
+    public ShardManifest(int entryCount, String delimiter, List<Shard> shards) {
+        this.entryCount = entryCount;
+        this.delimiter = delimiter;
+        this.shards = Collections.unmodifiableList(new ArrayList<>(shards));
+    }
+
+    /** One shard file covering positions [firstPosition, firstPosition + entryCount) */
+    public static final class Shard {
+        private final String fileName;
+        private final int firstPosition;
+        private final int entryCount;
+        private final long byteCount;
+
+        public Shard(String fileName, int firstPosition, int entryCount, long byteCount) {
+            this.fileName = fileName;
+            this.firstPosition = firstPosition;
+            this.entryCount = entryCount;
+            this.byteCount = byteCount;
+        }
+
+        /** File name relative to the manifest's directory */
+        public String getFileName() {
+            return fileName;
+        }
+
+        public int getFirstPosition() {
+            return firstPosition;
+        }
+
+        public int getEntryCount() {
+            return entryCount;
+        }
+
+        public long getByteCount() {
+            return byteCount;
+        }
+    }
+
+    /**
+     * Name of the i-th shard file of one write to a destination. Each write
+     * uses a new generation, so it never overwrites shards a committed
+     * manifest still lists.
+     */
+    public static String shardFileName(Path destination, String generation, int shard) {
+        return destination.getFileName().toString() + "." + generation + String.format(".shard-%04d", shard);
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public String getDelimiter() {
+        return delimiter;
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    /** Resolve a shard's file against the directory holding the manifest */
+    public Path resolve(Path manifest, Shard shard) {
+        return manifest.toAbsolutePath().resolveSibling(shard.getFileName());
+    }
+
+    public void write(OutputStream out) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("format", DataFormat.SHARDED.name());
+        properties.setProperty("version", Integer.toString(VERSION));
+        properties.setProperty("entries", Integer.toString(entryCount));
+        properties.setProperty("delimiter", delimiter);
+        properties.setProperty("shards", Integer.toString(shards.size()));
+        for (int i = 0; i < shards.size(); i++) {
+            Shard shard = shards.get(i);
+            String prefix = "shard." + i + ".";
+            properties.setProperty(prefix + "file", shard.getFileName());
+            properties.setProperty(prefix + "first", Integer.toString(shard.getFirstPosition()));
+            properties.setProperty(prefix + "entries", Integer.toString(shard.getEntryCount()));
+            properties.setProperty(prefix + "bytes", Long.toString(shard.getByteCount()));
+        }
+        properties.store(out, "Sharded result output");
+    }
+
+    /** Load a manifest, rejecting files that are not sharded-output manifests */
+    public static ShardManifest read(Path manifest) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(manifest)) {
+            properties.load(in);
+        }
+        if (!DataFormat.SHARDED.name().equals(properties.getProperty("format"))) {
+            throw new IOException("Not a sharded output manifest: " + manifest);
+        }
+        if (!Integer.toString(VERSION).equals(properties.getProperty("version"))) {
+            throw new IOException("Unsupported manifest version " + properties.getProperty("version"));
+        }
+
+        try {
+            int shardCount = Integer.parseInt(properties.getProperty("shards"));
+            List<Shard> shards = new ArrayList<>(shardCount);
+            for (int i = 0; i < shardCount; i++) {
+                String prefix = "shard." + i + ".";
+                String fileName = properties.getProperty(prefix + "file");
+                if (fileName == null) {
+                    throw new IOException("Manifest is missing shard " + i);
+                }
+                shards.add(new Shard(
+                    fileName,
+                    Integer.parseInt(properties.getProperty(prefix + "first")),
+                    Integer.parseInt(properties.getProperty(prefix + "entries")),
+                    Long.parseLong(properties.getProperty(prefix + "bytes"))
+                ));
+            }
+            return new ShardManifest(
+                Integer.parseInt(properties.getProperty("entries")),
+                properties.getProperty("delimiter", ""),
+                shards
+            );
+        } catch (NumberFormatException e) {
+            throw new IOException("Corrupt manifest " + manifest, e);
+        }
+    }
+}
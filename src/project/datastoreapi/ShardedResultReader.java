@@ -0,0 +1,76 @@
+package project.datastoreapi;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+
+/**
+ * Reads a sharded result output through its manifest. Shards are independent
+ * files, so downstream consumers can process them in parallel; readAll joins
+ * them back into the single-file text.
+ */
+public class ShardedResultReader {
+
+    private final Path manifestPath;
+    private final ShardManifest manifest;
+
+    public ShardedResultReader(Path manifestPath) throws IOException {
+        this.manifestPath = manifestPath;
+        this.manifest = ShardManifest.read(manifestPath);
+    }
+
+    public ShardManifest getManifest() {
+        return manifest;
+    }
+
+    /** Read one shard's delimiter-joined "n=result" entries, checking its recorded size */
+    public String readShard(int index) throws IOException {
+        ShardManifest.Shard shard = manifest.getShards().get(index);
+        byte[] bytes = Files.readAllBytes(manifest.resolve(manifestPath, shard));
+        if (bytes.length != shard.getByteCount()) {
+            throw new IOException("Shard " + shard.getFileName() + " has " + bytes.length
+                + " bytes, manifest expects " + shard.getByteCount());
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Hand every shard to the consumer in parallel, together with the shard's layout */
+    public void forEachShard(Executor executor, BiConsumer<ShardManifest.Shard, String> consumer)
+            throws IOException {
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(manifest.getShardCount());
+        for (int i = 0; i < manifest.getShardCount(); i++) {
+            int index = i;
+            tasks.add(CompletableFuture.runAsync(() -> {
+                try {
+                    consumer.accept(manifest.getShards().get(index), readShard(index));
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor));
+        }
+        try {
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /** Read all shards in parallel and join them as a single-file write would have */
+    public String readAll() throws IOException {
+        String[] parts = new String[manifest.getShardCount()];
+        forEachShard(ForkJoinPool.commonPool(), (shard, text) ->
+            parts[manifest.getShards().indexOf(shard)] = text);
+        return String.join(manifest.getDelimiter(), parts);
+    }
+}
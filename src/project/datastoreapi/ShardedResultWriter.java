@@ -0,0 +1,199 @@
+package project.datastoreapi;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Writes a job's results as N shard files split by input position, one writer
+ * per shard running in parallel, followed by a manifest at the destination.
+ *
+ * Every shard is written to a temporary file first. Only when all shards have
+ * been written are they renamed into place, and the manifest is committed last,
+ * so a failed job never leaves a manifest pointing at missing or partial shards.
+ *
+ * Shard file names carry a per-write generation, so rewriting an existing
+ * output never touches the shards its current manifest lists: the new shards
+ * sit beside the old ones until the new manifest is renamed over the old one,
+ * and only then is the previous generation deleted. A failure at any point
+ * before that leaves the old manifest and all of its shards intact.
+ */
+public final class ShardedResultWriter {
+
+    private static final int THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+    private static final ExecutorService SHARD_POOL = Executors.newFixedThreadPool(THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "shard-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ShardedResultWriter() {
+    }
+
+    /** Default number of shards: one per core */
+    public static int defaultShardCount() {
+        return THREADS;
+    }
+
+    /**
+     * Write the request's entries across at most shardCount shards (never more
+     * shards than entries) and return the committed manifest.
+     */
+    public static ShardManifest write(Path destination, BasicResultWriteRequest request, int shardCount,
+            DirectBufferPool pool, boolean fsync) throws IOException {
+        int entries = request.getEntryCount();
+        int shards = Math.max(1, Math.min(shardCount, entries));
+        String generation = Long.toHexString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE);
+        List<Path> previousShards = previousShards(destination);
+
+        List<Future<Path>> pending = new ArrayList<>(shards);
+        List<Path> temps = new ArrayList<>(shards);
+        List<Path> committed = new ArrayList<>(shards);
+        boolean published = false;
+        try {
+            for (int shard = 0; shard < shards; shard++) {
+                int first = firstPosition(shard, shards, entries);
+                int end = firstPosition(shard + 1, shards, entries);
+                Path shardPath = destination.resolveSibling(ShardManifest.shardFileName(destination, generation, shard));
+                pending.add(SHARD_POOL.submit(() -> writeShard(shardPath, request, first, end, pool)));
+            }
+
+            List<ShardManifest.Shard> layout = new ArrayList<>(shards);
+            for (int shard = 0; shard < shards; shard++) {
+                Path temp = await(pending.get(shard));
+                temps.add(temp);
+                int first = firstPosition(shard, shards, entries);
+                layout.add(new ShardManifest.Shard(
+                    ShardManifest.shardFileName(destination, generation, shard),
+                    first,
+                    firstPosition(shard + 1, shards, entries) - first,
+                    Files.size(temp)
+                ));
+            }
+
+            for (int shard = 0; shard < shards; shard++) {
+                Path shardPath = destination.resolveSibling(layout.get(shard).getFileName());
+                AtomicFileCommit.commit(temps.get(shard), shardPath, fsync);
+                committed.add(shardPath.toAbsolutePath());
+            }
+
+            ShardManifest manifest = new ShardManifest(entries, request.getDelimiter(), layout);
+            AtomicFileCommit.write(destination, fsync, temp -> {
+                try (PooledChannelOutputStream out = new PooledChannelOutputStream(
+                        FileChannel.open(temp, StandardOpenOption.WRITE), pool)) {
+                    manifest.write(out);
+                }
+            });
+            published = true;
+
+            // Nothing references the previous generation any more
+            for (Path old : previousShards) {
+                if (!committed.contains(old)) {
+                    deleteQuietly(old);
+                }
+            }
+            return manifest;
+        } finally {
+            // Committed shards were renamed away, so this only removes temps left by a failure
+            for (Future<Path> future : pending) {
+                deleteQuietly(future);
+            }
+            if (!published) {
+                // No manifest lists these shards
+                for (Path shard : committed) {
+                    deleteQuietly(shard);
+                }
+            }
+        }
+    }
+
+    /** Shard files listed by the manifest currently at the destination, if there is one */
+    private static List<Path> previousShards(Path destination) {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isRegularFile(destination)) {
+            return files;
+        }
+        try {
+            ShardManifest previous = ShardManifest.read(destination);
+            for (ShardManifest.Shard shard : previous.getShards()) {
+                files.add(previous.resolve(destination, shard));
+            }
+        } catch (IOException e) {
+            // Not a sharded output (or unreadable), so there are no shards to clean up
+        }
+        return files;
+    }
+
+    /** Positions are split as evenly as possible; earlier shards take the remainder */
+    private static int firstPosition(int shard, int shards, int entries) {
+        int base = entries / shards;
+        int remainder = entries % shards;
+        return shard * base + Math.min(shard, remainder);
+    }
+
+    private static Path writeShard(Path shardPath, BasicResultWriteRequest request, int first, int end,
+            DirectBufferPool pool) throws IOException {
+        Path temp = AtomicFileCommit.createTempFor(shardPath);
+        int[] inputs = request.getInputs();
+        String[] results = request.getResults();
+        try (PooledChannelOutputStream out = new PooledChannelOutputStream(
+                FileChannel.open(temp, StandardOpenOption.WRITE), pool)) {
+            for (int i = first; i < end; i++) {
+                if (i > first) {
+                    out.writeString(request.getDelimiter());
+                }
+                out.writeString(Integer.toString(inputs[i]));
+                out.write('=');
+                out.writeString(results[i]);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return temp;
+    }
+
+    private static Path await(Future<Path> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing shards", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Shard writer failed", cause);
+        }
+    }
+
+    /** Wait for a shard writer and remove its temp file if it is still there */
+    private static void deleteQuietly(Future<Path> future) {
+        try {
+            Files.deleteIfExists(future.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | IOException e) {
+            // The writer already removed its own temp file, or nothing more can be done
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Could not remove shard file " + file + ": " + e.getMessage());
+        }
+    }
+}
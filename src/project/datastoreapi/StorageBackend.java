@@ -0,0 +1,37 @@
+package project.datastoreapi;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Storage SPI under the data store: named byte values that EmptyDataStoreAPI
+ * reads inputs from and writes encoded results to.
+ *
+ * Keys are the request's source or destination. Backends that keep each key
+ * in its own local file expose that file through localPath(), which lets the
+ * data store use its channel, memory-mapped, sharded and indexed paths; other
+ * backends are reached only through read() and write().
+ */
+public interface StorageBackend extends Closeable {
+
+    /** Read the whole value stored under a key; throws NoSuchFileException if there is none */
+    byte[] read(String key) throws IOException;
+
+    /** Store a value under a key, replacing any previous value */
+    void write(String key, byte[] value) throws IOException;
+
+    boolean contains(String key) throws IOException;
+
+    /** Remove a key; returns false if it was not present */
+    boolean delete(String key) throws IOException;
+
+    /** Local file holding the key's value, or null if values are not stored as files */
+    default Path localPath(String key) {
+        return null;
+    }
+
+    @Override
+    default void close() throws IOException {
+    }
+}
@@ -0,0 +1,213 @@
+package project.datastoreapi;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * A read whose data is handed out in pieces, e.g. to a server-streaming RPC.
+ *
+ * The status, message, sorted flag and total count are known as soon as the
+ * read is opened, before any data is taken. Data is taken as little-endian
+ * int32 values, or for VARINT_DELTA reads as slices of the encoding for the
+ * receiver to decode. A local text input is tokenized a buffer at a time as
+ * it is taken, and a local VARINT_DELTA file is sliced straight from its
+ * mapping, so memory use does not grow with the input. Other reads are served
+ * from the array readData returned.
+ */
+public class StreamingRead implements Closeable {
+
+    /** Fills buffers with the read's data */
+    interface Source extends Closeable {
+        /** Put as much data as fits in target; -1 once there is none left */
+        int read(ByteBuffer target) throws IOException;
+
+        @Override
+        default void close() {
+        }
+    }
+
+    private final RequestStatus status;
+    private final String message;
+    private final boolean sorted;
+    private final int totalCount;
+    private final boolean encoded;
+    private final Source source;
+
+    StreamingRead(RequestStatus status, String message, boolean sorted, int totalCount, boolean encoded,
+            Source source) {
+        this.status = status;
+        this.message = message;
+        this.sorted = sorted;
+        this.totalCount = totalCount;
+        this.encoded = encoded;
+        this.source = source;
+    }
+
+    /**
+     * Stream a response that is already in memory, e.g. from a data store
+     * that only reads whole inputs.
+     *
+     * @param encoded hand the data out VARINT_DELTA-encoded instead of as int32 values
+     */
+    public static StreamingRead of(DataReadResponse response, boolean encoded) {
+        int[] data = response.getData();
+        Source source = encoded ? bytes(ByteBuffer.wrap(VarintDeltaCodec.encode(data))) : values(data);
+        return new StreamingRead(response.getStatus(), response.getMessage(), response.isSorted(), data.length,
+            encoded, source);
+    }
+
+    public RequestStatus getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public boolean isSorted() {
+        return sorted;
+    }
+
+    /** Number of integers the read delivers in total */
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    /** Whether the data is VARINT_DELTA-encoded rather than int32 values */
+    public boolean isEncoded() {
+        return encoded;
+    }
+
+    /**
+     * Put the next piece of data into target: whole little-endian int32
+     * values, or bytes of the encoding if isEncoded().
+     *
+     * @return bytes put, or -1 once all the data has been taken
+     * @throws IOException if the input cannot be read, or no longer matches
+     *         what was counted when the read was opened
+     */
+    public int read(ByteBuffer target) throws IOException {
+        return source.read(target);
+    }
+
+    /** Release the file and buffer behind the read */
+    @Override
+    public void close() {
+        source.close();
+    }
+
+    /** Values of an array, as int32s */
+    static Source values(int[] data) {
+        return new Source() {
+            private int position;
+
+            @Override
+            public int read(ByteBuffer target) {
+                if (position == data.length) {
+                    return -1;
+                }
+                int count = Math.min(target.remaining() / Integer.BYTES, data.length - position);
+                target.duplicate().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().put(data, position, count);
+                target.position(target.position() + count * Integer.BYTES);
+                position += count;
+                return count * Integer.BYTES;
+            }
+        };
+    }
+
+    /** Remaining bytes of a buffer, e.g. an encoding or a mapped file */
+    static Source bytes(ByteBuffer data) {
+        return new Source() {
+            @Override
+            public int read(ByteBuffer target) {
+                if (!data.hasRemaining()) {
+                    return -1;
+                }
+                int length = Math.min(target.remaining(), data.remaining());
+                ByteBuffer slice = data.duplicate();
+                slice.limit(slice.position() + length);
+                target.put(slice);
+                data.position(data.position() + length);
+                return length;
+            }
+        };
+    }
+
+    /**
+     * Values tokenized from a text file as they are taken, through a pooled
+     * buffer. The file was counted when the read was opened; if it yields a
+     * different number of values now, it changed in between and the read fails.
+     */
+    static Source tokenized(FileChannel channel, InputTokenizer tokenizer, DirectBufferPool pool,
+            int expectedCount) {
+        return new Source() {
+            private final ByteBuffer buffer = pool.acquire();
+            private int[] pending = new int[0];
+            private int position;
+            private int produced;
+            private boolean finished;
+            private boolean closed;
+
+            @Override
+            public int read(ByteBuffer target) throws IOException {
+                int start = target.position();
+                try {
+                    while (target.remaining() >= Integer.BYTES) {
+                        if (position == pending.length && !refill()) {
+                            break;
+                        }
+                        int count = Math.min(target.remaining() / Integer.BYTES, pending.length - position);
+                        target.duplicate().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().put(pending, position, count);
+                        target.position(target.position() + count * Integer.BYTES);
+                        position += count;
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IOException("Input changed while it was being read");
+                }
+                int length = target.position() - start;
+                return length == 0 && finished && position == pending.length ? -1 : length;
+            }
+
+            /** Tokenize the next buffer of the file; false at the end of the values */
+            private boolean refill() throws IOException {
+                while (!finished) {
+                    if (channel.read(buffer) < 0) {
+                        pending = tokenizer.finish();
+                        finished = true;
+                    } else {
+                        buffer.flip();
+                        tokenizer.feed(buffer);
+                        buffer.clear();
+                        pending = tokenizer.take();
+                    }
+                    position = 0;
+                    produced += pending.length;
+                    if (produced > expectedCount || (finished && produced != expectedCount)) {
+                        throw new IOException("Input changed while it was being read");
+                    }
+                    if (pending.length > 0) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public void close() {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                pool.release(buffer);
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    // Only read from
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,128 @@
+package project.datastoreapi;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+/**
+ * A write whose data arrives in pieces, e.g. from a client-streaming RPC.
+ *
+ * For file destinations each piece goes straight to a temporary file beside
+ * the destination, so memory use does not grow with the output. commit()
+ * checks the byte count and CRC32 of everything written against the sender's
+ * and only then publishes the file atomically; a mismatch or close() without
+ * commit discards the temporary file and leaves any existing output intact.
+ * Compressed output uses the parallel gzip encoder, as whole-payload writes
+ * do, and in STREAM mode the publication is queued on the write-behind
+ * writer behind earlier writes to the same destination.
+ */
+public class StreamingWrite implements Closeable {
+
+    /** Publishes the completed output once the checksum has been verified */
+    interface Publisher {
+        void publish() throws IOException;
+    }
+
+    private final String destination;
+    private final OutputStream target;
+    private final OutputStream out;
+    private final Publisher publisher;
+    private final Path temp;
+    private final CRC32 crc = new CRC32();
+    private long bytes;
+    private boolean finished;
+
+    /**
+     * @param target stream the (optionally compressed) output is written to
+     * @param temp temporary file deleted if the write is abandoned, or null
+     */
+    StreamingWrite(String destination, OutputStream target, boolean compressed, Path temp, Publisher publisher)
+            throws IOException {
+        this.destination = destination;
+        this.target = target;
+        this.out = compressed ? ParallelGzipEncoder.newOutputStream(target) : target;
+        this.temp = temp;
+        this.publisher = publisher;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    /** Bytes received so far, before any compression */
+    public long getBytesWritten() {
+        return bytes;
+    }
+
+    public void write(byte[] data, int offset, int length) throws IOException {
+        if (finished) {
+            throw new IOException("Streaming write to " + destination + " is already finished");
+        }
+        out.write(data, offset, length);
+        crc.update(data, offset, length);
+        bytes += length;
+    }
+
+    public void write(byte[] data) throws IOException {
+        write(data, 0, data.length);
+    }
+
+    /**
+     * Verify what was received against the sender's totals and publish the
+     * output. Returns REJECTED, discarding the output, if they differ.
+     */
+    public DataWriteResponse commit(long expectedBytes, int expectedCrc) {
+        if (finished) {
+            return new BasicDataWriteResponse(RequestStatus.REJECTED, "Streaming write is already finished");
+        }
+        if (expectedBytes != bytes || expectedCrc != (int) crc.getValue()) {
+            abandon();
+            return new BasicDataWriteResponse(
+                RequestStatus.REJECTED,
+                "Checksum mismatch for " + destination + ": received " + bytes + " bytes"
+            );
+        }
+        try {
+            out.close();
+            publisher.publish();
+            finished = true;
+            return new BasicDataWriteResponse(
+                RequestStatus.ACCEPTED,
+                "Successfully streamed " + bytes + " bytes to: " + destination
+            );
+        } catch (IOException e) {
+            abandon();
+            return new BasicDataWriteResponse(
+                RequestStatus.REJECTED,
+                "Error writing file: " + e.getMessage()
+            );
+        }
+    }
+
+    /** Discard the write unless it was committed */
+    @Override
+    public void close() {
+        if (!finished) {
+            abandon();
+        }
+    }
+
+    private void abandon() {
+        finished = true;
+        try {
+            target.close();
+        } catch (IOException e) {
+            // Being discarded anyway
+        }
+        if (temp != null) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                System.err.println("Could not delete " + temp + ": " + e.getMessage());
+            }
+        }
+    }
+}
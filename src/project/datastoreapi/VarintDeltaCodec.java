@@ -0,0 +1,229 @@
+package project.datastoreapi;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Compact encoding for integer batches that are mostly sorted with small gaps.
+ *
+ * Layout (big-endian fixed-width fields):
+ *
+ *   header   magic "VDLT", version, flags, count, block size, block count (6 ints)
+ *   index    per block: first value, payload offset, payload length, value count (4 ints)
+ *   payload  per block: zigzag varint deltas from the previous value, one per
+ *            value after the block's first
+ *
+ * The first value of every block lives in the index, so blocks decode
+ * independently and in parallel straight into their slice of the result. A
+ * sorted batch with gaps under 64 costs one byte per value instead of four
+ * (plus the text separators of the .txt format). Bit 0 of the flags marks a
+ * non-decreasing batch, which readers pass on to the compute layer.
+ */
+public final class VarintDeltaCodec {
+
+    /** File extension expected for VARINT_DELTA input sources */
+    public static final String FILE_EXTENSION = ".vdelta";
+
+    public static final int DEFAULT_BLOCK_SIZE = 4096;
+
+    private static final int MAGIC = 0x56444c54; // "VDLT"
+    private static final int VERSION = 1;
+    private static final int FLAG_SORTED = 1;
+    private static final int HEADER_BYTES = 6 * Integer.BYTES;
+    private static final int INDEX_ENTRY_BYTES = 4 * Integer.BYTES;
+
+    private static final int THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+    private static final ExecutorService DECODE_POOL = Executors.newFixedThreadPool(THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "varint-block-decoder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private VarintDeltaCodec() {
+    }
+
+    /** Encode with the default block size */
+    public static byte[] encode(int[] values) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(values.length + HEADER_BYTES);
+        try {
+            write(out, values, DEFAULT_BLOCK_SIZE);
+        } catch (IOException e) {
+            // ByteArrayOutputStream does not throw
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /** Write an encoded batch with the given number of values per block */
+    public static void write(OutputStream stream, int[] values, int blockSize) throws IOException {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        int blockCount = (values.length + blockSize - 1) / blockSize;
+
+        // Encode the payload first so the index can record where each block starts
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(values.length);
+        int[] offsets = new int[blockCount];
+        int[] lengths = new int[blockCount];
+        boolean sorted = true;
+        for (int block = 0; block < blockCount; block++) {
+            int start = block * blockSize;
+            int end = Math.min(values.length, start + blockSize);
+            offsets[block] = payload.size();
+            for (int i = start + 1; i < end; i++) {
+                long delta = (long) values[i] - values[i - 1];
+                sorted &= delta >= 0;
+                writeVarint(payload, (delta << 1) ^ (delta >> 63));
+            }
+            if (block > 0) {
+                sorted &= values[start] >= values[start - 1];
+            }
+            lengths[block] = payload.size() - offsets[block];
+        }
+
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(sorted ? FLAG_SORTED : 0);
+        out.writeInt(values.length);
+        out.writeInt(blockSize);
+        out.writeInt(blockCount);
+        for (int block = 0; block < blockCount; block++) {
+            int start = block * blockSize;
+            out.writeInt(values[start]);
+            out.writeInt(offsets[block]);
+            out.writeInt(lengths[block]);
+            out.writeInt(Math.min(blockSize, values.length - start));
+        }
+        payload.writeTo(out);
+        out.flush();
+    }
+
+    /** Whether the encoded batch was flagged as non-decreasing when written */
+    public static boolean isSorted(ByteBuffer buffer) throws IOException {
+        ByteBuffer encoded = buffer.duplicate();   // big-endian view
+        checkHeader(encoded);
+        return (encoded.getInt(encoded.position() + 2 * Integer.BYTES) & FLAG_SORTED) != 0;
+    }
+
+    /** Number of values in the encoded batch, from its header */
+    public static int count(ByteBuffer buffer) throws IOException {
+        ByteBuffer encoded = buffer.duplicate();   // big-endian view
+        checkHeader(encoded);
+        return encoded.getInt(encoded.position() + 3 * Integer.BYTES);
+    }
+
+    /**
+     * Decode a batch. Blocks are spread over the decoder pool and each task
+     * writes its blocks directly into the shared result array. The buffer's
+     * position is not changed.
+     */
+    public static int[] decode(ByteBuffer buffer) throws IOException {
+        ByteBuffer encoded = buffer.duplicate();   // big-endian view
+        checkHeader(encoded);
+        int base = encoded.position();
+        int count = encoded.getInt(base + 3 * Integer.BYTES);
+        int blockSize = encoded.getInt(base + 4 * Integer.BYTES);
+        int blockCount = encoded.getInt(base + 5 * Integer.BYTES);
+        long payloadStart = base + HEADER_BYTES + (long) blockCount * INDEX_ENTRY_BYTES;
+        if (count < 0 || blockSize <= 0 || blockCount < 0 || payloadStart > encoded.limit()
+                || (long) blockCount * blockSize < count) {
+            throw new IOException("Corrupt varint-delta header");
+        }
+
+        int[] values = new int[count];
+        if (blockCount <= 1 || THREADS == 1) {
+            decodeBlocks(encoded, base, (int) payloadStart, blockSize, values, 0, blockCount);
+            return values;
+        }
+
+        int tasks = Math.min(THREADS, blockCount);
+        List<Future<Void>> pending = new ArrayList<>(tasks);
+        for (int task = 0; task < tasks; task++) {
+            int first = (int) ((long) blockCount * task / tasks);
+            int last = (int) ((long) blockCount * (task + 1) / tasks);
+            ByteBuffer view = encoded.duplicate();
+            pending.add(DECODE_POOL.submit(() -> {
+                decodeBlocks(view, base, (int) payloadStart, blockSize, values, first, last);
+                return null;
+            }));
+        }
+        try {
+            for (Future<Void> future : pending) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.forEach(future -> future.cancel(true));
+            throw new IOException("Interrupted while decoding", e);
+        } catch (ExecutionException e) {
+            pending.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Corrupt varint-delta payload", e.getCause());
+        }
+        return values;
+    }
+
+    private static void decodeBlocks(ByteBuffer encoded, int base, int payloadStart, int blockSize,
+            int[] values, int firstBlock, int lastBlock) throws IOException {
+        for (int block = firstBlock; block < lastBlock; block++) {
+            int entry = base + HEADER_BYTES + block * INDEX_ENTRY_BYTES;
+            int value = encoded.getInt(entry);
+            int position = payloadStart + encoded.getInt(entry + Integer.BYTES);
+            int end = position + encoded.getInt(entry + 2 * Integer.BYTES);
+            int valueCount = encoded.getInt(entry + 3 * Integer.BYTES);
+            int start = block * blockSize;
+            if (end > encoded.limit() || position < payloadStart || valueCount < 0
+                    || start + valueCount > values.length) {
+                throw new IOException("Corrupt varint-delta block " + block);
+            }
+
+            values[start] = value;
+            for (int i = 1; i < valueCount; i++) {
+                long zigzag = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    if (position >= end || shift > 63) {
+                        throw new IOException("Truncated varint in block " + block);
+                    }
+                    b = encoded.get(position++);
+                    zigzag |= (long) (b & 0x7f) << shift;
+                    shift += 7;
+                } while (b < 0);
+                value += (int) ((zigzag >>> 1) ^ -(zigzag & 1));
+                values[start + i] = value;
+            }
+        }
+    }
+
+    private static void checkHeader(ByteBuffer encoded) throws IOException {
+        int base = encoded.position();
+        if (encoded.limit() - base < HEADER_BYTES || encoded.getInt(base) != MAGIC) {
+            throw new IOException("Not a varint-delta batch");
+        }
+        if (encoded.getInt(base + Integer.BYTES) != VERSION) {
+            throw new IOException("Unsupported varint-delta version " + encoded.getInt(base + Integer.BYTES));
+        }
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7fL) != 0) {
+            out.write((int) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
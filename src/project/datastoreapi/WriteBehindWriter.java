@@ -0,0 +1,364 @@
+package project.datastoreapi;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind file writer backed by AsynchronousFileChannel.
+ *
+ * Callers hand complete payloads to submit() and return as soon as the payload
+ * is queued. A single background thread drains the bounded queue, coalesces
+ * consecutive writes to the same file into large sequential writes through one
+ * reusable direct buffer, and applies the configured FsyncPolicy.
+ *
+ * When the queue is full, submit() blocks, so producers are slowed down to the
+ * speed of the disk instead of buffering results without limit.
+ *
+ * Only appends are merged with the writes before them. Each EmptyDataStoreAPI
+ * result write replaces a whole file, so those are not merged with one
+ * another; a payload larger than the buffer is still written with a few
+ * buffer-sized sequential writes, and the caller is never held up by them.
+ *
+ * close() writes everything accepted before it and then stops the thread;
+ * submit() and flush() fail once close() has begun.
+ */
+public class WriteBehindWriter {
+
+    private static final long DEFAULT_FSYNC_INTERVAL_MS = 1000;
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final BlockingQueue<WriteTask> queue;
+    private final int coalesceBytes;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalMillis;
+    private final Thread drainThread;
+
+    // Files written since the last periodic fsync (drain thread only)
+    private final Set<Path> dirtyFiles = new HashSet<>();
+
+    private final AtomicLong submittedWrites = new AtomicLong();
+    private final AtomicLong physicalWrites = new AtomicLong();
+
+    // submit() and flush() enqueue under the read lock; close() takes the write
+    // lock to set closed, so nothing can be queued behind the stop marker
+    private final ReadWriteLock lifecycle = new ReentrantReadWriteLock();
+    private boolean closed;
+    private final WriteTask stopMarker = new WriteTask(null, null, false);
+
+    public WriteBehindWriter(int queueCapacity, int coalesceBytes, FsyncPolicy fsyncPolicy) {
+        this(queueCapacity, coalesceBytes, fsyncPolicy, DEFAULT_FSYNC_INTERVAL_MS);
+    }
+
+    public WriteBehindWriter(int queueCapacity, int coalesceBytes, FsyncPolicy fsyncPolicy,
+                             long fsyncIntervalMillis) {
+        if (queueCapacity <= 0 || coalesceBytes <= 0 || fsyncIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Queue capacity, buffer size and fsync interval must be positive");
+        }
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.coalesceBytes = coalesceBytes;
+        this.fsyncPolicy = fsyncPolicy == null ? FsyncPolicy.NONE : fsyncPolicy;
+        this.fsyncIntervalMillis = fsyncIntervalMillis;
+        this.drainThread = new Thread(this::drainLoop, "write-behind-writer");
+        this.drainThread.setDaemon(true);
+        this.drainThread.start();
+    }
+
+    /**
+     * Queue a write of the given bytes, blocking while the queue is full.
+     * The returned future completes once the bytes (and any fsync required by
+     * the policy) have reached the file.
+     */
+    public CompletableFuture<Void> submit(Path destination, byte[] data, boolean append)
+            throws InterruptedException {
+        WriteTask task = new WriteTask(destination.toAbsolutePath().normalize(), data, append);
+        enqueue(task);
+        submittedWrites.incrementAndGet();
+        return task.done;
+    }
+
+    /**
+     * Queue the publication of a temporary file that is already fully
+     * written (e.g. by a streaming write): it is renamed over the
+     * destination in order with the other queued writes, under the same
+     * fsync policy. The temporary file is deleted if the rename fails.
+     */
+    public CompletableFuture<Void> submitCommit(Path temp, Path destination) throws InterruptedException {
+        WriteTask task = new WriteTask(destination.toAbsolutePath().normalize(), null, false, temp);
+        enqueue(task);
+        submittedWrites.incrementAndGet();
+        return task.done;
+    }
+
+    /** Block until every write queued before this call has been applied */
+    public void flush() throws InterruptedException {
+        WriteTask marker = new WriteTask(null, null, true);
+        enqueue(marker);
+        try {
+            marker.done.get();
+        } catch (ExecutionException e) {
+            // Markers are always completed normally
+        }
+    }
+
+    /** Write everything already queued and stop the background thread */
+    public void close() throws InterruptedException {
+        lifecycle.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            lifecycle.writeLock().unlock();
+        }
+        queue.put(stopMarker);
+        drainThread.join();
+    }
+
+    private void enqueue(WriteTask task) throws InterruptedException {
+        lifecycle.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Write-behind writer has been closed");
+            }
+            queue.put(task);
+        } finally {
+            lifecycle.readLock().unlock();
+        }
+    }
+
+    public FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+
+    public int getCoalesceBytes() {
+        return coalesceBytes;
+    }
+
+    /** Number of writes waiting in the queue */
+    public int getPendingWrites() {
+        return queue.size();
+    }
+
+    /** Number of writes accepted through submit() */
+    public long getSubmittedWrites() {
+        return submittedWrites.get();
+    }
+
+    /** Number of channel writes issued after coalescing */
+    public long getPhysicalWrites() {
+        return physicalWrites.get();
+    }
+
+    private void drainLoop() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(coalesceBytes);
+        List<WriteTask> batch = new ArrayList<>();
+        long lastFsync = System.currentTimeMillis();
+        boolean stopping = false;
+
+        while (!stopping) {
+            try {
+                WriteTask first = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch);
+                    // The stop marker is always the last task ever queued
+                    stopping = batch.remove(stopMarker);
+                    writeBatch(batch, buffer);
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                // Only close() ends the thread, after the queue is drained
+                continue;
+            }
+
+            long now = System.currentTimeMillis();
+            if (fsyncPolicy == FsyncPolicy.PERIODIC && now - lastFsync >= fsyncIntervalMillis) {
+                forceDirtyFiles();
+                lastFsync = now;
+            }
+        }
+        forceDirtyFiles();
+    }
+
+    /**
+     * Split the drained batch into groups of consecutive writes to one file.
+     * A group starts with any write and continues while later writes append
+     * to the same file, so a truncating write always opens a fresh group.
+     */
+    private void writeBatch(List<WriteTask> batch, ByteBuffer buffer) {
+        int i = 0;
+        while (i < batch.size()) {
+            WriteTask first = batch.get(i);
+            if (first.destination == null) {
+                first.done.complete(null);
+                i++;
+                continue;
+            }
+            if (first.source != null) {
+                publish(first);
+                i++;
+                continue;
+            }
+            int end = i + 1;
+            while (end < batch.size()
+                    && batch.get(end).append
+                    && first.destination.equals(batch.get(end).destination)) {
+                end++;
+            }
+            writeGroup(batch.subList(i, end), buffer);
+            i = end;
+        }
+    }
+
+    /**
+     * Appends go straight to the file. A group that replaces the file is
+     * written to a temporary sibling and published with an atomic rename, so
+     * readers never observe a partially written replacement.
+     */
+    private void writeGroup(List<WriteTask> group, ByteBuffer buffer) {
+        WriteTask first = group.get(0);
+        Path temp = null;
+        try {
+            if (first.append) {
+                writeToChannel(group, buffer, first.destination, true);
+            } else {
+                temp = AtomicFileCommit.createTempFor(first.destination);
+                writeToChannel(group, buffer, temp, false);
+                AtomicFileCommit.commit(temp, first.destination, fsyncPolicy == FsyncPolicy.ON_COMPLETION);
+                temp = null;
+            }
+            if (fsyncPolicy == FsyncPolicy.PERIODIC) {
+                dirtyFiles.add(first.destination);
+            }
+            for (WriteTask task : group) {
+                task.done.complete(null);
+            }
+        } catch (IOException | ExecutionException e) {
+            failGroup(group, e);
+        } catch (InterruptedException e) {
+            failGroup(group, e);
+            Thread.currentThread().interrupt();
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    private void publish(WriteTask task) {
+        try {
+            AtomicFileCommit.commit(task.source, task.destination, fsyncPolicy == FsyncPolicy.ON_COMPLETION);
+            if (fsyncPolicy == FsyncPolicy.PERIODIC) {
+                dirtyFiles.add(task.destination);
+            }
+            task.done.complete(null);
+        } catch (IOException e) {
+            deleteQuietly(task.source);
+            failGroup(List.of(task), e);
+        }
+    }
+
+    private void writeToChannel(List<WriteTask> group, ByteBuffer buffer, Path target, boolean append)
+            throws IOException, InterruptedException, ExecutionException {
+        try (AsynchronousFileChannel channel = AsynchronousFileChannel.open(target,
+                StandardOpenOption.WRITE, StandardOpenOption.CREATE)) {
+            long position = append ? channel.size() : 0;
+            buffer.clear();
+            for (WriteTask task : group) {
+                int offset = 0;
+                while (offset < task.data.length) {
+                    int count = Math.min(buffer.remaining(), task.data.length - offset);
+                    buffer.put(task.data, offset, count);
+                    offset += count;
+                    if (!buffer.hasRemaining()) {
+                        position = writeBuffer(channel, buffer, position);
+                    }
+                }
+            }
+            writeBuffer(channel, buffer, position);
+
+            if (append && fsyncPolicy == FsyncPolicy.ON_COMPLETION) {
+                channel.force(false);
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path temp) {
+        if (temp == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            System.err.println("Could not remove temporary file " + temp + ": " + e.getMessage());
+        }
+    }
+
+    private long writeBuffer(AsynchronousFileChannel channel, ByteBuffer buffer, long position)
+            throws InterruptedException, ExecutionException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position).get();
+            physicalWrites.incrementAndGet();
+        }
+        buffer.clear();
+        return position;
+    }
+
+    private void failGroup(List<WriteTask> group, Exception cause) {
+        System.err.println("Write-behind failed for " + group.get(0).destination + ": " + cause.getMessage());
+        for (WriteTask task : group) {
+            task.done.completeExceptionally(cause);
+        }
+    }
+
+    private void forceDirtyFiles() {
+        for (Path path : dirtyFiles) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.force(false);
+            } catch (IOException e) {
+                System.err.println("Periodic fsync failed for " + path + ": " + e.getMessage());
+            }
+        }
+        dirtyFiles.clear();
+    }
+
+    /**
+     * A queued write; a task with no destination is a flush marker, and one
+     * with a source publishes that file instead of writing data
+     */
+    private static class WriteTask {
+        final Path destination;
+        final byte[] data;
+        final boolean append;
+        final Path source;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        WriteTask(Path destination, byte[] data, boolean append) {
+            this(destination, data, append, null);
+        }
+
+        WriteTask(Path destination, byte[] data, boolean append, Path source) {
+            this.destination = destination;
+            this.data = data;
+            this.append = append;
+            this.source = source;
+        }
+    }
+}
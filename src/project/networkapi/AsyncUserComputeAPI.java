@@ -5,24 +5,41 @@ import project.conceptualapi.ComputationRequest;
 import project.conceptualapi.BasicComputationRequest;
 import project.conceptualapi.ComputationResponse;
 import project.conceptualapi.ComputationMode;
+import project.datastoreapi.AsyncDataStoreAPI;
 import project.datastoreapi.DataStoreAPI;
 import project.datastoreapi.DataReadRequest;
-import project.datastoreapi.DataWriteRequest;
 import project.datastoreapi.BasicDataReadRequest;
-import project.datastoreapi.BasicDataWriteRequest;
+import project.datastoreapi.BasicResultWriteRequest;
+import project.datastoreapi.ContentAddressedResultStore;
 import project.datastoreapi.DataFormat;
 import project.datastoreapi.DataReadResponse;
+import project.datastoreapi.DataWriteRequest;
 import project.datastoreapi.DataWriteResponse;
-
+import project.datastoreapi.EmptyDataStoreAPI;
+import project.datastoreapi.IncrementalResultWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Enhanced multi-threaded implementation with async/polling support.
@@ -38,16 +55,41 @@ public class AsyncUserComputeAPI implements UserComputeAPI {
 	// Enhanced job tracking with async support
 	private final Map<String, JobInfo> jobTracker;
 
+	// Makes job IDs unique within a batch submitted in the same millisecond
+	private final AtomicLong jobSequence = new AtomicLong();
+
+	// Random per-instance part of every job ID, so IDs from different servers never collide
+	private final String instanceId = Long.toHexString(UUID.randomUUID().getMostSignificantBits());
+
+	// Listeners for each unfinished job; updates and registrations are serialized on jobEvents
+	private final Map<String, List<JobListener>> jobWatchers = new HashMap<>();
+	private final Object jobEvents = new Object();
+
 	// Current configuration
 	private String currentInputSource;
 	private String currentOutputDestination;
 	private String currentDelimiters = ",";
 	private DelimiterMode currentDelimiterMode = DelimiterMode.DEFAULT;
+	private DataFormat currentOutputFormat = DataFormat.TEXT;
+	private DataFormat currentInputFormat = DataFormat.INTEGER_ARRAY;
+
+	// Optional results shared across jobs; checked before computing
+	private volatile ContentAddressedResultStore resultStore;
+
+	// Append results as they complete instead of writing once at the end
+	private volatile boolean incrementalOutput;
 
 	// Thread pool configuration
 	private static final int MAX_THREADS = 4;
 	private static final int ASYNC_POOL_SIZE = 10;
 
+	// Largest batch accepted by computeInline
+	public static final int MAX_INLINE_VALUES = 10_000;
+
+	// Result paging
+	public static final int DEFAULT_PAGE_ENTRIES = 1024;
+	public static final int TEXT_PAGE_BYTES = 64 * 1024;
+
 	public AsyncUserComputeAPI(ComputeEngineAPI computeEngine, DataStoreAPI dataStore) {
 		this.computeEngine = computeEngine;
 		this.dataStore = dataStore;
@@ -169,12 +211,37 @@ public class AsyncUserComputeAPI implements UserComputeAPI {
 		}
 	}
 
+	/**
+	 * Select the format results are written in (e.g. TEXT or GZIP)
+	 */
+	public RequestStatus setOutputFormat(DataFormat format) {
+		if (format == null) {
+			return RequestStatus.REJECTED;
+		}
+		this.currentOutputFormat = format;
+		System.out.println("Output format configured: " + format);
+		return RequestStatus.ACCEPTED;
+	}
+
+	/**
+	 * Select the format the input source is read in, e.g. VARINT_DELTA for
+	 * pre-encoded sorted batches
+	 */
+	public RequestStatus setInputFormat(DataFormat format) {
+		if (format == null) {
+			return RequestStatus.REJECTED;
+		}
+		this.currentInputFormat = format;
+		System.out.println("Input format configured: " + format);
+		return RequestStatus.ACCEPTED;
+	}
+
 	/**
 	 * NEW: Asynchronous job submission
 	 * Returns immediately with a job ID for polling
 	 */
 	public AsyncJobResponse submitComputationAsync() {
-		String jobId = "async_job_" + System.currentTimeMillis() + "_" + System.nanoTime();
+		String jobId = newJobId();
 
 		try {
 			// Validate configuration
@@ -186,7 +253,7 @@ public class AsyncUserComputeAPI implements UserComputeAPI {
 						currentOutputDestination,
 						null
 						);
-				jobTracker.put(jobId, failedJob);
+				updateJob(jobId, failedJob);
 
 				return new BasicAsyncJobResponse(
 						RequestStatus.REJECTED,
@@ -195,45 +262,11 @@ public class AsyncUserComputeAPI implements UserComputeAPI {
 						);
 			}
 
-			// Create initial job entry
-			JobInfo initialJob = new JobInfo(
-					CompletionStatus.JOB_SUBMITTED,
-					"Job submitted, waiting to start",
-					0,
-					currentOutputDestination,
-					null
-					);
-			jobTracker.put(jobId, initialJob);
-
-			// Submit computation task asynchronously
-			CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
-				try {
-					// Update status to running
-					jobTracker.put(jobId, new JobInfo(
-							CompletionStatus.JOB_RUNNING,
-							"Starting computation: " + currentInputSource + " → " + currentOutputDestination,
-							25,
-							currentOutputDestination,
-							null
-							));
-
-					// Execute the computation (this could be the existing startComputation logic)
-					executeComputation(jobId);
-
-				} catch (Exception e) {
-					System.err.println("Async computation failed: " + e.getMessage());
-					jobTracker.put(jobId, new JobInfo(
-							CompletionStatus.JOB_FAILED,
-							"Computation failed: " + e.getMessage(),
-							100,
-							currentOutputDestination,
-							null
-							));
-				}
-			}, asyncExecutor);
-
-			// Store the future for potential cancellation
-			initialJob.future = future;
+			// The job runs with the configuration as it is now
+			JobSpec spec = new JobSpec(currentInputSource, currentOutputDestination, currentDelimiters,
+					currentInputFormat, currentOutputFormat);
+			updateJob(jobId, submittedJob(spec));
+			startJob(jobId, spec, incrementalOutput);
 
 			System.out.println("Job submitted asynchronously: " + jobId);
 			return new BasicAsyncJobResponse(
@@ -253,76 +286,386 @@ public class AsyncUserComputeAPI implements UserComputeAPI {
 	}
 
 	/**
-	 * Execute the actual computation (extracted from original startComputation)
+	 * Submit many jobs at once, each with its own input, output and
+	 * delimiters instead of the shared configuration. All valid jobs are
+	 * registered together and then started; an invalid spec is rejected on
+	 * its own without affecting the rest. Responses are in spec order.
+	 */
+	public List<AsyncJobResponse> submitJobs(List<JobSpec> specs) {
+		List<AsyncJobResponse> responses = new ArrayList<>(specs.size());
+		List<String> admittedIds = new ArrayList<>(specs.size());
+		List<JobSpec> admitted = new ArrayList<>(specs.size());
+		boolean incremental = incrementalOutput;
+
+		synchronized (jobEvents) {
+			for (JobSpec requested : specs) {
+				String jobId = newJobId();
+				String problem = validateSpec(requested);
+				if (problem != null) {
+					responses.add(new BasicAsyncJobResponse(RequestStatus.REJECTED, jobId, problem));
+					continue;
+				}
+				JobSpec spec = new JobSpec(
+						requested.getInputSource().trim(),
+						requested.getOutputDestination().trim(),
+						requested.getDelimiters() != null ? requested.getDelimiters() : currentDelimiters,
+						requested.getInputFormat() != null ? requested.getInputFormat() : currentInputFormat,
+						requested.getOutputFormat() != null ? requested.getOutputFormat() : currentOutputFormat);
+				updateJob(jobId, submittedJob(spec));
+				admittedIds.add(jobId);
+				admitted.add(spec);
+				responses.add(new BasicAsyncJobResponse(RequestStatus.ACCEPTED, jobId, "Job submitted"));
+			}
+		}
+
+		for (int i = 0; i < admitted.size(); i++) {
+			startJob(admittedIds.get(i), admitted.get(i), incremental);
+		}
+		System.out.println("Batch submitted: " + admitted.size() + " of " + specs.size() + " job(s) accepted");
+		return responses;
+	}
+
+	private static String validateSpec(JobSpec spec) {
+		if (spec == null) {
+			return "Job spec cannot be null";
+		}
+		if (spec.getInputSource() == null || spec.getInputSource().trim().isEmpty()) {
+			return "Input source cannot be null or empty";
+		}
+		if (spec.getOutputDestination() == null || spec.getOutputDestination().trim().isEmpty()) {
+			return "Output destination cannot be null or empty";
+		}
+		if (spec.getInputSource().trim().length() > 255 || spec.getOutputDestination().trim().length() > 255) {
+			return "Input source or output destination path too long";
+		}
+		if (spec.getDelimiters() != null && (spec.getDelimiters().isEmpty() || spec.getDelimiters().length() > 10)) {
+			return "Delimiters must be 1 to 10 characters";
+		}
+		return null;
+	}
+
+	private String newJobId() {
+		return "async_job_" + instanceId + "_" + System.currentTimeMillis() + "_" + jobSequence.incrementAndGet();
+	}
+
+	private static JobInfo submittedJob(JobSpec spec) {
+		return new JobInfo(
+				CompletionStatus.JOB_SUBMITTED,
+				"Job submitted, waiting to start",
+				0,
+				spec.getOutputDestination(),
+				null
+				);
+	}
+
+	/**
+	 * Run a registered job's read, compute and write pipeline. With an
+	 * asynchronous data store no worker waits on the read or the write, so
+	 * other jobs compute meanwhile.
 	 */
-	private void executeComputation(String jobId) throws Exception {
-		// 1. Read input data
-		DataReadRequest readRequest = new BasicDataReadRequest(currentInputSource, DataFormat.INTEGER_ARRAY);
-		DataReadResponse readResponse = dataStore.readData(readRequest);
+	private void startJob(String jobId, JobSpec spec, boolean incremental) {
+		CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
+			// Update status to running
+			updateJob(jobId, new JobInfo(
+					CompletionStatus.JOB_RUNNING,
+					"Starting computation: " + spec.getInputSource() + " → " + spec.getOutputDestination(),
+					25,
+					spec.getOutputDestination(),
+					null
+					));
+		}, asyncExecutor)
+				.thenCompose(started -> readInput(spec))
+				.thenComposeAsync(readResponse -> {
+					try {
+						return executeComputation(jobId, spec, incremental, readResponse);
+					} catch (Exception e) {
+						throw new CompletionException(e);
+					}
+				}, asyncExecutor)
+				.exceptionally(failure -> {
+					Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+							? failure.getCause()
+							: failure;
+					System.err.println("Async computation failed: " + cause.getMessage());
+					updateJob(jobId, new JobInfo(
+							CompletionStatus.JOB_FAILED,
+							"Computation failed: " + cause.getMessage(),
+							100,
+							spec.getOutputDestination(),
+							null
+							));
+					return null;
+				});
 
+		// Store the future for potential cancellation
+		attachFuture(jobId, future);
+	}
+
+	/**
+	 * Start reading the input, split on the configured delimiters as well as
+	 * line breaks. An asynchronous data store returns without blocking.
+	 */
+	private CompletableFuture<DataReadResponse> readInput(JobSpec spec) {
+		DataReadRequest readRequest = new BasicDataReadRequest(spec.getInputSource(), spec.getInputFormat(),
+				spec.getDelimiters());
+		if (dataStore instanceof AsyncDataStoreAPI) {
+			return ((AsyncDataStoreAPI) dataStore).readDataAsync(readRequest);
+		}
+		return CompletableFuture.completedFuture(dataStore.readData(readRequest));
+	}
+
+	private CompletableFuture<DataWriteResponse> writeOutput(DataWriteRequest writeRequest) {
+		if (dataStore instanceof AsyncDataStoreAPI) {
+			return ((AsyncDataStoreAPI) dataStore).writeDataAsync(writeRequest);
+		}
+		return CompletableFuture.completedFuture(dataStore.writeData(writeRequest));
+	}
+
+	/**
+	 * Execute the actual computation (extracted from original startComputation).
+	 * The returned future completes once the results are written.
+	 */
+	private CompletableFuture<Void> executeComputation(String jobId, JobSpec spec, boolean incremental,
+			DataReadResponse readResponse) throws Exception {
+		// 1. Check the input that was read
 		if (readResponse.getStatus() != project.datastoreapi.RequestStatus.ACCEPTED) {
 			throw new RuntimeException("Failed to read input data: " + readResponse.getMessage());
 		}
 
 		int[] inputData = readResponse.getData();
 
-		jobTracker.put(jobId, new JobInfo(
+		updateJob(jobId, new JobInfo(
 				CompletionStatus.JOB_RUNNING,
 				"Data read successfully (" + inputData.length + " numbers), computing...",
 				50,
-				currentOutputDestination,
+				spec.getOutputDestination(),
 				null
 				));
 
-		// 2. Process in parallel
-		List<Callable<String>> tasks = new ArrayList<>();
-		for (int value : inputData) {
-			tasks.add(() -> {
-				ComputationRequest compRequest = new BasicComputationRequest(value, ComputationMode.FACTORIAL);
-				ComputationResponse compResponse = computeEngine.compute(compRequest);
-				return value + "=" + compResponse.getResult();
-			});
-		}
-
-		List<Future<String>> results = executor.invokeAll(tasks);
-
-		// 3. Collect results
-		StringBuilder output = new StringBuilder();
-		for (int i = 0; i < results.size(); i++) {
-			output.append(results.get(i).get());
-			if (i < results.size() - 1) {
-				output.append(currentDelimiters);
-			}
+		if (incremental) {
+			executeIncrementalComputation(jobId, spec, inputData, readResponse.isSorted());
+			return CompletableFuture.completedFuture(null);
 		}
 
-		jobTracker.put(jobId, new JobInfo(
+		// 2. Process in parallel; sorted input is computed in ascending runs
+		String[] resultValues = readResponse.isSorted()
+				? computeSortedChunks(inputData, 0, null)
+				: computeIndependently(inputData, 0, null);
+
+		// 3. Build the write request (joined as "n=result" entries)
+		BasicResultWriteRequest writeRequest = new BasicResultWriteRequest(
+				spec.getOutputDestination(), 
+				spec.getOutputFormat(), 
+				inputData,
+				resultValues,
+				spec.getDelimiters(),
+				ComputationMode.FACTORIAL.name()
+				);
+		updateJob(jobId, new JobInfo(
 				CompletionStatus.JOB_RUNNING,
 				"Computation complete, writing results...",
 				75,
-				currentOutputDestination,
-				output.toString()
+				spec.getOutputDestination(),
+				null
 				));
 
-		// 4. Write results
-		DataWriteRequest writeRequest = new BasicDataWriteRequest(
-				currentOutputDestination, 
-				DataFormat.TEXT, 
-				output.toString()
-				);
-		DataWriteResponse writeResponse = dataStore.writeData(writeRequest);
+		// 4. Write results; the worker is free for other jobs while a remote write is in flight
+		String destination = spec.getOutputDestination();
+		return writeOutput(writeRequest).thenAccept(writeResponse -> {
+			if (writeResponse.getStatus() != project.datastoreapi.RequestStatus.ACCEPTED) {
+				throw new CompletionException(
+						new RuntimeException("Failed to write results: " + writeResponse.getMessage()));
+			}
 
-		if (writeResponse.getStatus() != project.datastoreapi.RequestStatus.ACCEPTED) {
-			throw new RuntimeException("Failed to write results: " + writeResponse.getMessage());
+			// 5. Mark as completed. Results written to a local text file are paged back from it;
+			// otherwise the entries are kept so results can still be sent packed
+			JobInfo completed = new JobInfo(
+					CompletionStatus.JOB_COMPLETED,
+					"Computation completed successfully. Processed " + inputData.length + " numbers.",
+					100,
+					destination,
+					null
+					);
+			completed.writtenResult = writtenResultFile(writeRequest);
+			if (completed.writtenResult == null) {
+				completed.inputs = inputData;
+				completed.results = resultValues;
+				completed.delimiter = writeRequest.getDelimiter();
+			}
+			updateJob(jobId, completed);
+		});
+	}
+
+	/**
+	 * The local file a result request was written to as plain joined text,
+	 * or null if the output is elsewhere (a key-value or remote store) or
+	 * encoded differently (compressed, sharded, columnar).
+	 */
+	private WrittenResultFile writtenResultFile(BasicResultWriteRequest request) {
+		if (!(dataStore instanceof EmptyDataStoreAPI)) {
+			return null;
+		}
+		DataFormat format = request.getFormat();
+		if ((format != null && format != DataFormat.TEXT && format != DataFormat.INDEXED_TEXT)
+				|| request.getDestination().toLowerCase().endsWith(".gz")) {
+			return null;
+		}
+		Path file = ((EmptyDataStoreAPI) dataStore).getStorageBackend().localPath(request.getDestination());
+		if (file == null) {
+			return null;
+		}
+		try {
+			return WrittenResultFile.of(file, request.getInputs(), request.getResults(), request.getDelimiter());
+		} catch (IOException e) {
+			return null;
 		}
+	}
+
+	/**
+	 * Incremental mode: results are appended to the output in input order as
+	 * each contiguous prefix completes, with a durable watermark after every
+	 * flush. A rerun over the same input and output resumes after the
+	 * watermark instead of recomputing the finished prefix. The output is
+	 * opened through the data store, which must keep it in a local file.
+	 */
+	private void executeIncrementalComputation(String jobId, JobSpec spec, int[] inputData, boolean sorted)
+			throws Exception {
+		if (!(dataStore instanceof EmptyDataStoreAPI)) {
+			throw new IllegalStateException("Incremental output needs a local file data store");
+		}
+		Path destination;
+		try (IncrementalResultWriter writer = ((EmptyDataStoreAPI) dataStore).openIncrementalWrite(
+				spec.getOutputDestination(), spec.getOutputFormat(), inputData, spec.getDelimiters())) {
+			destination = writer.getOutput();
+			int resumeFrom = writer.getResumePosition();
+			updateJob(jobId, new JobInfo(
+					CompletionStatus.JOB_RUNNING,
+					"Appending results from entry " + resumeFrom + " of " + inputData.length + "...",
+					50,
+					spec.getOutputDestination(),
+					null
+					));
 
-		// 5. Mark as completed
-		jobTracker.put(jobId, new JobInfo(
+			if (sorted) {
+				computeSortedChunks(inputData, resumeFrom, writer::complete);
+			} else {
+				computeIndependently(inputData, resumeFrom, writer::complete);
+			}
+		}
+
+		// The output file is the result; it is read (or paged) only when asked for
+		JobInfo completed = new JobInfo(
 				CompletionStatus.JOB_COMPLETED,
 				"Computation completed successfully. Processed " + inputData.length + " numbers.",
 				100,
-				currentOutputDestination,
-				output.toString()
-				));
+				spec.getOutputDestination(),
+				null
+				);
+		completed.resultFile = destination;
+		updateJob(jobId, completed);
+	}
+
+	/**
+	 * Receives each result as soon as it is computed
+	 */
+	private interface ResultListener {
+		void onResult(int position, String result) throws IOException;
+	}
+
+	/**
+	 * Compute every value from position "from" onwards as its own task
+	 */
+	private String[] computeIndependently(int[] inputData, int from, ResultListener listener) throws Exception {
+		List<Callable<String>> tasks = new ArrayList<>();
+		for (int i = from; i < inputData.length; i++) {
+			int position = i;
+			tasks.add(() -> {
+				String result = computeResult(inputData[position]);
+				if (listener != null) {
+					listener.onResult(position, result);
+				}
+				return result;
+			});
+		}
+
+		List<Future<String>> results = executor.invokeAll(tasks);
+		String[] resultValues = new String[inputData.length];
+		for (int i = 0; i < results.size(); i++) {
+			resultValues[from + i] = results.get(i).get();
+		}
+		return resultValues;
+	}
+
+	/**
+	 * Compute sorted input as one contiguous run per thread, each in ascending
+	 * order. Engines that build n! from the largest cached k! (CachedComputeEngineAPI)
+	 * then extend the previous value's result instead of racing each other to
+	 * compute overlapping prefixes from scratch.
+	 */
+	private String[] computeSortedChunks(int[] inputData, int from, ResultListener listener) throws Exception {
+		String[] resultValues = new String[inputData.length];
+		int remaining = inputData.length - from;
+		int chunks = Math.max(1, Math.min(MAX_THREADS, remaining));
+		List<Callable<Void>> tasks = new ArrayList<>(chunks);
+		for (int chunk = 0; chunk < chunks; chunk++) {
+			int start = from + (int) ((long) remaining * chunk / chunks);
+			int end = from + (int) ((long) remaining * (chunk + 1) / chunks);
+			tasks.add(() -> {
+				for (int i = start; i < end; i++) {
+					resultValues[i] = computeResult(inputData[i]);
+					if (listener != null) {
+						listener.onResult(i, resultValues[i]);
+					}
+				}
+				return null;
+			});
+		}
+
+		for (Future<Void> done : executor.invokeAll(tasks)) {
+			done.get();
+		}
+		return resultValues;
+	}
+
+	/**
+	 * Compute one factorial, reusing a result stored by an earlier job when available
+	 */
+	private String computeResult(int value) {
+		ContentAddressedResultStore store = resultStore;
+		if (store != null) {
+			String stored = store.lookup(ComputationMode.FACTORIAL.name(), value);
+			if (stored != null) {
+				return stored;
+			}
+		}
+		ComputationRequest compRequest = new BasicComputationRequest(value, ComputationMode.FACTORIAL);
+		ComputationResponse compResponse = computeEngine.compute(compRequest);
+		return compResponse.getResult();
+	}
+
+	/**
+	 * Enable incremental output: results are appended in order while the job
+	 * runs (as delimiter-joined TEXT only), and a restarted job resumes from
+	 * the output's watermark. Only available when the data store is a local
+	 * EmptyDataStoreAPI, since the output is appended to in place.
+	 */
+	public void setIncrementalOutput(boolean enabled) {
+		if (enabled && !(dataStore instanceof EmptyDataStoreAPI)) {
+			throw new IllegalStateException("Incremental output needs a local file data store, not "
+					+ dataStore.getClass().getSimpleName());
+		}
+		this.incrementalOutput = enabled;
+	}
+
+	public boolean isIncrementalOutput() {
+		return incrementalOutput;
+	}
+
+	/**
+	 * Share a result store with the data store so repeated inputs skip computation
+	 */
+	public void setResultStore(ContentAddressedResultStore store) {
+		this.resultStore = store;
 	}
 
 	@Override
@@ -389,12 +732,45 @@ public class AsyncUserComputeAPI implements UserComputeAPI {
 						);
 			}
 
+			if (jobInfo.writtenResult != null) {
+				WrittenResultFile written = jobInfo.writtenResult;
+				int count = written.getEntryCount();
+				return new BasicJobResultResponse(
+						RequestStatus.ACCEPTED,
+						written.getInputs(0, count),
+						written.readResults(0, count),
+						written.getDelimiter(),
+						"Job completed successfully"
+						);
+			}
+			if (jobInfo.resultFile != null) {
+				return new BasicJobResultResponse(
+						RequestStatus.ACCEPTED,
+						readResultText(jobInfo),
+						"Job completed successfully"
+						);
+			}
+			if (jobInfo.results != null) {
+				return new BasicJobResultResponse(
+						RequestStatus.ACCEPTED,
+						jobInfo.inputs,
+						jobInfo.results,
+						jobInfo.delimiter,
+						"Job completed successfully"
+						);
+			}
 			return new BasicJobResultResponse(
 					RequestStatus.ACCEPTED,
 					jobInfo.resultData,
 					"Job completed successfully"
 					);
 
+		} catch (IOException e) {
+			return new BasicJobResultResponse(
+					RequestStatus.REJECTED,
+					null,
+					"Error reading job result: " + e.getMessage()
+					);
 		} catch (Exception e) {
 			System.err.println("Unexpected error in getJobResult: " + e.getMessage());
 			return new BasicJobResultResponse(
@@ -405,6 +781,164 @@ public class AsyncUserComputeAPI implements UserComputeAPI {
 		}
 	}
 
+	/**
+	 * Compute a small batch of values passed directly by the caller and
+	 * return the results in the response. Nothing is read from or written to
+	 * the data store and no job is tracked; larger batches should be
+	 * submitted as jobs.
+	 */
+	public JobResultResponse computeInline(int[] inputs, String delimiter) {
+		if (inputs == null || inputs.length == 0) {
+			return new BasicJobResultResponse(RequestStatus.REJECTED, null, "No input values given");
+		}
+		if (inputs.length > MAX_INLINE_VALUES) {
+			return new BasicJobResultResponse(RequestStatus.REJECTED, null,
+					"Too many values for an inline computation (" + inputs.length + " > " + MAX_INLINE_VALUES
+					+ "); submit a job instead");
+		}
+		try {
+			String[] results = isAscending(inputs)
+					? computeSortedChunks(inputs, 0, null)
+					: computeIndependently(inputs, 0, null);
+			return new BasicJobResultResponse(
+					RequestStatus.ACCEPTED,
+					inputs,
+					results,
+					delimiter != null ? delimiter : currentDelimiters,
+					"Computed " + inputs.length + " values"
+					);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return new BasicJobResultResponse(RequestStatus.REJECTED, null, "Computation interrupted");
+		} catch (Exception e) {
+			return new BasicJobResultResponse(RequestStatus.REJECTED, null, "Computation failed: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Start a stream of values computed as they are submitted, on the same
+	 * bounded worker pool as jobs. Results are emitted in input order if
+	 * ordered is set, otherwise as soon as each is ready.
+	 */
+	public ComputeStreamSession openComputeStream(boolean ordered, ComputeStreamSession.ResultListener listener) {
+		return new ComputeStreamSession(this::computeResult, executor, ordered, listener);
+	}
+
+	private static boolean isAscending(int[] values) {
+		for (int i = 1; i < values.length; i++) {
+			if (values[i] < values[i - 1]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Fetch one page of a completed job's result, so large results can be
+	 * transferred without building (or sending) the whole text at once.
+	 * Pass null as the token for the first page and the previous page's
+	 * getNextToken() after that; a token stays valid for as long as the job
+	 * is tracked, so an interrupted transfer can resume where it stopped.
+	 *
+	 * @param maxEntries entries per page, or 0 for the default. Text-only
+	 *        results are paged in blocks of TEXT_PAGE_BYTES instead.
+	 */
+	public JobResultPage getJobResultPage(JobStatusRequest request, String resumeToken, int maxEntries) {
+		if (request == null || request.getJobIdentifier() == null ||
+				request.getJobIdentifier().trim().isEmpty()) {
+			return JobResultPage.rejected("Job identifier cannot be null or empty");
+		}
+		String jobId = request.getJobIdentifier().trim();
+		JobInfo jobInfo = jobTracker.get(jobId);
+		if (jobInfo == null) {
+			return JobResultPage.rejected("Job not found: " + jobId);
+		}
+		if (jobInfo.status != CompletionStatus.JOB_COMPLETED) {
+			return JobResultPage.rejected("Job is not completed. Current status: " + jobInfo.status);
+		}
+
+		// Tokens are "e<entry>" for entry pages and "t<byte offset>" for text pages
+		boolean entries = jobInfo.results != null || jobInfo.writtenResult != null;
+		long position = 0;
+		if (resumeToken != null && !resumeToken.isEmpty()) {
+			char kind = resumeToken.charAt(0);
+			try {
+				position = Long.parseLong(resumeToken.substring(1));
+			} catch (NumberFormatException e) {
+				position = -1;
+			}
+			if (kind != (entries ? 'e' : 't') || position < 0) {
+				return JobResultPage.rejected("Invalid resume token: " + resumeToken);
+			}
+		}
+
+		try {
+			if (entries) {
+				WrittenResultFile written = jobInfo.writtenResult;
+				int count = written != null ? written.getEntryCount() : jobInfo.results.length;
+				if (position > count) {
+					return JobResultPage.rejected("Resume token is past the end of the result");
+				}
+				int from = (int) position;
+				int to = (int) Math.min(count, from + (long) (maxEntries > 0 ? maxEntries : DEFAULT_PAGE_ENTRIES));
+				return JobResultPage.ofEntries(
+						written != null ? written.getInputs(from, to) : Arrays.copyOfRange(jobInfo.inputs, from, to),
+						written != null ? written.readResults(from, to) : Arrays.copyOfRange(jobInfo.results, from, to),
+						written != null ? written.getDelimiter() : jobInfo.delimiter,
+						count,
+						to < count ? "e" + to : null,
+						"Entries " + from + " to " + to + " of " + count);
+			}
+			return readTextPage(jobInfo, position);
+		} catch (IOException e) {
+			return JobResultPage.rejected("Error reading job result: " + e.getMessage());
+		}
+	}
+
+	private JobResultPage readTextPage(JobInfo jobInfo, long offset) throws IOException {
+		if (jobInfo.resultFile == null) {
+			byte[] text = jobInfo.resultText();
+			if (offset > text.length) {
+				return JobResultPage.rejected("Resume token is past the end of the result");
+			}
+			int end = (int) Math.min(text.length, offset + TEXT_PAGE_BYTES);
+			return JobResultPage.ofText(Arrays.copyOfRange(text, (int) offset, end), text.length,
+					end < text.length ? "t" + end : null, "Bytes " + offset + " to " + end + " of " + text.length);
+		}
+		try (FileChannel channel = FileChannel.open(jobInfo.resultFile, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (offset > size) {
+				return JobResultPage.rejected("Resume token is past the end of the result");
+			}
+			ByteBuffer page = ByteBuffer.allocate((int) Math.min(TEXT_PAGE_BYTES, size - offset));
+			while (page.hasRemaining()) {
+				if (channel.read(page, offset + page.position()) < 0) {
+					break;
+				}
+			}
+			long end = offset + page.position();
+			return JobResultPage.ofText(Arrays.copyOf(page.array(), page.position()), size,
+					end < size ? "t" + end : null, "Bytes " + offset + " to " + end + " of " + size);
+		}
+	}
+
+	/** The whole text of a file-backed result, read through the same pages a client would fetch */
+	private String readResultText(JobInfo jobInfo) throws IOException {
+		ByteArrayOutputStream text = new ByteArrayOutputStream();
+		long offset = 0;
+		while (true) {
+			JobResultPage page = readTextPage(jobInfo, offset);
+			if (page.getStatus() != RequestStatus.ACCEPTED) {
+				throw new IOException(page.getMessage());
+			}
+			text.write(page.getText(), 0, page.getText().length);
+			offset += page.getText().length;
+			if (page.isLast()) {
+				return text.toString(StandardCharsets.UTF_8);
+			}
+		}
+	}
+
 	/**
 	 * NEW: Cancel a running job
 	 */
@@ -437,7 +971,7 @@ public class AsyncUserComputeAPI implements UserComputeAPI {
 				jobInfo.future.cancel(true);
 			}
 
-			jobTracker.put(jobId, new JobInfo(
+			updateJob(jobId, new JobInfo(
 					CompletionStatus.JOB_CANCELLED,
 					"Job cancelled by user",
 					jobInfo.progress,
@@ -493,6 +1027,112 @@ public class AsyncUserComputeAPI implements UserComputeAPI {
 		}
 	}
 
+	/**
+	 * Record a job's new state and push it to the job's watchers. A job in a
+	 * final state (completed, failed or cancelled) is never changed again, so
+	 * a cancelled job's pipeline cannot later report it as running or done.
+	 */
+	private void updateJob(String jobId, JobInfo info) {
+		synchronized (jobEvents) {
+			JobInfo previous = jobTracker.get(jobId);
+			if (previous != null && isFinal(previous.status)) {
+				return;
+			}
+			if (previous != null && info.future == null) {
+				info.future = previous.future;
+			}
+			jobTracker.put(jobId, info);
+
+			List<JobListener> listeners = isFinal(info.status) ? jobWatchers.remove(jobId) : jobWatchers.get(jobId);
+			if (listeners != null) {
+				JobSummary update = new JobSummary(jobId, info.status, info.progress, info.outputDestination,
+						info.message);
+				for (JobListener listener : listeners) {
+					notifyListener(listener, update);
+				}
+			}
+		}
+	}
+
+	private void attachFuture(String jobId, CompletableFuture<Void> future) {
+		synchronized (jobEvents) {
+			JobInfo current = jobTracker.get(jobId);
+			if (current != null) {
+				current.future = future;
+			}
+		}
+	}
+
+	private static boolean isFinal(CompletionStatus status) {
+		return status == CompletionStatus.JOB_COMPLETED
+				|| status == CompletionStatus.JOB_FAILED
+				|| status == CompletionStatus.JOB_CANCELLED;
+	}
+
+	private static void notifyListener(JobListener listener, JobSummary update) {
+		try {
+			listener.onJobUpdate(update);
+		} catch (RuntimeException e) {
+			System.err.println("Job listener failed: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Watch a job's status and progress. The listener is called straight
+	 * away with the current state and then on every change, in order, until
+	 * the job reaches a final state. Listeners are called while job updates
+	 * are held, so they must not block.
+	 *
+	 * @return false if the job does not exist
+	 */
+	public boolean watchJob(JobStatusRequest request, JobListener listener) {
+		if (request == null || request.getJobIdentifier() == null) {
+			return false;
+		}
+		String jobId = request.getJobIdentifier().trim();
+		synchronized (jobEvents) {
+			JobInfo info = jobTracker.get(jobId);
+			if (info == null) {
+				return false;
+			}
+			notifyListener(listener, new JobSummary(jobId, info.status, info.progress, info.outputDestination,
+					info.message));
+			if (!isFinal(info.status)) {
+				jobWatchers.computeIfAbsent(jobId, id -> new ArrayList<>()).add(listener);
+			}
+			return true;
+		}
+	}
+
+	/** Stop sending a job's updates to a listener, e.g. when a remote watcher disconnects */
+	public void unwatchJob(String jobId, JobListener listener) {
+		synchronized (jobEvents) {
+			List<JobListener> listeners = jobWatchers.get(jobId);
+			if (listeners != null) {
+				listeners.remove(listener);
+				if (listeners.isEmpty()) {
+					jobWatchers.remove(jobId);
+				}
+			}
+		}
+	}
+
+	/** Completes with the job's final state, or JOB_NOT_FOUND if there is no such job */
+	public CompletableFuture<JobStatusResponse> awaitJob(String jobId) {
+		CompletableFuture<JobStatusResponse> done = new CompletableFuture<>();
+		boolean found = watchJob(new BasicJobStatusRequest(jobId), update -> {
+			if (isFinal(update.getStatus())) {
+				done.complete(new BasicJobStatusResponse(update.getStatus(), update.getMessage(),
+						update.getProgress(), RequestStatus.ACCEPTED));
+			}
+		});
+		if (!found) {
+			done.complete(new BasicJobStatusResponse(CompletionStatus.JOB_NOT_FOUND,
+					"Job not found: " + jobId, 0, RequestStatus.REJECTED));
+		}
+		return done;
+	}
+
 	@Override
 	public JobStatusResponse startComputation() {
 		// Keep original synchronous implementation for backward compatibility
@@ -508,27 +1148,24 @@ public class AsyncUserComputeAPI implements UserComputeAPI {
 					);
 		}
 
-		// Poll until completion (simulating synchronous behavior)
-		String jobId = asyncResponse.getJobId();
-		while (true) {
-			JobStatusResponse status = checkJobCompletion(new BasicJobStatusRequest(jobId));
-			if (status.getStatus() == CompletionStatus.JOB_COMPLETED ||
-					status.getStatus() == CompletionStatus.JOB_FAILED ||
-					status.getStatus() == CompletionStatus.JOB_CANCELLED) {
-				return status;
-			}
-
-			try {
-				Thread.sleep(100); // Small delay between polls
-			} catch (InterruptedException e) {
-				Thread.currentThread().interrupt();
-				return new BasicJobStatusResponse(
-						CompletionStatus.JOB_FAILED,
-						"Computation interrupted",
-						0,
-						RequestStatus.REJECTED
-						);
-			}
+		// Wait for the job's final state to be signalled (simulating synchronous behavior)
+		try {
+			return awaitJob(asyncResponse.getJobId()).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return new BasicJobStatusResponse(
+					CompletionStatus.JOB_FAILED,
+					"Computation interrupted",
+					0,
+					RequestStatus.REJECTED
+					);
+		} catch (ExecutionException e) {
+			return new BasicJobStatusResponse(
+					CompletionStatus.JOB_FAILED,
+					"Computation failed: " + e.getCause().getMessage(),
+					0,
+					RequestStatus.REJECTED
+					);
 		}
 	}
 
@@ -545,6 +1182,12 @@ public class AsyncUserComputeAPI implements UserComputeAPI {
 		String message;
 		String outputDestination;
 		String resultData; // Store result for retrieval
+		int[] inputs; // Or the individual entries, joined only when asked for text
+		String[] results;
+		String delimiter;
+		Path resultFile; // Or the output file, for incremental jobs
+		WrittenResultFile writtenResult; // Or the entries' offsets in the written output
+		private byte[] resultText; // resultData encoded once, for text pages
 		int progress;
 		CompletableFuture<Void> future; // For async cancellation
 
@@ -557,6 +1200,13 @@ public class AsyncUserComputeAPI implements UserComputeAPI {
 			this.resultData = resultData;
 			this.future = null;
 		}
+
+		synchronized byte[] resultText() {
+			if (resultText == null) {
+				resultText = resultData != null ? resultData.getBytes(StandardCharsets.UTF_8) : new byte[0];
+			}
+			return resultText;
+		}
 	}
 
 	// Getters for current configuration
@@ -572,6 +1222,12 @@ public class AsyncUserComputeAPI implements UserComputeAPI {
 	public DelimiterMode getCurrentDelimiterMode() { 
 		return currentDelimiterMode; 
 	}
+	public DataFormat getCurrentOutputFormat() { 
+		return currentOutputFormat; 
+	}
+	public DataFormat getCurrentInputFormat() { 
+		return currentInputFormat; 
+	}
 	public int getMaxThreads() { 
 		return MAX_THREADS; 
 	}
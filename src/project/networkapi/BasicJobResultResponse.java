@@ -1,25 +1,68 @@
 package project.networkapi;
 
+import project.datastoreapi.BasicResultWriteRequest;
+
 public class BasicJobResultResponse implements JobResultResponse {
 	private final RequestStatus status;
-	private final String resultData;
 	private final String message;
+	private final int[] inputs;
+	private final String[] results;
+	private final String delimiter;
+	private String resultData;
 
 	public BasicJobResultResponse(RequestStatus status, String resultData, String message) {
 		this.status = status;
 		this.resultData = resultData;
 		this.message = message;
+		this.inputs = null;
+		this.results = null;
+		this.delimiter = null;
+	}
+
+	/**
+	 * Result carried as individual entries; the delimited text is only built
+	 * if getResultData() is called
+	 */
+	public BasicJobResultResponse(RequestStatus status, int[] inputs, String[] results, String delimiter,
+			String message) {
+		if (inputs == null || results == null || inputs.length != results.length) {
+			throw new IllegalArgumentException("Inputs and results must be non-null and the same length");
+		}
+		this.status = status;
+		this.message = message;
+		this.inputs = inputs;
+		this.results = results;
+		this.delimiter = delimiter;
 	}
 
 	@Override public RequestStatus getStatus() { 
 		return status; 
 	}
 	@Override 
-	public String getResultData() { 
+	public synchronized String getResultData() { 
+		if (resultData == null && results != null) {
+			resultData = BasicResultWriteRequest.join(inputs, results, delimiter);
+		}
 		return resultData; 
 	}
 	@Override 
 	public String getMessage() { 
 		return message; 
 	}
+
+	/** True when the result is available as entries rather than only as text */
+	public boolean hasEntries() {
+		return results != null;
+	}
+	/** Input values, or null if the result is text only */
+	public int[] getInputs() {
+		return inputs;
+	}
+	/** Result for each input, or null if the result is text only */
+	public String[] getResults() {
+		return results;
+	}
+	public String getDelimiter() {
+		return delimiter;
+	}
 }
@@ -0,0 +1,134 @@
+package project.networkapi;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.IntFunction;
+
+/**
+ * A continuous flow of values computed as they arrive.
+ *
+ * Each submitted value is computed on the shared worker pool and its result
+ * handed to the listener tagged with the caller's sequence number. In
+ * completion order a result is emitted as soon as it is ready; in input
+ * order results are held back until every earlier value has been emitted.
+ *
+ * The session does not limit how many values are submitted: the caller
+ * applies backpressure by submitting a new value only after a result has
+ * been emitted (e.g. by requesting one more message from the transport),
+ * which bounds both the work queued and the results held for ordering.
+ * All listener calls are made one at a time.
+ */
+public class ComputeStreamSession {
+
+	/** Receives the results of a session */
+	public interface ResultListener {
+		void onResult(long sequence, int value, String result);
+
+		/** Every submitted value has been emitted after finish() */
+		void onComplete();
+	}
+
+	private final IntFunction<String> compute;
+	private final Executor workers;
+	private final boolean ordered;
+	private final ResultListener listener;
+
+	// Results waiting for an earlier value, by arrival index (input order only)
+	private final Map<Long, Emitted> held = new HashMap<>();
+	private long submitted;
+	private long nextToEmit;
+	private long emitted;
+	private boolean finished;
+	private boolean cancelled;
+	private boolean completed;
+
+	private static final class Emitted {
+		final long sequence;
+		final int value;
+		final String result;
+
+		Emitted(long sequence, int value, String result) {
+			this.sequence = sequence;
+			this.value = value;
+			this.result = result;
+		}
+	}
+
+	ComputeStreamSession(IntFunction<String> compute, Executor workers, boolean ordered, ResultListener listener) {
+		this.compute = compute;
+		this.workers = workers;
+		this.ordered = ordered;
+		this.listener = listener;
+	}
+
+	public boolean isOrdered() {
+		return ordered;
+	}
+
+	/** Queue a value; its result is emitted with the given sequence number */
+	public void submit(long sequence, int value) {
+		long index;
+		synchronized (this) {
+			if (finished || cancelled) {
+				throw new IllegalStateException("Compute stream is already " + (cancelled ? "cancelled" : "finished"));
+			}
+			index = submitted++;
+		}
+		workers.execute(() -> {
+			String result;
+			try {
+				result = compute.apply(value);
+			} catch (RuntimeException e) {
+				result = "Error: " + e.getMessage();
+			}
+			complete(index, new Emitted(sequence, value, result));
+		});
+	}
+
+	/** No more values will be submitted; onComplete follows the last result */
+	public synchronized void finish() {
+		finished = true;
+		completeIfDone();
+	}
+
+	/** Drop outstanding results; nothing more is emitted */
+	public synchronized void cancel() {
+		cancelled = true;
+		held.clear();
+	}
+
+	/** Values submitted whose results have not been emitted yet */
+	public synchronized long getPending() {
+		return submitted - emitted;
+	}
+
+	private synchronized void complete(long index, Emitted result) {
+		if (cancelled) {
+			return;
+		}
+		if (!ordered) {
+			emit(result);
+		} else {
+			held.put(index, result);
+			Emitted next;
+			while ((next = held.remove(nextToEmit)) != null) {
+				nextToEmit++;
+				emit(next);
+			}
+		}
+		completeIfDone();
+	}
+
+	private void emit(Emitted result) {
+		emitted++;
+		listener.onResult(result.sequence, result.value, result.result);
+	}
+
+	private void completeIfDone() {
+		if (finished && !cancelled && !completed && emitted == submitted) {
+			completed = true;
+			listener.onComplete();
+		}
+	}
+}
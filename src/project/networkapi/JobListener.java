@@ -0,0 +1,8 @@
+package project.networkapi;
+
+/**
+ * Receives a job's status and progress each time they change
+ */
+public interface JobListener {
+	void onJobUpdate(JobSummary update);
+}
@@ -0,0 +1,82 @@
+package project.networkapi;
+
+/**
+ * One page of a completed job's result.
+ *
+ * Jobs whose results are held as entries are paged by entry: the page
+ * carries a slice of the inputs and results. Jobs whose result only exists
+ * as output text (e.g. incremental output) are paged by byte. Pass
+ * getNextToken() back to fetch the following page; it is null on the last one.
+ */
+public class JobResultPage {
+    private final RequestStatus status;
+    private final String message;
+    private final int[] inputs;
+    private final String[] results;
+    private final byte[] text;
+    private final String delimiter;
+    private final long total;
+    private final String nextToken;
+
+    private JobResultPage(RequestStatus status, String message, int[] inputs, String[] results, byte[] text,
+                          String delimiter, long total, String nextToken) {
+        this.status = status;
+        this.message = message;
+        this.inputs = inputs;
+        this.results = results;
+        this.text = text;
+        this.delimiter = delimiter;
+        this.total = total;
+        this.nextToken = nextToken;
+    }
+
+    public static JobResultPage rejected(String message) {
+        return new JobResultPage(RequestStatus.REJECTED, message, null, null, null, null, 0, null);
+    }
+
+    /** A slice of the job's entries; total is the job's entry count */
+    public static JobResultPage ofEntries(int[] inputs, String[] results, String delimiter, long total,
+                                          String nextToken, String message) {
+        return new JobResultPage(RequestStatus.ACCEPTED, message, inputs, results, null, delimiter, total,
+                nextToken);
+    }
+
+    /** A slice of the job's output text; total is its length in bytes */
+    public static JobResultPage ofText(byte[] text, long total, String nextToken, String message) {
+        return new JobResultPage(RequestStatus.ACCEPTED, message, null, null, text, null, total, nextToken);
+    }
+
+    public RequestStatus getStatus() {
+        return status;
+    }
+    public String getMessage() {
+        return message;
+    }
+    /** True when this page carries entries, false when it carries text */
+    public boolean hasEntries() {
+        return results != null;
+    }
+    public int[] getInputs() {
+        return inputs;
+    }
+    public String[] getResults() {
+        return results;
+    }
+    /** UTF-8 output text; a page boundary may fall inside a character */
+    public byte[] getText() {
+        return text;
+    }
+    public String getDelimiter() {
+        return delimiter;
+    }
+    public long getTotal() {
+        return total;
+    }
+    /** Token for the following page, or null if this is the last */
+    public String getNextToken() {
+        return nextToken;
+    }
+    public boolean isLast() {
+        return nextToken == null;
+    }
+}
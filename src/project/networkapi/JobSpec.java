@@ -0,0 +1,52 @@
+package project.networkapi;
+
+import project.datastoreapi.DataFormat;
+
+/**
+ * Everything one job needs to run: where to read, where to write and how
+ * to split and join. A job keeps its own spec from submission onwards, so
+ * later configuration changes (or other jobs in the same batch) cannot
+ * affect it.
+ */
+public class JobSpec {
+    private final String inputSource;
+    private final String outputDestination;
+    private final String delimiters;
+    private final DataFormat inputFormat;
+    private final DataFormat outputFormat;
+
+    /** A spec using the server's configured input and output formats */
+    public JobSpec(String inputSource, String outputDestination, String delimiters) {
+        this(inputSource, outputDestination, delimiters, null, null);
+    }
+
+    /**
+     * @param delimiters null for the server's configured delimiters
+     * @param inputFormat null for the server's configured input format
+     * @param outputFormat null for the server's configured output format
+     */
+    public JobSpec(String inputSource, String outputDestination, String delimiters,
+                   DataFormat inputFormat, DataFormat outputFormat) {
+        this.inputSource = inputSource;
+        this.outputDestination = outputDestination;
+        this.delimiters = delimiters;
+        this.inputFormat = inputFormat;
+        this.outputFormat = outputFormat;
+    }
+
+    public String getInputSource() {
+        return inputSource;
+    }
+    public String getOutputDestination() {
+        return outputDestination;
+    }
+    public String getDelimiters() {
+        return delimiters;
+    }
+    public DataFormat getInputFormat() {
+        return inputFormat;
+    }
+    public DataFormat getOutputFormat() {
+        return outputFormat;
+    }
+}
@@ -0,0 +1,142 @@
+package project.networkapi;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact binary form of a job's results, used on the wire instead of the
+ * delimiter-joined "n=result" text.
+ *
+ * Inputs are little-endian int32s. Each result is a varint header
+ * (length << 1 | kind) followed by its payload:
+ *
+ *   kind 0  decimal: length characters from "0123456789-", packed two per
+ *           byte as nibbles (high nibble first, '-' = 10)
+ *   kind 1  anything else (e.g. error messages): length bytes of UTF-8
+ *
+ * Factorial results are long digit strings, so the decimal form is half the
+ * size of the text and is converted with a table lookup rather than parsing.
+ */
+public final class PackedResultCodec {
+
+    private static final int KIND_DECIMAL = 0;
+    private static final int KIND_UTF8 = 1;
+    private static final int MINUS_NIBBLE = 10;
+    private static final char[] NIBBLE_CHARS = "0123456789-".toCharArray();
+
+    private PackedResultCodec() {
+    }
+
+    public static byte[] packInputs(int[] inputs) {
+        ByteBuffer packed = ByteBuffer.allocate(inputs.length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        packed.asIntBuffer().put(inputs);
+        return packed.array();
+    }
+
+    public static int[] unpackInputs(ByteBuffer packed) {
+        if (packed.remaining() % Integer.BYTES != 0) {
+            throw new IllegalArgumentException("Packed inputs are not a whole number of ints");
+        }
+        int[] inputs = new int[packed.remaining() / Integer.BYTES];
+        packed.duplicate().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(inputs);
+        return inputs;
+    }
+
+    public static byte[] packResults(String[] results) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (String result : results) {
+            if (isDecimal(result)) {
+                int length = result.length();
+                writeVarint(out, ((long) length << 1) | KIND_DECIMAL);
+                for (int i = 0; i < length; i += 2) {
+                    int high = nibble(result.charAt(i));
+                    int low = i + 1 < length ? nibble(result.charAt(i + 1)) : 0;
+                    out.write((high << 4) | low);
+                }
+            } else {
+                byte[] bytes = result.getBytes(StandardCharsets.UTF_8);
+                writeVarint(out, ((long) bytes.length << 1) | KIND_UTF8);
+                out.write(bytes, 0, bytes.length);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /** Decode exactly count results */
+    public static String[] unpackResults(ByteBuffer packed, int count) {
+        ByteBuffer in = packed.duplicate();
+        String[] results = new String[count];
+        for (int r = 0; r < count; r++) {
+            long header = readVarint(in);
+            long length = header >>> 1;
+            if ((header & 1) == KIND_DECIMAL) {
+                if (length > (long) in.remaining() * 2) {
+                    throw new IllegalArgumentException("Packed results are truncated");
+                }
+                char[] digits = new char[(int) length];
+                for (int i = 0; i < digits.length; i += 2) {
+                    int pair = in.get() & 0xFF;
+                    digits[i] = nibbleChar(pair >>> 4);
+                    if (i + 1 < digits.length) {
+                        digits[i + 1] = nibbleChar(pair & 0x0F);
+                    }
+                }
+                results[r] = new String(digits);
+            } else {
+                if (length > in.remaining()) {
+                    throw new IllegalArgumentException("Packed results are truncated");
+                }
+                byte[] bytes = new byte[(int) length];
+                in.get(bytes);
+                results[r] = new String(bytes, StandardCharsets.UTF_8);
+            }
+        }
+        return results;
+    }
+
+    private static boolean isDecimal(String result) {
+        for (int i = 0; i < result.length(); i++) {
+            char c = result.charAt(i);
+            if ((c < '0' || c > '9') && c != '-') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int nibble(char c) {
+        return c == '-' ? MINUS_NIBBLE : c - '0';
+    }
+
+    private static char nibbleChar(int nibble) {
+        if (nibble >= NIBBLE_CHARS.length) {
+            throw new IllegalArgumentException("Invalid decimal nibble " + nibble);
+        }
+        return NIBBLE_CHARS[nibble];
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (!in.hasRemaining()) {
+                throw new IllegalArgumentException("Packed results are truncated");
+            }
+            int b = in.get() & 0xFF;
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in packed results");
+    }
+}
@@ -0,0 +1,147 @@
+package project.networkapi;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+/**
+ * A completed job's result as written to a local text file of "n=result"
+ * entries joined by a delimiter.
+ *
+ * Only the inputs and the byte offset of each entry are kept in memory, so
+ * the results themselves are read back from the file a page at a time. The
+ * file's size and modification time are recorded when the job completes; if
+ * a later write replaces the file, reads are refused rather than returning
+ * another job's results.
+ */
+final class WrittenResultFile {
+
+    private final Path file;
+    private final int[] inputs;
+    // Byte offset of each entry, plus the file length as a final element
+    private final long[] offsets;
+    private final String delimiter;
+    private final int delimiterBytes;
+    private final FileTime lastModified;
+
+    private WrittenResultFile(Path file, int[] inputs, long[] offsets, String delimiter, FileTime lastModified) {
+        this.file = file;
+        this.inputs = inputs;
+        this.offsets = offsets;
+        this.delimiter = delimiter;
+        this.delimiterBytes = utf8Length(delimiter);
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Describe the file the entries were just written to, or return null if
+     * its length is not that of the joined entries (e.g. it was compressed
+     * or laid out differently), in which case it cannot be paged by entry.
+     */
+    static WrittenResultFile of(Path file, int[] inputs, String[] results, String delimiter) throws IOException {
+        int delimiterBytes = utf8Length(delimiter);
+        long[] offsets = new long[inputs.length + 1];
+        long position = 0;
+        for (int i = 0; i < inputs.length; i++) {
+            if (i > 0) {
+                position += delimiterBytes;
+            }
+            offsets[i] = position;
+            position += utf8Length(Integer.toString(inputs[i])) + 1 + utf8Length(results[i]);
+        }
+        offsets[inputs.length] = position;
+
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        if (attributes.size() != position) {
+            return null;
+        }
+        return new WrittenResultFile(file, inputs, offsets, delimiter, attributes.lastModifiedTime());
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    int getEntryCount() {
+        return inputs.length;
+    }
+
+    String getDelimiter() {
+        return delimiter;
+    }
+
+    int[] getInputs(int from, int to) {
+        return Arrays.copyOfRange(inputs, from, to);
+    }
+
+    /** Read the results of entries [from, to) with one positioned read */
+    String[] readResults(int from, int to) throws IOException {
+        String[] results = new String[to - from];
+        if (from == to) {
+            return results;
+        }
+        long start = offsets[from];
+        long end = entryEnd(to - 1);
+        if (end - start > Integer.MAX_VALUE) {
+            throw new IOException("Result page is too large to read at once");
+        }
+        ByteBuffer bytes = ByteBuffer.allocate((int) (end - start));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            checkUnchanged(channel);
+            while (bytes.hasRemaining()) {
+                if (channel.read(bytes, start + bytes.position()) < 0) {
+                    throw new IOException("Result file " + file + " ended early");
+                }
+            }
+        }
+        byte[] array = bytes.array();
+        for (int i = from; i < to; i++) {
+            String prefix = inputs[i] + "=";
+            int entryStart = (int) (offsets[i] - start);
+            int entryLength = (int) (entryEnd(i) - offsets[i]);
+            String entry = new String(array, entryStart, entryLength, StandardCharsets.UTF_8);
+            if (!entry.startsWith(prefix)) {
+                throw new IOException("Result file " + file + " does not match the job's entries");
+            }
+            results[i - from] = entry.substring(prefix.length());
+        }
+        return results;
+    }
+
+    private long entryEnd(int index) {
+        return index + 1 < inputs.length ? offsets[index + 1] - delimiterBytes : offsets[inputs.length];
+    }
+
+    private void checkUnchanged(FileChannel channel) throws IOException {
+        if (channel.size() != offsets[inputs.length]
+                || !Files.getLastModifiedTime(file).equals(lastModified)) {
+            throw new IOException("Output " + file + " has been replaced since the job completed");
+        }
+    }
+
+    private static int utf8Length(String text) {
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
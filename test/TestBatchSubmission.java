@@ -0,0 +1,93 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import project.conceptualapi.EmptyComputeEngineAPI;
+import project.datastoreapi.EmptyDataStoreAPI;
+import project.networkapi.AsyncJobResponse;
+import project.networkapi.AsyncUserComputeAPI;
+import project.networkapi.CompletionStatus;
+import project.networkapi.JobSpec;
+import project.networkapi.RequestStatus;
+
+/**
+ * Tests for submitting many jobs, each with its own configuration, in one call.
+ */
+class TestBatchSubmission {
+
+    private Path directory;
+    private AsyncUserComputeAPI api;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        directory = Files.createTempDirectory("batch_jobs");
+        api = new AsyncUserComputeAPI(new EmptyComputeEngineAPI(), new EmptyDataStoreAPI());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        api.shutdown();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void testEachJobUsesItsOwnSpec() throws Exception {
+        // Arrange
+        Path firstInput = Files.writeString(directory.resolve("first.txt"), "3\n4\n");
+        Path secondInput = Files.writeString(directory.resolve("second.txt"), "5\n");
+        Path firstOutput = directory.resolve("first.out");
+        Path secondOutput = directory.resolve("second.out");
+
+        // Act
+        List<AsyncJobResponse> responses = api.submitJobs(Arrays.asList(
+            new JobSpec(firstInput.toString(), firstOutput.toString(), "; "),
+            new JobSpec("", secondOutput.toString(), null),
+            new JobSpec(secondInput.toString(), secondOutput.toString(), null)));
+
+        // Assert
+        assertEquals(3, responses.size());
+        assertEquals(RequestStatus.ACCEPTED, responses.get(0).getStatus());
+        assertEquals(RequestStatus.REJECTED, responses.get(1).getStatus());
+        assertEquals(RequestStatus.ACCEPTED, responses.get(2).getStatus());
+        for (int i : new int[]{0, 2}) {
+            assertEquals(CompletionStatus.JOB_COMPLETED,
+                api.awaitJob(responses.get(i).getJobId()).get(10, TimeUnit.SECONDS).getStatus());
+        }
+        assertEquals("3=6; 4=24", Files.readString(firstOutput));
+        assertEquals("5=120", Files.readString(secondOutput));
+        assertEquals(2, api.listJobs().getJobs().size(), "Rejected specs are not tracked");
+    }
+
+    @Test
+    void testJobIdsDifferAcrossInstances() throws Exception {
+        // Arrange - a second server whose job sequence also starts at 1
+        AsyncUserComputeAPI other = new AsyncUserComputeAPI(new EmptyComputeEngineAPI(), new EmptyDataStoreAPI());
+        Path input = Files.writeString(directory.resolve("input.txt"), "3\n");
+        JobSpec spec = new JobSpec(input.toString(), directory.resolve("output.txt").toString(), null);
+
+        try {
+            // Act
+            String first = api.submitJobs(Arrays.asList(spec)).get(0).getJobId();
+            String second = other.submitJobs(Arrays.asList(spec)).get(0).getJobId();
+
+            // Assert
+            assertNotEquals(first, second);
+            other.awaitJob(second).get(10, TimeUnit.SECONDS);
+        } finally {
+            other.shutdown();
+        }
+    }
+}
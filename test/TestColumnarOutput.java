@@ -0,0 +1,123 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import project.datastoreapi.BasicDataWriteRequest;
+import project.datastoreapi.BasicResultWriteRequest;
+import project.datastoreapi.ColumnarResultReader;
+import project.datastoreapi.ColumnarResultWriter;
+import project.datastoreapi.DataFormat;
+import project.datastoreapi.DataWriteResponse;
+import project.datastoreapi.EmptyDataStoreAPI;
+import project.datastoreapi.RequestStatus;
+
+/**
+ * Tests for COLUMNAR output and ColumnarResultReader.
+ */
+class TestColumnarOutput {
+
+    private Path destination;
+    private EmptyDataStoreAPI dataStore;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        destination = Files.createTempFile("columnar_output", ".rcol");
+        dataStore = new EmptyDataStoreAPI();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Files.deleteIfExists(destination);
+    }
+
+    @Test
+    void testWrittenThroughDataStoreAndReadBack() throws Exception {
+        // Arrange
+        int[] inputs = new int[3000];
+        String[] results = new String[inputs.length];
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = 1000 + i;
+            results[i] = Integer.toString(i * 37);
+        }
+
+        // Act
+        DataWriteResponse response = dataStore.writeData(
+            new BasicResultWriteRequest(destination.toString(), DataFormat.COLUMNAR, inputs, results, ", "));
+
+        // Assert
+        assertEquals(RequestStatus.ACCEPTED, response.getStatus());
+        try (ColumnarResultReader reader = new ColumnarResultReader(destination)) {
+            assertEquals(inputs.length, reader.getEntryCount());
+            assertArrayEquals(inputs, reader.readInputs());
+            assertArrayEquals(results, reader.readResults());
+            assertEquals(results[2500], reader.readResult(2500));
+        }
+    }
+
+    @Test
+    void testInputAndLengthScanNeverReadsPayload() throws Exception {
+        // Arrange - large, poorly compressible payloads
+        int[] inputs = new int[200];
+        String[] results = new String[inputs.length];
+        Random random = new Random(11);
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = i;
+            StringBuilder digits = new StringBuilder();
+            for (int d = 0; d <= i; d++) {
+                digits.append(random.nextInt(10));
+            }
+            results[i] = digits.toString();
+        }
+        try (OutputStream out = Files.newOutputStream(destination)) {
+            ColumnarResultWriter.write(out, new BasicResultWriteRequest(
+                destination.toString(), DataFormat.COLUMNAR, inputs, results, ", "), 16);
+        }
+
+        // Act
+        try (ColumnarResultReader reader = new ColumnarResultReader(destination)) {
+            int[] lengths = reader.readLengths();
+            reader.readInputs();
+
+            // Assert
+            for (int i = 0; i < inputs.length; i++) {
+                assertEquals(i + 1, lengths[i]);
+            }
+            assertTrue(reader.getBytesRead() < Files.size(destination) / 10,
+                "Scanning inputs and lengths read " + reader.getBytesRead() + " of " + Files.size(destination));
+        }
+    }
+
+    @Test
+    void testNegativeAndExtremeInputsRoundTrip() throws Exception {
+        int[] inputs = {Integer.MIN_VALUE, -1, 0, Integer.MAX_VALUE, 7, 7};
+        String[] results = {"a", "", "é", "1", "22", "333"};
+        try (OutputStream out = Files.newOutputStream(destination)) {
+            ColumnarResultWriter.write(out, new BasicResultWriteRequest(
+                destination.toString(), DataFormat.COLUMNAR, inputs, results, ", "), 4);
+        }
+
+        try (ColumnarResultReader reader = new ColumnarResultReader(destination)) {
+            assertArrayEquals(inputs, reader.readInputs());
+            assertArrayEquals(results, reader.readResults());
+            assertEquals("333", reader.readResult(5));
+        }
+    }
+
+    @Test
+    void testPlainWriteRequestIsRejected() {
+        DataWriteResponse response = dataStore.writeData(
+            new BasicDataWriteRequest(destination.toString(), DataFormat.COLUMNAR, "1=1"));
+
+        assertEquals(RequestStatus.REJECTED, response.getStatus());
+        assertTrue(response.getMessage().contains("Columnar output"));
+    }
+}
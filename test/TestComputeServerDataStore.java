@@ -0,0 +1,130 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import grpc.ComputeServiceServer;
+import grpc.DataStoreConnection;
+import grpc.GrpcDataStoreAPI;
+import grpc.ServerConfig;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import project.conceptualapi.EmptyComputeEngineAPI;
+import project.networkapi.AsyncUserComputeAPI;
+import proto.BasicResponse;
+import proto.ComputeServiceGrpc;
+import proto.InputSourceRequest;
+import proto.JobStatusResponse;
+import proto.OutputDestinationRequest;
+import proto.StartRequest;
+
+/**
+ * Runs a job through ComputeServiceServer with its data store reached in
+ * each of the ways a compute server can be configured to use in one JVM.
+ */
+class TestComputeServerDataStore {
+
+    private static final String PREFIX = "test.compute.server.";
+
+    private Path input;
+    private Path output;
+    private DataStoreConnection connection;
+    private AsyncUserComputeAPI api;
+    private Server computeServer;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        input = Files.createTempFile("compute_server_input", ".txt");
+        output = Files.createTempFile("compute_server_output", ".txt");
+        Files.writeString(input, "1\n2\n3\n4\n5\n");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (channel != null) {
+            channel.shutdownNow();
+        }
+        if (computeServer != null) {
+            computeServer.shutdownNow();
+        }
+        if (api != null) {
+            api.shutdown();
+        }
+        if (connection != null) {
+            connection.close();
+        }
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith(PREFIX)) {
+                System.clearProperty(name);
+            }
+        }
+        Files.deleteIfExists(input);
+        Files.deleteIfExists(output);
+    }
+
+    private DataStoreConnection open(String mode) throws Exception {
+        System.setProperty(PREFIX + "datastore", mode);
+        System.setProperty(PREFIX + "datastore.threads", "2");
+        connection = DataStoreConnection.open(ServerConfig.load(PREFIX, 0));
+        return connection;
+    }
+
+    /** Configure and run one job through the compute service over an in-process channel */
+    private JobStatusResponse runJob() throws Exception {
+        api = new AsyncUserComputeAPI(new EmptyComputeEngineAPI(), connection.getDataStore());
+        String name = InProcessServerBuilder.generateName();
+        computeServer = InProcessServerBuilder.forName(name)
+            .addService(new ComputeServiceServer(api))
+            .build()
+            .start();
+        channel = InProcessChannelBuilder.forName(name).build();
+        ComputeServiceGrpc.ComputeServiceBlockingStub stub = ComputeServiceGrpc.newBlockingStub(channel);
+
+        BasicResponse inputSet = stub.setInputSource(
+            InputSourceRequest.newBuilder().setSource(input.toString()).build());
+        assertEquals("ACCEPTED", inputSet.getStatus(), inputSet.getMessage());
+        BasicResponse outputSet = stub.setOutputDestination(
+            OutputDestinationRequest.newBuilder().setDestination(output.toString()).build());
+        assertEquals("ACCEPTED", outputSet.getStatus(), outputSet.getMessage());
+        return stub.startComputation(StartRequest.getDefaultInstance());
+    }
+
+    @Test
+    void testJobRunsAgainstInProcessDataStoreService() throws Exception {
+        // Arrange - reads and writes go over ReadDataStream and WriteDataStream
+        DataStoreConnection dataStore = open("inprocess");
+        assertTrue(dataStore.getDataStore() instanceof GrpcDataStoreAPI);
+        assertNotNull(dataStore.getLocalStore());
+
+        // Act
+        JobStatusResponse status = runJob();
+
+        // Assert
+        assertEquals("JOB_COMPLETED", status.getCompletionStatus(), status.getMessage());
+        assertEquals("1=1,2=2,3=6,4=24,5=120", Files.readString(output));
+    }
+
+    @Test
+    void testJobRunsAgainstDirectDataStore() throws Exception {
+        // Arrange
+        DataStoreConnection dataStore = open("direct");
+        assertSame(dataStore.getLocalStore(), dataStore.getDataStore());
+
+        // Act
+        JobStatusResponse status = runJob();
+
+        // Assert
+        assertEquals("JOB_COMPLETED", status.getCompletionStatus(), status.getMessage());
+        assertEquals("1=1,2=2,3=6,4=24,5=120", Files.readString(output));
+    }
+}
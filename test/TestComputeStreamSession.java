@@ -0,0 +1,90 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import project.conceptualapi.EmptyComputeEngineAPI;
+import project.datastoreapi.EmptyDataStoreAPI;
+import project.networkapi.AsyncUserComputeAPI;
+import project.networkapi.ComputeStreamSession;
+
+/**
+ * Tests for streams of values computed as they arrive.
+ */
+class TestComputeStreamSession {
+
+    private AsyncUserComputeAPI api;
+
+    @BeforeEach
+    void setUp() {
+        api = new AsyncUserComputeAPI(new EmptyComputeEngineAPI(), new EmptyDataStoreAPI());
+    }
+
+    @AfterEach
+    void tearDown() {
+        api.shutdown();
+    }
+
+    @Test
+    void testOrderedStreamEmitsInInputOrder() throws Exception {
+        // Arrange - larger values first so later ones tend to finish earlier
+        Collector collector = new Collector();
+        ComputeStreamSession session = api.openComputeStream(true, collector);
+
+        // Act
+        int[] values = {2000, 1500, 1000, 5, 4, 3};
+        for (int i = 0; i < values.length; i++) {
+            session.submit(100 + i, values[i]);
+        }
+        session.finish();
+
+        // Assert
+        assertTrue(collector.complete.await(10, TimeUnit.SECONDS));
+        assertEquals(values.length, collector.sequences.size());
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(100L + i, collector.sequences.get(i).longValue());
+        }
+        assertEquals("6", collector.results.get(values.length - 1));
+    }
+
+    @Test
+    void testUnorderedStreamEmitsEveryResultThenCompletes() throws Exception {
+        Collector collector = new Collector();
+        ComputeStreamSession session = api.openComputeStream(false, collector);
+
+        for (int i = 0; i < 50; i++) {
+            session.submit(i, i % 10);
+        }
+        session.finish();
+
+        assertTrue(collector.complete.await(10, TimeUnit.SECONDS));
+        assertEquals(50, collector.sequences.size());
+        assertEquals(0, session.getPending());
+        assertThrows(IllegalStateException.class, () -> session.submit(51, 1));
+    }
+
+    private static final class Collector implements ComputeStreamSession.ResultListener {
+        final List<Long> sequences = new CopyOnWriteArrayList<>();
+        final List<String> results = new CopyOnWriteArrayList<>();
+        final CountDownLatch complete = new CountDownLatch(1);
+
+        @Override
+        public void onResult(long sequence, int value, String result) {
+            sequences.add(sequence);
+            results.add(result);
+        }
+
+        @Override
+        public void onComplete() {
+            complete.countDown();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import project.datastoreapi.BasicResultWriteRequest;
+import project.datastoreapi.ContentAddressedResultStore;
+
+/**
+ * Tests for the shared on-disk result store.
+ */
+class TestContentAddressedResultStore {
+
+    private static final String MODE = "FACTORIAL";
+
+    private Path root;
+    private Path output;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        root = Files.createTempDirectory("result_store");
+        output = Files.createTempFile("result_store_output", ".txt");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+        Files.deleteIfExists(output);
+    }
+
+    /** Where the store keeps the blob for (MODE, n) */
+    private Path blob(int n) {
+        return root.resolve(MODE).resolve(String.format("%02x", Math.floorMod(n, 256))).resolve(n + ".res");
+    }
+
+    @Test
+    void testStoredResultIsFoundByLookup() throws Exception {
+        // Arrange
+        ContentAddressedResultStore store = new ContentAddressedResultStore(root);
+
+        // Act
+        store.store(MODE, 10, "3628800");
+
+        // Assert
+        assertEquals("3628800", store.lookup(MODE, 10));
+        assertNull(store.lookup(MODE, 11));
+        assertEquals(1, store.getHits());
+        assertEquals(1, store.getMisses());
+    }
+
+    @Test
+    void testResultIsStoredOnce() throws Exception {
+        // Arrange
+        ContentAddressedResultStore store = new ContentAddressedResultStore(root);
+        assertTrue(store.store(MODE, 5, "120"));
+
+        // Act - the same key again, from this store and from a fresh one over the same root
+        boolean again = store.store(MODE, 5, "120");
+        boolean afterRestart = new ContentAddressedResultStore(root).store(MODE, 5, "120");
+
+        // Assert
+        assertFalse(again);
+        assertFalse(afterRestart);
+        assertEquals(1, store.getStoredCount());
+    }
+
+    @Test
+    void testNonDigitResultsAreNotStored() throws Exception {
+        ContentAddressedResultStore store = new ContentAddressedResultStore(root);
+
+        assertFalse(store.store(MODE, 5, "Error: overflow"));
+        assertFalse(store.contains(MODE, 5));
+    }
+
+    @Test
+    void testEvictedIndexEntriesFallBackToDisk() throws Exception {
+        // Arrange
+        ContentAddressedResultStore store = new ContentAddressedResultStore(root, 2);
+
+        // Act
+        store.store(MODE, 1, "1");
+        store.store(MODE, 2, "2");
+        store.store(MODE, 3, "6");
+
+        // Assert - the index keeps the two most recent keys, the evicted one is still on disk
+        assertEquals(2, store.getIndexSize());
+        assertTrue(store.contains(MODE, 1));
+        assertEquals(2, store.getIndexSize());
+        assertEquals("1", store.lookup(MODE, 1));
+    }
+
+    @Test
+    void testAssembledOutputMatchesJoinedText() throws Exception {
+        // Arrange - stored, unstored and non-digit results with a multi-character delimiter
+        ContentAddressedResultStore store = new ContentAddressedResultStore(root);
+        int[] inputs = {5, 3, 10, 3, -1, 20};
+        String[] results = {"120", "6", "3628800", "6", "Error: negative input", "2432902008176640000"};
+        store.store(MODE, 5, "120");
+        store.store(MODE, 10, "3628800");
+        store.store(MODE, 3, "6");
+
+        // Act
+        store.assemble(output, MODE, inputs, results, "; ");
+
+        // Assert
+        assertEquals(BasicResultWriteRequest.join(inputs, results, "; "), Files.readString(output));
+    }
+
+    @Test
+    void testTruncatedBlobIsNotCopied() throws Exception {
+        // Arrange - the index still records the full size of a blob truncated on disk
+        ContentAddressedResultStore store = new ContentAddressedResultStore(root);
+        int[] inputs = {10, 5};
+        String[] results = {"3628800", "120"};
+        store.store(MODE, 10, "3628800");
+        store.store(MODE, 5, "120");
+        try (FileChannel channel = FileChannel.open(blob(10), StandardOpenOption.WRITE)) {
+            channel.truncate(3);
+        }
+
+        // Act
+        store.assemble(output, MODE, inputs, results, ",");
+
+        // Assert
+        assertEquals(BasicResultWriteRequest.join(inputs, results, ","), Files.readString(output));
+    }
+
+    @Test
+    void testModeOutsideTheRootIsRejected() throws Exception {
+        ContentAddressedResultStore store = new ContentAddressedResultStore(root);
+
+        assertThrows(IllegalArgumentException.class, () -> store.store("../escape", 5, "120"));
+        assertThrows(IllegalArgumentException.class, () -> store.lookup("a/b", 5));
+        assertFalse(Files.exists(root.resolveSibling("escape")));
+    }
+}
@@ -9,6 +9,11 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+
 import project.datastoreapi.DataStoreAPI;
 import project.datastoreapi.EmptyDataStoreAPI;
 import project.datastoreapi.DataReadRequest;
@@ -155,6 +160,28 @@ class TestDataStoreAPI {
         deleteTestFile("test_output.txt");
     }
 
+    @Test
+    void testWriteDataReplacesFileAtomically() throws Exception {
+        // Arrange - an existing output that will be replaced
+        String fileName = "atomic_output.txt";
+        createTestFileWithContent(fileName, "old contents that are longer than the new ones");
+
+        // Act
+        DataWriteResponse response = dataStoreAPI.writeData(
+            new BasicDataWriteRequest(fileName, DataFormat.TEXT, "5=120"));
+
+        // Assert - full replacement and no temporary files left behind
+        assertEquals(RequestStatus.ACCEPTED, response.getStatus());
+        assertEquals("5=120", Files.readString(Paths.get(fileName)));
+        try (Stream<Path> files = Files.list(Paths.get("").toAbsolutePath())) {
+            assertTrue(files.noneMatch(p -> p.getFileName().toString().startsWith("." + fileName)),
+                     "Temporary commit file should be renamed away");
+        }
+
+        // Clean up
+        deleteTestFile(fileName);
+    }
+
     @Test
     void testConfigureStreamWithBatchMode() {
         // Arrange - Test stream configuration with batch mode
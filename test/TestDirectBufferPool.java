@@ -0,0 +1,144 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import project.datastoreapi.BasicDataReadRequest;
+import project.datastoreapi.BasicDataStreamRequest;
+import project.datastoreapi.BasicDataWriteRequest;
+import project.datastoreapi.DataFormat;
+import project.datastoreapi.DataReadResponse;
+import project.datastoreapi.DataStreamMode;
+import project.datastoreapi.DataStreamResponse;
+import project.datastoreapi.DirectBufferPool;
+import project.datastoreapi.EmptyDataStoreAPI;
+import project.datastoreapi.RequestStatus;
+
+/**
+ * Tests for the pooled direct buffers behind EmptyDataStoreAPI I/O.
+ */
+class TestDirectBufferPool {
+
+    private Path inputFile;
+    private Path outputFile;
+    private EmptyDataStoreAPI dataStore;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        inputFile = Files.createTempFile("pooled_input", ".txt");
+        outputFile = Files.createTempFile("pooled_output", ".txt");
+        dataStore = new EmptyDataStoreAPI();
+        dataStore.setInputCache(null);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Files.deleteIfExists(inputFile);
+        Files.deleteIfExists(outputFile);
+    }
+
+    @Test
+    void testReleasedBuffersAreReused() {
+        DirectBufferPool pool = new DirectBufferPool(1024, 2);
+
+        ByteBuffer first = pool.acquire();
+        pool.release(first);
+        ByteBuffer second = pool.acquire();
+
+        assertSame(first, second, "Released buffer should be handed out again");
+        assertTrue(second.isDirect());
+        assertEquals(1, pool.getAllocatedBuffers());
+        assertEquals(1, pool.getBuffersInUse());
+    }
+
+    @Test
+    void testExhaustedPoolFallsBackToHeapBuffer() {
+        DirectBufferPool pool = new DirectBufferPool(1024, 1);
+
+        ByteBuffer pooled = pool.acquire();
+        ByteBuffer overflow = pool.acquire();
+
+        assertFalse(overflow.isDirect(), "Overflow buffer should not count against the pool");
+        assertEquals(1, pool.getOverflows());
+        assertEquals(1.0, pool.getUtilization());
+
+        pool.release(overflow);
+        pool.release(pooled);
+        assertEquals(0, pool.getBuffersInUse());
+        assertEquals(1, pool.getPeakBuffersInUse());
+    }
+
+    @Test
+    void testRepeatedJobsDoNotGrowThePool() throws Exception {
+        // Arrange - input larger than one buffer so numbers straddle reads
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            input.append(i).append('\n');
+        }
+        Files.writeString(inputFile, input.toString());
+
+        // Act
+        for (int job = 0; job < 10; job++) {
+            DataReadResponse read = dataStore.readData(new BasicDataReadRequest(inputFile.toString(), DataFormat.INTEGER_ARRAY));
+            assertEquals(5000, read.getData().length);
+            assertEquals(4999, read.getData()[4999]);
+            dataStore.writeData(new BasicDataWriteRequest(outputFile.toString(), DataFormat.TEXT, input.toString()));
+        }
+
+        // Assert
+        DirectBufferPool pool = dataStore.getBufferPool();
+        assertEquals(1, pool.getAllocatedBuffers(), "Sequential jobs should share a single buffer");
+        assertEquals(0, pool.getBuffersInUse());
+        assertEquals(0, pool.getOverflows());
+        assertEquals(input.toString(), Files.readString(outputFile));
+    }
+
+    @Test
+    void testConfigureStreamResizesBuffers() {
+        dataStore.configureStream(new BasicDataStreamRequest(DataStreamMode.BATCH, 16 * 1024, DataFormat.TEXT));
+
+        assertEquals(16 * 1024, dataStore.getBufferPool().getBufferSize());
+    }
+
+    @Test
+    void testConfiguredBufferSizeIsCapped() {
+        // Act
+        DataStreamResponse response = dataStore.configureStream(
+            new BasicDataStreamRequest(DataStreamMode.STREAM, Integer.MAX_VALUE, DataFormat.TEXT));
+
+        // Assert - the applied size is reported and used, not the requested one
+        assertEquals(RequestStatus.ACCEPTED, response.getStatus());
+        assertEquals(EmptyDataStoreAPI.MAX_STREAM_BUFFER_SIZE, response.getAppliedBufferSize());
+        assertEquals(EmptyDataStoreAPI.MAX_STREAM_BUFFER_SIZE, dataStore.getBufferPool().getBufferSize());
+    }
+
+    @Test
+    void testByteLevelParsingMatchesLineSemantics() throws Exception {
+        Files.writeString(inputFile, "  7 \r\n\r\n-2147483648\n+12\t\n\n2147483647");
+
+        DataReadResponse response = dataStore.readData(new BasicDataReadRequest(inputFile.toString(), DataFormat.INTEGER_ARRAY));
+
+        assertEquals(RequestStatus.ACCEPTED, response.getStatus());
+        assertArrayEquals(new int[]{7, Integer.MIN_VALUE, 12, Integer.MAX_VALUE}, response.getData());
+    }
+
+    @Test
+    void testOutOfRangeValueIsRejected() throws Exception {
+        Files.writeString(inputFile, "1\n2147483648\n");
+
+        DataReadResponse response = dataStore.readData(new BasicDataReadRequest(inputFile.toString(), DataFormat.INTEGER_ARRAY));
+
+        assertEquals(RequestStatus.REJECTED, response.getStatus());
+        assertTrue(response.getMessage().contains("Invalid integer format"));
+        assertEquals(0, dataStore.getBufferPool().getBuffersInUse(), "Failed reads must return their buffer");
+    }
+}
@@ -0,0 +1,282 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import grpc.BalancingPolicy;
+import grpc.EndpointRouter;
+
+/**
+ * Tests for choosing compute servers: balancing, job affinity, reloads and
+ * configuration that some servers missed.
+ */
+class TestEndpointRouter {
+
+    /** Stand-in for a connection to one server */
+    private static final class FakeEndpoint {
+        final String address;
+        int outstanding;
+        boolean reachable = true;
+        boolean closed;
+        final List<String> applied = new ArrayList<>();
+        final Set<String> jobs = new HashSet<>();
+
+        FakeEndpoint(String address) {
+            if (!address.contains(":")) {
+                throw new IllegalArgumentException("Compute endpoint must be host:port, got: " + address);
+            }
+            this.address = address;
+        }
+
+        String apply(String setting) {
+            if (!reachable) {
+                throw new IllegalStateException(address + " is unavailable");
+            }
+            applied.add(setting);
+            return setting + "@" + address;
+        }
+    }
+
+    private final List<FakeEndpoint> opened = new ArrayList<>();
+
+    private EndpointRouter<FakeEndpoint> router(BalancingPolicy policy, int maxTrackedJobs, String... addresses) {
+        EndpointRouter<FakeEndpoint> router = new EndpointRouter<>(policy, endpoint -> endpoint.outstanding,
+                maxTrackedJobs);
+        connect(router, addresses);
+        return router;
+    }
+
+    private List<FakeEndpoint> connect(EndpointRouter<FakeEndpoint> router, String... addresses) {
+        return router.setEndpoints(Arrays.asList(addresses), endpoint -> endpoint.address, address -> {
+            FakeEndpoint endpoint = new FakeEndpoint(address);
+            opened.add(endpoint);
+            return endpoint;
+        }, endpoint -> endpoint.closed = true);
+    }
+
+    @Test
+    void testRoundRobinVisitsEachServerInTurn() {
+        // Arrange
+        EndpointRouter<FakeEndpoint> router = router(BalancingPolicy.ROUND_ROBIN, 10, "a:1", "b:1", "c:1");
+        List<FakeEndpoint> endpoints = router.getEndpoints();
+
+        // Act
+        List<FakeEndpoint> picked = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            picked.add(router.pick(endpoints));
+        }
+
+        // Assert
+        for (int i = 0; i < 3; i++) {
+            assertSame(picked.get(i), picked.get(i + 3));
+        }
+        assertEquals(3, new HashSet<>(picked).size());
+    }
+
+    @Test
+    void testLeastOutstandingPicksTheLeastLoadedServer() {
+        // Arrange
+        EndpointRouter<FakeEndpoint> router = router(BalancingPolicy.LEAST_OUTSTANDING, 10, "a:1", "b:1", "c:1");
+        List<FakeEndpoint> endpoints = router.getEndpoints();
+        endpoints.get(0).outstanding = 4;
+        endpoints.get(1).outstanding = 1;
+        endpoints.get(2).outstanding = 3;
+
+        // Act / Assert
+        for (int i = 0; i < 3; i++) {
+            assertSame(endpoints.get(1), router.pick(endpoints));
+        }
+    }
+
+    @Test
+    void testOwnerIsRememberedWithoutProbing() {
+        // Arrange
+        EndpointRouter<FakeEndpoint> router = router(BalancingPolicy.ROUND_ROBIN, 10, "a:1", "b:1");
+        FakeEndpoint second = router.getEndpoints().get(1);
+        router.recordOwner("job-1", second);
+
+        // Act
+        FakeEndpoint owner = router.ownerOf("job-1", endpoint -> {
+            throw new AssertionError("Known owner should not be probed");
+        });
+
+        // Assert
+        assertSame(second, owner);
+    }
+
+    @Test
+    void testUnknownJobIsFoundByProbingAndRemembered() {
+        // Arrange
+        EndpointRouter<FakeEndpoint> router = router(BalancingPolicy.ROUND_ROBIN, 10, "a:1", "b:1", "c:1");
+        FakeEndpoint third = router.getEndpoints().get(2);
+        third.jobs.add("job-1");
+        List<FakeEndpoint> probed = new ArrayList<>();
+
+        // Act
+        FakeEndpoint first = router.ownerOf("job-1", endpoint -> {
+            probed.add(endpoint);
+            return endpoint.jobs.contains("job-1");
+        });
+        FakeEndpoint again = router.ownerOf("job-1", endpoint -> {
+            probed.add(endpoint);
+            return endpoint.jobs.contains("job-1");
+        });
+
+        // Assert
+        assertSame(third, first);
+        assertSame(third, again);
+        assertEquals(3, probed.size(), "Second lookup should use the remembered owner");
+    }
+
+    @Test
+    void testListedJobDoesNotReplaceKnownOwner() {
+        // Arrange
+        EndpointRouter<FakeEndpoint> router = router(BalancingPolicy.ROUND_ROBIN, 10, "a:1", "b:1");
+        FakeEndpoint first = router.getEndpoints().get(0);
+        FakeEndpoint second = router.getEndpoints().get(1);
+        router.recordOwner("job-1", first);
+
+        // Act
+        router.learnOwner("job-1", second);
+        router.learnOwner("job-2", second);
+
+        // Assert
+        assertSame(first, router.ownerOf("job-1", endpoint -> false));
+        assertSame(second, router.ownerOf("job-2", endpoint -> false));
+    }
+
+    @Test
+    void testTrackedOwnersAreBounded() {
+        // Arrange
+        EndpointRouter<FakeEndpoint> router = router(BalancingPolicy.ROUND_ROBIN, 3, "a:1", "b:1");
+        FakeEndpoint second = router.getEndpoints().get(1);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            router.recordOwner("job-" + i, second);
+        }
+
+        // Assert
+        assertEquals(3, router.trackedJobs());
+        assertSame(second, router.ownerOf("job-9", endpoint -> false));
+        // The oldest job was forgotten, so it is looked for again
+        assertSame(router.getEndpoints().get(0), router.ownerOf("job-0", endpoint -> false));
+    }
+
+    @Test
+    void testReloadKeepsListedServersAndReturnsRemovedOnes() {
+        // Arrange
+        EndpointRouter<FakeEndpoint> router = router(BalancingPolicy.ROUND_ROBIN, 10, "a:1", "b:1");
+        FakeEndpoint a = router.getEndpoints().get(0);
+        FakeEndpoint b = router.getEndpoints().get(1);
+        router.recordOwner("job-b", b);
+
+        // Act
+        List<FakeEndpoint> removed = connect(router, "a:1", "c:1");
+
+        // Assert
+        assertEquals(Collections.singletonList(b), removed);
+        assertSame(a, router.getEndpoints().get(0));
+        assertEquals("c:1", router.getEndpoints().get(1).address);
+        assertEquals(0, router.trackedJobs(), "Owners on a removed server are forgotten");
+    }
+
+    @Test
+    void testInvalidAddressClosesOnlyNewConnections() {
+        // Arrange
+        EndpointRouter<FakeEndpoint> router = router(BalancingPolicy.ROUND_ROBIN, 10, "a:1");
+        FakeEndpoint a = router.getEndpoints().get(0);
+        opened.clear();
+
+        // Act
+        assertThrows(IllegalArgumentException.class, () -> connect(router, "a:1", "b:1", "not-an-address"));
+
+        // Assert
+        assertEquals(1, opened.size());
+        assertTrue(opened.get(0).closed, "Connection opened before the invalid address should be closed");
+        assertFalse(a.closed);
+        assertEquals(Collections.singletonList(a), router.getEndpoints());
+    }
+
+    @Test
+    void testConfigurationReachesEveryServerDespiteOneBeingDown() {
+        // Arrange
+        EndpointRouter<FakeEndpoint> router = router(BalancingPolicy.ROUND_ROBIN, 10, "a:1", "b:1", "c:1");
+        FakeEndpoint a = router.getEndpoints().get(0);
+        FakeEndpoint b = router.getEndpoints().get(1);
+        FakeEndpoint c = router.getEndpoints().get(2);
+        for (FakeEndpoint endpoint : router.getEndpoints()) {
+            router.ensureConfigured(endpoint);
+        }
+        b.reachable = false;
+
+        // Act
+        List<String> responses = router.broadcast("input", endpoint -> endpoint.apply("input=1"));
+        router.broadcast("output", endpoint -> endpoint.apply("output=1"));
+        router.broadcast("input", endpoint -> endpoint.apply("input=2"));
+
+        // Assert
+        assertEquals(Arrays.asList("input=1@a:1", "input=1@c:1"), responses);
+        assertEquals(Arrays.asList("input=1", "output=1", "input=2"), c.applied);
+        assertTrue(b.applied.isEmpty());
+        assertTrue(router.isUnconfigured(b));
+        assertFalse(router.isUnconfigured(a));
+
+        // Once reachable, the server gets the latest value of each setting before work
+        b.reachable = true;
+        router.ensureConfigured(b);
+        assertEquals(Arrays.asList("input=2", "output=1"), b.applied);
+        assertFalse(router.isUnconfigured(b));
+    }
+
+    @Test
+    void testFailedReplayLeavesServerUnconfigured() {
+        // Arrange
+        EndpointRouter<FakeEndpoint> router = router(BalancingPolicy.ROUND_ROBIN, 10, "a:1", "b:1");
+        FakeEndpoint b = router.getEndpoints().get(1);
+        b.reachable = false;
+        router.broadcast("input", endpoint -> endpoint.apply("input=1"));
+
+        // Act / Assert
+        assertThrows(IllegalStateException.class, () -> router.ensureConfigured(b));
+        assertTrue(router.isUnconfigured(b));
+    }
+
+    @Test
+    void testConfigurationFailsWhenNoServerIsReachable() {
+        // Arrange
+        EndpointRouter<FakeEndpoint> router = router(BalancingPolicy.ROUND_ROBIN, 10, "a:1", "b:1");
+        for (FakeEndpoint endpoint : router.getEndpoints()) {
+            endpoint.reachable = false;
+        }
+
+        // Act / Assert
+        assertThrows(IllegalStateException.class,
+                () -> router.broadcast("input", endpoint -> endpoint.apply("input=1")));
+    }
+
+    @Test
+    void testServerAddedByReloadGetsExistingConfiguration() {
+        // Arrange
+        EndpointRouter<FakeEndpoint> router = router(BalancingPolicy.ROUND_ROBIN, 10, "a:1");
+        router.broadcast("delimiters", endpoint -> endpoint.apply("delimiters=;"));
+
+        // Act
+        connect(router, "a:1", "b:1");
+        FakeEndpoint b = router.getEndpoints().get(1);
+        router.ensureConfigured(b);
+
+        // Assert
+        assertEquals(Collections.singletonList("delimiters=;"), b.applied);
+    }
+}
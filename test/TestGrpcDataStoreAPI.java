@@ -0,0 +1,323 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import grpc.DataStoreServer;
+import grpc.GrpcDataStoreAPI;
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import project.datastoreapi.BasicDataStreamRequest;
+import project.datastoreapi.BasicDataWriteRequest;
+import project.datastoreapi.DataFormat;
+import project.datastoreapi.DataStreamMode;
+import project.datastoreapi.DataStreamResponse;
+import project.datastoreapi.DataWriteResponse;
+import project.datastoreapi.EmptyDataStoreAPI;
+import project.datastoreapi.RequestStatus;
+import proto.DataStoreServiceGrpc;
+import proto.DataStreamRequest;
+import proto.DataWriteChunk;
+import proto.DataWriteCommit;
+
+/**
+ * Tests for the data store client over an in-process channel: the
+ * concurrency window, failures and cancellation, and streamed writes.
+ */
+class TestGrpcDataStoreAPI {
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private Path outputFile;
+    private Server server;
+    private GrpcDataStoreAPI client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        outputFile = Files.createTempFile("grpc_data_store", ".txt");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (client != null) {
+            client.shutdown();
+        }
+        if (server != null) {
+            server.shutdownNow();
+        }
+        Files.deleteIfExists(outputFile);
+    }
+
+    private GrpcDataStoreAPI connect(BindableService service, int maxInFlight) throws IOException {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name).addService(service).build().start();
+        client = new GrpcDataStoreAPI(InProcessChannelBuilder.forName(name).directExecutor().build(), maxInFlight);
+        return client;
+    }
+
+    private static BasicDataStreamRequest streamRequest() {
+        return new BasicDataStreamRequest(DataStreamMode.BATCH, 4096, DataFormat.TEXT);
+    }
+
+    private static proto.DataStreamResponse accepted() {
+        return proto.DataStreamResponse.newBuilder()
+            .setStatus(RequestStatus.ACCEPTED.toString())
+            .setMessage("configured")
+            .setMode(DataStreamMode.BATCH.name())
+            .setBufferSize(4096)
+            .build();
+    }
+
+    @Test
+    void testCallsBeyondTheWindowAreQueuedWithoutBlocking() throws Exception {
+        // Arrange
+        HeldConfigureService service = new HeldConfigureService();
+        GrpcDataStoreAPI api = connect(service, 2);
+
+        // Act - returns at once even though only two calls fit in the window
+        List<CompletableFuture<DataStreamResponse>> calls = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            calls.add(api.configureStreamAsync(streamRequest()));
+        }
+        StreamObserver<proto.DataStreamResponse> first = service.nextCall();
+        StreamObserver<proto.DataStreamResponse> second = service.nextCall();
+
+        // Assert - the third call is not started until one of the first two finishes
+        assertNull(service.calls.poll(100, TimeUnit.MILLISECONDS));
+        assertEquals(2, api.getInFlight());
+        assertEquals(1, api.getQueued());
+
+        first.onNext(accepted());
+        first.onCompleted();
+        assertEquals(RequestStatus.ACCEPTED,
+            calls.get(0).get(TIMEOUT_SECONDS, TimeUnit.SECONDS).getStatus());
+
+        StreamObserver<proto.DataStreamResponse> third = service.nextCall();
+        assertEquals(0, api.getQueued());
+        for (StreamObserver<proto.DataStreamResponse> call : List.of(second, third)) {
+            call.onNext(accepted());
+            call.onCompleted();
+        }
+        calls.get(1).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        calls.get(2).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertEquals(0, api.getInFlight());
+    }
+
+    @Test
+    void testFailedCallReleasesItsSlot() throws Exception {
+        // Arrange
+        HeldConfigureService service = new HeldConfigureService();
+        GrpcDataStoreAPI api = connect(service, 1);
+        CompletableFuture<DataStreamResponse> failing = api.configureStreamAsync(streamRequest());
+        CompletableFuture<DataStreamResponse> queued = api.configureStreamAsync(streamRequest());
+
+        // Act
+        service.nextCall().onError(Status.UNAVAILABLE.withDescription("disk offline").asRuntimeException());
+
+        // Assert - the failure is reported and the queued call gets the slot
+        ExecutionException e = assertThrows(ExecutionException.class,
+            () -> failing.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(Status.Code.UNAVAILABLE, Status.fromThrowable(e.getCause()).getCode());
+        StreamObserver<proto.DataStreamResponse> next = service.nextCall();
+        next.onNext(accepted());
+        next.onCompleted();
+        assertEquals(RequestStatus.ACCEPTED, queued.get(TIMEOUT_SECONDS, TimeUnit.SECONDS).getStatus());
+        assertEquals(0, api.getInFlight());
+    }
+
+    @Test
+    void testCancelledCallsReleaseTheWindow() throws Exception {
+        // Arrange
+        HeldConfigureService service = new HeldConfigureService();
+        GrpcDataStoreAPI api = connect(service, 1);
+        CompletableFuture<DataStreamResponse> running = api.configureStreamAsync(streamRequest());
+        CompletableFuture<DataStreamResponse> waiting = api.configureStreamAsync(streamRequest());
+        service.nextCall();
+        assertEquals(1, api.getQueued());
+
+        // Act
+        waiting.cancel(true);
+        running.cancel(true);
+
+        // Assert - the queued call is dropped unstarted and the running one is cancelled on the server
+        assertEquals(0, api.getQueued());
+        assertEquals(0, api.getInFlight());
+        assertTrue(service.cancelled.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertNull(service.calls.poll(100, TimeUnit.MILLISECONDS));
+
+        // A new call starts straight away
+        api.configureStreamAsync(streamRequest());
+        assertNotNull(service.nextCall());
+    }
+
+    @Test
+    void testBlockingCallThrowsTheStatusException() throws Exception {
+        // Arrange
+        HeldConfigureService service = new HeldConfigureService();
+        GrpcDataStoreAPI api = connect(service, 1);
+        service.failWith = Status.PERMISSION_DENIED.withDescription("read only");
+
+        // Act
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class,
+            () -> api.configureStream(streamRequest()));
+
+        // Assert - unwrapped, as the blocking stub would throw it
+        assertEquals(Status.Code.PERMISSION_DENIED, e.getStatus().getCode());
+        assertEquals(0, api.getInFlight());
+    }
+
+    @Test
+    void testWriteIsStreamedInChunksAndCommittedWithItsChecksum() throws Exception {
+        // Arrange - several chunks of text, with multi-byte characters across chunk boundaries
+        RecordingWriteService service = new RecordingWriteService();
+        GrpcDataStoreAPI api = connect(service, 4);
+        StringBuilder text = new StringBuilder();
+        while (text.length() < 200_000) {
+            text.append("n=").append(text.length()).append(" \u00e9\ud83d\ude00,");
+        }
+        byte[] expected = text.toString().getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(expected);
+
+        // Act
+        DataWriteResponse response = api.writeData(
+            new BasicDataWriteRequest("out.txt", DataFormat.TEXT, text.toString()));
+
+        // Assert
+        assertEquals(RequestStatus.ACCEPTED, response.getStatus(), response.getMessage());
+        assertEquals("out.txt", service.destination);
+        assertTrue(service.dataChunks > 1, "Output should be sent in several chunks");
+        assertEquals(new String(expected, StandardCharsets.UTF_8),
+            new String(service.received.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(expected.length, service.commit.getTotalBytes());
+        assertEquals((int) crc.getValue(), service.commit.getCrc32());
+    }
+
+    @Test
+    void testStreamedWriteIsPublishedByTheDataStoreServer() throws Exception {
+        // Arrange
+        GrpcDataStoreAPI api = connect(new DataStoreServer(new EmptyDataStoreAPI()), 4);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 40_000; i++) {
+            text.append(i).append('=').append((long) i * i).append(',');
+        }
+
+        // Act
+        DataWriteResponse response = api.writeData(
+            new BasicDataWriteRequest(outputFile.toString(), DataFormat.TEXT, text.toString()));
+
+        // Assert
+        assertEquals(RequestStatus.ACCEPTED, response.getStatus(), response.getMessage());
+        assertEquals(text.toString(), Files.readString(outputFile));
+    }
+
+    @Test
+    void testWriteRejectedByTheServerIsReported() throws Exception {
+        // Arrange
+        GrpcDataStoreAPI api = connect(new DataStoreServer(new EmptyDataStoreAPI()), 4);
+
+        // Act - a structured format cannot be streamed
+        DataWriteResponse response = api.writeData(
+            new BasicDataWriteRequest(outputFile.toString(), DataFormat.SHARDED, "1=1"));
+
+        // Assert
+        assertEquals(RequestStatus.REJECTED, response.getStatus());
+        assertFalse(response.getMessage().isEmpty());
+        assertEquals(0, api.getInFlight());
+    }
+
+    /** Holds each ConfigureStream call until the test answers it */
+    private static final class HeldConfigureService extends DataStoreServiceGrpc.DataStoreServiceImplBase {
+        final BlockingQueue<StreamObserver<proto.DataStreamResponse>> calls = new LinkedBlockingQueue<>();
+        final CountDownLatch cancelled = new CountDownLatch(1);
+        volatile Status failWith;
+
+        @Override
+        public void configureStream(DataStreamRequest request, StreamObserver<proto.DataStreamResponse> observer) {
+            if (failWith != null) {
+                observer.onError(failWith.asRuntimeException());
+                return;
+            }
+            ((ServerCallStreamObserver<proto.DataStreamResponse>) observer)
+                .setOnCancelHandler(cancelled::countDown);
+            calls.add(observer);
+        }
+
+        StreamObserver<proto.DataStreamResponse> nextCall() throws InterruptedException {
+            StreamObserver<proto.DataStreamResponse> call = calls.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertNotNull(call, "Expected another call to reach the server");
+            return call;
+        }
+    }
+
+    /** Records what one WriteDataStream call sent and accepts it */
+    private static final class RecordingWriteService extends DataStoreServiceGrpc.DataStoreServiceImplBase {
+        final ByteArrayOutputStream received = new ByteArrayOutputStream();
+        volatile String destination;
+        volatile int dataChunks;
+        volatile DataWriteCommit commit;
+
+        @Override
+        public StreamObserver<DataWriteChunk> writeDataStream(StreamObserver<proto.DataWriteResponse> observer) {
+            return new StreamObserver<DataWriteChunk>() {
+                @Override
+                public void onNext(DataWriteChunk chunk) {
+                    switch (chunk.getKindCase()) {
+                        case OPEN:
+                            destination = chunk.getOpen().getDestination();
+                            break;
+                        case DATA:
+                            dataChunks++;
+                            received.writeBytes(chunk.getData().toByteArray());
+                            break;
+                        case COMMIT:
+                            commit = chunk.getCommit();
+                            observer.onNext(proto.DataWriteResponse.newBuilder()
+                                .setStatus(RequestStatus.ACCEPTED.toString())
+                                .setMessage("committed")
+                                .build());
+                            observer.onCompleted();
+                            break;
+                        default:
+                            break;
+                    }
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                }
+
+                @Override
+                public void onCompleted() {
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,144 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import project.conceptualapi.EmptyComputeEngineAPI;
+import project.datastoreapi.DataFormat;
+import project.datastoreapi.EmptyDataStoreAPI;
+import project.datastoreapi.IncrementalResultWriter;
+import project.networkapi.AsyncUserComputeAPI;
+
+/**
+ * Tests for in-order incremental output with a durable watermark.
+ */
+class TestIncrementalOutput {
+
+    private static final int[] INPUTS = {3, 4, 5, 6};
+
+    private Path output;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        output = Files.createTempFile("incremental_output", ".txt");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Files.deleteIfExists(output);
+        Files.deleteIfExists(Path.of(IncrementalResultWriter.watermarkPathFor(output.toString())));
+    }
+
+    @Test
+    void testOutOfOrderResultsAreAppendedAsContiguousPrefix() throws Exception {
+        try (IncrementalResultWriter writer = IncrementalResultWriter.open(output, INPUTS, ", ", false)) {
+            // Position 1 finishes first but must wait for position 0
+            writer.complete(1, "24");
+            writer.flush();
+            assertEquals("", Files.readString(output));
+
+            writer.complete(0, "6");
+            writer.flush();
+            assertEquals("3=6, 4=24", Files.readString(output));
+
+            IncrementalResultWriter.Watermark watermark = IncrementalResultWriter.readWatermark(output);
+            assertEquals(2, watermark.getEntries());
+            assertEquals(Files.size(output), watermark.getBytes());
+            assertFalse(watermark.isComplete());
+
+            writer.complete(3, "720");
+            writer.complete(2, "120");
+        }
+
+        assertEquals("3=6, 4=24, 5=120, 6=720", Files.readString(output));
+        assertTrue(IncrementalResultWriter.readWatermark(output).isComplete());
+    }
+
+    @Test
+    void testRestartResumesFromWatermarkAndDropsTornTail() throws Exception {
+        // Arrange - first run finishes two entries, then "crashes" mid-append
+        try (IncrementalResultWriter writer = IncrementalResultWriter.open(output, INPUTS, ", ", false)) {
+            writer.complete(0, "6");
+            writer.complete(1, "24");
+        }
+        Files.writeString(output, ", 5=12", StandardOpenOption.APPEND);
+
+        // Act
+        try (IncrementalResultWriter writer = IncrementalResultWriter.open(output, INPUTS, ", ", false)) {
+            assertEquals(2, writer.getResumePosition());
+            writer.complete(2, "120");
+            writer.complete(3, "720");
+        }
+
+        // Assert
+        assertEquals("3=6, 4=24, 5=120, 6=720", Files.readString(output));
+    }
+
+    @Test
+    void testDifferentInputStartsOver() throws Exception {
+        try (IncrementalResultWriter writer = IncrementalResultWriter.open(output, INPUTS, ", ", false)) {
+            writer.complete(0, "6");
+        }
+
+        try (IncrementalResultWriter writer = IncrementalResultWriter.open(output, new int[]{7}, ", ", false)) {
+            assertEquals(0, writer.getResumePosition());
+            writer.complete(0, "5040");
+        }
+
+        assertEquals("7=5040", Files.readString(output));
+        assertNotNull(IncrementalResultWriter.readWatermark(output));
+    }
+
+    @Test
+    void testInputsWithCollidingHashCodesDoNotResume() throws Exception {
+        // Arrange - Arrays.hashCode({0, 31}) == Arrays.hashCode({1, 0})
+        try (IncrementalResultWriter writer = IncrementalResultWriter.open(output, new int[]{0, 31}, ", ", false)) {
+            writer.complete(0, "1");
+        }
+
+        // Act / Assert - the digest tells the inputs apart
+        try (IncrementalResultWriter writer = IncrementalResultWriter.open(output, new int[]{1, 0}, ", ", false)) {
+            assertEquals(0, writer.getResumePosition());
+        }
+    }
+
+    @Test
+    void testWatermarkAdvancesWhileNextResultIsSlow() throws Exception {
+        try (IncrementalResultWriter writer = IncrementalResultWriter.open(output, INPUTS, ", ", false)) {
+            // Act - one result, then nothing more for a while
+            writer.complete(0, "6");
+            Thread.sleep(500);
+
+            // Assert - the timer flushed it without waiting for the next result
+            assertEquals(1, IncrementalResultWriter.readWatermark(output).getEntries());
+            assertEquals("3=6", Files.readString(output));
+        }
+    }
+
+    @Test
+    void testDataStoreRejectsFormatsThatCannotBeAppended() {
+        EmptyDataStoreAPI dataStore = new EmptyDataStoreAPI();
+
+        assertThrows(IllegalArgumentException.class,
+            () -> dataStore.openIncrementalWrite(output.toString(), DataFormat.GZIP, INPUTS, ", "));
+    }
+
+    @Test
+    void testIncrementalModeNeedsLocalDataStore() throws Exception {
+        AsyncUserComputeAPI api = new AsyncUserComputeAPI(new EmptyComputeEngineAPI(), new MemoryDataStore());
+        try {
+            assertThrows(IllegalStateException.class, () -> api.setIncrementalOutput(true));
+        } finally {
+            api.shutdown();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import project.datastoreapi.BasicDataWriteRequest;
+import project.datastoreapi.BasicResultLookupRequest;
+import project.datastoreapi.BasicResultWriteRequest;
+import project.datastoreapi.DataFormat;
+import project.datastoreapi.DataWriteResponse;
+import project.datastoreapi.EmptyDataStoreAPI;
+import project.datastoreapi.RequestStatus;
+import project.datastoreapi.ResultIndex;
+import project.datastoreapi.ResultLookupMode;
+import project.datastoreapi.ResultLookupResponse;
+
+/**
+ * Tests for indexed result files and single-result lookups.
+ */
+class TestIndexedResultFile {
+
+    private static final String OUTPUT_FILE = "test_indexed_output.txt";
+
+    private final EmptyDataStoreAPI dataStore = new EmptyDataStoreAPI();
+
+    @AfterEach
+    void tearDown() {
+        new File(OUTPUT_FILE).delete();
+        new File(ResultIndex.indexPathFor(OUTPUT_FILE)).delete();
+    }
+
+    @Test
+    void testLookupByPositionAndInput() throws Exception {
+        // Arrange - duplicate inputs and a multi-character delimiter
+        int[] inputs = {5, 3, 10, 3};
+        String[] results = {"120", "6", "3628800", "6"};
+        DataWriteResponse writeResponse = dataStore.writeData(new BasicResultWriteRequest(
+            OUTPUT_FILE, DataFormat.INDEXED_TEXT, inputs, results, "; "));
+
+        // Assert - text output is unchanged by indexing
+        assertEquals(RequestStatus.ACCEPTED, writeResponse.getStatus());
+        assertEquals("5=120; 3=6; 10=3628800; 3=6", Files.readString(Paths.get(OUTPUT_FILE)));
+
+        // Act / Assert - by position
+        ResultLookupResponse third = dataStore.readResult(
+            new BasicResultLookupRequest(OUTPUT_FILE, ResultLookupMode.BY_POSITION, 2));
+        assertEquals(RequestStatus.ACCEPTED, third.getStatus());
+        assertEquals(10, third.getInput());
+        assertEquals("3628800", third.getResult());
+
+        // Act / Assert - by input value returns the earliest position
+        ResultLookupResponse three = dataStore.readResult(
+            new BasicResultLookupRequest(OUTPUT_FILE, ResultLookupMode.BY_INPUT, 3));
+        assertEquals(1, three.getPosition());
+        assertEquals("6", three.getResult());
+    }
+
+    @Test
+    void testMissingKeysAreRejected() {
+        dataStore.writeData(new BasicResultWriteRequest(
+            OUTPUT_FILE, DataFormat.INDEXED_TEXT, new int[] {1}, new String[] {"1"}, ","));
+
+        ResultLookupResponse outOfRange = dataStore.readResult(
+            new BasicResultLookupRequest(OUTPUT_FILE, ResultLookupMode.BY_POSITION, 5));
+        ResultLookupResponse absent = dataStore.readResult(
+            new BasicResultLookupRequest(OUTPUT_FILE, ResultLookupMode.BY_INPUT, 42));
+
+        assertEquals(RequestStatus.REJECTED, outOfRange.getStatus());
+        assertEquals(RequestStatus.REJECTED, absent.getStatus());
+        assertNull(absent.getResult());
+    }
+
+    @Test
+    void testStaleIndexBesideNewDataIsRejected() throws Exception {
+        // Arrange - simulate a crash after the data rename but before the index rename
+        dataStore.writeData(new BasicResultWriteRequest(
+            OUTPUT_FILE, DataFormat.INDEXED_TEXT, new int[] {3, 4}, new String[] {"6", "24"}, ","));
+        Files.writeString(Paths.get(OUTPUT_FILE), "5=120,4=24");
+
+        // Act
+        ResultLookupResponse resized = dataStore.readResult(
+            new BasicResultLookupRequest(OUTPUT_FILE, ResultLookupMode.BY_POSITION, 1));
+        Files.writeString(Paths.get(OUTPUT_FILE), "3=6,4=25");
+        ResultLookupResponse sameLength = dataStore.readResult(
+            new BasicResultLookupRequest(OUTPUT_FILE, ResultLookupMode.BY_POSITION, 1));
+
+        // Assert - neither returns bytes from the wrong range
+        assertEquals(RequestStatus.REJECTED, resized.getStatus());
+        assertEquals(RequestStatus.REJECTED, sameLength.getStatus());
+        assertNull(sameLength.getResult());
+    }
+
+    @Test
+    void testIndexedFormatRequiresResultRequest() {
+        DataWriteResponse response = dataStore.writeData(
+            new BasicDataWriteRequest(OUTPUT_FILE, DataFormat.INDEXED_TEXT, "1=1"));
+
+        assertEquals(RequestStatus.REJECTED, response.getStatus(),
+                    "Plain write requests cannot be indexed");
+    }
+}
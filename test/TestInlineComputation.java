@@ -0,0 +1,46 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import project.conceptualapi.EmptyComputeEngineAPI;
+import project.datastoreapi.EmptyDataStoreAPI;
+import project.networkapi.AsyncUserComputeAPI;
+import project.networkapi.JobResultResponse;
+import project.networkapi.RequestStatus;
+
+/**
+ * Tests for computing values passed inline, without input or output files.
+ */
+class TestInlineComputation {
+
+    private AsyncUserComputeAPI api;
+
+    @BeforeEach
+    void setUp() {
+        api = new AsyncUserComputeAPI(new EmptyComputeEngineAPI(), new EmptyDataStoreAPI());
+    }
+
+    @AfterEach
+    void tearDown() {
+        api.shutdown();
+    }
+
+    @Test
+    void testResultsAreReturnedWithoutConfiguringFiles() {
+        JobResultResponse response = api.computeInline(new int[]{5, 3, 4}, "; ");
+
+        assertEquals(RequestStatus.ACCEPTED, response.getStatus());
+        assertEquals("5=120; 3=6; 4=24", response.getResultData());
+        assertTrue(api.listJobs().getJobs().isEmpty(), "Inline computations are not tracked as jobs");
+    }
+
+    @Test
+    void testEmptyAndOversizedInputsAreRejected() {
+        assertEquals(RequestStatus.REJECTED, api.computeInline(new int[0], ",").getStatus());
+        assertEquals(RequestStatus.REJECTED,
+            api.computeInline(new int[AsyncUserComputeAPI.MAX_INLINE_VALUES + 1], ",").getStatus());
+    }
+}
@@ -0,0 +1,120 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import project.datastoreapi.BasicDataReadRequest;
+import project.datastoreapi.DataFormat;
+import project.datastoreapi.DataReadResponse;
+import project.datastoreapi.EmptyDataStoreAPI;
+import project.datastoreapi.InputFileCache;
+
+/**
+ * Tests for the parsed-input cache used by EmptyDataStoreAPI.readData.
+ */
+class TestInputFileCache {
+
+    private Path inputFile;
+    private InputFileCache cache;
+    private EmptyDataStoreAPI dataStore;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        inputFile = Files.createTempFile("cached_input", ".txt");
+        Files.writeString(inputFile, "1\n10\n25\n");
+        cache = new InputFileCache();
+        dataStore = new EmptyDataStoreAPI();
+        dataStore.setInputCache(cache);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Files.deleteIfExists(inputFile);
+    }
+
+    @Test
+    void testRepeatReadIsServedFromCache() {
+        // Act
+        DataReadResponse first = read();
+        DataReadResponse second = read();
+
+        // Assert
+        assertArrayEquals(new int[]{1, 10, 25}, first.getData());
+        assertArrayEquals(new int[]{1, 10, 25}, second.getData());
+        assertTrue(second.getMessage().contains("from cache"), "Second read should hit the cache");
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void testModifiedFileIsReparsed() throws Exception {
+        // Arrange - warm the cache, then change the file and its timestamp
+        read();
+        Files.writeString(inputFile, "7\n8\n");
+        Files.setLastModifiedTime(inputFile, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+
+        // Act
+        DataReadResponse response = read();
+
+        // Assert
+        assertArrayEquals(new int[]{7, 8}, response.getData(), "Stale entry must not be returned");
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    void testSameSizeRewriteWithinOneMillisecondIsReparsed() throws Exception {
+        // Arrange - two timestamps 200 microseconds apart in the same millisecond
+        Instant written = Instant.ofEpochSecond(1_700_000_000L, 100_000);
+        Files.setLastModifiedTime(inputFile, FileTime.from(written));
+        read();
+        Files.writeString(inputFile, "2\n10\n25\n");
+        Files.setLastModifiedTime(inputFile, FileTime.from(written.plusNanos(200_000)));
+
+        // Act
+        DataReadResponse response = read();
+
+        // Assert
+        assertArrayEquals(new int[]{2, 10, 25}, response.getData(), "Stale entry must not be returned");
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    void testCallersCannotCorruptCachedData() {
+        read().getData()[0] = 999;
+
+        assertArrayEquals(new int[]{1, 10, 25}, read().getData());
+    }
+
+    @Test
+    void testEntriesBeyondLimitAreEvicted() throws Exception {
+        // Arrange - room for only four integers
+        InputFileCache smallCache = new InputFileCache(4);
+        Path other = Files.createTempFile("cached_input_other", ".txt");
+        Files.writeString(other, "4\n5\n");
+
+        try {
+            smallCache.putIfUnchanged(inputFile, InputFileCache.signatureOf(inputFile), new int[]{1, 10, 25});
+            smallCache.putIfUnchanged(other, InputFileCache.signatureOf(other), new int[]{4, 5});
+
+            // Assert - the older entry was evicted to respect the limit
+            assertEquals(1, smallCache.getEvictions());
+            assertEquals(2, smallCache.getCachedValues());
+            assertNull(smallCache.get(inputFile, InputFileCache.signatureOf(inputFile)));
+        } finally {
+            Files.deleteIfExists(other);
+        }
+    }
+
+    private DataReadResponse read() {
+        return dataStore.readData(new BasicDataReadRequest(inputFile.toString(), DataFormat.INTEGER_ARRAY));
+    }
+}
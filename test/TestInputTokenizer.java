@@ -0,0 +1,124 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import project.datastoreapi.BasicDataReadRequest;
+import project.datastoreapi.DataFormat;
+import project.datastoreapi.DataReadResponse;
+import project.datastoreapi.EmptyDataStoreAPI;
+import project.datastoreapi.InputTokenizer;
+import project.datastoreapi.RequestStatus;
+
+/**
+ * Tests for the SWAR input tokenizer and delimiter-aware readData.
+ */
+class TestInputTokenizer {
+
+    private Path inputFile;
+    private EmptyDataStoreAPI dataStore;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        inputFile = Files.createTempFile("tokenizer_input", ".txt");
+        dataStore = new EmptyDataStoreAPI();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Files.deleteIfExists(inputFile);
+    }
+
+    @Test
+    void testSameValuesInEveryLayout() throws Exception {
+        int[] expected = {12345678, -7, 0, 2147483647, 42, -2147483648, 123456789};
+        String[] layouts = {
+            "12345678\n-7\n0\n2147483647\n42\n-2147483648\n123456789\n",
+            "12345678,-7,0,2147483647,42,-2147483648,123456789",
+            "12345678 -7  0 2147483647 42 -2147483648 123456789",
+            "12345678\t-7\t0\t2147483647\t42\t-2147483648\t123456789",
+            "12345678, -7,\r\n0 ,2147483647\n\n42,-2147483648,,123456789\n"
+        };
+
+        for (String layout : layouts) {
+            assertArrayEquals(expected, tokenize(layout, ","), "Layout: " + layout);
+        }
+    }
+
+    @Test
+    void testConfiguredDelimitersApplyToReadData() throws Exception {
+        Files.writeString(inputFile, "5;6|7\n8");
+
+        DataReadResponse withDelimiters = dataStore.readData(
+            new BasicDataReadRequest(inputFile.toString(), DataFormat.INTEGER_ARRAY, ";|"));
+        DataReadResponse withoutDelimiters = dataStore.readData(
+            new BasicDataReadRequest(inputFile.toString(), DataFormat.INTEGER_ARRAY));
+
+        assertArrayEquals(new int[]{5, 6, 7, 8}, withDelimiters.getData());
+        assertEquals(RequestStatus.REJECTED, withoutDelimiters.getStatus(),
+            "Cached result parsed with other delimiters must not be reused");
+    }
+
+    @Test
+    void testMatchesScalarParsingOnRandomInput() {
+        Random random = new Random(42);
+        int[] values = new int[20000];
+        StringBuilder text = new StringBuilder();
+        String[] separators = {",", " ", "\t", "\n", ", ", "\r\n"};
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt();
+            text.append(values[i]).append(separators[random.nextInt(separators.length)]);
+        }
+
+        // Split across odd-sized buffers so values straddle feed calls
+        InputTokenizer tokenizer = new InputTokenizer(",");
+        byte[] bytes = text.toString().getBytes(StandardCharsets.US_ASCII);
+        for (int offset = 0; offset < bytes.length; offset += 1013) {
+            tokenizer.feed(ByteBuffer.wrap(bytes, offset, Math.min(1013, bytes.length - offset)).slice());
+        }
+
+        assertArrayEquals(values, tokenizer.finish());
+    }
+
+    @Test
+    void testTakenValuesAreNotReturnedAgain() {
+        // Arrange
+        InputTokenizer tokenizer = new InputTokenizer(",");
+        tokenizer.feed(ByteBuffer.wrap("1,2,3".getBytes(StandardCharsets.US_ASCII)));
+
+        // Act - the 3 may continue in the next feed, so it is not taken yet
+        int[] first = tokenizer.take();
+        tokenizer.feed(ByteBuffer.wrap("4,5".getBytes(StandardCharsets.US_ASCII)));
+        int[] second = tokenizer.take();
+        int[] rest = tokenizer.finish();
+
+        // Assert
+        assertArrayEquals(new int[] {1, 2}, first);
+        assertArrayEquals(new int[] {34}, second);
+        assertArrayEquals(new int[] {5}, rest);
+    }
+
+    @Test
+    void testMalformedInputIsRejected() {
+        assertThrows(NumberFormatException.class, () -> tokenize("1,2x,3", ","));
+        assertThrows(NumberFormatException.class, () -> tokenize("1-2", ","));
+        assertThrows(NumberFormatException.class, () -> tokenize("12345678901234567890", ","));
+        assertThrows(NumberFormatException.class, () -> tokenize("1,-,2", ","));
+        assertThrows(NumberFormatException.class, () -> tokenize("1;2", ","));
+    }
+
+    private int[] tokenize(String text, String delimiters) {
+        InputTokenizer tokenizer = new InputTokenizer(delimiters);
+        tokenizer.feed(ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII)));
+        return tokenizer.finish();
+    }
+}
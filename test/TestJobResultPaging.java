@@ -0,0 +1,152 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import project.conceptualapi.EmptyComputeEngineAPI;
+import project.datastoreapi.EmptyDataStoreAPI;
+import project.datastoreapi.IncrementalResultWriter;
+import project.networkapi.AsyncUserComputeAPI;
+import project.networkapi.BasicInputRequest;
+import project.networkapi.BasicJobStatusRequest;
+import project.networkapi.BasicOutputRequest;
+import project.networkapi.CompletionStatus;
+import project.networkapi.JobResultPage;
+import project.networkapi.JobResultResponse;
+import project.networkapi.JobStatusResponse;
+import project.networkapi.RequestStatus;
+
+/**
+ * Tests for fetching a completed job's result a page at a time.
+ */
+class TestJobResultPaging {
+
+    private Path input;
+    private Path output;
+    private AsyncUserComputeAPI api;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        input = Files.createTempFile("paging_input", ".txt");
+        output = Files.createTempFile("paging_output", ".txt");
+        StringBuilder values = new StringBuilder();
+        for (int i = 1; i <= 10; i++) {
+            values.append(i).append('\n');
+        }
+        Files.writeString(input, values);
+        api = new AsyncUserComputeAPI(new EmptyComputeEngineAPI(), new EmptyDataStoreAPI());
+        api.setInputSource(new BasicInputRequest(input.toString()));
+        api.setOutputDestination(new BasicOutputRequest(output.toString()));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        api.shutdown();
+        Files.deleteIfExists(input);
+        Files.deleteIfExists(output);
+        Files.deleteIfExists(Path.of(IncrementalResultWriter.watermarkPathFor(output.toString())));
+    }
+
+    @Test
+    void testEntryPagesCoverResultAndResumeFromToken() {
+        // Arrange
+        String jobId = runJob();
+        BasicJobStatusRequest request = new BasicJobStatusRequest(jobId);
+
+        // Act
+        JobResultPage first = api.getJobResultPage(request, null, 4);
+        JobResultPage second = api.getJobResultPage(request, first.getNextToken(), 4);
+        JobResultPage last = api.getJobResultPage(request, second.getNextToken(), 4);
+        JobResultPage again = api.getJobResultPage(request, first.getNextToken(), 4);
+
+        // Assert
+        assertTrue(first.hasEntries());
+        assertEquals(10, first.getTotal());
+        assertEquals(4, first.getResults().length);
+        assertEquals(5, second.getInputs()[0]);
+        assertEquals("120", second.getResults()[0]);
+        assertEquals(2, last.getResults().length);
+        assertTrue(last.isLast());
+        assertEquals(second.getInputs()[0], again.getInputs()[0], "A token can be replayed to resume");
+    }
+
+    @Test
+    void testIncrementalOutputIsPagedFromFile() throws Exception {
+        api.setIncrementalOutput(true);
+        String jobId = runJob();
+        BasicJobStatusRequest request = new BasicJobStatusRequest(jobId);
+
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        String token = null;
+        JobResultPage page;
+        do {
+            page = api.getJobResultPage(request, token, 0);
+            assertEquals(RequestStatus.ACCEPTED, page.getStatus());
+            assertFalse(page.hasEntries());
+            text.write(page.getText());
+            token = page.getNextToken();
+        } while (!page.isLast());
+
+        assertEquals(Files.readString(output), text.toString(StandardCharsets.UTF_8));
+        assertEquals(Files.size(output), page.getTotal());
+    }
+
+    @Test
+    void testEntriesAreReadBackFromWrittenOutput() throws Exception {
+        // Arrange
+        String jobId = runJob();
+        BasicJobStatusRequest request = new BasicJobStatusRequest(jobId);
+
+        // Act
+        JobResultResponse whole = api.getJobResult(request);
+        JobResultPage page = api.getJobResultPage(request, "e8", 4);
+
+        // Assert - the entries rebuild exactly the text that was written
+        assertEquals(RequestStatus.ACCEPTED, whole.getStatus());
+        assertEquals(Files.readString(output), whole.getResultData());
+        assertEquals(9, page.getInputs()[0]);
+        assertEquals("362880", page.getResults()[0]);
+        assertTrue(page.isLast());
+    }
+
+    @Test
+    void testReplacedOutputIsNotServedAsTheJobResult() throws Exception {
+        // Arrange - another writer replaces the job's output after it completed
+        String jobId = runJob();
+        Files.writeString(output, "1=other");
+
+        // Act
+        JobResultPage page = api.getJobResultPage(new BasicJobStatusRequest(jobId), null, 4);
+        JobResultResponse whole = api.getJobResult(new BasicJobStatusRequest(jobId));
+
+        // Assert
+        assertEquals(RequestStatus.REJECTED, page.getStatus());
+        assertEquals(RequestStatus.REJECTED, whole.getStatus());
+        assertTrue(whole.getMessage().contains("replaced"), whole.getMessage());
+    }
+
+    @Test
+    void testInvalidTokenIsRejected() {
+        String jobId = runJob();
+
+        JobResultPage page = api.getJobResultPage(new BasicJobStatusRequest(jobId), "t12", 0);
+
+        assertEquals(RequestStatus.REJECTED, page.getStatus());
+        assertNull(page.getNextToken());
+    }
+
+    private String runJob() {
+        JobStatusResponse status = api.startComputation();
+        assertEquals(CompletionStatus.JOB_COMPLETED, status.getStatus(), status.getMessage());
+        return api.listJobs().getJobs().get(0).getJobId();
+    }
+}
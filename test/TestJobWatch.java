@@ -0,0 +1,92 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import project.conceptualapi.EmptyComputeEngineAPI;
+import project.datastoreapi.EmptyDataStoreAPI;
+import project.networkapi.AsyncJobResponse;
+import project.networkapi.AsyncUserComputeAPI;
+import project.networkapi.BasicInputRequest;
+import project.networkapi.BasicJobStatusRequest;
+import project.networkapi.BasicOutputRequest;
+import project.networkapi.CompletionStatus;
+import project.networkapi.JobStatusResponse;
+import project.networkapi.JobSummary;
+
+/**
+ * Tests for pushed job state changes.
+ */
+class TestJobWatch {
+
+    private Path input;
+    private Path output;
+    private AsyncUserComputeAPI api;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        input = Files.createTempFile("watch_input", ".txt");
+        output = Files.createTempFile("watch_output", ".txt");
+        Files.writeString(input, "3\n4\n5\n");
+        api = new AsyncUserComputeAPI(new EmptyComputeEngineAPI(), new EmptyDataStoreAPI());
+        api.setInputSource(new BasicInputRequest(input.toString()));
+        api.setOutputDestination(new BasicOutputRequest(output.toString()));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        api.shutdown();
+        Files.deleteIfExists(input);
+        Files.deleteIfExists(output);
+    }
+
+    @Test
+    void testWatcherSeesEveryTransitionEndingInCompletion() throws Exception {
+        // Arrange
+        AsyncJobResponse submitted = api.submitComputationAsync();
+        List<JobSummary> updates = new CopyOnWriteArrayList<>();
+
+        // Act
+        assertTrue(api.watchJob(new BasicJobStatusRequest(submitted.getJobId()), updates::add));
+        JobStatusResponse done = api.awaitJob(submitted.getJobId()).get(10, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(CompletionStatus.JOB_COMPLETED, done.getStatus());
+        JobSummary last = updates.get(updates.size() - 1);
+        assertEquals(CompletionStatus.JOB_COMPLETED, last.getStatus());
+        assertEquals(100, last.getProgress());
+        for (int i = 1; i < updates.size(); i++) {
+            assertTrue(updates.get(i).getProgress() >= updates.get(i - 1).getProgress(),
+                "Progress should be delivered in order");
+        }
+    }
+
+    @Test
+    void testStartComputationReturnsFinalState() {
+        JobStatusResponse status = api.startComputation();
+
+        assertEquals(CompletionStatus.JOB_COMPLETED, status.getStatus());
+    }
+
+    @Test
+    void testFinishedJobIsReportedOnceAndUnknownJobIsNotWatched() {
+        api.startComputation();
+        String jobId = api.listJobs().getJobs().get(0).getJobId();
+        List<JobSummary> updates = new CopyOnWriteArrayList<>();
+
+        assertTrue(api.watchJob(new BasicJobStatusRequest(jobId), updates::add));
+        assertFalse(api.watchJob(new BasicJobStatusRequest("missing"), updates::add));
+
+        assertEquals(1, updates.size());
+        assertEquals(CompletionStatus.JOB_COMPLETED, updates.get(0).getStatus());
+    }
+}
@@ -0,0 +1,161 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import project.datastoreapi.BasicDataReadRequest;
+import project.datastoreapi.BasicDataWriteRequest;
+import project.datastoreapi.BasicResultWriteRequest;
+import project.datastoreapi.DataFormat;
+import project.datastoreapi.DataReadResponse;
+import project.datastoreapi.DataWriteResponse;
+import project.datastoreapi.EmptyDataStoreAPI;
+import project.datastoreapi.LogStructuredStorageBackend;
+import project.datastoreapi.RequestStatus;
+
+/**
+ * Tests for the log-structured key-value storage backend and its use behind EmptyDataStoreAPI.
+ */
+class TestLogStructuredStorage {
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        directory = Files.createTempDirectory("log_store");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void testDataStoreReadsAndWritesByKey() throws Exception {
+        try (LogStructuredStorageBackend backend = new LogStructuredStorageBackend(directory)) {
+            // Arrange
+            EmptyDataStoreAPI dataStore = new EmptyDataStoreAPI(backend);
+            backend.write("job-1/input", "3\n4\n5".getBytes(StandardCharsets.UTF_8));
+
+            // Act
+            DataReadResponse read = dataStore.readData(new BasicDataReadRequest("job-1/input", DataFormat.TEXT));
+            DataWriteResponse written = dataStore.writeData(new BasicResultWriteRequest(
+                "job-1/output", DataFormat.TEXT, read.getData(), new String[]{"6", "24", "120"}, ", "));
+
+            // Assert
+            assertEquals(RequestStatus.ACCEPTED, read.getStatus());
+            assertArrayEquals(new int[]{3, 4, 5}, read.getData());
+            assertEquals(RequestStatus.ACCEPTED, written.getStatus());
+            assertEquals("3=6, 4=24, 5=120", new String(backend.read("job-1/output"), StandardCharsets.UTF_8));
+            assertEquals(1, backend.getSegmentCount(), "Keys should share segments rather than get a file each");
+        }
+    }
+
+    @Test
+    void testMissingKeyAndFileOnlyFormatsAreRejected() throws Exception {
+        try (LogStructuredStorageBackend backend = new LogStructuredStorageBackend(directory)) {
+            EmptyDataStoreAPI dataStore = new EmptyDataStoreAPI(backend);
+
+            DataReadResponse read = dataStore.readData(new BasicDataReadRequest("missing", DataFormat.TEXT));
+            DataWriteResponse sharded = dataStore.writeData(new BasicResultWriteRequest(
+                "out", DataFormat.SHARDED, new int[]{1}, new String[]{"1"}, ", "));
+
+            assertEquals(RequestStatus.REJECTED, read.getStatus());
+            assertEquals(RequestStatus.REJECTED, sharded.getStatus());
+            assertThrows(NoSuchFileException.class, () -> backend.read("missing"));
+        }
+    }
+
+    @Test
+    void testReopenRebuildsIndexAndDropsTornTail() throws Exception {
+        // Arrange
+        try (LogStructuredStorageBackend backend = new LogStructuredStorageBackend(directory)) {
+            backend.write("a", bytes("first"));
+            backend.write("b", bytes("kept"));
+            backend.write("a", bytes("second"));
+            backend.write("c", bytes("deleted"));
+            assertTrue(backend.delete("c"));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        Files.write(segment, new byte[]{0, 1, 2, 3, 4, 5, 6}, StandardOpenOption.APPEND);
+        long intactSize = Files.size(segment) - 7;
+
+        // Act
+        try (LogStructuredStorageBackend backend = new LogStructuredStorageBackend(directory)) {
+            // Assert
+            assertEquals("second", string(backend.read("a")));
+            assertEquals("kept", string(backend.read("b")));
+            assertFalse(backend.contains("c"));
+            assertEquals(2, backend.size());
+            assertEquals(intactSize, Files.size(segment));
+        }
+    }
+
+    @Test
+    void testCompactionReclaimsOverwrittenSegments() throws Exception {
+        try (LogStructuredStorageBackend backend = new LogStructuredStorageBackend(directory, 4096, false)) {
+            // Arrange - rewrite the same keys until many segments are mostly dead
+            byte[] value = new byte[200];
+            for (int round = 0; round < 20; round++) {
+                for (int key = 0; key < 10; key++) {
+                    value[0] = (byte) round;
+                    backend.write("key-" + key, value);
+                }
+            }
+            int segmentsBefore = backend.getSegmentCount();
+            long bytesBefore = backend.getTotalBytes();
+
+            // Act
+            int reclaimed = backend.compact();
+
+            // Assert
+            assertTrue(reclaimed > 0);
+            assertTrue(backend.getSegmentCount() < segmentsBefore);
+            assertTrue(backend.getTotalBytes() < bytesBefore);
+            for (int key = 0; key < 10; key++) {
+                assertEquals(19, backend.read("key-" + key)[0]);
+            }
+        }
+
+        try (LogStructuredStorageBackend reopened = new LogStructuredStorageBackend(directory, 4096, false)) {
+            assertEquals(10, reopened.size());
+            assertEquals(19, reopened.read("key-9")[0]);
+        }
+    }
+
+    @Test
+    void testDefaultBackendStillUsesFiles() throws Exception {
+        Path output = directory.resolve("output.txt");
+        DataWriteResponse response = new EmptyDataStoreAPI().writeData(
+            new BasicDataWriteRequest(output.toString(), DataFormat.TEXT, "1=1"));
+
+        assertEquals(RequestStatus.ACCEPTED, response.getStatus());
+        assertEquals("1=1", Files.readString(output));
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,65 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import project.networkapi.BasicJobResultResponse;
+import project.networkapi.PackedResultCodec;
+import project.networkapi.RequestStatus;
+
+/**
+ * Tests for the packed wire form of job results.
+ */
+class TestPackedResultCodec {
+
+    @Test
+    void testResultsRoundTripAsDecimalAndText() {
+        // Arrange
+        int[] inputs = {0, 5, 20, -3, 7};
+        String[] results = {"1", "120", "2432902008176640000", "Error: negative input", ""};
+
+        // Act
+        int[] decodedInputs = PackedResultCodec.unpackInputs(ByteBuffer.wrap(PackedResultCodec.packInputs(inputs)));
+        String[] decodedResults = PackedResultCodec.unpackResults(
+            ByteBuffer.wrap(PackedResultCodec.packResults(results)), results.length);
+
+        // Assert
+        assertArrayEquals(inputs, decodedInputs);
+        assertArrayEquals(results, decodedResults);
+    }
+
+    @Test
+    void testDecimalResultsPackToHalfTheirText() {
+        char[] digits = new char[1001];
+        Arrays.fill(digits, '7');
+        String result = new String(digits);
+
+        byte[] packed = PackedResultCodec.packResults(new String[]{result});
+
+        assertTrue(packed.length <= result.getBytes(StandardCharsets.UTF_8).length / 2 + 3,
+            "Expected about half of " + result.length() + " bytes but got " + packed.length);
+    }
+
+    @Test
+    void testTruncatedResultsAreRejected() {
+        byte[] packed = PackedResultCodec.packResults(new String[]{"123456789"});
+
+        assertThrows(IllegalArgumentException.class,
+            () -> PackedResultCodec.unpackResults(ByteBuffer.wrap(packed, 0, packed.length - 1), 1));
+    }
+
+    @Test
+    void testResponseJoinsEntriesOnlyAsText() {
+        BasicJobResultResponse response = new BasicJobResultResponse(
+            RequestStatus.ACCEPTED, new int[]{3, 4}, new String[]{"6", "24"}, ", ", "done");
+
+        assertTrue(response.hasEntries());
+        assertEquals("3=6, 4=24", response.getResultData());
+    }
+}
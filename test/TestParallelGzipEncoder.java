@@ -0,0 +1,104 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import project.datastoreapi.BasicDataWriteRequest;
+import project.datastoreapi.DataFormat;
+import project.datastoreapi.DataWriteResponse;
+import project.datastoreapi.EmptyDataStoreAPI;
+import project.datastoreapi.ParallelGzipEncoder;
+import project.datastoreapi.RequestStatus;
+
+/**
+ * Tests that the parallel block compressor produces standard gzip output.
+ */
+class TestParallelGzipEncoder {
+
+    @Test
+    void testMultiBlockOutputIsReadableByGzipInputStream() throws Exception {
+        // Arrange - factorial digits spanning several 128 KB blocks
+        StringBuilder builder = new StringBuilder();
+        BigInteger factorial = BigInteger.ONE;
+        for (int i = 1; i <= 900; i++) {
+            factorial = factorial.multiply(BigInteger.valueOf(i));
+            builder.append(i).append('=').append(factorial).append(',');
+        }
+        byte[] original = builder.toString().getBytes(StandardCharsets.UTF_8);
+        assertTrue(original.length > 3 * 128 * 1024, "Input should span several blocks");
+
+        // Act
+        byte[] compressed = ParallelGzipEncoder.encode(original);
+
+        // Assert - round trip through the JDK gzip reader
+        assertEquals(new String(original, StandardCharsets.UTF_8), decompress(new ByteArrayInputStream(compressed)));
+        assertTrue(compressed.length < original.length / 2, "Digit strings should compress well");
+    }
+
+    @Test
+    void testStreamingOutputMatchesWholeInputEncoding() throws Exception {
+        // Arrange - exactly three blocks plus a partial one, written in uneven pieces
+        byte[] original = new byte[3 * 128 * 1024 + 1000];
+        for (int i = 0; i < original.length; i++) {
+            original[i] = (byte) ('0' + (i * 7 + i / 13) % 10);
+        }
+
+        // Act
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        try (OutputStream out = ParallelGzipEncoder.newOutputStream(streamed)) {
+            for (int offset = 0; offset < original.length; offset += 50_000) {
+                out.write(original, offset, Math.min(50_000, original.length - offset));
+            }
+        }
+
+        // Assert
+        assertArrayEquals(ParallelGzipEncoder.encode(original), streamed.toByteArray());
+        assertEquals(new String(original, StandardCharsets.UTF_8),
+            decompress(new ByteArrayInputStream(streamed.toByteArray())));
+    }
+
+    @Test
+    void testEmptyInputProducesValidStream() throws Exception {
+        byte[] compressed = ParallelGzipEncoder.encode(new byte[0]);
+
+        assertEquals("", decompress(new ByteArrayInputStream(compressed)));
+    }
+
+    @Test
+    void testDataStoreWritesGzipFormat() throws Exception {
+        // Arrange
+        EmptyDataStoreAPI dataStore = new EmptyDataStoreAPI();
+        String fileName = "test_compressed_output.txt";
+
+        // Act
+        DataWriteResponse response = dataStore.writeData(
+            new BasicDataWriteRequest(fileName, DataFormat.GZIP, "5=120,6=720"));
+
+        // Assert
+        assertEquals(RequestStatus.ACCEPTED, response.getStatus());
+        assertTrue(response.getMessage().contains("compressed"),
+                 "Message should confirm compressed write");
+        try (InputStream in = new FileInputStream(fileName)) {
+            assertEquals("5=120,6=720", decompress(in));
+        }
+
+        new File(fileName).delete();
+    }
+
+    private String decompress(InputStream in) throws Exception {
+        try (GZIPInputStream gzip = new GZIPInputStream(in)) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import com.google.protobuf.ByteString;
+
+import grpc.DataStoreServer;
+import grpc.GrpcDataStoreAPI;
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import project.datastoreapi.BasicDataReadRequest;
+import project.datastoreapi.BasicDataReadResponse;
+import project.datastoreapi.BasicDataStreamResponse;
+import project.datastoreapi.BasicDataWriteResponse;
+import project.datastoreapi.DataFormat;
+import project.datastoreapi.DataReadResponse;
+import project.datastoreapi.DataStoreAPI;
+import project.datastoreapi.DataStreamRequest;
+import project.datastoreapi.DataStreamResponse;
+import project.datastoreapi.DataWriteRequest;
+import project.datastoreapi.DataWriteResponse;
+import project.datastoreapi.EmptyDataStoreAPI;
+import project.datastoreapi.RequestStatus;
+import project.datastoreapi.VarintDeltaCodec;
+import proto.DataReadChunk;
+import proto.DataReadRequest;
+import proto.DataStoreServiceGrpc;
+
+/**
+ * Round trips of ReadDataStream between DataStoreServer and
+ * GrpcDataStoreAPI over an in-process channel.
+ */
+class TestReadDataStream {
+
+    private Path textFile;
+    private Path varintFile;
+    private Server server;
+    private GrpcDataStoreAPI client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        textFile = Files.createTempFile("read_stream", ".txt");
+        varintFile = Files.createTempFile("read_stream", VarintDeltaCodec.FILE_EXTENSION);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (client != null) {
+            client.shutdown();
+        }
+        if (server != null) {
+            server.shutdownNow();
+        }
+        Files.deleteIfExists(textFile);
+        Files.deleteIfExists(varintFile);
+    }
+
+    private GrpcDataStoreAPI connect(BindableService service) throws IOException {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name).addService(service).build().start();
+        client = new GrpcDataStoreAPI(InProcessChannelBuilder.forName(name).directExecutor().build());
+        return client;
+    }
+
+    private static int[] randomValues(int count, long seed) {
+        Random random = new Random(seed);
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = random.nextInt();
+        }
+        return values;
+    }
+
+    @Test
+    void testTextInputArrivesAsSeveralPackedChunks() throws Exception {
+        // Arrange - more than twice the integers of one chunk
+        int[] values = randomValues(150_000, 1);
+        StringBuilder text = new StringBuilder();
+        for (int value : values) {
+            text.append(value).append('\n');
+        }
+        Files.writeString(textFile, text);
+        GrpcDataStoreAPI api = connect(new DataStoreServer(new EmptyDataStoreAPI()));
+
+        // Act
+        DataReadResponse response = api.readData(new BasicDataReadRequest(textFile.toString(), DataFormat.TEXT));
+
+        // Assert
+        assertEquals(RequestStatus.ACCEPTED, response.getStatus(), response.getMessage());
+        assertArrayEquals(values, response.getData());
+        assertFalse(response.isSorted());
+    }
+
+    @Test
+    void testVarintDeltaInputArrivesAsSeveralRawChunks() throws Exception {
+        // Arrange - random values take about five bytes each, several chunks' worth
+        int[] values = randomValues(200_000, 2);
+        try (OutputStream out = Files.newOutputStream(varintFile)) {
+            VarintDeltaCodec.write(out, values, 1024);
+        }
+        GrpcDataStoreAPI api = connect(new DataStoreServer(new EmptyDataStoreAPI()));
+
+        // Act
+        DataReadResponse response = api.readData(
+            new BasicDataReadRequest(varintFile.toString(), DataFormat.VARINT_DELTA));
+
+        // Assert
+        assertEquals(RequestStatus.ACCEPTED, response.getStatus(), response.getMessage());
+        assertArrayEquals(values, response.getData());
+    }
+
+    @Test
+    void testSortedFlagOfVarintDeltaInputIsKept() throws Exception {
+        // Arrange
+        int[] values = new int[10_000];
+        for (int i = 1; i < values.length; i++) {
+            values[i] = values[i - 1] + i % 5;
+        }
+        try (OutputStream out = Files.newOutputStream(varintFile)) {
+            VarintDeltaCodec.write(out, values, 1024);
+        }
+        GrpcDataStoreAPI api = connect(new DataStoreServer(new EmptyDataStoreAPI()));
+
+        // Act
+        DataReadResponse response = api.readData(
+            new BasicDataReadRequest(varintFile.toString(), DataFormat.VARINT_DELTA));
+
+        // Assert
+        assertArrayEquals(values, response.getData());
+        assertTrue(response.isSorted());
+    }
+
+    @Test
+    void testRejectionIsSentWithoutData() throws Exception {
+        // Arrange
+        Files.writeString(textFile, "1\n2\nthree\n");
+        GrpcDataStoreAPI api = connect(new DataStoreServer(new EmptyDataStoreAPI()));
+
+        // Act
+        DataReadResponse response = api.readData(new BasicDataReadRequest(textFile.toString(), DataFormat.TEXT));
+
+        // Assert
+        assertEquals(RequestStatus.REJECTED, response.getStatus());
+        assertEquals("Invalid integer format in file", response.getMessage());
+        assertEquals(0, response.getData().length);
+    }
+
+    @Test
+    void testOtherDataStoresAreStreamedFromTheirResponse() throws Exception {
+        // Arrange - a store that only reads whole inputs
+        int[] values = randomValues(100_000, 3);
+        GrpcDataStoreAPI api = connect(new DataStoreServer(new FixedDataStore(values)));
+
+        // Act
+        DataReadResponse packed = api.readData(new BasicDataReadRequest("any", DataFormat.TEXT));
+        DataReadResponse encoded = api.readData(new BasicDataReadRequest("any", DataFormat.VARINT_DELTA));
+
+        // Assert
+        assertArrayEquals(values, packed.getData());
+        assertArrayEquals(values, encoded.getData());
+    }
+
+    @Test
+    void testCountDifferentFromAnnouncedIsRejected() throws Exception {
+        // Arrange
+        GrpcDataStoreAPI api = connect(new MiscountingService());
+
+        // Act
+        DataReadResponse packed = api.readData(new BasicDataReadRequest("input.txt", DataFormat.TEXT));
+        DataReadResponse raw = api.readData(new BasicDataReadRequest("input.vdelta", DataFormat.VARINT_DELTA));
+
+        // Assert
+        for (DataReadResponse response : new DataReadResponse[] {packed, raw}) {
+            assertEquals(RequestStatus.REJECTED, response.getStatus());
+            assertTrue(response.getMessage().contains("different number of integers"), response.getMessage());
+            assertEquals(0, response.getData().length);
+        }
+    }
+
+    /** Announces five integers but sends three, packed or encoded as the request asks */
+    private static final class MiscountingService extends DataStoreServiceGrpc.DataStoreServiceImplBase {
+        @Override
+        public void readDataStream(DataReadRequest request, StreamObserver<DataReadChunk> observer) {
+            int[] sent = {1, 2, 3};
+            DataReadChunk.Builder chunk = DataReadChunk.newBuilder()
+                .setStatus(RequestStatus.ACCEPTED.toString())
+                .setMessage("Successfully read 5 integers")
+                .setTotalCount(5);
+            if (request.getFormat().equals(DataFormat.VARINT_DELTA.name())) {
+                chunk.setRaw(ByteString.copyFrom(VarintDeltaCodec.encode(sent)));
+            } else {
+                ByteBuffer packed = ByteBuffer.allocate(sent.length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                packed.asIntBuffer().put(sent);
+                chunk.setPackedInts(ByteString.copyFrom(packed.array()));
+            }
+            observer.onNext(chunk.build());
+            observer.onCompleted();
+        }
+    }
+
+    /** Returns the same values for every read */
+    private static final class FixedDataStore implements DataStoreAPI {
+        private final int[] values;
+
+        FixedDataStore(int[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public DataReadResponse readData(project.datastoreapi.DataReadRequest request) {
+            return new BasicDataReadResponse(RequestStatus.ACCEPTED, "Fixed values", values);
+        }
+
+        @Override
+        public DataWriteResponse writeData(DataWriteRequest request) {
+            return new BasicDataWriteResponse(RequestStatus.REJECTED, "Read only");
+        }
+
+        @Override
+        public DataStreamResponse configureStream(DataStreamRequest request) {
+            return new BasicDataStreamResponse(RequestStatus.REJECTED, "Read only", request.getMode(), 0);
+        }
+    }
+}
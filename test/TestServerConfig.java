@@ -0,0 +1,145 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import grpc.GrpcDataStoreAPI;
+import grpc.ServerConfig;
+
+/**
+ * Tests for reading server settings from a properties file and system
+ * properties.
+ */
+class TestServerConfig {
+
+    private static final String PREFIX = "test.server.";
+
+    private Path file;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith(PREFIX)) {
+                System.clearProperty(name);
+            }
+        }
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testUnsetKeysKeepDefaults() throws IOException {
+        // Act
+        ServerConfig config = ServerConfig.load(PREFIX, 50051);
+
+        // Assert
+        assertEquals(50051, config.getPort());
+        assertEquals(ServerConfig.ExecutorMode.DEFAULT, config.getExecutorMode());
+        assertEquals(ServerConfig.DataStoreMode.REMOTE, config.getDataStoreMode());
+        assertEquals("localhost", config.getDataStoreHost());
+        assertEquals(50052, config.getDataStorePort());
+        assertEquals(GrpcDataStoreAPI.DEFAULT_MAX_IN_FLIGHT, config.getDataStoreMaxInFlight());
+        assertEquals("port=50051, executor=default", config.toString());
+    }
+
+    @Test
+    void testSystemPropertiesOverrideTheFile() throws IOException {
+        // Arrange
+        file = Files.createTempFile("server", ".properties");
+        Files.writeString(file, "port=6000\nexecutor=virtual\ndatastore=inprocess\ndatastore.max.in.flight=8\n");
+        System.setProperty(PREFIX + "config", file.toString());
+        System.setProperty(PREFIX + "port", "7000");
+        System.setProperty(PREFIX + "executor", " Bounded ");
+        // Keys for another server are not read
+        System.setProperty("other.server.port", "8000");
+
+        try {
+            // Act
+            ServerConfig config = ServerConfig.load(PREFIX, 50051);
+
+            // Assert
+            assertEquals(7000, config.getPort());
+            assertEquals(ServerConfig.ExecutorMode.BOUNDED, config.getExecutorMode());
+            assertEquals(ServerConfig.DataStoreMode.INPROCESS, config.getDataStoreMode());
+            assertEquals(8, config.getDataStoreMaxInFlight());
+        } finally {
+            System.clearProperty("other.server.port");
+        }
+    }
+
+    @Test
+    void testToStringListsTheSettingsInUse() throws IOException {
+        // Arrange
+        System.setProperty(PREFIX + "executor", "bounded");
+        System.setProperty(PREFIX + "executor.threads", "6");
+        System.setProperty(PREFIX + "boss.threads", "1");
+        System.setProperty(PREFIX + "worker.threads", "4");
+        System.setProperty(PREFIX + "max.inbound.message.bytes", "1048576");
+        System.setProperty(PREFIX + "flow.control.window.bytes", "65536");
+
+        // Act
+        String description = ServerConfig.load(PREFIX, 50051).toString();
+
+        // Assert
+        assertEquals("port=50051, executor=bounded(6), event loops=1/4, max inbound=1048576, window=65536",
+                description);
+    }
+
+    @Test
+    void testInvalidEnumIsRejected() {
+        System.setProperty(PREFIX + "executor", "unbounded");
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> ServerConfig.load(PREFIX, 50051));
+        assertTrue(e.getMessage().contains(PREFIX + "executor"), e.getMessage());
+    }
+
+    @Test
+    void testInvalidDataStoreModeIsRejected() {
+        System.setProperty(PREFIX + "datastore", "shared");
+
+        assertThrows(IllegalArgumentException.class, () -> ServerConfig.load(PREFIX, 50051));
+    }
+
+    @Test
+    void testNegativeAndNonNumericValuesAreRejected() {
+        System.setProperty(PREFIX + "max.inbound.message.bytes", "-1");
+        assertThrows(IllegalArgumentException.class, () -> ServerConfig.load(PREFIX, 50051));
+
+        System.setProperty(PREFIX + "max.inbound.message.bytes", "lots");
+        assertThrows(IllegalArgumentException.class, () -> ServerConfig.load(PREFIX, 50051));
+    }
+
+    @Test
+    void testZeroThreadsAreRejected() {
+        for (String key : new String[] {"executor.threads", "datastore.threads", "datastore.max.in.flight"}) {
+            System.setProperty(PREFIX + key, "0");
+
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> ServerConfig.load(PREFIX, 50051), key);
+            assertTrue(e.getMessage().contains(PREFIX + key), e.getMessage());
+
+            System.clearProperty(PREFIX + key);
+        }
+    }
+
+    @Test
+    void testZeroKeepsTheTransportDefault() throws IOException {
+        // Arrange - 0 means "not set" for transport sizes, unlike thread counts
+        System.setProperty(PREFIX + "max.inbound.message.bytes", "0");
+        System.setProperty(PREFIX + "boss.threads", "0");
+
+        // Act
+        ServerConfig config = ServerConfig.load(PREFIX, 50051);
+
+        // Assert
+        assertEquals("port=50051, executor=default", config.toString());
+    }
+}
@@ -0,0 +1,170 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
+
+import project.datastoreapi.BasicDataWriteRequest;
+import project.datastoreapi.BasicResultWriteRequest;
+import project.datastoreapi.DataFormat;
+import project.datastoreapi.DataWriteResponse;
+import project.datastoreapi.EmptyDataStoreAPI;
+import project.datastoreapi.RequestStatus;
+import project.datastoreapi.ShardManifest;
+import project.datastoreapi.ShardedResultReader;
+
+/**
+ * Tests for SHARDED output: parallel shard writers, the manifest and the reader.
+ */
+class TestShardedOutput {
+
+    private Path directory;
+    private Path destination;
+    private EmptyDataStoreAPI dataStore;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        directory = Files.createTempDirectory("sharded_output");
+        destination = directory.resolve("results.txt");
+        dataStore = new EmptyDataStoreAPI();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void testShardsJoinToSingleFileText() throws Exception {
+        // Arrange - 10 entries over 3 shards splits as 4/3/3
+        BasicResultWriteRequest request = request(10);
+        dataStore.setShardCount(3);
+
+        // Act
+        DataWriteResponse response = dataStore.writeData(request);
+
+        // Assert
+        assertEquals(RequestStatus.ACCEPTED, response.getStatus());
+        ShardedResultReader reader = new ShardedResultReader(destination);
+        ShardManifest manifest = reader.getManifest();
+        assertEquals(3, manifest.getShardCount());
+        assertEquals(10, manifest.getEntryCount());
+        assertEquals(0, manifest.getShards().get(0).getFirstPosition());
+        assertEquals(4, manifest.getShards().get(1).getFirstPosition());
+        assertEquals(7, manifest.getShards().get(2).getFirstPosition());
+        assertEquals("0=1, 1=1, 2=2, 3=6", reader.readShard(0));
+        assertEquals(request.getData(), reader.readAll());
+    }
+
+    @Test
+    void testShardsCanBeConsumedInParallel() throws Exception {
+        dataStore.setShardCount(4);
+        dataStore.writeData(request(40));
+        ShardedResultReader reader = new ShardedResultReader(destination);
+        ConcurrentHashMap<Integer, Integer> entriesByShard = new ConcurrentHashMap<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            reader.forEachShard(executor, (shard, text) ->
+                entriesByShard.put(shard.getFirstPosition(), text.split(", ").length));
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(4, entriesByShard.size());
+        assertEquals(40, entriesByShard.values().stream().mapToInt(Integer::intValue).sum());
+    }
+
+    @Test
+    void testNoMoreShardsThanEntries() throws Exception {
+        dataStore.setShardCount(8);
+
+        dataStore.writeData(request(2));
+
+        assertEquals(2, new ShardedResultReader(destination).getManifest().getShardCount());
+    }
+
+    @Test
+    void testRewriteReplacesPreviousGeneration() throws Exception {
+        // Arrange - an existing output with more shards than the rewrite
+        dataStore.setShardCount(3);
+        dataStore.writeData(request(9));
+        dataStore.setShardCount(2);
+        BasicResultWriteRequest rewrite = request(5);
+
+        // Act
+        DataWriteResponse response = dataStore.writeData(rewrite);
+
+        // Assert - only the manifest and the new shards remain
+        assertEquals(RequestStatus.ACCEPTED, response.getStatus());
+        assertEquals(rewrite.getData(), new ShardedResultReader(destination).readAll());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(3, files.count(), "Shards of the previous write should be deleted");
+        }
+    }
+
+    @Test
+    void testFailedRewriteKeepsPreviousOutput() throws Exception {
+        // Arrange - a rewrite whose second shard cannot be written
+        dataStore.setShardCount(2);
+        BasicResultWriteRequest original = request(6);
+        dataStore.writeData(original);
+        BasicResultWriteRequest broken = request(6);
+        broken.getResults()[5] = null;
+
+        // Act
+        DataWriteResponse response = dataStore.writeData(broken);
+
+        // Assert - the old manifest still describes complete shards, and nothing new is left over
+        assertEquals(RequestStatus.REJECTED, response.getStatus());
+        assertEquals(original.getData(), new ShardedResultReader(destination).readAll());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(3, files.count());
+        }
+    }
+
+    @Test
+    void testShardedFormatRequiresResultRequest() {
+        DataWriteResponse response = dataStore.writeData(
+            new BasicDataWriteRequest(destination.toString(), DataFormat.SHARDED, "1, 2"));
+
+        assertEquals(RequestStatus.REJECTED, response.getStatus());
+        assertTrue(response.getMessage().contains("Sharded output"));
+    }
+
+    @Test
+    void testTruncatedShardIsDetected() throws Exception {
+        dataStore.setShardCount(2);
+        dataStore.writeData(request(6));
+        ShardedResultReader reader = new ShardedResultReader(destination);
+        Path firstShard = reader.getManifest().resolve(destination, reader.getManifest().getShards().get(0));
+        Files.writeString(firstShard, "0=1");
+
+        assertThrows(IOException.class, () -> reader.readShard(0));
+    }
+
+    private BasicResultWriteRequest request(int count) {
+        int[] inputs = new int[count];
+        String[] results = new String[count];
+        long factorial = 1;
+        for (int i = 0; i < count; i++) {
+            factorial = i == 0 ? 1 : factorial * i;
+            inputs[i] = i;
+            results[i] = Long.toString(factorial);
+        }
+        return new BasicResultWriteRequest(destination.toString(), DataFormat.SHARDED, inputs, results, ", ");
+    }
+}
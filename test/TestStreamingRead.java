@@ -0,0 +1,211 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import project.datastoreapi.BasicDataReadRequest;
+import project.datastoreapi.BasicDataReadResponse;
+import project.datastoreapi.DataFormat;
+import project.datastoreapi.EmptyDataStoreAPI;
+import project.datastoreapi.RequestStatus;
+import project.datastoreapi.StreamingRead;
+import project.datastoreapi.VarintDeltaCodec;
+
+/**
+ * Tests for reads handed out in pieces, as ReadDataStream sends them.
+ */
+class TestStreamingRead {
+
+    // Small pieces, so even modest inputs take many reads
+    private static final int PIECE_BYTES = 4096;
+
+    private Path textFile;
+    private Path varintFile;
+    private EmptyDataStoreAPI dataStore;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        textFile = Files.createTempFile("streaming_read", ".txt");
+        varintFile = Files.createTempFile("streaming_read", VarintDeltaCodec.FILE_EXTENSION);
+        dataStore = new EmptyDataStoreAPI();
+        // Every read goes to the file rather than a previous read's cached values
+        dataStore.setInputCache(null);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Files.deleteIfExists(textFile);
+        Files.deleteIfExists(varintFile);
+    }
+
+    private static int[] randomValues(int count, long seed) {
+        Random random = new Random(seed);
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = random.nextInt();
+        }
+        return values;
+    }
+
+    private void writeText(int[] values) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int value : values) {
+            text.append(value).append(',');
+        }
+        Files.writeString(textFile, text);
+    }
+
+    /** Take every piece of a read, returning the bytes; pieces are checked to be whole values */
+    private static byte[] drain(StreamingRead read) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteBuffer piece = ByteBuffer.allocate(PIECE_BYTES);
+        int length;
+        while ((length = read.read(piece)) >= 0) {
+            if (!read.isEncoded()) {
+                assertEquals(0, length % Integer.BYTES, "Pieces hold whole values");
+            }
+            out.write(piece.array(), 0, length);
+            piece.clear();
+        }
+        return out.toByteArray();
+    }
+
+    private static int[] unpack(byte[] packed) {
+        IntBuffer values = ByteBuffer.wrap(packed).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        int[] data = new int[values.remaining()];
+        values.get(data);
+        return data;
+    }
+
+    @Test
+    void testTextFileIsCountedThenTokenizedPieceByPiece() throws Exception {
+        // Arrange - far more values than fit in one I/O buffer or one piece
+        int[] values = randomValues(100_000, 1);
+        writeText(values);
+
+        // Act
+        int[] streamed;
+        try (StreamingRead read = dataStore.openStreamingRead(
+                new BasicDataReadRequest(textFile.toString(), DataFormat.TEXT, ","))) {
+            assertEquals(RequestStatus.ACCEPTED, read.getStatus());
+            assertEquals(values.length, read.getTotalCount());
+            assertFalse(read.isEncoded());
+            streamed = unpack(drain(read));
+        }
+
+        // Assert
+        assertArrayEquals(values, streamed);
+    }
+
+    @Test
+    void testVarintDeltaFileIsPassedOnEncoded() throws Exception {
+        // Arrange
+        int[] values = new int[30_000];
+        for (int i = 1; i < values.length; i++) {
+            values[i] = values[i - 1] + i % 7;
+        }
+        try (OutputStream out = Files.newOutputStream(varintFile)) {
+            VarintDeltaCodec.write(out, values, 1024);
+        }
+
+        // Act
+        byte[] encoded;
+        try (StreamingRead read = dataStore.openStreamingRead(
+                new BasicDataReadRequest(varintFile.toString(), DataFormat.VARINT_DELTA))) {
+            assertEquals(RequestStatus.ACCEPTED, read.getStatus());
+            assertEquals(values.length, read.getTotalCount());
+            assertTrue(read.isSorted());
+            assertTrue(read.isEncoded());
+            encoded = drain(read);
+        }
+
+        // Assert - the file's bytes, which decode to the values
+        assertArrayEquals(Files.readAllBytes(varintFile), encoded);
+        assertArrayEquals(values, VarintDeltaCodec.decode(ByteBuffer.wrap(encoded)));
+    }
+
+    @Test
+    void testMalformedTextIsRejectedBeforeAnyData() throws Exception {
+        // Arrange - the bad value comes after several pieces' worth of good ones
+        int[] values = randomValues(20_000, 2);
+        writeText(values);
+        Files.writeString(textFile, "12x", StandardOpenOption.APPEND);
+
+        // Act
+        try (StreamingRead read = dataStore.openStreamingRead(
+                new BasicDataReadRequest(textFile.toString(), DataFormat.TEXT, ","))) {
+
+            // Assert
+            assertEquals(RequestStatus.REJECTED, read.getStatus());
+            assertEquals("Invalid integer format in file", read.getMessage());
+            assertEquals(0, read.getTotalCount());
+            assertEquals(0, drain(read).length);
+        }
+    }
+
+    @Test
+    void testMissingFileIsRejected() {
+        StreamingRead read = dataStore.openStreamingRead(
+            new BasicDataReadRequest(textFile.resolveSibling("missing_input.txt").toString(), DataFormat.TEXT));
+
+        assertEquals(RequestStatus.REJECTED, read.getStatus());
+        assertTrue(read.getMessage().startsWith("Error reading file"), read.getMessage());
+    }
+
+    @Test
+    void testRequestsReadDataRefusesGetItsResponse() {
+        StreamingRead read = dataStore.openStreamingRead(
+            new BasicDataReadRequest("input.csv", DataFormat.TEXT));
+
+        assertEquals(RequestStatus.REJECTED, read.getStatus());
+        assertEquals("Only .txt files are supported", read.getMessage());
+    }
+
+    @Test
+    void testFileThatGrowsDuringTheReadFails() throws Exception {
+        // Arrange
+        int[] values = randomValues(50_000, 3);
+        writeText(values);
+        StreamingRead read = dataStore.openStreamingRead(
+            new BasicDataReadRequest(textFile.toString(), DataFormat.TEXT, ","));
+        assertEquals(values.length, read.getTotalCount());
+
+        // Act - values are appended after the read was counted
+        Files.writeString(textFile, "1,2,3,", StandardOpenOption.APPEND);
+
+        // Assert
+        assertThrows(IOException.class, () -> drain(read));
+        read.close();
+    }
+
+    @Test
+    void testResponseInMemoryIsStreamedEitherWay() throws Exception {
+        // Arrange
+        int[] values = randomValues(5_000, 4);
+        BasicDataReadResponse response = new BasicDataReadResponse(RequestStatus.ACCEPTED, "ok", values);
+
+        // Act
+        int[] packed = unpack(drain(StreamingRead.of(response, false)));
+        int[] decoded = VarintDeltaCodec.decode(ByteBuffer.wrap(drain(StreamingRead.of(response, true))));
+
+        // Assert
+        assertArrayEquals(values, packed);
+        assertArrayEquals(values, decoded);
+    }
+}
@@ -0,0 +1,118 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+
+import project.datastoreapi.BasicDataStreamRequest;
+import project.datastoreapi.DataFormat;
+import project.datastoreapi.DataStreamMode;
+import project.datastoreapi.DataWriteResponse;
+import project.datastoreapi.EmptyDataStoreAPI;
+import project.datastoreapi.RequestStatus;
+import project.datastoreapi.StreamingWrite;
+
+/**
+ * Tests for chunked writes that are verified and published on commit.
+ */
+class TestStreamingWrite {
+
+    private Path directory;
+    private Path destination;
+    private EmptyDataStoreAPI dataStore;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        directory = Files.createTempDirectory("streaming_write");
+        destination = directory.resolve("output.txt");
+        dataStore = new EmptyDataStoreAPI();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Files.deleteIfExists(destination);
+        Files.deleteIfExists(directory);
+    }
+
+    @Test
+    void testChunksArePublishedOnMatchingCommit() throws Exception {
+        // Arrange
+        byte[] first = "1=1, 2=2".getBytes(StandardCharsets.UTF_8);
+        byte[] second = ", 3=6".getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(first);
+        crc.update(second);
+
+        // Act
+        DataWriteResponse response;
+        try (StreamingWrite write = dataStore.openStreamingWrite(destination.toString(), DataFormat.TEXT)) {
+            write.write(first);
+            write.write(second);
+            assertTrue(Files.notExists(destination), "Nothing should be visible before the commit");
+            response = write.commit(first.length + second.length, (int) crc.getValue());
+        }
+
+        // Assert
+        assertEquals(RequestStatus.ACCEPTED, response.getStatus());
+        assertEquals("1=1, 2=2, 3=6", Files.readString(destination));
+    }
+
+    @Test
+    void testChecksumMismatchKeepsPreviousOutput() throws Exception {
+        Files.writeString(destination, "previous");
+
+        DataWriteResponse response;
+        try (StreamingWrite write = dataStore.openStreamingWrite(destination.toString(), DataFormat.TEXT)) {
+            write.write("1=1".getBytes(StandardCharsets.UTF_8));
+            response = write.commit(3, 0);
+        }
+
+        assertEquals(RequestStatus.REJECTED, response.getStatus());
+        assertEquals("previous", Files.readString(destination));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count(), "The temporary file should be removed");
+        }
+    }
+
+    @Test
+    void testStreamModePublishesThroughWriteBehind() throws Exception {
+        // Arrange - STREAM mode and a compressed destination
+        dataStore.configureStream(new BasicDataStreamRequest(DataStreamMode.STREAM, 4096, DataFormat.TEXT));
+        byte[] data = "1=1, 2=2, 3=6".getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(data);
+
+        // Act
+        DataWriteResponse response;
+        try (StreamingWrite write = dataStore.openStreamingWrite(destination.toString(), DataFormat.GZIP)) {
+            write.write(data);
+            response = write.commit(data.length, (int) crc.getValue());
+        }
+        dataStore.flush();
+
+        // Assert - the queued publication has landed and is valid gzip
+        assertEquals(RequestStatus.ACCEPTED, response.getStatus());
+        try (GZIPInputStream in = new GZIPInputStream(Files.newInputStream(destination))) {
+            assertEquals("1=1, 2=2, 3=6", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count(), "The temporary file should be renamed away");
+        }
+        dataStore.shutdown();
+    }
+
+    @Test
+    void testStructuredFormatsCannotBeStreamed() {
+        assertThrows(IllegalArgumentException.class,
+            () -> dataStore.openStreamingWrite(destination.toString(), DataFormat.SHARDED));
+    }
+}
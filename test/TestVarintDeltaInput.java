@@ -0,0 +1,103 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import project.datastoreapi.BasicDataReadRequest;
+import project.datastoreapi.DataFormat;
+import project.datastoreapi.DataReadResponse;
+import project.datastoreapi.EmptyDataStoreAPI;
+import project.datastoreapi.RequestStatus;
+import project.datastoreapi.VarintDeltaCodec;
+
+/**
+ * Tests for the VARINT_DELTA input format and its parallel block decoder.
+ */
+class TestVarintDeltaInput {
+
+    private Path inputFile;
+    private EmptyDataStoreAPI dataStore;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        inputFile = Files.createTempFile("sorted_input", VarintDeltaCodec.FILE_EXTENSION);
+        dataStore = new EmptyDataStoreAPI();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Files.deleteIfExists(inputFile);
+    }
+
+    @Test
+    void testSortedBatchRoundTripsAndIsFlagged() throws Exception {
+        // Arrange - sorted values with small gaps across many blocks
+        int[] values = new int[50_000];
+        Random random = new Random(7);
+        for (int i = 1; i < values.length; i++) {
+            values[i] = values[i - 1] + random.nextInt(20);
+        }
+        try (OutputStream out = Files.newOutputStream(inputFile)) {
+            VarintDeltaCodec.write(out, values, 1024);
+        }
+
+        // Act
+        DataReadResponse response = dataStore.readData(
+            new BasicDataReadRequest(inputFile.toString(), DataFormat.VARINT_DELTA));
+
+        // Assert
+        assertEquals(RequestStatus.ACCEPTED, response.getStatus());
+        assertArrayEquals(values, response.getData());
+        assertTrue(response.isSorted(), "Sorted batch should be reported as sorted");
+        assertTrue(Files.size(inputFile) < values.length * 2L, "Encoding should take under two bytes per value");
+    }
+
+    @Test
+    void testUnsortedValuesAndExtremesRoundTrip() throws Exception {
+        int[] values = {5, -3, Integer.MAX_VALUE, Integer.MIN_VALUE, 0, 0, 42};
+
+        ByteBuffer encoded = ByteBuffer.wrap(VarintDeltaCodec.encode(values));
+
+        assertArrayEquals(values, VarintDeltaCodec.decode(encoded));
+        assertFalse(VarintDeltaCodec.isSorted(encoded));
+    }
+
+    @Test
+    void testEmptyBatch() throws Exception {
+        ByteBuffer encoded = ByteBuffer.wrap(VarintDeltaCodec.encode(new int[0]));
+
+        assertEquals(0, VarintDeltaCodec.decode(encoded).length);
+        assertTrue(VarintDeltaCodec.isSorted(encoded));
+    }
+
+    @Test
+    void testCorruptFileIsRejected() throws Exception {
+        byte[] encoded = VarintDeltaCodec.encode(new int[]{1, 2, 3, 4000, 5000});
+        Files.write(inputFile, Arrays.copyOf(encoded, encoded.length - 2));
+
+        DataReadResponse response = dataStore.readData(
+            new BasicDataReadRequest(inputFile.toString(), DataFormat.VARINT_DELTA));
+
+        assertEquals(RequestStatus.REJECTED, response.getStatus());
+    }
+
+    @Test
+    void testTextFilesAreNotAcceptedAsVarintDelta() {
+        DataReadResponse response = dataStore.readData(
+            new BasicDataReadRequest("input.txt", DataFormat.VARINT_DELTA));
+
+        assertEquals(RequestStatus.REJECTED, response.getStatus());
+        assertTrue(response.getMessage().contains(VarintDeltaCodec.FILE_EXTENSION));
+    }
+}
@@ -0,0 +1,252 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+
+import project.datastoreapi.BasicDataStreamRequest;
+import project.datastoreapi.BasicDataWriteRequest;
+import project.datastoreapi.DataFormat;
+import project.datastoreapi.DataStreamMode;
+import project.datastoreapi.DataWriteResponse;
+import project.datastoreapi.EmptyDataStoreAPI;
+import project.datastoreapi.FsyncPolicy;
+import project.datastoreapi.RequestStatus;
+import project.datastoreapi.WriteBehindWriter;
+
+/**
+ * Tests for the write-behind writer used by EmptyDataStoreAPI in STREAM mode.
+ */
+class TestWriteBehindWriter {
+
+    private Path tempFile;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        tempFile = Files.createTempFile("write_behind", ".txt");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Files.deleteIfExists(tempFile);
+    }
+
+    @Test
+    void testAppendsAreCoalescedInOrder() throws Exception {
+        // Arrange - small queue and buffer so writes are grouped and split
+        WriteBehindWriter writer = new WriteBehindWriter(8, 16, FsyncPolicy.ON_COMPLETION);
+        StringBuilder expected = new StringBuilder();
+
+        // Act - one truncating write followed by many small appends
+        writer.submit(tempFile, "start;".getBytes(StandardCharsets.UTF_8), false);
+        expected.append("start;");
+        for (int i = 0; i < 50; i++) {
+            String part = i + "=" + (i * i) + ";";
+            writer.submit(tempFile, part.getBytes(StandardCharsets.UTF_8), true);
+            expected.append(part);
+        }
+        writer.close();
+
+        // Assert - contents arrive in submission order
+        assertEquals(expected.toString(), Files.readString(tempFile),
+                    "Coalesced writes should preserve submission order");
+        assertEquals(51, writer.getSubmittedWrites());
+        assertTrue(writer.getPhysicalWrites() > 0, "At least one physical write should be issued");
+    }
+
+    @Test
+    void testTruncatingWriteReplacesContent() throws Exception {
+        // Arrange
+        WriteBehindWriter writer = new WriteBehindWriter(4, 1024, FsyncPolicy.NONE);
+
+        // Act
+        writer.submit(tempFile, "first version".getBytes(StandardCharsets.UTF_8), false);
+        writer.submit(tempFile, "second".getBytes(StandardCharsets.UTF_8), false).get();
+        writer.close();
+
+        // Assert - the later full write wins
+        assertEquals("second", Files.readString(tempFile));
+    }
+
+    @Test
+    void testWritesAcceptedDuringCloseAreCompleted() throws Exception {
+        // Arrange - producers keep appending while the writer is closed
+        WriteBehindWriter writer = new WriteBehindWriter(4, 64, FsyncPolicy.NONE);
+        List<CompletableFuture<Void>> accepted = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < 4; p++) {
+            Thread producer = new Thread(() -> {
+                try {
+                    while (true) {
+                        accepted.add(writer.submit(tempFile, "x".getBytes(StandardCharsets.UTF_8), true));
+                    }
+                } catch (IllegalStateException | InterruptedException e) {
+                    // Closed
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+
+        // Act
+        Thread.sleep(50);
+        writer.close();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        // Assert - every accepted write reached the file
+        for (CompletableFuture<Void> write : accepted) {
+            write.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(accepted.size(), Files.size(tempFile));
+    }
+
+    @Test
+    void testFlushAndSubmitAfterCloseFail() throws Exception {
+        WriteBehindWriter writer = new WriteBehindWriter(4, 64, FsyncPolicy.NONE);
+        writer.close();
+
+        assertThrows(IllegalStateException.class, writer::flush);
+        assertThrows(IllegalStateException.class,
+            () -> writer.submit(tempFile, new byte[]{1}, true));
+    }
+
+    @Test
+    void testStreamModeQueuesWritesInDataStore() throws Exception {
+        // Arrange - STREAM mode enables write-behind in the data store
+        EmptyDataStoreAPI dataStore = new EmptyDataStoreAPI();
+        dataStore.setFsyncPolicy(FsyncPolicy.PERIODIC);
+        dataStore.configureStream(new BasicDataStreamRequest(DataStreamMode.STREAM, 4096, DataFormat.TEXT));
+
+        // Act
+        DataWriteResponse response = dataStore.writeData(
+            new BasicDataWriteRequest(tempFile.toString(), DataFormat.TEXT, "5=120,3=6"));
+        dataStore.flush();
+
+        // Assert
+        assertEquals(RequestStatus.ACCEPTED, response.getStatus(),
+                    "Queued write should be accepted");
+        assertTrue(response.getMessage().contains("write-behind"),
+                 "Message should indicate the write was queued");
+        assertEquals("5=120,3=6", Files.readString(tempFile));
+
+        dataStore.shutdown();
+    }
+
+    @Test
+    void testStreamModeWriteCompletesWhenDataIsOnDisk() throws Exception {
+        // Arrange
+        EmptyDataStoreAPI dataStore = new EmptyDataStoreAPI();
+        dataStore.configureStream(new BasicDataStreamRequest(DataStreamMode.STREAM, 4096, DataFormat.TEXT));
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            data.append(i).append('=').append(i * 2).append(',');
+        }
+
+        // Act - a payload several times the coalescing buffer, no flush
+        DataWriteResponse response = dataStore.writeDataAsync(
+            new BasicDataWriteRequest(tempFile.toString(), DataFormat.TEXT, data.toString()))
+            .get(10, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(RequestStatus.ACCEPTED, response.getStatus());
+        assertEquals(data.toString(), Files.readString(tempFile));
+
+        dataStore.shutdown();
+    }
+
+    @Test
+    void testStreamModeWriteFailureIsReported() throws Exception {
+        // Arrange - the destination directory does not exist
+        EmptyDataStoreAPI dataStore = new EmptyDataStoreAPI();
+        dataStore.configureStream(new BasicDataStreamRequest(DataStreamMode.STREAM, 4096, DataFormat.TEXT));
+        Path missing = tempFile.resolveSibling("no_such_dir_" + System.nanoTime()).resolve("out.txt");
+
+        // Act
+        DataWriteResponse response = dataStore.writeData(
+            new BasicDataWriteRequest(missing.toString(), DataFormat.TEXT, "5=120"));
+
+        // Assert
+        assertEquals(RequestStatus.REJECTED, response.getStatus(),
+                    "A failed write-behind write should not be reported as accepted");
+        assertTrue(response.getMessage().startsWith("Error writing file"));
+
+        dataStore.shutdown();
+    }
+
+    @Test
+    void testWritesDuringReconfigurationAreNotLost() throws Exception {
+        // Arrange - reconfiguring closes and replaces the write-behind writer while writes are in flight
+        EmptyDataStoreAPI dataStore = new EmptyDataStoreAPI();
+        dataStore.configureStream(new BasicDataStreamRequest(DataStreamMode.STREAM, 4096, DataFormat.TEXT));
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Thread reconfigure = new Thread(() -> {
+            FsyncPolicy[] policies = {FsyncPolicy.PERIODIC, FsyncPolicy.NONE};
+            for (int i = 0; writing.get(); i++) {
+                try {
+                    dataStore.setFsyncPolicy(policies[i % 2]);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        reconfigure.start();
+
+        // Act - several writers, each to its own file
+        String padding = "0123456789".repeat(20 * 1024);
+        int writers = 4;
+        List<Path> files = new ArrayList<>();
+        List<CompletableFuture<List<DataWriteResponse>>> results = new ArrayList<>();
+        try {
+            for (int w = 0; w < writers; w++) {
+                // Compressing each payload widens the gap between picking the writer and queueing to it
+                Path file = Files.createTempFile("write_behind_reconfigure", ".gz");
+                files.add(file);
+                results.add(CompletableFuture.supplyAsync(() -> {
+                    List<DataWriteResponse> responses = new ArrayList<>();
+                    for (int i = 0; i < 100; i++) {
+                        responses.add(dataStore.writeData(
+                            new BasicDataWriteRequest(file.toString(), DataFormat.TEXT, padding + "write " + i)));
+                    }
+                    return responses;
+                }));
+            }
+            CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).get(60, TimeUnit.SECONDS);
+        } finally {
+            writing.set(false);
+            reconfigure.join();
+        }
+
+        // Assert
+        try {
+            for (int w = 0; w < writers; w++) {
+                for (DataWriteResponse response : results.get(w).get()) {
+                    assertEquals(RequestStatus.ACCEPTED, response.getStatus(), response.getMessage());
+                }
+                try (InputStream in = new GZIPInputStream(Files.newInputStream(files.get(w)))) {
+                    assertEquals(padding + "write 99", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                }
+            }
+        } finally {
+            dataStore.shutdown();
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}